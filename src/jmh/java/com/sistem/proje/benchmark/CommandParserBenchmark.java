@@ -0,0 +1,108 @@
+package com.sistem.proje.benchmark;
+
+import com.sistem.proje.protocol.ByteCommandParser;
+import com.sistem.proje.protocol.Command;
+import com.sistem.proje.protocol.CommandParseException;
+import com.sistem.proje.protocol.CommandParser;
+import com.sistem.proje.protocol.ParsedCommand;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * CommandParser benchmark'ı
+ * SET satırında payload boyutu parse maliyetini (regex split, trim, büyük harfe çevirme) doğrudan etkiler;
+ * GET ve hatalı satır sabit maliyetli yolları ölçer. byte* benchmark'ları aynı satırları lider bağlantısının
+ * kullandığı ByteCommandParser ile socket'ten okunmuş byte'lar üzerinde parse eder (-prof gc ile 0 B/op beklenir)
+ * <pre>
+ * java -jar target/benchmarks.jar CommandParserBenchmark -prof gc
+ * </pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class CommandParserBenchmark {
+
+    @Param({"16", "1024", "65536"})
+    public int payloadSize;
+
+    private CommandParser parser;
+    private String setLine;
+    private String getLine;
+    private String lowerCaseSetLine;
+    private String invalidLine;
+
+    private ByteCommandParser byteParser;
+    private ParsedCommand parsed;
+    private ByteBuffer setBytes;
+    private ByteBuffer getBytes;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        parser = new CommandParser();
+        // Payload boşluk içerir, parser mesajı ilk iki alandan sonra bölmeden almalı
+        String payload = Payloads.text(payloadSize, 7);
+        setLine = "SET 123456 " + payload;
+        lowerCaseSetLine = "set 123456 " + payload;
+        getLine = "GET 123456";
+        invalidLine = "PUT 123456 " + payload;
+
+        byteParser = new ByteCommandParser();
+        parsed = new ParsedCommand();
+        setBytes = ByteBuffer.wrap(setLine.getBytes(StandardCharsets.UTF_8));
+        getBytes = ByteBuffer.wrap(getLine.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Benchmark
+    public Command parseSet() throws CommandParseException {
+        return parser.parse(setLine);
+    }
+
+    @Benchmark
+    public Command parseSetLowerCase() throws CommandParseException {
+        return parser.parse(lowerCaseSetLine);
+    }
+
+    @Benchmark
+    public Command parseGet() throws CommandParseException {
+        return parser.parse(getLine);
+    }
+
+    @Benchmark
+    public String parseInvalid() {
+        try {
+            parser.parse(invalidLine);
+            return null;
+        } catch (CommandParseException e) {
+            return e.getMessage();
+        }
+    }
+
+    @Benchmark
+    public int byteParseSet() throws CommandParseException {
+        byteParser.parse(setBytes, 0, setBytes.limit(), parsed);
+        return parsed.getPayloadLength();
+    }
+
+    @Benchmark
+    public int byteParseGet() throws CommandParseException {
+        byteParser.parse(getBytes, 0, getBytes.limit(), parsed);
+        return parsed.getId();
+    }
+}
@@ -0,0 +1,78 @@
+package com.sistem.proje.benchmark;
+
+import com.sistem.proje.leader.LeaderNode.MemberInfo;
+import com.sistem.proje.leader.LeaderNode.MemberStatus;
+import com.sistem.proje.leader.LoadBalancingStrategy;
+import com.sistem.proje.leader.MemberSelector;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * SET başına yapılan replika üyesi seçimi benchmark'ı
+ * Üye listesi lider'deki gibi CopyOnWriteArrayList'tir; bir kısmı SUSPECT işaretlenerek
+ * ALIVE/SUSPECT ayrıştırma ve phi sıralaması da ölçüme girer
+ * <pre>
+ * java -jar target/benchmarks.jar MemberSelectionBenchmark -prof gc -p memberCount=50
+ * </pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MemberSelectionBenchmark {
+
+    @Param({"ROUND_ROBIN", "HASH_BASED"})
+    public LoadBalancingStrategy strategy;
+
+    // Tipik küme boyutları
+    @Param({"3", "7", "50"})
+    public int memberCount;
+
+    // Desteklenen tolerance aralığı: 1-7
+    @Param({"2", "7"})
+    public int tolerance;
+
+    // SUSPECT işaretlenen üye oranı
+    @Param({"0.0", "0.2"})
+    public double suspectRatio;
+
+    private MemberSelector selector;
+    private List<MemberInfo> activeMembers;
+    private int messageId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        selector = new MemberSelector(strategy);
+        activeMembers = new CopyOnWriteArrayList<>();
+        int suspectCount = (int) Math.round(memberCount * suspectRatio);
+        for (int i = 0; i < memberCount; i++) {
+            MemberInfo member = new MemberInfo("member-" + i, "localhost", 9000 + i);
+            if (i >= memberCount - suspectCount) {
+                member.setStatus(MemberStatus.SUSPECT);
+                member.setPhi(1.0 + i);
+            }
+            activeMembers.add(member);
+        }
+    }
+
+    @Benchmark
+    public List<MemberInfo> select() {
+        return selector.select(activeMembers, tolerance, messageId++);
+    }
+}
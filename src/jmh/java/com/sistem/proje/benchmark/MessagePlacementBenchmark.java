@@ -0,0 +1,112 @@
+package com.sistem.proje.benchmark;
+
+import com.sistem.proje.leader.MessagePlacement;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lider'in messageToMembers kaydı (MessagePlacement) benchmark'ı
+ * Kayıt lider + tolerance kadar üyeyle önceden doldurulur; SET yolundaki ekleme,
+ * GET yolundaki okuma ve crash sonrası kaldırma ayrı ayrı ölçülür
+ * <pre>
+ * java -jar target/benchmarks.jar MessagePlacementBenchmark -t 4 -prof gc
+ * </pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MessagePlacementBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class PlacementState {
+        @Param({"7", "50"})
+        public int memberCount;
+
+        @Param({"2", "7"})
+        public int tolerance;
+
+        @Param({"100000", "1000000"})
+        public int messageCount;
+
+        MessagePlacement placement;
+        String[] memberIds;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            placement = new MessagePlacement();
+            memberIds = new String[memberCount];
+            for (int i = 0; i < memberCount; i++) {
+                memberIds[i] = "member-" + i;
+            }
+            for (int id = 0; id < messageCount; id++) {
+                place(id);
+            }
+        }
+
+        /**
+         * SET yolundaki gibi mesajı lider'e ve hash ile seçilen tolerance kadar üyeye ekler
+         */
+        void place(int id) {
+            placement.add(id, "leader");
+            for (int i = 0; i < tolerance; i++) {
+                placement.add(id, memberIds[(id + i) % memberCount]);
+            }
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class ThreadState {
+        SplittableRandom random;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            random = new SplittableRandom(Thread.currentThread().getId());
+        }
+    }
+
+    /**
+     * Var olan mesaja tekrar SET (üyeler zaten kayıtlı, sadece tekrar kontrolü yapılır)
+     */
+    @Benchmark
+    public void overwrite(PlacementState state, ThreadState thread) {
+        state.place(thread.random.nextInt(state.messageCount));
+    }
+
+    @Benchmark
+    public List<String> getMembers(PlacementState state, ThreadState thread) {
+        return state.placement.getMembers(thread.random.nextInt(state.messageCount));
+    }
+
+    @Benchmark
+    public boolean contains(PlacementState state, ThreadState thread) {
+        int id = thread.random.nextInt(state.messageCount);
+        return state.placement.contains(id, state.memberIds[id % state.memberCount]);
+    }
+
+    /**
+     * Crash eden üyenin kaydını kaldırıp geri ekler, kayıt boyutu ölçüm boyunca sabit kalır
+     */
+    @Benchmark
+    public void removeAndAdd(PlacementState state, ThreadState thread) {
+        int id = thread.random.nextInt(state.messageCount);
+        String memberId = state.memberIds[id % state.memberCount];
+        state.placement.remove(id, memberId);
+        state.placement.add(id, memberId);
+    }
+}
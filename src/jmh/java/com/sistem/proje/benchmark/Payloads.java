@@ -0,0 +1,40 @@
+package com.sistem.proje.benchmark;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.SplittableRandom;
+import java.util.stream.Stream;
+
+/**
+ * Benchmark'lar için ortak yardımcılar
+ */
+final class Payloads {
+    // Metin benzeri payload: küçük alfabe ve boşluklar, sıkıştırma gerçekçi oranda kazanç sağlar
+    private static final String ALPHABET = "abcdefghijklmnopqrstuvwxyz     ";
+
+    private Payloads() {
+    }
+
+    /**
+     * Belirtilen uzunlukta (ASCII, dolayısıyla UTF-8 byte sayısı da aynı) rastgele metin üretir
+     */
+    static String text(int length, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        StringBuilder builder = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            builder.append(ALPHABET.charAt(random.nextInt(ALPHABET.length())));
+        }
+        return builder.toString();
+    }
+
+    static void deleteRecursively(Path directory) throws IOException {
+        if (directory == null || !Files.exists(directory)) {
+            return;
+        }
+        try (Stream<Path> paths = Files.walk(directory)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+}
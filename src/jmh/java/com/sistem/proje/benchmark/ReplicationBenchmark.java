@@ -0,0 +1,155 @@
+package com.sistem.proje.benchmark;
+
+import com.sistem.proje.cluster.EmbeddedCluster;
+import com.sistem.proje.storage.IOMode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Gömülü küme üzerinden uçtan uca SET/GET benchmark'ı (client → lider TCP, lider → üye gRPC)
+ * Her trial yeni bir küme başlatır; fault parametresi ölçümden önce member-1'e uygulanır:
+ * SLOW her RPC'ye 5 ms ekler, KILLED üyeyi öldürür (failover yolu)
+ * <pre>
+ * java -jar target/benchmarks.jar ReplicationBenchmark -t 4 -p inProcess=true -p fault=NONE,KILLED
+ * </pre>
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+public class ReplicationBenchmark {
+
+    public enum Fault {
+        NONE, SLOW, KILLED
+    }
+
+    @State(Scope.Benchmark)
+    public static class ClusterState {
+        @Param({"3"})
+        public int members;
+
+        @Param({"1", "2"})
+        public int tolerance;
+
+        @Param({"true", "false"})
+        public boolean inProcess;
+
+        @Param({"128", "4096"})
+        public int payloadSize;
+
+        @Param({"NONE", "SLOW", "KILLED"})
+        public Fault fault;
+
+        // GET'lerin seçildiği, önceden yazılmış ID aralığı
+        @Param({"1000"})
+        public int datasetSize;
+
+        EmbeddedCluster cluster;
+        String payload;
+
+        @Setup(Level.Trial)
+        public void setUp() throws IOException, InterruptedException {
+            cluster = new EmbeddedCluster(members, IOMode.CHANNEL, tolerance, inProcess);
+            cluster.start();
+            // Payload boşluk içermemeli, lider satırı trim'ler
+            payload = Payloads.text(payloadSize, 11).replace(' ', '_');
+            try (LeaderConnection connection = new LeaderConnection(cluster.getLeaderPort())) {
+                for (int id = 0; id < datasetSize; id++) {
+                    connection.call("SET " + id + " " + payload);
+                }
+            }
+            String target = cluster.getMemberIds().get(0);
+            if (fault == Fault.SLOW) {
+                cluster.slow(target, 5, TimeUnit.MILLISECONDS);
+            } else if (fault == Fault.KILLED) {
+                cluster.kill(target);
+            }
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            cluster.close();
+        }
+    }
+
+    /**
+     * Thread başına lider bağlantısı
+     */
+    @State(Scope.Thread)
+    public static class ClientState {
+        LeaderConnection connection;
+        SplittableRandom random;
+
+        @Setup(Level.Trial)
+        public void setUp(ClusterState cluster) throws IOException {
+            connection = new LeaderConnection(cluster.cluster.getLeaderPort());
+            random = new SplittableRandom(Thread.currentThread().getId());
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() throws IOException {
+            connection.close();
+        }
+    }
+
+    @Benchmark
+    public String set(ClusterState cluster, ClientState client) throws IOException {
+        return client.connection.call("SET " + client.random.nextInt(cluster.datasetSize) + " " + cluster.payload);
+    }
+
+    @Benchmark
+    public String get(ClusterState cluster, ClientState client) throws IOException {
+        return client.connection.call("GET " + client.random.nextInt(cluster.datasetSize));
+    }
+
+    static final class LeaderConnection implements AutoCloseable {
+        private final Socket socket;
+        private final Writer writer;
+        private final BufferedReader reader;
+
+        LeaderConnection(int port) throws IOException {
+            socket = new Socket("localhost", port);
+            socket.setTcpNoDelay(true);
+            writer = new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8);
+            reader = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+        }
+
+        String call(String line) throws IOException {
+            writer.write(line);
+            writer.write('\n');
+            writer.flush();
+            String response = reader.readLine();
+            if (response == null) {
+                throw new IOException("Lider bağlantıyı kapattı");
+            }
+            return response;
+        }
+
+        @Override
+        public void close() throws IOException {
+            socket.close();
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package com.sistem.proje.benchmark;
+
+import com.sistem.proje.storage.Compression;
+import com.sistem.proje.storage.FileLayout;
+import com.sistem.proje.storage.IOMode;
+import com.sistem.proje.storage.MessageStorage;
+import com.sistem.proje.storage.StorageOptions;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * MessageStorage SET/GET/DELETE benchmark'ı
+ * Varsayılan matris IO modu x payload boyutudur; sıkıştırma, veri seti boyutu ve GET isabet oranı
+ * -p ile genişletilir. Veri seti toplam MAX_DATASET_BYTES ile sınırlanır (1 MB payload'da 256 mesaj)
+ * Thread sayısı JMH'nin -t parametresiyle, allocation oranı -prof gc ile ölçülür:
+ * <pre>
+ * mvn -P jmh package -DskipTests
+ * java -jar target/benchmarks.jar StorageBenchmark -t 4 -prof gc -p ioMode=CHANNEL,LOG -p payloadSize=1024
+ * java -jar target/benchmarks.jar StorageBenchmark -p compression=DEFLATE,NONE -p datasetSize=1000,10000 -p hitRatio=1.0,0.5
+ * </pre>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StorageBenchmark {
+    // Önceden doldurulan veri setinin üst sınırı, büyük payload'larda mesaj sayısı buna göre küçültülür
+    static final long MAX_DATASET_BYTES = 256L * 1024 * 1024;
+
+    /**
+     * Tüm thread'lerin paylaştığı storage ve önceden doldurulmuş veri seti
+     */
+    @State(Scope.Benchmark)
+    public static class StorageState {
+        @Param({"BUFFERED", "UNBUFFERED", "CHANNEL", "LOG"})
+        public IOMode ioMode;
+
+        @Param({"NONE"})
+        public Compression compression;
+
+        // 64 B - 1 MB
+        @Param({"64", "1024", "65536", "1048576"})
+        public int payloadSize;
+
+        // Üst sınır, gerçek mesaj sayısı MAX_DATASET_BYTES / payloadSize ile kırpılır
+        @Param({"10000"})
+        public int datasetSize;
+
+        // GET'lerin var olan bir mesaja denk gelme oranı
+        @Param({"1.0"})
+        public double hitRatio;
+
+        MessageStorage storage;
+        Path directory;
+        String payload;
+        // Önceden yazılan mesaj sayısı: [0, messageCount)
+        int messageCount;
+        // GET için anahtar aralığı: [0, messageCount) isabet, üstü ıska
+        int getKeySpace;
+        // DELETE thread'lerine ayrık ID dilimleri dağıtmak için
+        final AtomicInteger deleteThreads = new AtomicInteger();
+
+        @Setup(Level.Trial)
+        public void setUp() throws IOException {
+            directory = Files.createTempDirectory("storage-bench");
+            storage = new MessageStorage(directory, new StorageOptions()
+                    .setIoMode(ioMode)
+                    .setLayout(FileLayout.SHARDED)
+                    .setCompression(compression));
+            payload = Payloads.text(payloadSize, 42);
+            messageCount = (int) Math.max(1, Math.min(datasetSize, MAX_DATASET_BYTES / payloadSize));
+            for (int id = 0; id < messageCount; id++) {
+                storage.saveMessage(id, payload);
+            }
+            getKeySpace = (int) Math.max(messageCount, Math.round(messageCount / hitRatio));
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() throws IOException {
+            storage.close();
+            Payloads.deleteRecursively(directory);
+        }
+    }
+
+    /**
+     * Thread başına rastgele sayı üreteci (paylaşılan Random çekişmesi ölçümü bozmasın)
+     */
+    @State(Scope.Thread)
+    public static class ThreadState {
+        SplittableRandom random;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            random = new SplittableRandom(Thread.currentThread().getId());
+        }
+    }
+
+    /**
+     * Silinecek mesajı her çağrıdan önce yazar, böylece DELETE her zaman var olan bir kaydı siler
+     * Her thread GET anahtar aralığının üstünde kendine ait bir ID diliminde döner; iki thread aynı ID'yi
+     * seçip birinin silmesi ıskaya dönüşmez
+     * Disk işlemleri mikrosaniye mertebesinde olduğu için Invocation seviyesi setup maliyeti ihmal edilebilir
+     */
+    @State(Scope.Thread)
+    public static class DeleteState {
+        int firstId;
+        int next;
+        int id;
+
+        @Setup(Level.Trial)
+        public void assignSlice(StorageState state) {
+            firstId = state.getKeySpace + state.deleteThreads.getAndIncrement() * state.messageCount;
+        }
+
+        @Setup(Level.Invocation)
+        public void setUp(StorageState state) throws IOException {
+            id = firstId + next;
+            next = (next + 1) % state.messageCount;
+            state.storage.saveMessage(id, state.payload);
+        }
+    }
+
+    @Benchmark
+    public void save(StorageState state, ThreadState thread) throws IOException {
+        state.storage.saveMessage(thread.random.nextInt(state.messageCount), state.payload);
+    }
+
+    @Benchmark
+    public String get(StorageState state, ThreadState thread) throws IOException {
+        return state.storage.getMessage(thread.random.nextInt(state.getKeySpace));
+    }
+
+    @Benchmark
+    public boolean delete(StorageState state, DeleteState delete) throws IOException {
+        return state.storage.deleteMessage(delete.id);
+    }
+}
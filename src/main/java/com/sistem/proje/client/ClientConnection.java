@@ -0,0 +1,263 @@
+package com.sistem.proje.client;
+
+import com.sistem.proje.protocol.BinaryOpcode;
+import com.sistem.proje.protocol.BinaryProtocol;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Lidere tek bir binary protokol bağlantısı (StorageClient havuzunun bir elemanı)
+ * İstekler request id ile kaydedilip cevap beklenmeden yazılır (pipelining); ayrı bir okuyucu thread
+ * cevapları geliş sırasıyla, request id üzerinden eşleştirip future'ları tamamlar.
+ * Future'lar okuyucu thread'de tamamlanır, ağır callback'ler *Async varyantlarıyla başka executor'a alınmalıdır
+ */
+final class ClientConnection implements Closeable {
+    private static final Logger logger = LoggerFactory.getLogger(ClientConnection.class);
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final String name;
+    private final Socket socket;
+    private final DataOutputStream output;
+    private final DataInputStream input;
+    private final long requestTimeoutMillis;
+    // Cevapsız istek penceresi; cevap, zaman aşımı veya bağlantı hatası izni geri verir
+    private final Semaphore window;
+    private final Map<Integer, CompletableFuture<Response>> pending = new ConcurrentHashMap<>();
+    private final AtomicInteger nextRequestId = new AtomicInteger();
+    private volatile boolean open = true;
+
+    /**
+     * Bağlanır, binary el sıkışmayı yapar ve okuyucu thread'i başlatır
+     *
+     * @throws IOException Bağlantı kurulamazsa veya lider binary protokolü desteklemiyorsa
+     */
+    ClientConnection(String name, String host, int port, ClientOptions options) throws IOException {
+        this.name = name;
+        this.requestTimeoutMillis = options.getRequestTimeoutMillis();
+        this.window = new Semaphore(options.getMaxInFlight());
+        this.socket = new Socket();
+        try {
+            socket.setTcpNoDelay(true);
+            socket.connect(new InetSocketAddress(host, port), (int) options.getConnectTimeoutMillis());
+            output = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream(), BUFFER_SIZE));
+            input = new DataInputStream(new BufferedInputStream(socket.getInputStream(), BUFFER_SIZE));
+            handshake((int) options.getConnectTimeoutMillis());
+        } catch (IOException e) {
+            socket.close();
+            throw e;
+        }
+
+        Thread reader = new Thread(this::readLoop, name + "-reader");
+        reader.setDaemon(true);
+        reader.start();
+        logger.debug("Bağlantı açıldı: {} -> {}:{}", name, host, port);
+    }
+
+    /**
+     * Text protokolü konuşan eski bir lider magic byte'ı satır olarak bekler; cevap gelmezse zaman aşımı alınır
+     */
+    private void handshake(int timeoutMillis) throws IOException {
+        output.writeByte(BinaryProtocol.MAGIC);
+        output.writeByte(BinaryProtocol.VERSION);
+        output.flush();
+        socket.setSoTimeout(timeoutMillis);
+        byte magic = input.readByte();
+        byte version = input.readByte();
+        if (magic != BinaryProtocol.MAGIC || version != BinaryProtocol.VERSION) {
+            throw new IOException("Lider binary protokol el sıkışmasına beklenmeyen cevap verdi: "
+                    + (magic & 0xFF) + "/" + version);
+        }
+        socket.setSoTimeout(0);
+    }
+
+    boolean isOpen() {
+        return open;
+    }
+
+    /**
+     * İstekleri sırayla yazar ve tek flush ile gönderir (batch)
+     * Pencere doluysa önce yazılanlar gönderilir, sonra izin için en fazla istek zaman aşımı kadar beklenir
+     *
+     * @return İsteklerle aynı sırada cevap future'ları (zaman aşımında TimeoutException ile tamamlanır)
+     */
+    List<CompletableFuture<Response>> send(List<Request> requests) {
+        List<CompletableFuture<Response>> futures = new ArrayList<>(requests.size());
+        synchronized (output) {
+            try {
+                for (Request request : requests) {
+                    futures.add(write(request));
+                }
+                output.flush();
+            } catch (IOException e) {
+                fail("Bağlantıya yazılamadı: " + e.getMessage(), e);
+                // Yazılamayan istekler de cevap listesinde yer almalı
+                while (futures.size() < requests.size()) {
+                    futures.add(CompletableFuture.failedFuture(
+                            new ClientException(name + ": bağlantıya yazılamadı", e, true)));
+                }
+            }
+        }
+        return futures;
+    }
+
+    CompletableFuture<Response> send(Request request) {
+        return send(List.of(request)).get(0);
+    }
+
+    private CompletableFuture<Response> write(Request request) throws IOException {
+        CompletableFuture<Response> future = new CompletableFuture<>();
+        if (!window.tryAcquire()) {
+            // Tamponda bekleyen istekler gönderilmeden pencere boşalamaz
+            output.flush();
+            try {
+                if (!window.tryAcquire(requestTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                    future.completeExceptionally(new ClientException(name + ": cevapsız istek penceresi dolu", true));
+                    return future;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                future.completeExceptionally(new ClientException("İstek gönderilirken kesildi", e, false));
+                return future;
+            }
+        }
+
+        int requestId = nextRequestId.incrementAndGet();
+        pending.put(requestId, future);
+        // Cevap okuyucu thread'de pending'den çıkarılır; zaman aşımında çıkarma ve izin iadesi burada yapılır
+        future.orTimeout(requestTimeoutMillis, TimeUnit.MILLISECONDS)
+                .whenComplete((response, error) -> {
+                    if (pending.remove(requestId, future)) {
+                        window.release();
+                    }
+                });
+        if (!open) {
+            future.completeExceptionally(new ClientException(name + ": bağlantı kapalı", true));
+            return future;
+        }
+
+        output.writeByte(request.opcode.code());
+        output.writeInt(requestId);
+        output.writeInt(request.key);
+        output.writeInt(request.payload.length);
+        output.write(request.payload);
+        return future;
+    }
+
+    private void readLoop() {
+        try {
+            while (true) {
+                byte code = input.readByte();
+                int requestId = input.readInt();
+                int key = input.readInt();
+                int length = input.readInt();
+                if (length < 0 || length > BinaryProtocol.MAX_PAYLOAD_SIZE) {
+                    throw new IOException("Geçersiz payload uzunluğu: " + length);
+                }
+                byte[] payload = new byte[length];
+                input.readFully(payload);
+
+                CompletableFuture<Response> future = pending.remove(requestId);
+                if (future == null) {
+                    // Zaman aşımına uğramış isteğin geç gelen cevabı
+                    logger.debug("{}: bekleyeni olmayan cevap atlandı: requestId={}, key={}", name, requestId, key);
+                    continue;
+                }
+                window.release();
+                BinaryOpcode opcode = BinaryOpcode.fromCode(code);
+                if (opcode == null) {
+                    future.completeExceptionally(new ClientException("Bilinmeyen cevap opcode'u: " + code, false));
+                } else {
+                    future.complete(new Response(opcode, key, payload));
+                }
+            }
+        } catch (IOException e) {
+            fail(open ? "Bağlantı koptu: " + e.getMessage() : "Bağlantı kapatıldı", e);
+        }
+    }
+
+    /**
+     * Bağlantıyı kapatır ve cevapsız tüm istekleri retryable hata ile tamamlar
+     */
+    private void fail(String reason, Throwable cause) {
+        boolean wasOpen = open;
+        open = false;
+        try {
+            socket.close();
+        } catch (IOException e) {
+            logger.debug("{}: socket kapatılırken hata: {}", name, e.getMessage());
+        }
+        if (wasOpen) {
+            logger.warn("{}: {} ({} cevapsız istek)", name, reason, pending.size());
+        }
+        for (Integer requestId : pending.keySet()) {
+            CompletableFuture<Response> future = pending.remove(requestId);
+            if (future != null) {
+                window.release();
+                future.completeExceptionally(new ClientException(name + ": " + reason, cause, true));
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        if (open) {
+            open = false;
+            fail("Bağlantı kapatıldı", null);
+        }
+    }
+
+    /**
+     * Gönderilecek frame
+     */
+    static final class Request {
+        final BinaryOpcode opcode;
+        final int key;
+        final byte[] payload;
+        // Gönderildikten sonra cevabı alınamazsa tekrar edilebilir mi (APPEND tekrarı kaydı çoğaltır)
+        final boolean idempotent;
+
+        Request(BinaryOpcode opcode, int key, byte[] payload) {
+            this(opcode, key, payload, true);
+        }
+
+        Request(BinaryOpcode opcode, int key, byte[] payload, boolean idempotent) {
+            this.opcode = opcode;
+            this.key = key;
+            this.payload = payload;
+            this.idempotent = idempotent;
+        }
+    }
+
+    /**
+     * Liderden gelen cevap frame'i
+     */
+    static final class Response {
+        final BinaryOpcode opcode;
+        // READ cevabında kayıt sayısı
+        final int key;
+        final byte[] payload;
+
+        Response(BinaryOpcode opcode, int key, byte[] payload) {
+            this.opcode = opcode;
+            this.key = key;
+            this.payload = payload;
+        }
+    }
+}
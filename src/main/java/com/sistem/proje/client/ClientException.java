@@ -0,0 +1,29 @@
+package com.sistem.proje.client;
+
+/**
+ * StorageClient isteği hatası
+ * Bağlantı kopması ve zaman aşımı gibi geçici hatalar retryable'dır; lidere ulaşan ve ERROR cevabı
+ * alan istekler (ör. replikasyon hatası) tekrar edilmez
+ */
+public class ClientException extends Exception {
+    private static final long serialVersionUID = 1L;
+
+    private final boolean retryable;
+
+    public ClientException(String message, boolean retryable) {
+        super(message);
+        this.retryable = retryable;
+    }
+
+    public ClientException(String message, Throwable cause, boolean retryable) {
+        super(message, cause);
+        this.retryable = retryable;
+    }
+
+    /**
+     * İstek tekrar edilirse başarılı olabilir mi (geçici hata)
+     */
+    public boolean isRetryable() {
+        return retryable;
+    }
+}
@@ -0,0 +1,104 @@
+package com.sistem.proje.client;
+
+/**
+ * StorageClient ayarları
+ */
+public class ClientOptions {
+    private static final int DEFAULT_POOL_SIZE = 4;
+    private static final int DEFAULT_MAX_IN_FLIGHT = 128;
+    private static final long DEFAULT_CONNECT_TIMEOUT_MILLIS = 5000;
+    private static final long DEFAULT_REQUEST_TIMEOUT_MILLIS = 5000;
+    private static final int DEFAULT_MAX_RETRIES = 3;
+    private static final long DEFAULT_RETRY_BACKOFF_MILLIS = 50;
+    private static final long DEFAULT_MAX_RETRY_BACKOFF_MILLIS = 2000;
+
+    private final int poolSize;
+    private final int maxInFlight;
+    private final long connectTimeoutMillis;
+    private final long requestTimeoutMillis;
+    private final int maxRetries;
+    private final long retryBackoffMillis;
+    private final long maxRetryBackoffMillis;
+
+    /**
+     * Varsayılan ayarlar: 4 bağlantı, bağlantı başına 128 cevapsız istek, 5 sn zaman aşımı,
+     * 50 ms'den başlayıp 2 sn'ye kadar artan beklemeyle 3 tekrar
+     */
+    public ClientOptions() {
+        this(DEFAULT_POOL_SIZE, DEFAULT_MAX_IN_FLIGHT, DEFAULT_CONNECT_TIMEOUT_MILLIS, DEFAULT_REQUEST_TIMEOUT_MILLIS,
+                DEFAULT_MAX_RETRIES, DEFAULT_RETRY_BACKOFF_MILLIS, DEFAULT_MAX_RETRY_BACKOFF_MILLIS);
+    }
+
+    /**
+     * @param poolSize Lidere açılacak bağlantı sayısı (istekler bağlantılara sırayla dağıtılır)
+     * @param maxInFlight Bağlantı başına cevap beklenmeden gönderilebilecek istek sayısı (pipeline derinliği)
+     * @param connectTimeoutMillis Bağlantı ve el sıkışma zaman aşımı
+     * @param requestTimeoutMillis Tek bir denemenin zaman aşımı (tekrarlar ayrı süre alır)
+     * @param maxRetries Bağlantı hatası ve zaman aşımında yapılacak en fazla tekrar (0 = tekrar yok)
+     * @param retryBackoffMillis İlk tekrardan önceki bekleme, her tekrarda iki katına çıkar
+     * @param maxRetryBackoffMillis Bekleme üst sınırı
+     */
+    public ClientOptions(int poolSize, int maxInFlight, long connectTimeoutMillis, long requestTimeoutMillis,
+                         int maxRetries, long retryBackoffMillis, long maxRetryBackoffMillis) {
+        if (poolSize < 1) {
+            throw new IllegalArgumentException("Bağlantı sayısı en az 1 olmalı: " + poolSize);
+        }
+        if (maxInFlight < 1) {
+            throw new IllegalArgumentException("Pipeline derinliği en az 1 olmalı: " + maxInFlight);
+        }
+        if (connectTimeoutMillis < 1 || requestTimeoutMillis < 1) {
+            throw new IllegalArgumentException("Geçersiz zaman aşımı: connect=" + connectTimeoutMillis
+                    + ", request=" + requestTimeoutMillis);
+        }
+        if (maxRetries < 0) {
+            throw new IllegalArgumentException("Tekrar sayısı negatif olamaz: " + maxRetries);
+        }
+        if (retryBackoffMillis < 0 || maxRetryBackoffMillis < retryBackoffMillis) {
+            throw new IllegalArgumentException("Geçersiz tekrar beklemesi: backoff=" + retryBackoffMillis
+                    + ", max=" + maxRetryBackoffMillis);
+        }
+        this.poolSize = poolSize;
+        this.maxInFlight = maxInFlight;
+        this.connectTimeoutMillis = connectTimeoutMillis;
+        this.requestTimeoutMillis = requestTimeoutMillis;
+        this.maxRetries = maxRetries;
+        this.retryBackoffMillis = retryBackoffMillis;
+        this.maxRetryBackoffMillis = maxRetryBackoffMillis;
+    }
+
+    public int getPoolSize() {
+        return poolSize;
+    }
+
+    public int getMaxInFlight() {
+        return maxInFlight;
+    }
+
+    public long getConnectTimeoutMillis() {
+        return connectTimeoutMillis;
+    }
+
+    public long getRequestTimeoutMillis() {
+        return requestTimeoutMillis;
+    }
+
+    public int getMaxRetries() {
+        return maxRetries;
+    }
+
+    public long getRetryBackoffMillis() {
+        return retryBackoffMillis;
+    }
+
+    public long getMaxRetryBackoffMillis() {
+        return maxRetryBackoffMillis;
+    }
+
+    @Override
+    public String toString() {
+        return "ClientOptions{poolSize=" + poolSize + ", maxInFlight=" + maxInFlight
+                + ", connectTimeout=" + connectTimeoutMillis + "ms, requestTimeout=" + requestTimeoutMillis
+                + "ms, maxRetries=" + maxRetries + ", backoff=" + retryBackoffMillis + "-" + maxRetryBackoffMillis
+                + "ms}";
+    }
+}
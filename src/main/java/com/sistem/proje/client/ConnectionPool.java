@@ -0,0 +1,73 @@
+package com.sistem.proje.client;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Tek bir lidere açılan bağlantı havuzu (StorageClient her partition lideri için bir havuz tutar)
+ * Bağlantılar ilk kullanımda açılır, istekler bağlantılara sırayla dağıtılır ve kopan bağlantı
+ * bir sonraki kullanımda yeniden kurulur
+ */
+final class ConnectionPool {
+    private final String host;
+    private final int port;
+    private final ClientOptions options;
+    private final AtomicReferenceArray<ClientConnection> connections;
+    private final Object[] connectLocks;
+    private final AtomicInteger nextConnection = new AtomicInteger();
+    private volatile boolean closed;
+
+    ConnectionPool(String host, int port, ClientOptions options) {
+        this.host = host;
+        this.port = port;
+        this.options = options;
+        this.connections = new AtomicReferenceArray<>(options.getPoolSize());
+        this.connectLocks = new Object[options.getPoolSize()];
+        for (int i = 0; i < connectLocks.length; i++) {
+            connectLocks[i] = new Object();
+        }
+    }
+
+    String getAddress() {
+        return host + ":" + port;
+    }
+
+    /**
+     * Sıradaki havuz bağlantısı; kapalıysa veya hiç açılmadıysa yeniden kurulur
+     */
+    ClientConnection connection() throws ClientException {
+        int index = Math.floorMod(nextConnection.getAndIncrement(), connectLocks.length);
+        ClientConnection connection = connections.get(index);
+        if (connection != null && connection.isOpen()) {
+            return connection;
+        }
+        synchronized (connectLocks[index]) {
+            connection = connections.get(index);
+            if (connection != null && connection.isOpen()) {
+                return connection;
+            }
+            try {
+                connection = new ClientConnection("storage-client-" + getAddress() + "-" + index, host, port, options);
+            } catch (IOException e) {
+                throw new ClientException("Lidere bağlanılamadı: " + getAddress() + " - " + e.getMessage(), e, true);
+            }
+            connections.set(index, connection);
+            if (closed) {
+                connection.close();
+                throw new ClientException("Client kapatıldı", false);
+            }
+            return connection;
+        }
+    }
+
+    void close() {
+        closed = true;
+        for (int i = 0; i < connections.length(); i++) {
+            ClientConnection connection = connections.getAndSet(i, null);
+            if (connection != null) {
+                connection.close();
+            }
+        }
+    }
+}
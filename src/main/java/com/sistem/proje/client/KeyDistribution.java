@@ -0,0 +1,16 @@
+package com.sistem.proje.client;
+
+/**
+ * Yük üretecinin mesaj ID dağılımları
+ */
+public enum KeyDistribution {
+    /**
+     * Uniform: Tüm ID'ler eşit olasılıkla seçilir
+     */
+    UNIFORM,
+
+    /**
+     * Zipfian: Küçük ID'ler çok daha sık seçilir (sıcak anahtarlar, gerçekçi önbellek/disk erişimi)
+     */
+    ZIPFIAN
+}
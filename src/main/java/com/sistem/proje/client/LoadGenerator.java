@@ -0,0 +1,598 @@
+package com.sistem.proje.client;
+
+import com.sistem.proje.metrics.Counter;
+import com.sistem.proje.metrics.LatencyHistogram;
+import com.sistem.proje.metrics.MetricsRegistry;
+import com.sistem.proje.protocol.PartitionMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Lider text protokolü üzerinden uçtan uca yük üreteci
+ * Her bağlantıda bir gönderen ve bir okuyan thread çalışır; gönderen en fazla pipeline derinliği kadar
+ * cevapsız istek bırakır, cevaplar gönderim sırasıyla eşleştirilir
+ *
+ * Open-loop modda (hedef hız > 0) istekler sabit bir takvime göre gönderilir ve gecikme isteğin
+ * gönderilmesi GEREKEN andan itibaren ölçülür (coordinated omission düzeltmesi): sunucu yavaşladığında
+ * gönderemeyen istemcinin beklediği süre de gecikmeye dahil olur. Gerçek gönderimden itibaren ölçülen
+ * servis süresi ayrı histogramda tutulur. Closed-loop modda iki histogram aynıdır
+ *
+ * ID uzayı bölünmüşse (PARTITIONS) bağlantılar partition liderlerine sırayla dağıtılır ve her bağlantı
+ * sadece kendi liderinin ID'lerini üretir; böylece yük tüm liderlere MOVED olmadan gider
+ */
+public class LoadGenerator {
+    private static final Logger logger = LoggerFactory.getLogger(LoadGenerator.class);
+    private static final String DEFAULT_HOST = "localhost";
+    private static final int DEFAULT_PORT = 6666;
+    private static final int CONNECT_TIMEOUT_MS = 5000;
+    // Ölçüm bittikten sonra cevapsız istekler için beklenen en uzun süre
+    private static final long DRAIN_TIMEOUT_MS = 10_000;
+    private static final long PROGRESS_INTERVAL_SECONDS = 1;
+
+    private final String host;
+    private final int port;
+    private final LoadProfile profile;
+    private final String payload;
+    private final ZipfianGenerator zipfian;
+    private PartitionMap partitionMap = PartitionMap.single();
+
+    private final MetricsRegistry metrics = new MetricsRegistry();
+    // Planlanan gönderim anından cevaba kadar (düzeltilmiş)
+    private final LatencyHistogram setLatency = metrics.histogram("load.set");
+    private final LatencyHistogram getLatency = metrics.histogram("load.get");
+    // Gerçek gönderimden cevaba kadar (servis süresi)
+    private final LatencyHistogram setServiceTime = metrics.histogram("load.set.service");
+    private final LatencyHistogram getServiceTime = metrics.histogram("load.get.service");
+    private final Counter completed = metrics.counter("load.completed");
+    private final Counter errors = metrics.counter("load.errors");
+    private final Counter notFound = metrics.counter("load.notFound");
+    // Isınma dahil tüm cevaplar (ilerleme satırı için)
+    private final Counter responses = new Counter();
+
+    public LoadGenerator(LoadProfile profile) {
+        this(DEFAULT_HOST, DEFAULT_PORT, profile);
+    }
+
+    public LoadGenerator(String host, int port, LoadProfile profile) {
+        this.host = host;
+        this.port = port;
+        this.profile = profile;
+        this.payload = createPayload(profile.getPayloadSize());
+        this.zipfian = profile.getDistribution() == KeyDistribution.ZIPFIAN
+                ? new ZipfianGenerator(profile.getKeyCount())
+                : null;
+    }
+
+    public MetricsRegistry getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Bağlantıları açar, (istenirse) veriyi önceden yükler, ısınma + ölçüm süresi boyunca yük uygular
+     * ve cevapsız istekler tamamlandıktan sonra sonucu döndürür
+     *
+     * @return Ölçüm penceresinin sonucu
+     * @throws IOException Bağlantı açılamazsa
+     */
+    public Result run() throws IOException, InterruptedException {
+        logger.info("Yük üreteci başlatılıyor: {}:{} {}", host, port, profile);
+        List<Connection> connections = new ArrayList<>();
+        try {
+            partitionMap = fetchPartitionMap();
+            if (partitionMap.isPartitioned()) {
+                logger.info("Partition map: {}", partitionMap);
+                if (profile.getConnections() < partitionMap.size()) {
+                    logger.warn("Bağlantı sayısı ({}) partition sayısından ({}) az, bazı partition'lara yük gitmeyecek",
+                            profile.getConnections(), partitionMap.size());
+                }
+            }
+            for (int i = 0; i < profile.getConnections(); i++) {
+                connections.add(new Connection(i));
+            }
+            if (profile.isPreload()) {
+                preload(connections);
+            }
+
+            long startNanos = System.nanoTime();
+            long measureStartNanos = startNanos + TimeUnit.SECONDS.toNanos(profile.getWarmupSeconds());
+            long endNanos = measureStartNanos + TimeUnit.SECONDS.toNanos(profile.getDurationSeconds());
+
+            ScheduledExecutorService progress = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread thread = new Thread(r, "load-progress");
+                thread.setDaemon(true);
+                return thread;
+            });
+            long[] lastCompleted = {0};
+            progress.scheduleAtFixedRate(() -> printProgress(startNanos, measureStartNanos, lastCompleted),
+                    PROGRESS_INTERVAL_SECONDS, PROGRESS_INTERVAL_SECONDS, TimeUnit.SECONDS);
+
+            List<Thread> threads = new ArrayList<>();
+            for (Connection connection : connections) {
+                threads.add(startThread("load-recv-" + connection.index, () -> connection.receive(measureStartNanos)));
+                threads.add(startThread("load-send-" + connection.index,
+                        () -> connection.send(startNanos, endNanos)));
+            }
+            for (Thread thread : threads) {
+                thread.join();
+            }
+            progress.shutdownNow();
+
+            // Open-loop'ta sunucu geride kaldıysa son cevaplar bitiş anından sonra gelir
+            long finishNanos = Math.max(endNanos, System.nanoTime());
+            return new Result(completed.get(), errors.get(), notFound.get(), finishNanos - measureStartNanos);
+        } finally {
+            for (Connection connection : connections) {
+                connection.close();
+            }
+        }
+    }
+
+    /**
+     * Tüm ID'lere birer SET yapar; ID'ler bağlantılara paylaştırılır, her bağlantı pipeline derinliği
+     * kadar isteği toplu gönderip cevaplarını okur
+     */
+    private void preload(List<Connection> connections) throws InterruptedException {
+        logger.info("Ön yükleme: {} mesaj", profile.getKeyCount());
+        long start = System.nanoTime();
+        List<Thread> threads = new ArrayList<>();
+        Counter failed = new Counter();
+        for (Connection connection : connections) {
+            threads.add(startThread("load-preload-" + connection.index, () -> {
+                try {
+                    connection.preload(failed);
+                } catch (IOException e) {
+                    logger.error("Ön yükleme hatası (bağlantı {}): {}", connection.index, e.getMessage());
+                    failed.increment();
+                }
+            }));
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        System.out.println(String.format("[LOAD] Ön yükleme tamamlandı: %d mesaj, %.1fs, hata: %d",
+                profile.getKeyCount(), (System.nanoTime() - start) / 1e9, failed.get()));
+    }
+
+    private void printProgress(long startNanos, long measureStartNanos, long[] lastCompleted) {
+        long now = System.nanoTime();
+        long done = responses.get();
+        long delta = done - lastCompleted[0];
+        lastCompleted[0] = done;
+        System.out.println(String.format("[LOAD] t=%ds%s | İstek/s: %d | Cevap: %d | Hata: %d | "
+                        + "SET p99: %.3fms | GET p99: %.3fms",
+                TimeUnit.NANOSECONDS.toSeconds(now - startNanos),
+                now < measureStartNanos ? " (ısınma)" : "",
+                delta / PROGRESS_INTERVAL_SECONDS, done, errors.get(),
+                setLatency.snapshot().getP99() / 1e6, getLatency.snapshot().getP99() / 1e6));
+    }
+
+    private static Thread startThread(String name, Runnable task) {
+        Thread thread = new Thread(task, name);
+        thread.setDaemon(true);
+        thread.start();
+        return thread;
+    }
+
+    /**
+     * Boşluk ve satır sonu içermeyen payload (lider satırı trim'ler, mesaj aynen saklanmalı)
+     */
+    private static String createPayload(int size) {
+        StringBuilder builder = new StringBuilder(size);
+        for (int i = 0; i < size; i++) {
+            builder.append((char) ('a' + i % 26));
+        }
+        return builder.toString();
+    }
+
+    private int nextKey(SplittableRandom random) {
+        if (zipfian != null) {
+            return (int) zipfian.next(random);
+        }
+        return random.nextInt(profile.getKeyCount());
+    }
+
+    /**
+     * Verilen liderden PARTITIONS ile map'i alır; komutu tanımayan lider bölünmemiş sayılır
+     */
+    private PartitionMap fetchPartitionMap() throws IOException {
+        try (Socket socket = new Socket()) {
+            socket.connect(new InetSocketAddress(host, port), CONNECT_TIMEOUT_MS);
+            socket.getOutputStream().write("PARTITIONS\n".getBytes(StandardCharsets.UTF_8));
+            BufferedReader reader = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+            String header = reader.readLine();
+            if (header == null || !header.startsWith("PARTITIONS ")) {
+                return PartitionMap.single();
+            }
+            StringBuilder text = new StringBuilder(header).append('\n');
+            int count = Integer.parseInt(header.substring("PARTITIONS ".length()).trim());
+            for (int i = 0; i < count; i++) {
+                text.append(reader.readLine()).append('\n');
+            }
+            return PartitionMap.decode(text.toString());
+        }
+    }
+
+    /**
+     * Tek bir TCP bağlantısı: gönderen thread istekleri yazar, okuyan thread cevapları sırayla eşleştirir
+     */
+    private final class Connection {
+        private final int index;
+        // Bağlantının lideri ve aynı lidere giden bağlantılar içindeki sırası
+        private final int partition;
+        private final int rank;
+        private final int sharing;
+        private final Socket socket;
+        private final BufferedWriter writer;
+        private final BufferedReader reader;
+        // Cevapsız istek sayısını pipeline derinliği ile sınırlar
+        private final Semaphore window;
+        // Gönderim sırasıyla cevap bekleyen istekler
+        private final ArrayBlockingQueue<Pending> inFlight;
+        private final SplittableRandom random;
+        private volatile boolean closed;
+
+        Connection(int index) throws IOException {
+            this.index = index;
+            int partitions = partitionMap.size();
+            this.partition = index % partitions;
+            this.rank = index / partitions;
+            this.sharing = (profile.getConnections() - partition + partitions - 1) / partitions;
+            int key = 0;
+            while (key < profile.getKeyCount() && !owns(key)) {
+                key++;
+            }
+            if (key == profile.getKeyCount()) {
+                throw new IOException("Partition " + partition + "'e düşen ID yok, load.keys artırılmalı");
+            }
+            String address = partitionMap.addressOf(partition);
+            this.socket = new Socket();
+            socket.setTcpNoDelay(true);
+            if (!PartitionMap.LOCAL.equals(address)) {
+                socket.connect(new InetSocketAddress(PartitionMap.host(address), PartitionMap.port(address)),
+                        CONNECT_TIMEOUT_MS);
+            } else {
+                socket.connect(new InetSocketAddress(host, port), CONNECT_TIMEOUT_MS);
+            }
+            this.writer = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8));
+            this.reader = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+            this.window = new Semaphore(profile.getPipelineDepth());
+            this.inFlight = new ArrayBlockingQueue<>(profile.getPipelineDepth());
+            this.random = new SplittableRandom(System.nanoTime() + index);
+        }
+
+        void preload(Counter failed) throws IOException {
+            int depth = profile.getPipelineDepth();
+            int batch = 0;
+            // Liderin ID'leri o lidere giden bağlantılara sırayla paylaştırılır
+            int owned = 0;
+            for (int key = 0; key < profile.getKeyCount(); key++) {
+                if (!owns(key) || owned++ % sharing != rank) {
+                    continue;
+                }
+                writeSet(key);
+                if (++batch == depth) {
+                    readPreloadResponses(batch, failed);
+                    batch = 0;
+                }
+            }
+            readPreloadResponses(batch, failed);
+        }
+
+        private void readPreloadResponses(int count, Counter failed) throws IOException {
+            writer.flush();
+            for (int i = 0; i < count; i++) {
+                String response = reader.readLine();
+                if (response == null) {
+                    throw new IOException("Bağlantı kapandı");
+                }
+                if (!response.equals("OK")) {
+                    failed.increment();
+                }
+            }
+        }
+
+        /**
+         * Bitiş anına kadar istek gönderir, sonra cevapsız isteklerin tamamlanmasını bekler
+         * Open-loop'ta her bağlantı toplam hızın connections'ta birini üretir; bağlantılar aralığın
+         * eşit dilimleriyle kaydırılır, böylece istekler bir arada değil düzenli aralıklarla gelir
+         */
+        void send(long startNanos, long endNanos) {
+            long interval = profile.isOpenLoop()
+                    ? (long) (TimeUnit.SECONDS.toNanos(1) * profile.getConnections() / profile.getTargetRate())
+                    : 0;
+            long nextNanos = startNanos + interval * index / profile.getConnections();
+            try {
+                while (!closed) {
+                    long intendedNanos = nextNanos;
+                    if (interval > 0) {
+                        if (intendedNanos >= endNanos) {
+                            break;
+                        }
+                        parkUntil(intendedNanos);
+                        nextNanos += interval;
+                    }
+                    if (!acquire()) {
+                        break;
+                    }
+                    long sentNanos = System.nanoTime();
+                    if (interval == 0) {
+                        if (sentNanos >= endNanos) {
+                            window.release();
+                            break;
+                        }
+                        intendedNanos = sentNanos;
+                    }
+                    boolean set = profile.getSetRatio() > 0 && random.nextDouble() < profile.getSetRatio();
+                    int key = nextOwnedKey();
+                    inFlight.add(new Pending(set, intendedNanos, sentNanos));
+                    if (set) {
+                        writeSet(key);
+                    } else {
+                        writer.write("GET ");
+                        writer.write(Integer.toString(key));
+                        writer.write('\n');
+                    }
+                    writer.flush();
+                }
+                // Cevapsız isteklerin hepsinin gelmesini bekle
+                if (!window.tryAcquire(profile.getPipelineDepth(), DRAIN_TIMEOUT_MS, TimeUnit.MILLISECONDS)) {
+                    logger.warn("Bağlantı {}: {} istek cevapsız kaldı", index, inFlight.size());
+                }
+            } catch (IOException e) {
+                if (!closed) {
+                    logger.error("Bağlantı {} gönderim hatası: {}", index, e.getMessage());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                close();
+            }
+        }
+
+        private boolean owns(int key) {
+            return !partitionMap.isPartitioned() || partitionMap.partitionOf(key) == partition;
+        }
+
+        /**
+         * Dağılımdan bu bağlantının liderine düşen ilk ID (bölünmemiş kümede her ID)
+         */
+        private int nextOwnedKey() {
+            int key;
+            do {
+                key = nextKey(random);
+            } while (!owns(key));
+            return key;
+        }
+
+        /**
+         * Pipeline'da yer açılmasını bekler; okuyan thread bağlantıyı kapattıysa false döner
+         */
+        private boolean acquire() throws InterruptedException {
+            while (!closed) {
+                if (window.tryAcquire(100, TimeUnit.MILLISECONDS)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private void writeSet(int key) throws IOException {
+            writer.write("SET ");
+            writer.write(Integer.toString(key));
+            writer.write(' ');
+            writer.write(payload);
+            writer.write('\n');
+        }
+
+        void receive(long measureStartNanos) {
+            try {
+                String response;
+                while ((response = reader.readLine()) != null) {
+                    long nowNanos = System.nanoTime();
+                    Pending pending = inFlight.poll();
+                    if (pending == null) {
+                        logger.warn("Bağlantı {}: beklenmeyen cevap", index);
+                        continue;
+                    }
+                    responses.increment();
+                    if (pending.intendedNanos >= measureStartNanos) {
+                        record(pending, response, nowNanos);
+                    }
+                    window.release();
+                }
+            } catch (IOException e) {
+                if (!closed) {
+                    logger.error("Bağlantı {} okuma hatası: {}", index, e.getMessage());
+                }
+            } finally {
+                close();
+            }
+        }
+
+        private void record(Pending pending, String response, long nowNanos) {
+            if (pending.set) {
+                setLatency.record(nowNanos - pending.intendedNanos);
+                setServiceTime.record(nowNanos - pending.sentNanos);
+                if (!response.equals("OK")) {
+                    errors.increment();
+                }
+            } else {
+                getLatency.record(nowNanos - pending.intendedNanos);
+                getServiceTime.record(nowNanos - pending.sentNanos);
+                if (response.equals("NOT_FOUND")) {
+                    notFound.increment();
+                } else if (response.startsWith("ERROR")) {
+                    errors.increment();
+                }
+            }
+            completed.increment();
+        }
+
+        void close() {
+            closed = true;
+            try {
+                socket.close();
+            } catch (IOException e) {
+                logger.debug("Socket kapatılırken hata: {}", e.getMessage());
+            }
+        }
+    }
+
+    private static void parkUntil(long deadlineNanos) {
+        long remaining;
+        while ((remaining = deadlineNanos - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(remaining);
+        }
+    }
+
+    private static final class Pending {
+        final boolean set;
+        final long intendedNanos;
+        final long sentNanos;
+
+        Pending(boolean set, long intendedNanos, long sentNanos) {
+            this.set = set;
+            this.intendedNanos = intendedNanos;
+            this.sentNanos = sentNanos;
+        }
+    }
+
+    /**
+     * Ölçüm penceresinin (ısınma hariç) sonucu
+     */
+    public static final class Result {
+        private final long completed;
+        private final long errors;
+        private final long notFound;
+        private final long elapsedNanos;
+
+        Result(long completed, long errors, long notFound, long elapsedNanos) {
+            this.completed = completed;
+            this.errors = errors;
+            this.notFound = notFound;
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        public long getCompleted() {
+            return completed;
+        }
+
+        public long getErrors() {
+            return errors;
+        }
+
+        public long getNotFound() {
+            return notFound;
+        }
+
+        public long getElapsedNanos() {
+            return elapsedNanos;
+        }
+
+        public double getThroughput() {
+            return completed / (elapsedNanos / 1e9);
+        }
+    }
+
+    /**
+     * Yük üretecini system property'lerinden okunan ayarlarla çalıştırır:
+     * -Dload.host, -Dload.port, -Dload.connections, -Dload.pipeline, -Dload.setRatio, -Dload.keys,
+     * -Dload.distribution (UNIFORM/ZIPFIAN), -Dload.payloadSize, -Dload.rate (0 = closed-loop),
+     * -Dload.duration, -Dload.warmup (saniye), -Dload.preload
+     */
+    public static void main(String[] args) {
+        String host = System.getProperty("load.host", DEFAULT_HOST);
+        int port = intProperty("load.port", DEFAULT_PORT);
+
+        KeyDistribution distribution = KeyDistribution.UNIFORM;
+        String distributionProperty = System.getProperty("load.distribution");
+        if (distributionProperty != null && !distributionProperty.isEmpty()) {
+            try {
+                distribution = KeyDistribution.valueOf(distributionProperty.toUpperCase());
+            } catch (IllegalArgumentException e) {
+                logger.error("Geçersiz load.distribution değeri: {}. Varsayılan kullanılıyor: {}",
+                        distributionProperty, distribution);
+            }
+        }
+
+        LoadProfile profile;
+        try {
+            profile = new LoadProfile(
+                    intProperty("load.connections", 4),
+                    intProperty("load.pipeline", 1),
+                    doubleProperty("load.setRatio", 0.5),
+                    intProperty("load.keys", 10_000),
+                    distribution,
+                    intProperty("load.payloadSize", 100),
+                    doubleProperty("load.rate", 0),
+                    intProperty("load.duration", 30),
+                    intProperty("load.warmup", 5),
+                    Boolean.getBoolean("load.preload"));
+        } catch (IllegalArgumentException e) {
+            logger.error("Geçersiz yük ayarı: {}", e.getMessage());
+            return;
+        }
+
+        LoadGenerator generator = new LoadGenerator(host, port, profile);
+        try {
+            Result result = generator.run();
+            System.out.println(String.format(
+                    "[LOAD RESULT] Süre: %.1fs | Tamamlanan: %d | Throughput: %.0f istek/s | Hedef: %s | "
+                            + "Hata: %d | NOT_FOUND: %d",
+                    result.getElapsedNanos() / 1e9, result.getCompleted(), result.getThroughput(),
+                    profile.isOpenLoop() ? String.format("%.0f istek/s", profile.getTargetRate()) : "closed-loop",
+                    result.getErrors(), result.getNotFound()));
+            for (String line : generator.getMetrics().report()) {
+                System.out.println("[LOAD RESULT] " + line);
+            }
+        } catch (IOException e) {
+            logger.error("Lider'e bağlanılamadı ({}:{}): {}", host, port, e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static int intProperty(String name, int defaultValue) {
+        String value = System.getProperty(name);
+        if (value == null || value.isEmpty()) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            logger.error("Geçersiz {} değeri: {}. Varsayılan kullanılıyor: {}", name, value, defaultValue);
+            return defaultValue;
+        }
+    }
+
+    private static double doubleProperty(String name, double defaultValue) {
+        String value = System.getProperty(name);
+        if (value == null || value.isEmpty()) {
+            return defaultValue;
+        }
+        try {
+            return Double.parseDouble(value);
+        } catch (NumberFormatException e) {
+            logger.error("Geçersiz {} değeri: {}. Varsayılan kullanılıyor: {}", name, value, defaultValue);
+            return defaultValue;
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.sistem.proje.client;
+
+/**
+ * Yük üretecinin iş yükü tanımı
+ */
+public class LoadProfile {
+    private final int connections;
+    private final int pipelineDepth;
+    private final double setRatio;
+    private final int keyCount;
+    private final KeyDistribution distribution;
+    private final int payloadSize;
+    private final double targetRate;
+    private final int durationSeconds;
+    private final int warmupSeconds;
+    private final boolean preload;
+
+    /**
+     * @param connections Paralel TCP bağlantı sayısı
+     * @param pipelineDepth Bağlantı başına cevap beklenmeden gönderilebilecek istek sayısı
+     * @param setRatio İsteklerin SET olma oranı (0.0 = sadece GET, 1.0 = sadece SET)
+     * @param keyCount Mesaj ID aralığı [0, keyCount)
+     * @param distribution Mesaj ID dağılımı
+     * @param payloadSize SET mesajlarının boyutu (byte)
+     * @param targetRate Toplam hedef istek/saniye (open-loop); 0 ise her bağlantı cevap geldikçe gönderir (closed-loop)
+     * @param durationSeconds Ölçüm süresi
+     * @param warmupSeconds Ölçümden önce yük uygulanan ama kaydedilmeyen süre
+     * @param preload Başlamadan önce tüm ID'lere birer SET yapılır (GET'ler NOT_FOUND dönmesin)
+     */
+    public LoadProfile(int connections, int pipelineDepth, double setRatio, int keyCount,
+                       KeyDistribution distribution, int payloadSize, double targetRate,
+                       int durationSeconds, int warmupSeconds, boolean preload) {
+        if (connections < 1) {
+            throw new IllegalArgumentException("Bağlantı sayısı en az 1 olmalı: " + connections);
+        }
+        if (pipelineDepth < 1) {
+            throw new IllegalArgumentException("Pipeline derinliği en az 1 olmalı: " + pipelineDepth);
+        }
+        if (setRatio < 0 || setRatio > 1) {
+            throw new IllegalArgumentException("SET oranı 0.0-1.0 aralığında olmalı: " + setRatio);
+        }
+        if (keyCount < 1) {
+            throw new IllegalArgumentException("Anahtar sayısı en az 1 olmalı: " + keyCount);
+        }
+        if (payloadSize < 1) {
+            throw new IllegalArgumentException("Payload boyutu en az 1 olmalı: " + payloadSize);
+        }
+        if (targetRate < 0) {
+            throw new IllegalArgumentException("Hedef hız negatif olamaz: " + targetRate);
+        }
+        if (durationSeconds < 1 || warmupSeconds < 0) {
+            throw new IllegalArgumentException("Geçersiz süre: duration=" + durationSeconds + ", warmup=" + warmupSeconds);
+        }
+        this.connections = connections;
+        this.pipelineDepth = pipelineDepth;
+        this.setRatio = setRatio;
+        this.keyCount = keyCount;
+        this.distribution = distribution != null ? distribution : KeyDistribution.UNIFORM;
+        this.payloadSize = payloadSize;
+        this.targetRate = targetRate;
+        this.durationSeconds = durationSeconds;
+        this.warmupSeconds = warmupSeconds;
+        this.preload = preload;
+    }
+
+    public int getConnections() {
+        return connections;
+    }
+
+    public int getPipelineDepth() {
+        return pipelineDepth;
+    }
+
+    public double getSetRatio() {
+        return setRatio;
+    }
+
+    public int getKeyCount() {
+        return keyCount;
+    }
+
+    public KeyDistribution getDistribution() {
+        return distribution;
+    }
+
+    public int getPayloadSize() {
+        return payloadSize;
+    }
+
+    public double getTargetRate() {
+        return targetRate;
+    }
+
+    public boolean isOpenLoop() {
+        return targetRate > 0;
+    }
+
+    public int getDurationSeconds() {
+        return durationSeconds;
+    }
+
+    public int getWarmupSeconds() {
+        return warmupSeconds;
+    }
+
+    public boolean isPreload() {
+        return preload;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("LoadProfile{connections=%d, pipeline=%d, setRatio=%.2f, keys=%d, distribution=%s, "
+                        + "payload=%d, rate=%s, duration=%ds, warmup=%ds, preload=%s}",
+                connections, pipelineDepth, setRatio, keyCount, distribution, payloadSize,
+                isOpenLoop() ? String.format("%.0f/s", targetRate) : "closed-loop",
+                durationSeconds, warmupSeconds, preload);
+    }
+}
@@ -0,0 +1,27 @@
+package com.sistem.proje.client;
+
+/**
+ * Offset log'undan okunan kayıt (StorageClient.readAsync)
+ */
+public final class LogRecord {
+    private final long offset;
+    private final String message;
+
+    public LogRecord(long offset, String message) {
+        this.offset = offset;
+        this.message = message;
+    }
+
+    public long getOffset() {
+        return offset;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    @Override
+    public String toString() {
+        return "LogRecord{offset=" + offset + ", message=" + message + "}";
+    }
+}
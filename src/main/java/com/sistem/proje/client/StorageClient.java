@@ -0,0 +1,644 @@
+package com.sistem.proje.client;
+
+import com.sistem.proje.client.ClientConnection.Request;
+import com.sistem.proje.client.ClientConnection.Response;
+import com.sistem.proje.metrics.Counter;
+import com.sistem.proje.metrics.LatencyHistogram;
+import com.sistem.proje.metrics.MetricsRegistry;
+import com.sistem.proje.protocol.BinaryOpcode;
+import com.sistem.proje.protocol.BinaryProtocol;
+import com.sistem.proje.protocol.PartitionMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Lider için gömülebilir client kütüphanesi
+ *
+ * Lidere binary protokolle bağlantı havuzu açar; istekler bağlantılara sırayla dağıtılır ve her
+ * bağlantıda cevap beklenmeden gönderilir (pipelining). Bağlantılar ilk kullanımda açılır, kopan
+ * bağlantı bir sonraki istekte yeniden kurulur. Bağlantı hatası ve zaman aşımı üstel beklemeyle
+ * tekrar edilir; liderin ERROR cevabı tekrar edilmez.
+ *
+ * ID uzayı birden çok lidere bölünmüşse (PartitionMap) client ilk SET/GET'te partition map'i verilen
+ * liderden alıp önbellekler ve her ID'yi doğrudan sahibi liderin havuzuna gönderir. MOVED cevabındaki
+ * adres map'e işlenir ve istek hemen tekrar gönderilir; Raft takipçisinin MOVED'u da client'ı aynı yolla
+ * grubun liderine yönlendirir. Lidere bağlantı koparsa map yeniden alınır: önce verilen liderden, sonra
+ * diğer bilinen adreslerden (yedek adresler ve son map). APPEND/READ verilen lidere gider.
+ *
+ * Thread-safe'tir, servis başına tek örnek paylaşılmalıdır. Async future'lar bağlantının okuyucu
+ * thread'inde tamamlanır: bloklayan veya ağır callback'ler *Async varyantlarıyla başka bir
+ * executor'a alınmalıdır
+ */
+public class StorageClient implements Closeable {
+    private static final Logger logger = LoggerFactory.getLogger(StorageClient.class);
+    private static final byte[] EMPTY = new byte[0];
+    // Offset log kayıt başlığı: offset(8) | uzunluk(4) | crc(4)
+    private static final int LOG_RECORD_HEADER_SIZE = 16;
+
+    private final String host;
+    private final int port;
+    private final ClientOptions options;
+    // Verilen lider: partition map buradan alınır, APPEND/READ buraya gider
+    private final ConnectionPool seed;
+    // Verilen lidere ulaşılamazsa map'in istendiği diğer liderler (ör. Raft grubunun diğer node'ları)
+    private final List<String> fallbackAddresses;
+    // host:port → partition liderinin havuzu
+    private final Map<String, ConnectionPool> leaderPools = new ConcurrentHashMap<>();
+    private final Object partitionLock = new Object();
+    // Önbelleklenmiş map, null ise sonraki SET/GET'te alınır
+    private volatile PartitionMap partitionMap;
+    // Geçersiz kılınan son map, verilen lidere ulaşılamazsa yeni map diğer liderlerden istenir
+    private volatile PartitionMap lastPartitionMap;
+    private final ScheduledExecutorService retryScheduler;
+    private volatile boolean closed;
+
+    private final MetricsRegistry metrics = new MetricsRegistry();
+    private final LatencyHistogram setLatency = metrics.histogram("client.set");
+    private final LatencyHistogram getLatency = metrics.histogram("client.get");
+    private final LatencyHistogram appendLatency = metrics.histogram("client.append");
+    private final LatencyHistogram readLatency = metrics.histogram("client.read");
+    private final Counter retries = metrics.counter("client.retries");
+    private final Counter timeouts = metrics.counter("client.timeouts");
+    private final Counter errors = metrics.counter("client.errors");
+    private final Counter moved = metrics.counter("client.moved");
+
+    public StorageClient(String host, int port) {
+        this(host, port, new ClientOptions());
+    }
+
+    public StorageClient(String host, int port, ClientOptions options) {
+        this(host, port, options, List.of());
+    }
+
+    /**
+     * Birden çok lider adresiyle oluşturur (Raft grubu); ilki verilen lider, diğerleri ona ulaşılamadığında
+     * partition map'in istendiği yedek adreslerdir
+     *
+     * @param addresses host:port listesi
+     * @throws IllegalArgumentException Liste boşsa veya adreslerden biri host:port değilse
+     */
+    public StorageClient(List<String> addresses, ClientOptions options) {
+        this(PartitionMap.parse(String.join(",", addresses)), options);
+    }
+
+    private StorageClient(PartitionMap leaders, ClientOptions options) {
+        this(PartitionMap.host(leaders.addressOf(0)), PartitionMap.port(leaders.addressOf(0)), options,
+                leaders.getAddresses().subList(1, leaders.size()));
+    }
+
+    private StorageClient(String host, int port, ClientOptions options, List<String> fallbackAddresses) {
+        if (port < 1 || port > 65535) {
+            throw new IllegalArgumentException("Geçersiz port: " + port);
+        }
+        this.host = host;
+        this.port = port;
+        this.options = options;
+        this.fallbackAddresses = List.copyOf(fallbackAddresses);
+        this.seed = new ConnectionPool(host, port, options);
+        this.retryScheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "storage-client-retry");
+            thread.setDaemon(true);
+            return thread;
+        });
+        logger.info("StorageClient oluşturuldu: {}:{} {}", host, port, options);
+    }
+
+    /**
+     * Mesajı async olarak kaydeder
+     *
+     * @return Lider SET'i onayladığında tamamlanan future; hata ClientException ile bildirilir
+     */
+    public CompletableFuture<Void> setAsync(int id, String message) {
+        long start = System.nanoTime();
+        return toSetResult(execute(setRequest(id, message)), start);
+    }
+
+    /**
+     * Mesajı async olarak okur
+     *
+     * @return Mesajla tamamlanan future, mesaj yoksa null ile tamamlanır
+     */
+    public CompletableFuture<String> getAsync(int id) {
+        long start = System.nanoTime();
+        return toGetResult(execute(new Request(BinaryOpcode.GET, id, EMPTY)), start);
+    }
+
+    /**
+     * Mesajları toplu kaydeder: istekler bağlantı başına pipeline derinliği kadar gruplanıp tek
+     * flush ile gönderilir. Tekrarlar istek bazında yapılır
+     *
+     * @return Tüm SET'ler onaylandığında tamamlanan future; herhangi biri başarısız olursa ilk hata ile tamamlanır
+     */
+    public CompletableFuture<Void> setAllAsync(Map<Integer, String> messages) {
+        long start = System.nanoTime();
+        List<Request> requests = new ArrayList<>(messages.size());
+        for (Map.Entry<Integer, String> entry : messages.entrySet()) {
+            requests.add(setRequest(entry.getKey(), entry.getValue()));
+        }
+        List<CompletableFuture<Response>> responses = executeAll(requests);
+        CompletableFuture<?>[] results = new CompletableFuture<?>[responses.size()];
+        for (int i = 0; i < results.length; i++) {
+            results[i] = toSetResult(responses.get(i), start);
+        }
+        return CompletableFuture.allOf(results);
+    }
+
+    /**
+     * Mesajları toplu okur (gruplama setAllAsync ile aynıdır)
+     *
+     * @return Bulunan mesajların id → mesaj map'i; olmayan id'ler map'te yer almaz
+     */
+    public CompletableFuture<Map<Integer, String>> getAllAsync(Collection<Integer> ids) {
+        long start = System.nanoTime();
+        List<Integer> keys = new ArrayList<>(ids);
+        List<Request> requests = new ArrayList<>(keys.size());
+        for (Integer id : keys) {
+            requests.add(new Request(BinaryOpcode.GET, id, EMPTY));
+        }
+        List<CompletableFuture<Response>> responses = executeAll(requests);
+        List<CompletableFuture<String>> results = new ArrayList<>(responses.size());
+        for (CompletableFuture<Response> response : responses) {
+            results.add(toGetResult(response, start));
+        }
+        return CompletableFuture.allOf(results.toArray(new CompletableFuture<?>[0])).thenApply(ignored -> {
+            Map<Integer, String> found = new HashMap<>();
+            for (int i = 0; i < keys.size(); i++) {
+                String message = results.get(i).join();
+                if (message != null) {
+                    found.put(keys.get(i), message);
+                }
+            }
+            return found;
+        });
+    }
+
+    /**
+     * Mesajı liderin offset log'una ekler
+     * Gönderilmiş bir APPEND'in cevabı alınamazsa (zaman aşımı, bağlantı kopması) kayıt eklenmiş
+     * olabileceği için tekrar edilmez; sadece bağlantı kurulamadığında tekrar denenir
+     *
+     * @return Kayda verilen offset ile tamamlanan future
+     */
+    public CompletableFuture<Long> appendAsync(String message) {
+        if (message == null) {
+            throw new IllegalArgumentException("Mesaj null olamaz");
+        }
+        long start = System.nanoTime();
+        Request request = new Request(BinaryOpcode.APPEND, 0, message.getBytes(StandardCharsets.UTF_8), false);
+        return execute(request).thenApply(r -> {
+            appendLatency.recordSince(start);
+            if (r.opcode != BinaryOpcode.OK || r.payload.length != BinaryProtocol.APPEND_RESPONSE_SIZE) {
+                throw new CompletionException(errorResponse("APPEND", r));
+            }
+            return ByteBuffer.wrap(r.payload).getLong();
+        });
+    }
+
+    /**
+     * offset'ten başlayan kayıtları tek istekte okur
+     * Sonraki okuma son kaydın offset'i + 1'den devam eder; liste boşsa log sonuna gelinmiştir
+     *
+     * @param maxBytes Batch'in en fazla byte'ı (kayıt başlıkları dahil); ilk kayıt daha büyükse tek başına döner
+     */
+    public CompletableFuture<List<LogRecord>> readAsync(long offset, int maxBytes) {
+        if (offset < 0 || maxBytes < 1) {
+            throw new IllegalArgumentException("Geçersiz READ: offset=" + offset + ", maxBytes=" + maxBytes);
+        }
+        long start = System.nanoTime();
+        byte[] payload = ByteBuffer.allocate(BinaryProtocol.READ_REQUEST_SIZE).putLong(offset).putInt(maxBytes).array();
+        return execute(new Request(BinaryOpcode.READ, 0, payload)).thenApply(r -> {
+            readLatency.recordSince(start);
+            if (r.opcode != BinaryOpcode.OK) {
+                throw new CompletionException(errorResponse("READ", r));
+            }
+            return parseRecords(r.key, r.payload);
+        });
+    }
+
+    /**
+     * Mesajı kaydeder ve onayı bekler
+     */
+    public void set(int id, String message) throws ClientException, InterruptedException {
+        await(setAsync(id, message));
+    }
+
+    /**
+     * Mesajı okur
+     *
+     * @return Mesaj, yoksa null
+     */
+    public String get(int id) throws ClientException, InterruptedException {
+        return await(getAsync(id));
+    }
+
+    public long append(String message) throws ClientException, InterruptedException {
+        return await(appendAsync(message));
+    }
+
+    public List<LogRecord> read(long offset, int maxBytes) throws ClientException, InterruptedException {
+        return await(readAsync(offset, maxBytes));
+    }
+
+    /**
+     * Önbellekteki partition map'i döndürür, yoksa alır
+     *
+     * @throws ClientException Hiçbir liderden alınamazsa
+     */
+    public PartitionMap getPartitionMap() throws ClientException {
+        PartitionMap map = partitionMap;
+        if (map != null) {
+            return map;
+        }
+        synchronized (partitionLock) {
+            if (partitionMap == null) {
+                partitionMap = fetchPartitionMap();
+                logger.info("Partition map alındı: {}", partitionMap);
+            }
+            return partitionMap;
+        }
+    }
+
+    /**
+     * İstatistikler: client.set/client.get gecikmeleri (tekrarlar dahil), client.retries,
+     * client.timeouts (deneme bazında), client.moved (MOVED yönlendirmeleri) ve client.errors
+     * (tekrarlar tükendikten sonraki hatalar)
+     */
+    public MetricsRegistry getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Bağlantıları kapatır; cevap bekleyen ve tekrar sırasındaki istekler ClientException ile tamamlanır
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        seed.close();
+        for (ConnectionPool pool : leaderPools.values()) {
+            pool.close();
+        }
+        // Bekleyen tekrarlar çalıştırılır, closed bayrağını görüp future'larını hata ile tamamlarlar
+        for (Runnable pendingRetry : retryScheduler.shutdownNow()) {
+            pendingRetry.run();
+        }
+        logger.info("StorageClient kapatıldı: {}:{}", host, port);
+    }
+
+    private static Request setRequest(int id, String message) {
+        if (message == null) {
+            throw new IllegalArgumentException("Mesaj null olamaz");
+        }
+        return new Request(BinaryOpcode.SET, id, message.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private CompletableFuture<Void> toSetResult(CompletableFuture<Response> response, long start) {
+        return response.thenApply(r -> {
+            setLatency.recordSince(start);
+            if (r.opcode != BinaryOpcode.OK) {
+                throw new CompletionException(errorResponse("SET", r));
+            }
+            return null;
+        });
+    }
+
+    private CompletableFuture<String> toGetResult(CompletableFuture<Response> response, long start) {
+        return response.thenApply(r -> {
+            getLatency.recordSince(start);
+            if (r.opcode == BinaryOpcode.OK) {
+                return new String(r.payload, StandardCharsets.UTF_8);
+            }
+            if (r.opcode == BinaryOpcode.NOT_FOUND) {
+                return null;
+            }
+            throw new CompletionException(errorResponse("GET", r));
+        });
+    }
+
+    /**
+     * READ cevabını çözer: kayıtlar offset(8) | uzunluk(4) | crc(4) | payload biçimindedir
+     */
+    private static List<LogRecord> parseRecords(int count, byte[] payload) {
+        List<LogRecord> records = new ArrayList<>(count);
+        ByteBuffer buffer = ByteBuffer.wrap(payload);
+        while (buffer.remaining() >= LOG_RECORD_HEADER_SIZE) {
+            long offset = buffer.getLong();
+            int length = buffer.getInt();
+            buffer.getInt();
+            records.add(new LogRecord(offset, new String(payload, buffer.position(), length, StandardCharsets.UTF_8)));
+            buffer.position(buffer.position() + length);
+        }
+        return records;
+    }
+
+    private ClientException errorResponse(String operation, Response response) {
+        errors.increment();
+        if (response.opcode == BinaryOpcode.ERROR) {
+            return new ClientException(operation + " başarısız: "
+                    + new String(response.payload, StandardCharsets.UTF_8), false);
+        }
+        return new ClientException(operation + " için beklenmeyen cevap: " + response.opcode, false);
+    }
+
+    private CompletableFuture<Response> execute(Request request) {
+        CompletableFuture<Response> result = new CompletableFuture<>();
+        attempt(request, 0, result);
+        return result;
+    }
+
+    /**
+     * İlk denemede istekler partition liderlerine göre ayrılır ve bağlantı başına maxInFlight'lık gruplar
+     * halinde tek flush ile gönderilir
+     */
+    private List<CompletableFuture<Response>> executeAll(List<Request> requests) {
+        List<CompletableFuture<Response>> results = new ArrayList<>(requests.size());
+        for (int i = 0; i < requests.size(); i++) {
+            results.add(new CompletableFuture<>());
+        }
+        PartitionMap map;
+        Map<ConnectionPool, List<Integer>> byLeader = new LinkedHashMap<>();
+        try {
+            map = getPartitionMap();
+            for (int i = 0; i < requests.size(); i++) {
+                byLeader.computeIfAbsent(pool(map, requests.get(i)), pool -> new ArrayList<>()).add(i);
+            }
+        } catch (ClientException e) {
+            for (int i = 0; i < requests.size(); i++) {
+                retryOrFail(requests.get(i), 0, results.get(i), e);
+            }
+            return results;
+        }
+
+        int batchSize = options.getMaxInFlight();
+        for (Map.Entry<ConnectionPool, List<Integer>> entry : byLeader.entrySet()) {
+            List<Integer> indexes = entry.getValue();
+            for (int from = 0; from < indexes.size(); from += batchSize) {
+                List<Integer> chunk = indexes.subList(from, Math.min(from + batchSize, indexes.size()));
+                List<Request> batch = new ArrayList<>(chunk.size());
+                for (Integer index : chunk) {
+                    batch.add(requests.get(index));
+                }
+
+                ClientConnection connection;
+                try {
+                    connection = entry.getKey().connection();
+                } catch (ClientException e) {
+                    invalidatePartitionMap(map);
+                    for (int i = 0; i < batch.size(); i++) {
+                        retryOrFail(batch.get(i), 0, results.get(chunk.get(i)), e);
+                    }
+                    continue;
+                }
+                List<CompletableFuture<Response>> sent = connection.send(batch);
+                for (int i = 0; i < batch.size(); i++) {
+                    Request request = batch.get(i);
+                    CompletableFuture<Response> result = results.get(chunk.get(i));
+                    sent.get(i).whenComplete((response, error) ->
+                            onResponse(request, 0, result, response, error, map));
+                }
+            }
+        }
+        return results;
+    }
+
+    private void attempt(Request request, int attempt, CompletableFuture<Response> result) {
+        if (closed) {
+            result.completeExceptionally(new ClientException("Client kapatıldı", false));
+            return;
+        }
+        PartitionMap map = null;
+        ClientConnection connection;
+        try {
+            if (isKeyed(request)) {
+                map = getPartitionMap();
+            }
+            connection = pool(map, request).connection();
+        } catch (ClientException e) {
+            // Lider düşmüş olabilir, sonraki denemede map yeniden alınır
+            invalidatePartitionMap(map);
+            retryOrFail(request, attempt, result, e);
+            return;
+        }
+        PartitionMap routedWith = map;
+        connection.send(request).whenComplete((response, error) ->
+                onResponse(request, attempt, result, response, error, routedWith));
+    }
+
+    private static boolean isKeyed(Request request) {
+        return request.opcode == BinaryOpcode.SET || request.opcode == BinaryOpcode.GET;
+    }
+
+    /**
+     * İsteğin gideceği havuz: SET/GET ID'nin partition liderine, diğerleri verilen lidere
+     */
+    private ConnectionPool pool(PartitionMap map, Request request) {
+        if (map == null || !isKeyed(request)) {
+            return seed;
+        }
+        String address = map.addressOf(map.partitionOf(request.key));
+        if (PartitionMap.LOCAL.equals(address) || address.equals(seed.getAddress())) {
+            return seed;
+        }
+        return leaderPools.computeIfAbsent(address,
+                a -> new ConnectionPool(PartitionMap.host(a), PartitionMap.port(a), options));
+    }
+
+    /**
+     * Map'i önce verilen liderden, ulaşılamazsa yedek adreslerden ve bilinen son map'teki liderlerden ister
+     * PARTITIONS'ı tanımayan lider bölünmemiş sayılır
+     */
+    private PartitionMap fetchPartitionMap() throws ClientException {
+        Set<String> addresses = new LinkedHashSet<>(fallbackAddresses);
+        PartitionMap last = lastPartitionMap;
+        if (last != null) {
+            addresses.addAll(last.getAddresses());
+        }
+        addresses.remove(PartitionMap.LOCAL);
+        addresses.remove(seed.getAddress());
+        List<ConnectionPool> candidates = new ArrayList<>();
+        candidates.add(seed);
+        for (String address : addresses) {
+            candidates.add(leaderPools.computeIfAbsent(address,
+                    a -> new ConnectionPool(PartitionMap.host(a), PartitionMap.port(a), options)));
+        }
+        ClientException lastFailure = null;
+        for (ConnectionPool candidate : candidates) {
+            try {
+                Response response = candidate.connection().send(new Request(BinaryOpcode.PARTITIONS, 0, EMPTY)).get();
+                if (response.opcode == BinaryOpcode.OK) {
+                    return PartitionMap.decode(new String(response.payload, StandardCharsets.UTF_8));
+                }
+                logger.debug("{} PARTITIONS'ı desteklemiyor, bölünmemiş küme varsayılıyor", candidate.getAddress());
+                return PartitionMap.single();
+            } catch (ClientException e) {
+                lastFailure = e;
+            } catch (ExecutionException e) {
+                lastFailure = new ClientException("Partition map alınamadı: " + candidate.getAddress() + " - "
+                        + e.getCause(), e.getCause(), true);
+            } catch (IllegalArgumentException e) {
+                lastFailure = new ClientException("Geçersiz partition map: " + e.getMessage(), e, false);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new ClientException("Partition map beklenirken kesildi", e, false);
+            }
+        }
+        throw lastFailure;
+    }
+
+    private void invalidatePartitionMap(PartitionMap stale) {
+        if (stale == null) {
+            return;
+        }
+        synchronized (partitionLock) {
+            // Aynı eski map'le yönlendirilmiş isteklerin MOVED'ları map'i bir kez yeniletir
+            if (stale != null && partitionMap == stale) {
+                lastPartitionMap = stale;
+                partitionMap = null;
+            }
+        }
+    }
+
+    private void redirectPartition(PartitionMap stale, int partition, String owner) {
+        if (stale == null || partition < 0 || partition >= stale.size()) {
+            invalidatePartitionMap(stale);
+            return;
+        }
+        synchronized (partitionLock) {
+            // Aynı eski map'le yönlendirilmiş isteklerin MOVED'ları map'i bir kez günceller
+            if (partitionMap == stale) {
+                try {
+                    partitionMap = stale.withAddress(partition, owner);
+                    logger.info("Partition {} lideri {} olarak güncellendi", partition, owner);
+                } catch (IllegalArgumentException e) {
+                    lastPartitionMap = stale;
+                    partitionMap = null;
+                }
+            }
+        }
+    }
+
+    private void onResponse(Request request, int attempt, CompletableFuture<Response> result,
+                            Response response, Throwable error, PartitionMap routedWith) {
+        if (error == null && response.opcode == BinaryOpcode.MOVED) {
+            redirect(request, attempt, result, response, routedWith);
+            return;
+        }
+        if (error == null) {
+            result.complete(response);
+            return;
+        }
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        ClientException failure;
+        if (cause instanceof ClientException) {
+            failure = (ClientException) cause;
+        } else if (cause instanceof TimeoutException) {
+            timeouts.increment();
+            failure = new ClientException(request.opcode + " " + request.key + " zaman aşımına uğradı ("
+                    + options.getRequestTimeoutMillis() + " ms)", cause, true);
+        } else {
+            failure = new ClientException(request.opcode + " " + request.key + " başarısız: " + cause, cause, false);
+        }
+        if (failure.isRetryable()) {
+            // Bağlantı koptu veya zaman aşımı: lider değişmiş olabilir, map sonraki denemede yeniden alınır
+            invalidatePartitionMap(routedWith);
+        }
+        if (!request.idempotent && failure.isRetryable()) {
+            failure = new ClientException(failure.getMessage() + " (tekrar edilmedi, istek uygulanmış olabilir)",
+                    failure, false);
+        }
+        retryOrFail(request, attempt, result, failure);
+    }
+
+    private void retryOrFail(Request request, int attempt, CompletableFuture<Response> result,
+                             ClientException failure) {
+        if (closed) {
+            result.completeExceptionally(new ClientException("Client kapatıldı", failure, false));
+            return;
+        }
+        if (!failure.isRetryable() || attempt >= options.getMaxRetries()) {
+            errors.increment();
+            result.completeExceptionally(failure);
+            return;
+        }
+        retries.increment();
+        long delay = backoffMillis(attempt);
+        logger.debug("{} {} tekrar edilecek ({}. tekrar, {} ms sonra): {}",
+                request.opcode, request.key, attempt + 1, delay, failure.getMessage());
+        try {
+            retryScheduler.schedule(() -> attempt(request, attempt + 1, result), delay, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            result.completeExceptionally(new ClientException("Client kapatıldı", failure, false));
+        }
+    }
+
+    /**
+     * MOVED: cevaptaki partition adresi map'e işlenir (partition map'te yoksa map yenilenir) ve istek
+     * beklemeden tekrar gönderilir (tekrar sayısı maxRetries ile sınırlı)
+     */
+    private void redirect(Request request, int attempt, CompletableFuture<Response> result, Response response,
+                          PartitionMap routedWith) {
+        moved.increment();
+        String owner = new String(response.payload, StandardCharsets.UTF_8);
+        redirectPartition(routedWith, response.key, owner);
+        if (attempt >= options.getMaxRetries()) {
+            errors.increment();
+            result.completeExceptionally(new ClientException(request.opcode + " " + request.key
+                    + " partition " + response.key + " liderine (" + owner + ") yönlendirildi, tekrarlar tükendi", false));
+            return;
+        }
+        logger.debug("{} {} partition {} liderine ({}) yönlendirildi", request.opcode, request.key, response.key, owner);
+        try {
+            retryScheduler.execute(() -> attempt(request, attempt + 1, result));
+        } catch (RejectedExecutionException e) {
+            result.completeExceptionally(new ClientException("Client kapatıldı", false));
+        }
+    }
+
+    /**
+     * Üstel bekleme, aynı anda kopan isteklerin birlikte tekrar gelmemesi için [yarısı, tamamı] aralığında rastgele
+     */
+    private long backoffMillis(int attempt) {
+        long base = options.getRetryBackoffMillis() << Math.min(attempt, 20);
+        long capped = Math.min(options.getMaxRetryBackoffMillis(), base);
+        if (capped <= 1) {
+            return capped;
+        }
+        return capped / 2 + ThreadLocalRandom.current().nextLong(capped / 2 + 1);
+    }
+
+    private static <T> T await(CompletableFuture<T> future) throws ClientException, InterruptedException {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof ClientException) {
+                throw (ClientException) e.getCause();
+            }
+            throw new ClientException("İstek başarısız: " + e.getCause(), e.getCause(), false);
+        }
+    }
+}
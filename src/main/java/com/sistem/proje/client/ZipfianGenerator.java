@@ -0,0 +1,73 @@
+package com.sistem.proje.client;
+
+import java.util.SplittableRandom;
+
+/**
+ * [0, n) aralığında Zipf dağılımlı sayı üretir (Gray ve ark., "Quickly Generating Billion-Record
+ * Synthetic Databases" yöntemi, YCSB ile aynı)
+ * zeta(n) bir kez hesaplanır, her çekiliş sabit zamanlıdır; 0 en sık seçilen değerdir
+ * Rastgele sayı üreteci dışarıdan verilir, böylece aynı generator birden fazla thread'den kullanılabilir
+ */
+public final class ZipfianGenerator {
+    public static final double DEFAULT_THETA = 0.99;
+
+    private final long items;
+    private final double theta;
+    private final double zetan;
+    private final double alpha;
+    private final double eta;
+    private final double halfPowTheta;
+
+    public ZipfianGenerator(long items) {
+        this(items, DEFAULT_THETA);
+    }
+
+    /**
+     * @param items Değer aralığı [0, items)
+     * @param theta Çarpıklık (0 < theta < 1), büyüdükçe sıcak anahtarlar daha baskın olur
+     */
+    public ZipfianGenerator(long items, double theta) {
+        if (items < 1) {
+            throw new IllegalArgumentException("items en az 1 olmalı: " + items);
+        }
+        if (theta <= 0 || theta >= 1) {
+            throw new IllegalArgumentException("theta (0, 1) aralığında olmalı: " + theta);
+        }
+        this.items = items;
+        this.theta = theta;
+        this.zetan = zeta(items, theta);
+        this.alpha = 1.0 / (1.0 - theta);
+        this.halfPowTheta = Math.pow(0.5, theta);
+        double zeta2 = 1.0 + halfPowTheta;
+        this.eta = (1 - Math.pow(2.0 / items, 1 - theta)) / (1 - zeta2 / zetan);
+    }
+
+    public long getItems() {
+        return items;
+    }
+
+    public double getTheta() {
+        return theta;
+    }
+
+    public long next(SplittableRandom random) {
+        double u = random.nextDouble();
+        double uz = u * zetan;
+        if (uz < 1.0) {
+            return 0;
+        }
+        if (uz < 1.0 + halfPowTheta) {
+            return Math.min(1, items - 1);
+        }
+        long value = (long) (items * Math.pow(eta * u - eta + 1, alpha));
+        return Math.min(value, items - 1);
+    }
+
+    private static double zeta(long n, double theta) {
+        double sum = 0;
+        for (long i = 1; i <= n; i++) {
+            sum += 1 / Math.pow(i, theta);
+        }
+        return sum;
+    }
+}
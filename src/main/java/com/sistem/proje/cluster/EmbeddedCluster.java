@@ -0,0 +1,431 @@
+package com.sistem.proje.cluster;
+
+import com.sistem.proje.leader.LeaderNode;
+import com.sistem.proje.leader.LoadBalancingStrategy;
+import com.sistem.proje.member.FaultInjector;
+import com.sistem.proje.member.MemberNode;
+import com.sistem.proje.member.MemberOptions;
+import com.sistem.proje.storage.IOMode;
+import com.sistem.proje.storage.StorageOptions;
+import io.grpc.ServerBuilder;
+import io.grpc.inprocess.InProcessChannelBuilder;
+import io.grpc.inprocess.InProcessServerBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Tek JVM içinde bir lider ve N üyeden oluşan gömülü küme (benchmark ve testler için)
+ * Tüm node'lar boş portlarda açılır, her biri geçici kök klasörün altında kendi veri klasörünü kullanır;
+ * lider → üye gRPC trafiği isteğe bağlı olarak in-process transport üzerinden gider.
+ * Client'lar lidere her zaman gerçek TCP ile bağlanır (getLeaderPort())
+ *
+ * setLeaderCount ile birden çok lider Raft grubu olarak başlatılabilir: üyeler tüm lider adreslerini bilir
+ * ve REGISTER ile seçilmiş lidere kaydolur, lider düşünce heartbeat akışıyla yenisine geçer
+ *
+ * Üyelere hata enjekte edilebilir: kill/restart (crash ve aynı veri klasörüyle geri dönüş),
+ * pause/resume (RPC ve heartbeat'ler durur), slow (her RPC'ye gecikme). Raft grubunda killLeader
+ * bir lideri durdurur
+ */
+public class EmbeddedCluster implements Closeable {
+    private static final Logger logger = LoggerFactory.getLogger(EmbeddedCluster.class);
+    private static final long START_TIMEOUT_SECONDS = 10;
+    private static final long MEMBER_STATS_INTERVAL_SECONDS = 10;
+
+    private final int memberCount;
+    private final IOMode ioMode;
+    private final int tolerance;
+    private final boolean inProcess;
+    private int leaderCount = 1;
+
+    private Path rootDirectory;
+    private final List<LeaderNode> leaders = new ArrayList<>();
+    private final List<Thread> leaderThreads = new ArrayList<>();
+    // Üyelerin bildiği lider client adresleri (host:port), sıraları Raft id'leridir
+    private List<String> leaderAddresses;
+    private final Set<Integer> killedLeaders = ConcurrentHashMap.newKeySet();
+    private final List<String> memberIds = new ArrayList<>();
+    private final Map<String, MemberNode> members = new ConcurrentHashMap<>();
+    // Üye ID → in-process server adı (aynı JVM'deki diğer kümelerle çakışmasın diye üretilir)
+    private final Map<String, String> inProcessNames = new ConcurrentHashMap<>();
+    private final Set<String> killedMembers = ConcurrentHashMap.newKeySet();
+
+    /**
+     * CHANNEL IO modu, tolerance 1 ve TCP gRPC ile oluşturur
+     *
+     * @param memberCount Üye sayısı
+     */
+    public EmbeddedCluster(int memberCount) {
+        this(memberCount, IOMode.CHANNEL, 1, false);
+    }
+
+    /**
+     * @param memberCount Üye sayısı
+     * @param ioMode Lider ve üyelerin IO modu
+     * @param tolerance Her SET'in kopyalanacağı üye sayısı
+     * @param inProcess true ise lider → üye gRPC çağrıları in-process transport kullanır
+     */
+    public EmbeddedCluster(int memberCount, IOMode ioMode, int tolerance, boolean inProcess) {
+        if (memberCount < 0) {
+            throw new IllegalArgumentException("Üye sayısı negatif olamaz: " + memberCount);
+        }
+        this.memberCount = memberCount;
+        this.ioMode = ioMode;
+        this.tolerance = tolerance;
+        this.inProcess = inProcess;
+    }
+
+    /**
+     * Lider sayısını ayarlar (start'tan önce çağrılmalı)
+     * 1'den fazlaysa liderler Raft grubu olarak çalışır; Raft port'ları önceden bilinmesi gerektiği için
+     * liderler port ve port + RAFT_PORT_OFFSET'i boş olan port'larda açılır
+     *
+     * @param leaderCount Lider sayısı (varsayılan 1)
+     */
+    public void setLeaderCount(int leaderCount) {
+        if (leaderCount < 1) {
+            throw new IllegalArgumentException("Lider sayısı en az 1 olmalı: " + leaderCount);
+        }
+        this.leaderCount = leaderCount;
+    }
+
+    /**
+     * Liderleri ve üyeleri başlatır, üyeleri lidere kaydeder
+     * Raft grubunda üyeler başlatılmadan önce lider seçimi beklenir
+     *
+     * @throws IOException Lider süresi içinde başlamazsa veya seçilmezse, klasör oluşturulamazsa
+     */
+    public void start() throws IOException, InterruptedException {
+        rootDirectory = Files.createTempDirectory("embedded-cluster");
+        boolean raft = leaderCount > 1;
+        List<Integer> ports = new ArrayList<>();
+        for (int i = 0; i < leaderCount; i++) {
+            ports.add(raft ? freeLeaderPort(ports) : 0);
+        }
+        List<String> addresses = new ArrayList<>();
+        for (int port : ports) {
+            addresses.add("localhost:" + port);
+        }
+
+        for (int i = 0; i < leaderCount; i++) {
+            // Metrik endpoint'leri kapalı (-1), paralel kümeler port çakışması yaşamasın
+            Path leaderDirectory = rootDirectory.resolve(raft ? "leader-" + i : "leader");
+            LeaderNode leader = new LeaderNode(ports.get(i), ioMode, LoadBalancingStrategy.ROUND_ROBIN,
+                    leaderDirectory, -1);
+            leader.setTolerance(tolerance);
+            if (inProcess) {
+                leader.setChannelFactory(member -> InProcessChannelBuilder.forName(inProcessNames.get(member.getId()))
+                        .directExecutor()
+                        .build());
+            }
+            if (raft) {
+                leader.enableRaft(addresses, i);
+            }
+            Thread leaderThread = new Thread(leader::start, raft ? "embedded-leader-" + i : "embedded-leader");
+            leaderThread.setDaemon(true);
+            leaders.add(leader);
+            leaderThreads.add(leaderThread);
+            leaderThread.start();
+        }
+        for (LeaderNode leader : leaders) {
+            if (!leader.awaitStarted(START_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                throw new IOException("Lider " + START_TIMEOUT_SECONDS + " saniye içinde başlamadı");
+            }
+        }
+        leaderAddresses = raft ? List.copyOf(addresses) : List.of("localhost:" + leaders.get(0).getPort());
+        if (awaitLeader(START_TIMEOUT_SECONDS, TimeUnit.SECONDS) == null) {
+            throw new IOException("Raft grubu " + START_TIMEOUT_SECONDS + " saniye içinde lider seçmedi");
+        }
+
+        for (int i = 1; i <= memberCount; i++) {
+            String memberId = "member-" + i;
+            memberIds.add(memberId);
+            startMember(memberId);
+        }
+        logger.info("Gömülü küme başlatıldı: liderler={}, üyeler={}, tolerance={}, gRPC={}, klasör={}",
+                leaderAddresses, memberIds, tolerance, inProcess ? "in-process" : "TCP", rootDirectory);
+    }
+
+    /**
+     * Kendisi ve RAFT_PORT_OFFSET üstü boş olan, henüz seçilmemiş bir port bulur
+     * Port'lar kapatılıp lidere verildiği için aradaki kısa sürede başka bir süreç alabilir (testler için yeterli)
+     */
+    private static int freeLeaderPort(List<Integer> taken) throws IOException {
+        for (int attempt = 0; attempt < 100; attempt++) {
+            try (ServerSocket socket = new ServerSocket(0)) {
+                int port = socket.getLocalPort();
+                int raftPort = port + LeaderNode.RAFT_PORT_OFFSET;
+                if (raftPort > 65535 || taken.contains(port) || taken.contains(port - LeaderNode.RAFT_PORT_OFFSET)
+                        || taken.contains(raftPort)) {
+                    continue;
+                }
+                try (ServerSocket raftSocket = new ServerSocket(raftPort)) {
+                    return port;
+                } catch (IOException e) {
+                    // Raft port'u dolu, başka port denenir
+                }
+            }
+        }
+        throw new IOException("Lider için boş port bulunamadı");
+    }
+
+    private void startMember(String memberId) {
+        ServerBuilder<?> serverBuilder;
+        if (inProcess) {
+            String name = inProcessNames.computeIfAbsent(memberId, id -> InProcessServerBuilder.generateName());
+            serverBuilder = InProcessServerBuilder.forName(name);
+        } else {
+            serverBuilder = ServerBuilder.forPort(0);
+        }
+        MemberNode member = new MemberNode(0, new MemberOptions()
+                .setStorage(new StorageOptions().setIoMode(ioMode))
+                .setStatsIntervalSeconds(MEMBER_STATS_INTERVAL_SECONDS)
+                .setLeaderAddresses(leaderAddresses)
+                .setMemberId(memberId)
+                .setDataDirectory(rootDirectory.resolve(memberId))
+                .setMetricsPort(-1)
+                .setServerBuilder(serverBuilder)
+                .setFaultInjector(new FaultInjector()));
+        member.start();
+        if (leaderCount > 1) {
+            // Kayıt Raft log'una yazılır, lider değişince üye heartbeat akışıyla yeni lidere kaydolur
+            if (!member.registerToLeader("localhost", member.getGrpcPort())) {
+                member.kill();
+                throw new IllegalStateException("Üye lider grubuna kaydolamadı: " + memberId);
+            }
+        } else {
+            leaders.get(0).addMember(memberId, "localhost", member.getGrpcPort());
+        }
+        members.put(memberId, member);
+        killedMembers.remove(memberId);
+    }
+
+    /**
+     * SET/GET ve üye kayıtlarını kabul eden lider; Raft grubunda seçim sürüyorsa null
+     */
+    public LeaderNode getLeader() {
+        for (int i = 0; i < leaders.size(); i++) {
+            LeaderNode leader = leaders.get(i);
+            if (!killedLeaders.contains(i) && leader.isActiveLeader()) {
+                return leader;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Çalışan liderlerden biri seçilene kadar bekler
+     *
+     * @return Lider, süre içinde seçilmezse null
+     */
+    public LeaderNode awaitLeader(long timeout, TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        while (true) {
+            LeaderNode leader = getLeader();
+            if (leader != null || System.nanoTime() >= deadline) {
+                return leader;
+            }
+            Thread.sleep(20);
+        }
+    }
+
+    /**
+     * Client'ların bağlanacağı lider TCP port'u (Raft grubunda güncel lider, seçim sürüyorsa -1)
+     */
+    public int getLeaderPort() {
+        LeaderNode leader = getLeader();
+        return leader != null ? leader.getPort() : -1;
+    }
+
+    /**
+     * Tüm liderler, sıraları Raft id'leridir (durdurulanlar dahil)
+     */
+    public List<LeaderNode> getLeaders() {
+        return Collections.unmodifiableList(leaders);
+    }
+
+    public List<String> getLeaderAddresses() {
+        return leaderAddresses;
+    }
+
+    public List<String> getMemberIds() {
+        return Collections.unmodifiableList(memberIds);
+    }
+
+    public MemberNode getMember(String memberId) {
+        MemberNode member = members.get(memberId);
+        if (member == null) {
+            throw new IllegalArgumentException("Bilinmeyen üye: " + memberId);
+        }
+        return member;
+    }
+
+    public Path getRootDirectory() {
+        return rootDirectory;
+    }
+
+    public boolean isKilled(String memberId) {
+        return killedMembers.contains(memberId);
+    }
+
+    public boolean isLeaderKilled(int index) {
+        return killedLeaders.contains(index);
+    }
+
+    /**
+     * Lideri durdurur: client ve heartbeat bağlantıları kapanır, Raft RPC'lerine cevap vermez.
+     * Raft grubunda kalan liderler yenisini seçer, üyeler heartbeat akışıyla ona geçer
+     *
+     * @param index Liderin getLeaders() içindeki sırası
+     */
+    public void killLeader(int index) throws InterruptedException {
+        if (killedLeaders.add(index)) {
+            leaders.get(index).stop();
+            leaderThreads.get(index).join(TimeUnit.SECONDS.toMillis(START_TIMEOUT_SECONDS));
+            logger.info("Lider durduruldu: port={}", leaders.get(index).getPort());
+        }
+    }
+
+    /**
+     * Üyeyi crash gibi durdurur; lider bunu RPC hataları ve kesilen heartbeat'lerden fark eder
+     */
+    public void kill(String memberId) {
+        if (killedMembers.add(memberId)) {
+            getMember(memberId).kill();
+            logger.info("Üye öldürüldü: {}", memberId);
+        }
+    }
+
+    /**
+     * Üyeyi aynı ID ve veri klasörüyle yeniden başlatır ve lidere tekrar kaydeder
+     * Çalışan bir üye önce öldürülür
+     *
+     * @throws IllegalStateException Raft grubunda üye hiçbir lidere kaydolamazsa
+     */
+    public void restart(String memberId) {
+        kill(memberId);
+        startMember(memberId);
+        logger.info("Üye yeniden başlatıldı: {}", memberId);
+    }
+
+    /**
+     * Üyenin RPC ve heartbeat'lerini resume() çağrılana kadar durdurur
+     */
+    public void pause(String memberId) {
+        getMember(memberId).getFaultInjector().pause();
+    }
+
+    public void resume(String memberId) {
+        getMember(memberId).getFaultInjector().resume();
+    }
+
+    /**
+     * Üyenin her RPC'sine gecikme ekler (0 gecikmeyi kaldırır)
+     */
+    public void slow(String memberId, long delay, TimeUnit unit) {
+        getMember(memberId).getFaultInjector().setDelay(delay, unit);
+    }
+
+    /**
+     * Üyedeki gecikme ve duraklatmayı kaldırır (öldürülmüş üyeler için restart kullanılır)
+     */
+    public void heal(String memberId) {
+        getMember(memberId).getFaultInjector().clear();
+    }
+
+    /**
+     * Tüm node'ları durdurur ve geçici veri klasörünü siler
+     */
+    @Override
+    public void close() {
+        for (String memberId : memberIds) {
+            if (!killedMembers.contains(memberId)) {
+                MemberNode member = members.get(memberId);
+                if (member != null) {
+                    // Duraklatılmış çağrılar bırakılmazsa server kapanırken bunları bekler
+                    member.getFaultInjector().clear();
+                    member.stop();
+                }
+            }
+        }
+        for (int i = 0; i < leaders.size(); i++) {
+            try {
+                killLeader(i);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        try {
+            deleteRecursively(rootDirectory);
+        } catch (IOException e) {
+            logger.warn("Gömülü küme klasörü silinemedi: {}: {}", rootDirectory, e.getMessage());
+        }
+        logger.info("Gömülü küme durduruldu");
+    }
+
+    private static void deleteRecursively(Path directory) throws IOException {
+        if (directory == null || !Files.exists(directory)) {
+            return;
+        }
+        try (Stream<Path> paths = Files.walk(directory)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    /**
+     * Gömülü kümeyi başlatır ve kapatılana kadar çalıştırır:
+     * -Dcluster.members, -Dcluster.leaders, -Dcluster.tolerance, -Dcluster.ioMode, -Dcluster.inProcess
+     * Yük için client.LoadGenerator -Dload.port=<lider port'u> ile çalıştırılabilir
+     */
+    public static void main(String[] args) {
+        int memberCount = Integer.getInteger("cluster.members", 3);
+        int leaderCount = Integer.getInteger("cluster.leaders", 1);
+        int tolerance = Integer.getInteger("cluster.tolerance", 2);
+        boolean inProcess = Boolean.getBoolean("cluster.inProcess");
+
+        IOMode ioMode = IOMode.CHANNEL;
+        String ioModeProperty = System.getProperty("cluster.ioMode");
+        if (ioModeProperty != null && !ioModeProperty.isEmpty()) {
+            try {
+                ioMode = IOMode.valueOf(ioModeProperty.toUpperCase());
+            } catch (IllegalArgumentException e) {
+                logger.error("Geçersiz cluster.ioMode değeri: {}. Varsayılan kullanılıyor: {}", ioModeProperty, ioMode);
+            }
+        }
+
+        EmbeddedCluster cluster = new EmbeddedCluster(memberCount, ioMode, tolerance, inProcess);
+        cluster.setLeaderCount(leaderCount);
+        CountDownLatch stopped = new CountDownLatch(1);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            logger.info("Shutdown sinyali alındı...");
+            cluster.close();
+            stopped.countDown();
+        }));
+        try {
+            cluster.start();
+            System.out.println(String.format("[CLUSTER] Lider port: %d | Liderler: %s | Üyeler: %s | Tolerance: %d"
+                    + " | gRPC: %s", cluster.getLeaderPort(), cluster.getLeaderAddresses(), cluster.getMemberIds(),
+                    tolerance, inProcess ? "in-process" : "TCP"));
+            stopped.await();
+        } catch (IOException e) {
+            logger.error("Gömülü küme başlatılamadı: ", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
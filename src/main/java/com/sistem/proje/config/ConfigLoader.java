@@ -13,6 +13,8 @@ import java.nio.file.Paths;
  * Konfigürasyon dosyası yükleyici
  * tolerance.conf dosyasını okur ve TOLERANCE değerini parse eder
  * TOLERANCE değeri 1 ile 7 arasında olmalıdır
+ * İsteğe bağlı PHI_SUSPECT_THRESHOLD ve PHI_DEAD_THRESHOLD satırları
+ * hata dedektörünün SUSPECT ve DEAD eşiklerini belirler
  */
 public class ConfigLoader {
     private static final Logger logger = LoggerFactory.getLogger(ConfigLoader.class);
@@ -20,9 +22,15 @@ public class ConfigLoader {
     private static final int MIN_TOLERANCE = 1;
     private static final int MAX_TOLERANCE = 7;
     private static final int DEFAULT_TOLERANCE = 1;
+    private static final String PHI_SUSPECT_KEY = "PHI_SUSPECT_THRESHOLD=";
+    private static final String PHI_DEAD_KEY = "PHI_DEAD_THRESHOLD=";
+    private static final double DEFAULT_PHI_SUSPECT_THRESHOLD = 3.0;
+    private static final double DEFAULT_PHI_DEAD_THRESHOLD = 10.0;
     
     private final Path configFile;
     private Integer tolerance;
+    private double phiSuspectThreshold = DEFAULT_PHI_SUSPECT_THRESHOLD;
+    private double phiDeadThreshold = DEFAULT_PHI_DEAD_THRESHOLD;
 
     /**
      * Varsayılan tolerance.conf dosyasını kullanır
@@ -76,11 +84,21 @@ public class ConfigLoader {
                 // TOLERANCE değerini parse et
                 if (line.startsWith("TOLERANCE=")) {
                     parseTolerance(line, lineNumber);
+                } else if (line.startsWith(PHI_SUSPECT_KEY)) {
+                    phiSuspectThreshold = parsePhiThreshold(line, PHI_SUSPECT_KEY, lineNumber);
+                } else if (line.startsWith(PHI_DEAD_KEY)) {
+                    phiDeadThreshold = parsePhiThreshold(line, PHI_DEAD_KEY, lineNumber);
                 } else {
                     logger.warn("Bilinmeyen konfigürasyon satırı (satır {}): {}", lineNumber, line);
                 }
             }
 
+            if (phiDeadThreshold <= phiSuspectThreshold) {
+                throw new ConfigException(String.format(
+                    "PHI_DEAD_THRESHOLD (%.2f) PHI_SUSPECT_THRESHOLD (%.2f) değerinden büyük olmalıdır",
+                    phiDeadThreshold, phiSuspectThreshold));
+            }
+
             // TOLERANCE değeri bulunamadıysa default değeri kullan
             if (tolerance == null) {
                 this.tolerance = DEFAULT_TOLERANCE;
@@ -122,6 +140,31 @@ public class ConfigLoader {
         }
     }
 
+    /**
+     * Phi eşik satırını parse eder
+     * 
+     * @param line Satır içeriği
+     * @param key Anahtar (ör. PHI_SUSPECT_THRESHOLD=)
+     * @param lineNumber Satır numarası (hata mesajları için)
+     * @return Pozitif eşik değeri
+     * @throws ConfigException Parse hatası
+     */
+    private double parsePhiThreshold(String line, String key, int lineNumber) throws ConfigException {
+        String value = line.substring(key.length()).trim();
+        try {
+            double threshold = Double.parseDouble(value);
+            if (threshold <= 0 || Double.isNaN(threshold) || Double.isInfinite(threshold)) {
+                throw new ConfigException(String.format(
+                    "%s değeri pozitif olmalıdır. Geçersiz değer: %s (satır %d)",
+                    key.substring(0, key.length() - 1), value, lineNumber));
+            }
+            return threshold;
+        } catch (NumberFormatException e) {
+            throw new ConfigException(key.substring(0, key.length() - 1) + " değeri geçersiz format (satır "
+                    + lineNumber + "): " + line, e);
+        }
+    }
+
     /**
      * TOLERANCE değerini döndürür
      * 
@@ -137,6 +180,20 @@ public class ConfigLoader {
         return tolerance;
     }
 
+    /**
+     * Üyenin SUSPECT sayılacağı phi eşiği (default: 3.0)
+     */
+    public double getPhiSuspectThreshold() {
+        return phiSuspectThreshold;
+    }
+
+    /**
+     * Üyenin DEAD sayılacağı phi eşiği (default: 10.0)
+     */
+    public double getPhiDeadThreshold() {
+        return phiDeadThreshold;
+    }
+
     /**
      * Default tolerance değerini döndürür
      * 
@@ -146,6 +203,14 @@ public class ConfigLoader {
         return DEFAULT_TOLERANCE;
     }
 
+    public static double getDefaultPhiSuspectThreshold() {
+        return DEFAULT_PHI_SUSPECT_THRESHOLD;
+    }
+
+    public static double getDefaultPhiDeadThreshold() {
+        return DEFAULT_PHI_DEAD_THRESHOLD;
+    }
+
     /**
      * Konfigürasyon dosyasının path'ini döndürür
      */
@@ -0,0 +1,36 @@
+package com.sistem.proje.grpc;
+
+import com.sistem.proje.storage.Utf8;
+
+/**
+ * StorageService çağrılarında mesaj sıkıştırma ayarları
+ * Büyük payload'lar gzip ile sıkıştırılır, küçük mesajlarda CPU maliyeti kazançtan fazla olduğu için atlanır
+ * gzip gRPC'nin varsayılan codec kayıtlarında bulunur, iki tarafta ek ayar gerekmez
+ */
+public final class GrpcCompression {
+    public static final String GZIP = "gzip";
+    // Bu boyuttan (UTF-8 byte) küçük mesajlar sıkıştırılmadan gönderilir; negatif eşik sıkıştırmayı kapatır
+    public static final int DEFAULT_THRESHOLD = 1024;
+
+    private GrpcCompression() {
+    }
+
+    /**
+     * Mesajın sıkıştırılarak gönderilip gönderilmeyeceğini belirler
+     * UTF-8 boyutu karakter sayısı ile bunun 3 katı arasında olduğu için çoğu mesajda byte sayılmaz
+     *
+     * @param thresholdBytes Eşik (UTF-8 byte), negatifse sıkıştırma kapalı
+     */
+    public static boolean shouldCompress(String text, int thresholdBytes) {
+        if (thresholdBytes < 0 || text == null) {
+            return false;
+        }
+        if (text.length() >= thresholdBytes) {
+            return true;
+        }
+        if ((long) text.length() * 3 < thresholdBytes) {
+            return false;
+        }
+        return Utf8.encodedLength(text) >= thresholdBytes;
+    }
+}
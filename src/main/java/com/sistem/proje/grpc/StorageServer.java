@@ -1,6 +1,9 @@
 package com.sistem.proje.grpc;
 
+import com.sistem.proje.metrics.MetricsRegistry;
 import com.sistem.proje.storage.IOMode;
+import com.sistem.proje.storage.MessageStorage;
+import com.sistem.proje.storage.WriteBehindQueue;
 import io.grpc.BindableService;
 import io.grpc.Server;
 import io.grpc.ServerBuilder;
@@ -20,6 +23,8 @@ public class StorageServer {
     
     private final Server server;
     private final int port;
+    // start() sonrası gerçek port (port 0 ile açıldıysa işletim sisteminin verdiği, in-process ise -1)
+    private volatile int boundPort;
     private final StorageServiceImpl serviceImpl;
 
     /**
@@ -36,15 +41,47 @@ public class StorageServer {
      * @param ioMode IO modu (BUFFERED veya UNBUFFERED)
      */
     public StorageServer(int port, IOMode ioMode) {
+        this(port, new MessageStorage(ioMode));
+    }
+
+    /**
+     * Belirtilen port ve storage instance'ı ile oluşturur
+     * 
+     * @param port Server port'u
+     * @param messageStorage Mesajların saklanacağı storage
+     */
+    public StorageServer(int port, MessageStorage messageStorage) {
+        this(ServerBuilder.forPort(port), port, messageStorage, null, new MetricsRegistry());
+    }
+
+    /**
+     * Hazır bir server builder ile oluşturur (TCP, in-process transport veya interceptor eklenmiş builder)
+     * 
+     * @param serverBuilder Servisin ekleneceği builder
+     * @param port Log ve istatistiklerde gösterilecek port
+     * @param messageStorage Mesajların saklanacağı storage
+     * @param writeBehindQueue Store yazmalarının aktarılacağı kuyruk, null ise senkron yazma
+     * @param metrics RPC gecikmelerinin kaydedileceği registry
+     */
+    public StorageServer(ServerBuilder<?> serverBuilder, int port, MessageStorage messageStorage,
+                         WriteBehindQueue writeBehindQueue, MetricsRegistry metrics) {
         this.port = port;
-        this.serviceImpl = new StorageServiceImpl(ioMode);
+        this.boundPort = port;
+        this.serviceImpl = new StorageServiceImpl(messageStorage, writeBehindQueue, metrics);
         // StorageServiceImpl, StorageServiceImplBase'den extend eder ve BindableService implement eder
         // addService metodu BindableService kabul eder
-        this.server = ServerBuilder.forPort(port)
+        this.server = serverBuilder
                 .addService((BindableService) serviceImpl)
                 .build();
     }
 
+    /**
+     * Retrieve cevaplarının gzip eşiğini ayarlar (bkz. StorageServiceImpl.setCompressionThreshold)
+     */
+    public void setCompressionThreshold(int compressionThreshold) {
+        serviceImpl.setCompressionThreshold(compressionThreshold);
+    }
+
     /**
      * Server'ı başlatır
      * 
@@ -52,18 +89,8 @@ public class StorageServer {
      */
     public void start() throws IOException {
         server.start();
-        logger.info("gRPC Storage Server başlatıldı. Port: {}", port);
-
-        // Shutdown hook ekle
-        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
-            logger.info("Shutdown sinyali alındı, server kapatılıyor...");
-            try {
-                StorageServer.this.stop();
-            } catch (InterruptedException e) {
-                logger.error("Server kapatılırken hata: ", e);
-                Thread.currentThread().interrupt();
-            }
-        }));
+        boundPort = server.getPort();
+        logger.info("gRPC Storage Server başlatıldı. Port: {}", boundPort);
     }
 
     /**
@@ -85,6 +112,21 @@ public class StorageServer {
         }
     }
 
+    /**
+     * Server'ı bekleyen çağrıları tamamlamadan durdurur (crash benzetimi)
+     */
+    public void stopNow() {
+        server.shutdownNow();
+        logger.info("gRPC Storage Server zorla durduruldu");
+    }
+
+    /**
+     * Dinlenen port; port 0 ile açıldıysa start() sonrası gerçek port, in-process server için -1
+     */
+    public int getPort() {
+        return boundPort;
+    }
+
     /**
      * Server'ın çalışıp çalışmadığını kontrol eder
      */
@@ -131,6 +173,18 @@ public class StorageServer {
 
         StorageServer server = new StorageServer(port, ioMode);
 
+        // Shutdown hook sadece bağımsız çalışmada eklenir; gömülü server'ları (MemberNode, EmbeddedCluster)
+        // sahipleri kapatır, her start'ta eklenen hook durdurulan server'ı JVM sonuna kadar tutardı
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            logger.info("Shutdown sinyali alındı, server kapatılıyor...");
+            try {
+                server.stop();
+            } catch (InterruptedException e) {
+                logger.error("Server kapatılırken hata: ", e);
+                Thread.currentThread().interrupt();
+            }
+        }));
+
         try {
             server.start();
             logger.info("gRPC Storage Server çalışıyor. Port: {}, IO Modu: {}", port, ioMode);
@@ -1,12 +1,17 @@
 package com.sistem.proje.grpc;
 
+import com.sistem.proje.metrics.LatencyHistogram;
+import com.sistem.proje.metrics.MetricsRegistry;
 import com.sistem.proje.storage.IOMode;
 import com.sistem.proje.storage.MessageStorage;
+import com.sistem.proje.storage.WriteBehindQueue;
+import io.grpc.stub.ServerCallStreamObserver;
 import io.grpc.stub.StreamObserver;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.util.concurrent.RejectedExecutionException;
 
 /**
  * gRPC StorageService implementasyonu
@@ -16,6 +21,13 @@ public class StorageServiceImpl extends StorageServiceGrpc.StorageServiceImplBas
     private static final Logger logger = LoggerFactory.getLogger(StorageServiceImpl.class);
     
     private final MessageStorage messageStorage;
+    // null ise Store senkron yazar
+    private final WriteBehindQueue writeBehindQueue;
+    // RPC başına sunucu tarafı gecikme (write-behind'da onay aşamasına kadar)
+    private final LatencyHistogram storeLatency;
+    private final LatencyHistogram retrieveLatency;
+    // Retrieve cevaplarında gzip eşiği (UTF-8 byte, negatif = kapalı)
+    private volatile int compressionThreshold = GrpcCompression.DEFAULT_THRESHOLD;
 
     /**
      * Varsayılan Buffered IO modu ile oluşturur
@@ -30,8 +42,44 @@ public class StorageServiceImpl extends StorageServiceGrpc.StorageServiceImplBas
      * @param ioMode IO modu (BUFFERED veya UNBUFFERED)
      */
     public StorageServiceImpl(IOMode ioMode) {
-        this.messageStorage = new MessageStorage(ioMode);
-        logger.info("StorageServiceImpl başlatıldı. IO Modu: {}", ioMode);
+        this(new MessageStorage(ioMode));
+    }
+
+    /**
+     * Verilen storage instance'ını kullanır (node başına tek storage için)
+     * 
+     * @param messageStorage Mesajların saklanacağı storage
+     */
+    public StorageServiceImpl(MessageStorage messageStorage) {
+        this(messageStorage, null, new MetricsRegistry());
+    }
+
+    /**
+     * Verilen storage, write-behind kuyruğu ve metrik registry'si ile oluşturur
+     * Kuyruk verilirse Store yazmayı kuyruğa alır ve kuyruğun onay aşamasında cevap verir
+     * 
+     * @param messageStorage Mesajların saklanacağı storage
+     * @param writeBehindQueue Write-behind kuyruğu, null ise senkron yazma
+     * @param metrics Store/Retrieve gecikmelerinin kaydedileceği registry
+     */
+    public StorageServiceImpl(MessageStorage messageStorage, WriteBehindQueue writeBehindQueue,
+                              MetricsRegistry metrics) {
+        this.messageStorage = messageStorage;
+        this.writeBehindQueue = writeBehindQueue;
+        this.storeLatency = metrics.histogram("member.store");
+        this.retrieveLatency = metrics.histogram("member.retrieve");
+        logger.info("StorageServiceImpl başlatıldı. IO Modu: {}, Klasör: {}, Write-behind: {}",
+                messageStorage.getIOMode(), messageStorage.getMessagesDirectory(),
+                writeBehindQueue != null ? writeBehindQueue.getAckMode() : "kapalı");
+    }
+
+    /**
+     * Retrieve cevaplarının gzip ile sıkıştırılacağı en küçük mesaj boyutunu ayarlar
+     *
+     * @param compressionThreshold Eşik (UTF-8 byte), negatif değer sıkıştırmayı kapatır
+     */
+    public void setCompressionThreshold(int compressionThreshold) {
+        this.compressionThreshold = compressionThreshold;
     }
 
     /**
@@ -39,11 +87,17 @@ public class StorageServiceImpl extends StorageServiceGrpc.StorageServiceImplBas
      */
     @Override
     public void store(StoredMessage request, StreamObserver<StoreResult> responseObserver) {
+        long start = System.nanoTime();
         try {
             Integer id = request.getId();
             String text = request.getText();
 
-            logger.debug("Store RPC çağrıldı: id={}, text={}", id, text);
+            logger.debug("Store RPC çağrıldı: id={}, uzunluk={}", id, text.length());
+
+            if (writeBehindQueue != null) {
+                storeWriteBehind(id, text, responseObserver, start);
+                return;
+            }
 
             // Mesajı disk'e kaydet
             messageStorage.saveMessage(id, text);
@@ -55,6 +109,7 @@ public class StorageServiceImpl extends StorageServiceGrpc.StorageServiceImplBas
 
             responseObserver.onNext(result);
             responseObserver.onCompleted();
+            storeLatency.recordSince(start);
 
             logger.debug("Store RPC tamamlandı: id={}, success=true", id);
 
@@ -74,18 +129,44 @@ public class StorageServiceImpl extends StorageServiceGrpc.StorageServiceImplBas
         }
     }
 
+    /**
+     * Yazmayı write-behind kuyruğuna verir, cevap onay aşamasına ulaşıldığında writer thread'inden gönderilir
+     * Kuyruk dolu kalırsa başarısız sonuç döner, leader yazmayı başka üyeye yönlendirebilir
+     */
+    private void storeWriteBehind(Integer id, String text, StreamObserver<StoreResult> responseObserver,
+                                  long start) throws InterruptedException {
+        try {
+            writeBehindQueue.submit(id, text).whenComplete((ignored, error) -> {
+                if (error != null) {
+                    logger.error("Write-behind Store hatası: id={}", id, error);
+                }
+                responseObserver.onNext(StoreResult.newBuilder().setSuccess(error == null).build());
+                responseObserver.onCompleted();
+                storeLatency.recordSince(start);
+            });
+        } catch (RejectedExecutionException e) {
+            logger.warn("Store reddedildi: id={}, {}", id, e.getMessage());
+            responseObserver.onNext(StoreResult.newBuilder().setSuccess(false).build());
+            responseObserver.onCompleted();
+        }
+    }
+
     /**
      * Mesajı getirir (Retrieve RPC)
      */
     @Override
     public void retrieve(MessageId request, StreamObserver<StoredMessage> responseObserver) {
+        long start = System.nanoTime();
         try {
             Integer id = request.getId();
 
             logger.debug("Retrieve RPC çağrıldı: id={}", id);
 
-            // Mesajı disk'ten oku
-            String text = messageStorage.getMessage(id);
+            // Önce henüz diske yazılmamış yazmalara, sonra disk'e bak
+            String text = writeBehindQueue != null ? writeBehindQueue.getPending(id) : null;
+            if (text == null) {
+                text = messageStorage.getMessage(id);
+            }
 
             if (text == null) {
                 // Mesaj bulunamadı - boş mesaj döndür
@@ -97,8 +178,13 @@ public class StorageServiceImpl extends StorageServiceGrpc.StorageServiceImplBas
 
                 responseObserver.onNext(result);
                 responseObserver.onCompleted();
+                retrieveLatency.recordSince(start);
             } else {
-                // Mesaj bulundu
+                // Mesaj bulundu, büyük mesajlar sıkıştırılarak döndürülür
+                if (GrpcCompression.shouldCompress(text, compressionThreshold)
+                        && responseObserver instanceof ServerCallStreamObserver) {
+                    ((ServerCallStreamObserver<StoredMessage>) responseObserver).setCompression(GrpcCompression.GZIP);
+                }
                 StoredMessage result = StoredMessage.newBuilder()
                         .setId(id)
                         .setText(text)
@@ -106,6 +192,7 @@ public class StorageServiceImpl extends StorageServiceGrpc.StorageServiceImplBas
 
                 responseObserver.onNext(result);
                 responseObserver.onCompleted();
+                retrieveLatency.recordSince(start);
 
                 logger.debug("Retrieve RPC tamamlandı: id={}, text length={}", id, text.length());
             }
@@ -0,0 +1,147 @@
+package com.sistem.proje.leader;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Offset log'unu paylaşan tüketici grubunun durumu
+ *
+ * Grup log'u kiralık offset aralıklarına (lease) bölerek tüketicilere dağıtır: her FETCH bir sonraki
+ * dağıtılmamış aralığı (veya süresi dolmuş bir aralığı) isteyen tüketiciye verir. Kiralar
+ * [committed, dispatched) aralığını boşluksuz kaplar; COMMIT bir aralığı tamamlandı olarak işaretler ve
+ * baştan itibaren tamamlanmış kiralar committed offset'e katılır. Grubun kalıcı durumu sadece committed
+ * offset'tir, lider yeniden başlarsa committed'dan sonraki kayıtlar tekrar dağıtılır (en az bir kez)
+ *
+ * Thread-safe değildir, ConsumerGroupManager grup nesnesi üzerinde senkronize eder
+ */
+final class ConsumerGroup {
+    private final String name;
+    // start → kira
+    private final TreeMap<Long, Lease> leases = new TreeMap<>();
+    private long committed;
+    private long dispatched;
+
+    ConsumerGroup(String name, long committed) {
+        this.name = name;
+        this.committed = committed;
+        this.dispatched = committed;
+    }
+
+    String getName() {
+        return name;
+    }
+
+    long getCommitted() {
+        return committed;
+    }
+
+    int getLeaseCount() {
+        return leases.size();
+    }
+
+    /**
+     * Tüketiciye bir aralık kiralar: önce süresi dolmuş (tamamlanmamış) en eski kira, yoksa log'un
+     * dağıtılmamış kısmından yeni bir kira
+     *
+     * @param endOffset Log sonu (yeni kira bunu geçmez)
+     * @param maxRecords Yeni kiranın en fazla kayıt sayısı
+     * @param maxLeases Aynı anda açık en fazla kira (dolunca yeni aralık verilmez)
+     * @return Kira, verilecek aralık yoksa null
+     */
+    Lease acquire(String consumer, long now, long leaseMillis, long endOffset, int maxRecords, int maxLeases) {
+        for (Lease lease : leases.values()) {
+            if (!lease.done && lease.deadline <= now) {
+                lease.consumer = consumer;
+                lease.deadline = now + leaseMillis;
+                return lease;
+            }
+        }
+        if (dispatched >= endOffset || leases.size() >= maxLeases) {
+            return null;
+        }
+        Lease lease = new Lease(dispatched, Math.min(endOffset, dispatched + maxRecords), consumer, now + leaseMillis);
+        leases.put(lease.start, lease);
+        dispatched = lease.end;
+        return lease;
+    }
+
+    /**
+     * Kirayı [start, end) olarak kısaltır, kalan kısım hemen yeniden dağıtılabilir bir kira olur
+     * (okuma byte sınırı yüzünden kiranın tamamı döndürülemediğinde)
+     */
+    void shrink(Lease lease, long end) {
+        if (end <= lease.start || end >= lease.end) {
+            return;
+        }
+        Lease rest = new Lease(end, lease.end, null, 0);
+        lease.end = end;
+        leases.put(rest.start, rest);
+    }
+
+    /**
+     * offset'ten önceki kayıtların işlendiğini bildirir; offset'i içeren kira orada bölünür
+     * Süresi dolup başkasına verilmiş kiranın geç gelen COMMIT'i de kabul edilir (kayıtlar işlenmiştir)
+     *
+     * @return committed offset ilerlediyse true
+     * @throws IllegalArgumentException offset dağıtılmamış bir kayda işaret ediyorsa
+     */
+    boolean commit(long offset) {
+        if (offset > dispatched) {
+            throw new IllegalArgumentException("offset " + offset + " henüz dağıtılmadı (dağıtılan son offset "
+                    + (dispatched - 1) + ")");
+        }
+        if (offset <= committed) {
+            return false;
+        }
+        Map.Entry<Long, Lease> entry = leases.floorEntry(offset - 1);
+        Lease lease = entry.getValue();
+        if (offset < lease.end) {
+            Lease rest = new Lease(offset, lease.end, lease.consumer, lease.deadline);
+            lease.end = offset;
+            leases.put(rest.start, rest);
+        }
+        lease.done = true;
+
+        long before = committed;
+        Iterator<Lease> iterator = leases.values().iterator();
+        while (iterator.hasNext()) {
+            Lease first = iterator.next();
+            if (!first.done) {
+                break;
+            }
+            committed = first.end;
+            iterator.remove();
+        }
+        return committed != before;
+    }
+
+    /**
+     * Tüketicinin tamamlanmamış kiralarını hemen yeniden dağıtılabilir yapar
+     */
+    int release(String consumer) {
+        int released = 0;
+        for (Lease lease : leases.values()) {
+            if (!lease.done && consumer.equals(lease.consumer)) {
+                lease.deadline = 0;
+                released++;
+            }
+        }
+        return released;
+    }
+
+    static final class Lease {
+        final long start;
+        long end;
+        String consumer;
+        long deadline;
+        boolean done;
+
+        Lease(long start, long end, String consumer, long deadline) {
+            this.start = start;
+            this.end = end;
+            this.consumer = consumer;
+            this.deadline = deadline;
+        }
+    }
+}
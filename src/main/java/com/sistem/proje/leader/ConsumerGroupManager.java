@@ -0,0 +1,258 @@
+package com.sistem.proje.leader;
+
+import com.sistem.proje.metrics.Counter;
+import com.sistem.proje.metrics.MetricsRegistry;
+import com.sistem.proje.storage.LogBatch;
+import com.sistem.proje.storage.OffsetLog;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.regex.Pattern;
+
+/**
+ * Offset log'unu paylaşan tüketici grupları (GROUP FETCH / COMMIT / LEAVE / OFFSET)
+ *
+ * Aynı gruptaki tüketiciler log'u kiralık offset aralıkları halinde paylaşır (ConsumerGroup). COMMIT'ler
+ * sadece memory'deki grubu günceller; değişen committed offset'ler commitInterval'da bir, tüm gruplar
+ * için tek bir snapshot mesajı olarak OFFSETS_MESSAGE_ID'ye yazılır ve normal SET yolu ile üyelere
+ * replike edilir. Böylece saniyede binlerce COMMIT MessageStorage'a aralık başına tek yazma olarak
+ * yansır; lider çökerse son aralıktaki COMMIT'ler kaybolur ve o kayıtlar tekrar dağıtılır
+ *
+ * Snapshot formatı:
+ * <pre>
+ * GROUPS v1
+ * &lt;grup&gt; &lt;committed offset&gt;
+ * </pre>
+ */
+public class ConsumerGroupManager {
+    private static final Logger logger = LoggerFactory.getLogger(ConsumerGroupManager.class);
+
+    // Snapshot'ın saklandığı mesaj ID'si (client SET'leri bu ID'ye yazamaz)
+    public static final int OFFSETS_MESSAGE_ID = Integer.MIN_VALUE;
+    public static final long DEFAULT_LEASE_MILLIS = 30_000;
+    public static final long DEFAULT_COMMIT_INTERVAL_MILLIS = 200;
+    // Tek kiranın en fazla kayıt sayısı ve grup başına aynı anda açık en fazla kira
+    static final int MAX_LEASE_RECORDS = 1024;
+    static final int MAX_LEASES = 1024;
+    private static final String SNAPSHOT_HEADER = "GROUPS v1";
+    private static final Pattern NAME_PATTERN = Pattern.compile("[A-Za-z0-9._-]{1,64}");
+
+    /**
+     * Snapshot'ın okunduğu ve yazıldığı yer (lider diski + üyeler)
+     */
+    public interface OffsetStore {
+        /**
+         * @return Son snapshot, yoksa null
+         */
+        String load() throws IOException;
+
+        /**
+         * @return Snapshot kaydedildiyse true (false dönerse sonraki aralıkta tekrar denenir)
+         */
+        boolean store(String snapshot);
+    }
+
+    private final Map<String, ConsumerGroup> groups = new ConcurrentHashMap<>();
+    private final OffsetLog log;
+    private final OffsetStore store;
+    private final ScheduledExecutorService flusher;
+    private final AtomicBoolean dirty = new AtomicBoolean();
+    private final Counter commits;
+    private final Counter flushes;
+    private volatile long leaseMillis = DEFAULT_LEASE_MILLIS;
+    private volatile long commitIntervalMillis = DEFAULT_COMMIT_INTERVAL_MILLIS;
+
+    /**
+     * Son snapshot'ı yükler
+     */
+    public ConsumerGroupManager(OffsetLog log, OffsetStore store, MetricsRegistry metrics) {
+        this.log = log;
+        this.store = store;
+        this.commits = metrics.counter("leader.groups.commits");
+        this.flushes = metrics.counter("leader.groups.flushes");
+        metrics.gauge("leader.groups.active", groups::size);
+        this.flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "group-offset-flusher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        load();
+    }
+
+    private void load() {
+        String snapshot;
+        try {
+            snapshot = store.load();
+        } catch (IOException e) {
+            logger.error("Tüketici grubu offset'leri okunamadı, gruplar offset 0'dan başlayacak: ", e);
+            return;
+        }
+        if (snapshot == null) {
+            return;
+        }
+        String[] lines = snapshot.split("\n");
+        if (!SNAPSHOT_HEADER.equals(lines[0])) {
+            logger.error("Tanınmayan tüketici grubu snapshot'ı atlandı: {}", lines[0]);
+            return;
+        }
+        for (int i = 1; i < lines.length; i++) {
+            String[] parts = lines[i].split(" ");
+            try {
+                long committed = Math.min(Long.parseLong(parts[1]), log.endOffset());
+                groups.put(parts[0], new ConsumerGroup(parts[0], committed));
+            } catch (RuntimeException e) {
+                logger.warn("Geçersiz tüketici grubu satırı atlandı: {}", lines[i]);
+            }
+        }
+        logger.info("{} tüketici grubunun offset'i yüklendi", groups.size());
+    }
+
+    /**
+     * Kira süresi ve snapshot aralığı (start'tan önce çağrılmalı)
+     *
+     * @param leaseMillis COMMIT edilmeyen kiranın başka tüketiciye verilmesi için geçmesi gereken süre
+     * @param commitIntervalMillis Değişen offset'lerin snapshot olarak yazılma aralığı
+     */
+    public void setTimeouts(long leaseMillis, long commitIntervalMillis) {
+        if (leaseMillis < 1 || commitIntervalMillis < 1) {
+            throw new IllegalArgumentException("Geçersiz tüketici grubu süresi: kira=" + leaseMillis
+                    + ", commit aralığı=" + commitIntervalMillis);
+        }
+        this.leaseMillis = leaseMillis;
+        this.commitIntervalMillis = commitIntervalMillis;
+    }
+
+    public void start() {
+        flusher.scheduleWithFixedDelay(this::flush, commitIntervalMillis, commitIntervalMillis, TimeUnit.MILLISECONDS);
+        logger.info("Tüketici grupları: kira süresi {} ms, offset snapshot aralığı {} ms",
+                leaseMillis, commitIntervalMillis);
+    }
+
+    /**
+     * Tüketiciye bir aralık kiralar ve kayıtlarını okur (grup yoksa offset 0'dan oluşturulur)
+     * Tüketici kayıtları işledikten sonra batch'in nextOffset'ini COMMIT etmelidir
+     *
+     * @param maxBytes Batch'in en fazla byte'ı; kira batch'e sığan kayıtlara kısaltılır
+     * @return Kiralanan kayıtlar; verilecek aralık yoksa boş batch
+     */
+    public LogBatch fetch(String group, String consumer, int maxBytes) throws IOException {
+        validateName(consumer);
+        ConsumerGroup consumerGroup = groups.computeIfAbsent(validateName(group), name -> new ConsumerGroup(name, 0));
+        synchronized (consumerGroup) {
+            ConsumerGroup.Lease lease = consumerGroup.acquire(consumer, System.currentTimeMillis(), leaseMillis,
+                    log.endOffset(), MAX_LEASE_RECORDS, MAX_LEASES);
+            if (lease == null) {
+                return log.read(log.endOffset(), 1);
+            }
+            LogBatch batch = log.read(lease.start, maxBytes, (int) (lease.end - lease.start));
+            consumerGroup.shrink(lease, batch.getNextOffset());
+            return batch;
+        }
+    }
+
+    /**
+     * offset'ten önceki kayıtların işlendiğini kaydeder
+     *
+     * @return Grubun committed offset'i
+     * @throws IllegalArgumentException Grup yoksa veya offset dağıtılmamış bir kayda işaret ediyorsa
+     */
+    public long commit(String group, long offset) {
+        ConsumerGroup consumerGroup = getGroup(group);
+        commits.increment();
+        synchronized (consumerGroup) {
+            if (consumerGroup.commit(offset)) {
+                dirty.set(true);
+            }
+            return consumerGroup.getCommitted();
+        }
+    }
+
+    /**
+     * Tüketicinin kiralarını bırakır, aralıkları hemen diğer tüketicilere verilir
+     *
+     * @return Bırakılan kira sayısı
+     */
+    public int leave(String group, String consumer) {
+        ConsumerGroup consumerGroup = getGroup(group);
+        synchronized (consumerGroup) {
+            return consumerGroup.release(consumer);
+        }
+    }
+
+    /**
+     * @return Grubun committed offset'i
+     * @throws IllegalArgumentException Grup yoksa
+     */
+    public long committedOffset(String group) {
+        ConsumerGroup consumerGroup = getGroup(group);
+        synchronized (consumerGroup) {
+            return consumerGroup.getCommitted();
+        }
+    }
+
+    private ConsumerGroup getGroup(String group) {
+        ConsumerGroup consumerGroup = groups.get(group);
+        if (consumerGroup == null) {
+            throw new IllegalArgumentException("Tüketici grubu bulunamadı: " + group);
+        }
+        return consumerGroup;
+    }
+
+    private static String validateName(String name) {
+        if (!NAME_PATTERN.matcher(name).matches()) {
+            throw new IllegalArgumentException("Geçersiz grup veya tüketici adı (harf, rakam, '.', '_', '-';"
+                    + " en fazla 64 karakter): " + name);
+        }
+        return name;
+    }
+
+    /**
+     * Değişen offset'ler varsa tüm grupları tek snapshot olarak yazar
+     */
+    private void flush() {
+        if (!dirty.getAndSet(false)) {
+            return;
+        }
+        StringBuilder snapshot = new StringBuilder(SNAPSHOT_HEADER);
+        for (ConsumerGroup group : new TreeMap<>(groups).values()) {
+            long committed;
+            synchronized (group) {
+                committed = group.getCommitted();
+            }
+            snapshot.append('\n').append(group.getName()).append(' ').append(committed);
+        }
+        try {
+            if (store.store(snapshot.toString())) {
+                flushes.increment();
+                return;
+            }
+        } catch (RuntimeException e) {
+            logger.error("Tüketici grubu offset'leri yazılırken hata: ", e);
+        }
+        // Sonraki aralıkta tekrar denenir
+        dirty.set(true);
+    }
+
+    /**
+     * Zamanlayıcıyı durdurur ve bekleyen offset'leri yazar
+     */
+    public void close() {
+        flusher.shutdown();
+        try {
+            if (!flusher.awaitTermination(5, TimeUnit.SECONDS)) {
+                flusher.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flush();
+    }
+}
@@ -2,39 +2,71 @@ package com.sistem.proje.leader;
 
 import com.sistem.proje.config.ConfigException;
 import com.sistem.proje.config.ConfigLoader;
+import com.sistem.proje.grpc.GrpcCompression;
 import com.sistem.proje.grpc.StorageServiceGrpc;
 import com.sistem.proje.grpc.StoredMessage;
 import com.sistem.proje.grpc.StoreResult;
-import com.sistem.proje.protocol.Command;
+import com.sistem.proje.metrics.Counter;
+import com.sistem.proje.metrics.EventLog;
+import com.sistem.proje.metrics.LatencyHistogram;
+import com.sistem.proje.metrics.MetricsHttpServer;
+import com.sistem.proje.metrics.MetricsRegistry;
+import com.sistem.proje.protocol.BinaryOpcode;
+import com.sistem.proje.protocol.BinaryProtocol;
+import com.sistem.proje.protocol.ByteCommandParser;
 import com.sistem.proje.protocol.CommandHandler;
 import com.sistem.proje.protocol.CommandParseException;
-import com.sistem.proje.protocol.CommandParser;
-import com.sistem.proje.protocol.GetCommand;
-import com.sistem.proje.protocol.SetCommand;
+import com.sistem.proje.protocol.CommandType;
+import com.sistem.proje.protocol.ParsedCommand;
+import com.sistem.proje.protocol.PartitionMap;
+import com.sistem.proje.raft.RaftNode;
+import com.sistem.proje.storage.Compression;
+import com.sistem.proje.storage.FileLayout;
 import com.sistem.proje.storage.IOMode;
+import com.sistem.proje.storage.LogBatch;
+import com.sistem.proje.storage.MessageFrame;
+import com.sistem.proje.storage.MessageStorage;
+import com.sistem.proje.storage.OffsetLog;
+import com.sistem.proje.storage.StorageOptions;
 import io.grpc.ManagedChannel;
 import io.grpc.ManagedChannelBuilder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
 import java.io.IOException;
-import java.io.InputStreamReader;
-import java.io.PrintWriter;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
 import java.net.ServerSocket;
 import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.ArrayList;
-import java.util.Collections;
+import java.util.Arrays;
 import java.util.List;
-import java.util.Map;
-import java.util.Random;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
 
 /**
  * Leader Node - TCP client isteklerini kabul eder ve SET/GET işlemlerini yönetir
@@ -42,36 +74,110 @@ import java.util.concurrent.TimeUnit;
 public class LeaderNode {
     private static final Logger logger = LoggerFactory.getLogger(LeaderNode.class);
     private static final int DEFAULT_PORT = 6666;
+    private static final String DEFAULT_DATA_ROOT = "data";
+    private static final String MESSAGES_SUBDIR = "messages";
+    private static final String LOG_SUBDIR = "log";
+    private static final String RAFT_SUBDIR = "raft";
+    // Bu boyuttan büyük mesajlar GET'te diskten socket'e transferTo ile gönderilir
+    private static final long ZERO_COPY_MIN_BYTES = 64 * 1024;
+    // Bağlantı başına okuma/cevap buffer'ı; daha uzun satırlarda okuma buffer'ı büyütülür
+    private static final int LINE_BUFFER_SIZE = 8 * 1024;
+    private static final byte[] OK_LINE = (CommandHandler.OK + "\n").getBytes(StandardCharsets.UTF_8);
+    private static final byte[] NOT_FOUND_LINE = (CommandHandler.NOT_FOUND + "\n").getBytes(StandardCharsets.UTF_8);
+    private static final byte[] REGISTER_PREFIX = "REGISTER ".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] HEARTBEAT_PREFIX = "HEARTBEAT ".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] SUBSCRIBE_PREFIX = "SUBSCRIBE ".getBytes(StandardCharsets.UTF_8);
+    private static final String UNSUBSCRIBE = "UNSUBSCRIBE";
+    private static final byte[] APPEND_PREFIX = "APPEND ".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] READ_PREFIX = "READ ".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] GROUP_PREFIX = "GROUP ".getBytes(StandardCharsets.UTF_8);
+    private static final String PARTITIONS = "PARTITIONS";
+    // READ'de en fazla byte verilmezse
+    private static final int DEFAULT_READ_BYTES = 64 * 1024;
+    // Text protokolünde lider diskinden gönderilen mesajın arkasına satır sonu eklenir
+    private static final MessageFrame LINE_FRAME = MessageFrame.trailer(new byte[] {'\n'});
+    // Binary bağlantı başına aynı anda işlenen en fazla istek; dolunca bağlantıdan okuma durur (backpressure)
+    private static final int BINARY_MAX_IN_FLIGHT = 128;
+    // Binary bağlantı kapanırken işlenmekte olan isteklerin cevapları en fazla bu kadar beklenir
+    private static final long BINARY_DRAIN_TIMEOUT_MS = 10_000;
+    // Metrik endpoint'i varsayılan olarak TCP port'unun 1000 üstünde açılır
+    public static final int METRICS_PORT_OFFSET = 1000;
+    // Raft portu: client port'u + RAFT_PORT_OFFSET
+    public static final int RAFT_PORT_OFFSET = 2000;
+    // Raft kaydının commit edilip uygulanması için beklenen en uzun süre
+    private static final long RAFT_COMMIT_TIMEOUT_MS = 5000;
+    // Takipçinin seçim sürerken yönlendireceği lideri beklediği en uzun süre
+    private static final long RAFT_LEADER_WAIT_MS = 1000;
+    // Raft liderinin GET'ten önce okuma kirasını beklediği en uzun süre
+    private static final long RAFT_READ_LEASE_WAIT_MS = 500;
     
     private final int port;
-    private ServerSocket serverSocket;
+    private final Path dataDirectory;
+    private volatile ServerSocket serverSocket;
     private ExecutorService clientThreadPool;
     private volatile boolean running = false;
+    // Server socket bağlandığında açılır (gömülü kümede start() ayrı thread'de çalışır)
+    private final CountDownLatch started = new CountDownLatch(1);
     
     // Komut işleme bileşenleri
-    private final CommandParser commandParser;
+    private final ByteCommandParser commandParser;
     private final CommandHandler commandHandler;
+    // Onaylanan SET'leri abonelere iletir
+    private final SubscriptionManager subscriptions;
+    // APPEND/READ için offset'li sıralı log (lidere özel, üyelere kopyalanmaz)
+    private final OffsetLog offsetLog;
+    // Offset log'unu paylaşan tüketici grupları ve commit edilmiş offset'leri
+    private final ConsumerGroupManager groups;
+
+    // Gecikme histogramları ve sayaçlar
+    private final MetricsRegistry metrics = new MetricsRegistry();
+    private final LatencyHistogram setLatency = metrics.histogram("leader.set");
+    private final LatencyHistogram getLatency = metrics.histogram("leader.get");
+    private final LatencyHistogram appendLatency = metrics.histogram("leader.append");
+    private final LatencyHistogram readLatency = metrics.histogram("leader.read");
+    private final LatencyHistogram groupFetchLatency = metrics.histogram("leader.groups.fetch");
+    private final Counter acceptedConnections = metrics.counter("leader.connections.accepted");
+    private final Counter binaryConnections = metrics.counter("leader.connections.binary");
+    private final Counter movedRequests = metrics.counter("leader.partition.moved");
+    private final Counter raftRedirects = metrics.counter("leader.raft.redirects");
+    private final AtomicInteger activeConnections = new AtomicInteger();
+    // Açık client ve üye bağlantıları; stop() bunları kapatır, üyelerin kalıcı heartbeat bağlantısı
+    // durmuş liderden cevap almaya devam etmez
+    private final Set<Socket> clientSockets = ConcurrentHashMap.newKeySet();
+    // Örneklenmiş istek olayları (varsayılan kapalı)
+    private final EventLog eventLog;
+    // Prometheus endpoint'i (-1 = kapalı)
+    private final int metricsPort;
+    private MetricsHttpServer metricsServer;
+    // ID uzayının liderlere bölünmesi ve bu liderin partition'ı (bölünmemiş kümede tek partition)
+    private volatile PartitionMap partitionMap = PartitionMap.single();
+    private volatile int partition;
+
+    // Raft ile replike lider grubu, null ise tek lider; raftPeers grubun client adresleri (sıraları Raft id'leri)
+    private volatile RaftNode raft;
+    private volatile List<String> raftPeers = List.of();
     
     // Konfigürasyon
     private final ConfigLoader configLoader;
-    private int tolerance;
+    private volatile int tolerance;
+    // Store çağrılarında gzip eşiği (UTF-8 byte, negatif = kapalı)
+    private volatile int grpcCompressionThreshold = GrpcCompression.DEFAULT_THRESHOLD;
     
     // Üye listeleri (memory'de tutulur)
     private final List<MemberInfo> activeMembers;  // Aktif üyeler
     private final List<MemberInfo> deadMembers;    // Ölü üyeler
     
-    // Mesaj ID → hangi üyelerde saklandığını tutar
-    // Key: mesaj ID (Integer), Value: üye ID listesi (List<String>)
-    private final Map<Integer, List<String>> messageToMembers;
+    // Mesaj ID → hangi üyelerde saklandığını tutar (üye başına sayılarla birlikte)
+    private final MessagePlacement messageToMembers;
     
     // Load balancing stratejisi
     private final LoadBalancingStrategy loadBalancingStrategy;
     
-    // Round-robin için counter (thread-safe)
-    private final AtomicInteger roundRobinCounter = new AtomicInteger(0);
-    
-    // Üye seçimi için random (fallback için)
-    private final Random random;
+    // Stratejiye göre replika üyelerini seçer (round-robin sayacı burada tutulur)
+    private final MemberSelector memberSelector;
+
+    // Üyelere gRPC kanalı açar (varsayılan plaintext TCP, gömülü kümede in-process olabilir)
+    private volatile Function<MemberInfo, ManagedChannel> channelFactory = LeaderNode::openChannel;
     
     // Periyodik istatistik için scheduler
     private final ScheduledExecutorService statsScheduler;
@@ -79,8 +185,17 @@ public class LeaderNode {
     
     // Heartbeat kontrolü için scheduler
     private final ScheduledExecutorService heartbeatScheduler;
-    private static final long HEARTBEAT_CHECK_INTERVAL_SECONDS = 5; // Her 5 saniyede bir kontrol
-    private static final long HEARTBEAT_TIMEOUT_MS = 8000; // 8 saniye (member 3 saniyede bir gönderiyor, 8 saniye threshold)
+    private static final long HEARTBEAT_CHECK_INTERVAL_MS = 1000; // Phi her saniye yeniden hesaplanır
+    private static final long HEARTBEAT_INTERVAL_MS = 3000; // Member'ların heartbeat aralığı (ilk tahmin)
+    // RPC hatası alan üye en az bu süre SUSPECT kalır (başarılı bir RPC ile erken temizlenir)
+    private static final long RPC_SUSPECT_MS = 10_000;
+    // Üyelere Store/Retrieve RPC'lerinin deadline'ı; cevap vermeyen (ör. duraklamış) üye isteği süresiz bekletmez
+    private static final long MEMBER_RPC_DEADLINE_MS = 5_000;
+
+    // Sabit timeout yerine heartbeat aralıklarının dağılımına göre şüphe seviyesi (phi)
+    private final PhiAccrualFailureDetector failureDetector;
+    private double phiSuspectThreshold;
+    private double phiDeadThreshold;
 
     /**
      * Varsayılan port, Buffered IO ve Hash-based load balancing ile oluşturur
@@ -107,25 +222,101 @@ public class LeaderNode {
      * @param loadBalancingStrategy Load balancing stratejisi (ROUND_ROBIN veya HASH_BASED)
      */
     public LeaderNode(int port, IOMode ioMode, LoadBalancingStrategy loadBalancingStrategy) {
+        this(port, ioMode, loadBalancingStrategy, Paths.get(DEFAULT_DATA_ROOT, "leader-" + port));
+    }
+
+    /**
+     * Belirtilen port, IO modu, load balancing stratejisi ve veri klasörü ile oluşturur
+     * Lider mesajları dataDirectory/messages altında saklar
+     * 
+     * @param port TCP server port'u
+     * @param ioMode IO modu (BUFFERED, UNBUFFERED veya LOG)
+     * @param loadBalancingStrategy Load balancing stratejisi (ROUND_ROBIN veya HASH_BASED)
+     * @param dataDirectory Node'un veri kök klasörü
+     */
+    public LeaderNode(int port, IOMode ioMode, LoadBalancingStrategy loadBalancingStrategy, Path dataDirectory) {
+        this(port, ioMode, loadBalancingStrategy, dataDirectory, port + METRICS_PORT_OFFSET);
+    }
+
+    /**
+     * Tüm ayarlar ve metrik endpoint'i port'u ile oluşturur
+     * 
+     * @param port TCP server port'u
+     * @param ioMode IO modu (BUFFERED, UNBUFFERED, CHANNEL veya LOG)
+     * @param loadBalancingStrategy Load balancing stratejisi (ROUND_ROBIN veya HASH_BASED)
+     * @param dataDirectory Node'un veri kök klasörü
+     * @param metricsPort Prometheus metrik endpoint'i port'u (0 = boş port, negatif = kapalı)
+     */
+    public LeaderNode(int port, IOMode ioMode, LoadBalancingStrategy loadBalancingStrategy, Path dataDirectory,
+                      int metricsPort) {
+        this(port, new StorageOptions().setIoMode(ioMode != null ? ioMode : IOMode.UNBUFFERED),
+                loadBalancingStrategy, dataDirectory, metricsPort, 0);
+    }
+
+    /**
+     * Tüm ayarlar ve istek olay günlüğü örnekleme oranı ile oluşturur
+     * 
+     * @param port TCP server port'u
+     * @param storageOptions Lider diskinin IO modu, yerleşimi ve sıkıştırma ayarları
+     * @param loadBalancingStrategy Load balancing stratejisi (ROUND_ROBIN veya HASH_BASED)
+     * @param dataDirectory Node'un veri kök klasörü
+     * @param metricsPort Prometheus metrik endpoint'i port'u (0 = boş port, negatif = kapalı)
+     * @param eventSampleRate Replika işlemlerinin her N'de biri olay günlüğüne yazılır (0 = kapalı)
+     */
+    public LeaderNode(int port, StorageOptions storageOptions, LoadBalancingStrategy loadBalancingStrategy,
+                      Path dataDirectory, int metricsPort, int eventSampleRate) {
         this.port = port;
+        this.dataDirectory = dataDirectory;
+        this.metricsPort = metricsPort;
+        this.eventLog = new EventLog(eventSampleRate);
         this.clientThreadPool = Executors.newCachedThreadPool();
-        this.commandParser = new CommandParser();
-        this.commandHandler = new CommandHandler(ioMode);
+        this.subscriptions = new SubscriptionManager(clientThreadPool, metrics);
+        this.commandParser = new ByteCommandParser();
+        this.commandHandler = new CommandHandler(
+                new MessageStorage(dataDirectory.resolve(MESSAGES_SUBDIR), storageOptions, metrics));
+        try {
+            this.offsetLog = new OffsetLog(dataDirectory.resolve(LOG_SUBDIR));
+        } catch (IOException e) {
+            logger.error("Offset log açılamadı: ", e);
+            throw new RuntimeException("Offset log başlatılamadı", e);
+        }
+        this.groups = new ConsumerGroupManager(offsetLog, new ConsumerGroupManager.OffsetStore() {
+            @Override
+            public String load() throws IOException {
+                return commandHandler.getStorage().getMessage(ConsumerGroupManager.OFFSETS_MESSAGE_ID);
+            }
+
+            @Override
+            public boolean store(String snapshot) {
+                // Raft modunda GROUP komutları reddedildiği için snapshot sadece tek lider modunda yazılır
+                String result = replicateSet(ConsumerGroupManager.OFFSETS_MESSAGE_ID, snapshot);
+                if (!CommandHandler.OK.equals(result)) {
+                    logger.warn("Tüketici grubu offset'leri replike edilemedi: {}", result);
+                    return false;
+                }
+                return true;
+            }
+        }, metrics);
+        metrics.gauge("leader.connections.active", activeConnections::get);
+        metrics.gauge("log.next.offset", offsetLog::endOffset);
+        metrics.gauge("log.bytes", offsetLog::totalBytes);
         this.configLoader = new ConfigLoader();
         this.loadBalancingStrategy = loadBalancingStrategy != null ? loadBalancingStrategy : LoadBalancingStrategy.HASH_BASED;
         this.activeMembers = new CopyOnWriteArrayList<>();
         this.deadMembers = new CopyOnWriteArrayList<>();
-        this.messageToMembers = new ConcurrentHashMap<>();
-        this.random = new Random();
-        // roundRobinCounter zaten field'da initialize edilmiş (final)
+        this.messageToMembers = new MessagePlacement();
+        this.memberSelector = new MemberSelector(this.loadBalancingStrategy);
         this.tolerance = 0;
         this.statsScheduler = Executors.newScheduledThreadPool(1);
         this.heartbeatScheduler = Executors.newScheduledThreadPool(1);
+        this.failureDetector = new PhiAccrualFailureDetector(HEARTBEAT_INTERVAL_MS);
         
         // Tolerance değerini yükle
         try {
             configLoader.load();
             this.tolerance = configLoader.getTolerance();
+            this.phiSuspectThreshold = configLoader.getPhiSuspectThreshold();
+            this.phiDeadThreshold = configLoader.getPhiDeadThreshold();
             logger.info("Tolerance değeri yüklendi: {} (desteklenen aralık: 1-7)", tolerance);
             logger.info("Load balancing stratejisi: {}", loadBalancingStrategy);
         } catch (IOException | ConfigException e) {
@@ -133,8 +324,425 @@ public class LeaderNode {
             logger.error("Tolerance değeri yüklenirken hata: {}", e.getMessage());
             // Sistem çökmesin, default değeri kullan
             this.tolerance = ConfigLoader.getDefaultTolerance();
+            this.phiSuspectThreshold = ConfigLoader.getDefaultPhiSuspectThreshold();
+            this.phiDeadThreshold = ConfigLoader.getDefaultPhiDeadThreshold();
             logger.warn("Hata nedeniyle default tolerance değeri kullanılıyor: {}", this.tolerance);
         }
+        registerClusterGauges();
+    }
+
+    /**
+     * Node'un metrik registry'sini döndürür
+     */
+    public MetricsRegistry getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Dinlenen TCP port'u; port 0 ile oluşturulduysa start() sonrası işletim sisteminin verdiği port
+     */
+    public int getPort() {
+        ServerSocket socket = serverSocket;
+        return socket != null ? socket.getLocalPort() : port;
+    }
+
+    /**
+     * Prometheus endpoint'inin port'u, kapalıysa -1
+     */
+    public int getMetricsPort() {
+        MetricsHttpServer server = metricsServer;
+        return server != null ? server.getPort() : -1;
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * start() başka bir thread'de çağrıldığında server socket'in bağlanmasını bekler
+     * 
+     * @return Süre dolmadan başladıysa true
+     */
+    public boolean awaitStarted(long timeout, TimeUnit unit) throws InterruptedException {
+        return started.await(timeout, unit);
+    }
+
+    public int getTolerance() {
+        return tolerance;
+    }
+
+    /**
+     * tolerance.conf'tan yüklenen değeri geçersiz kılar (gömülü küme ve testler için)
+     * 
+     * @param tolerance Her SET'in kopyalanacağı üye sayısı
+     */
+    public void setTolerance(int tolerance) {
+        if (tolerance < 0) {
+            throw new IllegalArgumentException("Tolerance negatif olamaz: " + tolerance);
+        }
+        this.tolerance = tolerance;
+        logger.info("Tolerance değeri ayarlandı: {}", tolerance);
+    }
+
+    /**
+     * Üyelere gönderilen Store çağrılarının gzip ile sıkıştırılacağı en küçük mesaj boyutunu ayarlar
+     *
+     * @param grpcCompressionThreshold Eşik (UTF-8 byte), negatif değer sıkıştırmayı kapatır
+     */
+    public void setGrpcCompressionThreshold(int grpcCompressionThreshold) {
+        this.grpcCompressionThreshold = grpcCompressionThreshold;
+    }
+
+    /**
+     * Abone başına gönderim kuyruğu sınırlarını değiştirir (sonraki SUBSCRIBE'lar için)
+     * 
+     * @param maxMessages Kuyrukta bekleyebilecek en fazla mesaj, fazlası düşürülür ve LAGGED ile bildirilir
+     * @param maxBytes Kuyrukta bekleyebilecek en fazla byte
+     */
+    public void setSubscriptionLimits(int maxMessages, long maxBytes) {
+        subscriptions.setLimits(maxMessages, maxBytes);
+        logger.info("Abonelik kuyruk sınırları: {} mesaj, {} byte", maxMessages, maxBytes);
+    }
+
+    /**
+     * Lideri bölünmüş ID uzayında bir partition'ın sahibi yapar
+     * Diğer partition'lara düşen SET/GET'ler MOVED ile sahibi lidere yönlendirilir. APPEND/READ,
+     * tüketici grupları ve abonelikler partition'dan bağımsız olarak bu lidere özeldir
+     *
+     * @param partitionMap Tüm partition'lar ve liderlerinin adresleri (tüm liderlerde aynı olmalı)
+     * @param partition Bu liderin partition'ı
+     */
+    public void setPartitioning(PartitionMap partitionMap, int partition) {
+        if (partition < 0 || partition >= partitionMap.size()) {
+            throw new IllegalArgumentException("Partition " + partition + " map'te yok (" + partitionMap.size()
+                    + " partition)");
+        }
+        if (port != 0 && partitionMap.isPartitioned() && PartitionMap.port(partitionMap.addressOf(partition)) != port) {
+            logger.warn("Partition {} map'te {} adresinde, bu lider {} port'unu dinliyor; client'lar yanlış lidere"
+                    + " yönlendirilebilir", partition, partitionMap.addressOf(partition), port);
+        }
+        this.partition = partition;
+        this.partitionMap = partitionMap;
+        logger.info("Partition {}/{} lideri, partition map: {}", partition, partitionMap.size(), partitionMap);
+    }
+
+    public PartitionMap getPartitionMap() {
+        return partitionMap;
+    }
+
+    /**
+     * ID bu liderin partition'ına mı düşüyor
+     */
+    private boolean ownsKey(int id) {
+        PartitionMap map = partitionMap;
+        return !map.isPartitioned() || map.partitionOf(id) == partition;
+    }
+
+    /**
+     * Başka partition'a düşen ID için text cevabı: MOVED &lt;partition&gt; &lt;host:port&gt;
+     */
+    private String movedResponse(int id) {
+        PartitionMap map = partitionMap;
+        int owner = map.partitionOf(id);
+        movedRequests.increment();
+        return "MOVED " + owner + " " + map.addressOf(owner);
+    }
+
+    /**
+     * Lideri Raft ile replike edilen bir lider grubunun üyesi yapar (start'tan önce çağrılmalı)
+     * Grubun seçtiği lider SET/GET ve üye kayıtlarını kabul eder: SET'ler (mesaj + saklayan üyeler) ve
+     * REGISTER'lar Raft log'una yazılır, commit edildikten sonra her node'da aynı sırayla uygulanır. Böylece
+     * lider diski ve messageToMembers tüm node'larda aynıdır ve lider düşerse yenisi kaldığı yerden devam
+     * eder. Takipçiler client'ları MOVED, üyeleri NOT_LEADER ile lidere yönlendirir. APPEND/READ ve
+     * tüketici grupları Raft'a dahil değildir, bağlanılan node'a özeldir
+     *
+     * @param peers Gruptaki tüm liderlerin client adresleri (host:port), sıraları Raft id'leridir; Raft
+     *              client port'u + RAFT_PORT_OFFSET'i dinler
+     * @param id Bu liderin listedeki sırası
+     * @throws IOException Raft log'u açılamazsa
+     */
+    public void enableRaft(List<String> peers, int id) throws IOException {
+        List<String> raftAddresses = new ArrayList<>(peers.size());
+        for (String peer : peers) {
+            raftAddresses.add(PartitionMap.host(peer) + ":" + (PartitionMap.port(peer) + RAFT_PORT_OFFSET));
+        }
+        RaftNode node = new RaftNode(raftAddresses, id, dataDirectory.resolve(RAFT_SUBDIR), new RaftStateMachine(),
+                metrics);
+        if (port != 0 && PartitionMap.port(peers.get(id)) != port) {
+            logger.warn("Raft node {} listede {} adresinde, bu lider {} port'unu dinliyor; yönlendirmeler yanlış"
+                    + " adrese gidebilir", id, peers.get(id), port);
+        }
+        this.raftPeers = List.copyOf(peers);
+        this.raft = node;
+        logger.info("Raft grubu: node {}/{}, liderler: {}", id, peers.size(), peers);
+    }
+
+    /**
+     * Raft snapshot eşiğini ayarlar (enableRaft'tan sonra çağrılmalı)
+     *
+     * @param bytes Uygulanmış kayıtlar log'da bu boyutu geçince snapshot alınır ve log'un öneki atılır
+     *              (0 veya negatif = kapalı)
+     */
+    public void setRaftSnapshotThreshold(long bytes) {
+        if (raft == null) {
+            throw new IllegalStateException("Raft açık değil");
+        }
+        raft.setSnapshotThreshold(bytes);
+    }
+
+    /**
+     * Bu node SET/GET ve üye kayıtlarını kabul ediyor mu (tek lider veya Raft lideri)
+     */
+    public boolean isActiveLeader() {
+        RaftNode node = raft;
+        return node == null || node.isLeader();
+    }
+
+    /**
+     * Raft liderinin client adresi; seçim sürüyorsa en fazla RAFT_LEADER_WAIT_MS beklenir
+     *
+     * @return Adres, lider bulunamazsa null
+     */
+    private String raftLeaderAddress() {
+        try {
+            int leaderId = raft.awaitLeader(RAFT_LEADER_WAIT_MS);
+            return leaderId >= 0 ? raftPeers.get(leaderId) : null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+
+    /**
+     * Raft takipçisine gelen SET/GET için text cevabı: MOVED &lt;partition&gt; &lt;liderin host:port'u&gt;
+     */
+    private String raftMovedResponse() {
+        String leader = raftLeaderAddress();
+        if (leader == null) {
+            return "ERROR: Raft lideri seçilemedi";
+        }
+        raftRedirects.increment();
+        return "MOVED " + partition + " " + leader;
+    }
+
+    /**
+     * Raft modunda GET'ten önce çağrılır: lider okuma kirasını RAFT_READ_LEASE_WAIT_MS kadar bekler.
+     * Çoğunluktan kopan eski lider kirası dolduktan sonra yerel durumdan (disk veya messageToMembers) okumaz,
+     * yeni liderin commit ettiği yazmalardan eski bir değer döndürmez
+     *
+     * @return null okunabiliyorsa; liderlik kaybedildiyse MOVED, kira alınamadıysa ERROR cevabı
+     */
+    private String raftReadCheck() {
+        RaftNode node = raft;
+        if (node == null) {
+            return null;
+        }
+        try {
+            if (node.awaitReadLease(RAFT_READ_LEASE_WAIT_MS)) {
+                return null;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return "ERROR: Raft okuma kirası beklenirken kesildi";
+        }
+        return node.isLeader() ? "ERROR: Raft okuma kirası alınamadı, çoğunluğa ulaşılamıyor" : raftMovedResponse();
+    }
+
+    /**
+     * Raft takipçisine gelen REGISTER/HEARTBEAT cevabı: NOT_LEADER [&lt;liderin host:port'u&gt;]
+     */
+    private String notLeaderResponse() {
+        String leader = raftLeaderAddress();
+        raftRedirects.increment();
+        return leader != null ? "NOT_LEADER " + leader : "NOT_LEADER";
+    }
+
+    /**
+     * Client'lara sunulan partition map: Raft takipçisinde bu partition'ın adresi Raft liderininki olur
+     */
+    private PartitionMap partitionMapView() {
+        PartitionMap map = partitionMap;
+        if (isActiveLeader()) {
+            return map;
+        }
+        String leader = raftLeaderAddress();
+        return leader != null ? map.withAddress(partition, leader) : map;
+    }
+
+    /**
+     * Komutu Raft log'una yazar ve commit edilip bu node'da uygulanmasını bekler
+     * Çağıran hata durumunda node.isLeader() ile liderliğin kaybedilip kaybedilmediğine bakar: kaybedildiyse
+     * istek yeni lidere yönlendirilir (kayıt yine de yeni lider tarafından commit edilebilir, SET ve REGISTER
+     * tekrarlanabilir)
+     *
+     * @return null başarılıysa, aksi halde ERROR cevabı
+     */
+    private String proposeAndWait(RaftNode node, byte[] command) {
+        try {
+            node.propose(command).get(RAFT_COMMIT_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+            return null;
+        } catch (ExecutionException e) {
+            return "ERROR: Raft commit başarısız: " + e.getCause().getMessage();
+        } catch (TimeoutException e) {
+            return "ERROR: Raft commit " + RAFT_COMMIT_TIMEOUT_MS + " ms içinde tamamlanmadı";
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return "ERROR: Raft commit beklenirken kesildi";
+        }
+    }
+
+    /**
+     * Commit edilen Raft kayıtlarını bu node'a uygular (lider dahil tüm node'larda aynı sırayla)
+     */
+    private class RaftStateMachine implements RaftNode.StateMachine {
+        @Override
+        public void apply(long index, byte[] data) {
+            ReplicatedCommand command = ReplicatedCommand.decode(data);
+            if (command.type == ReplicatedCommand.REGISTER) {
+                addMember(command.memberId, command.host, command.port);
+                return;
+            }
+            if (command.messageId == ConsumerGroupManager.OFFSETS_MESSAGE_ID) {
+                // Tüketici grupları Raft modunda kapalıdır, grup snapshot'ı Raft log'una girmemelidir
+                logger.warn("Raft kaydı {} tüketici grubu snapshot'ı içeriyor, atlandı", index);
+                return;
+            }
+            String result = commandHandler.executeSet(command.messageId, command.message);
+            if (!CommandHandler.OK.equals(result)) {
+                logger.error("Raft kaydı {} lider diskine yazılamadı: id={}, {}", index, command.messageId, result);
+                return;
+            }
+            addMessageToMember(command.messageId, "leader");
+            for (String memberId : command.members) {
+                addMessageToMember(command.messageId, memberId);
+            }
+            // Her node kendi abonelerine commit edilen SET'leri iletir
+            subscriptions.publish(command.messageId, command.message);
+        }
+
+        /**
+         * Mesajları (gövdeleriyle), yerleşimlerini ve üye kayıtlarını yazar
+         * Format: mesaj sayısı(4) | her mesaj için id(4) | uzunluk(4), -1 = diskte yok | mesaj | üye sayısı(2) |
+         * üye ID'leri (UTF) | üye sayısı(4) | her üye için ID (UTF) | host (UTF) | port(4)
+         */
+        @Override
+        public void snapshot(OutputStream out) throws IOException {
+            DataOutputStream data = new DataOutputStream(out);
+            List<Integer> ids = messageToMembers.getMessageIds();
+            ids.remove(Integer.valueOf(ConsumerGroupManager.OFFSETS_MESSAGE_ID));
+            data.writeInt(ids.size());
+            for (Integer id : ids) {
+                String message = commandHandler.getStorage().getMessage(id);
+                data.writeInt(id);
+                if (message == null) {
+                    data.writeInt(-1);
+                } else {
+                    byte[] payload = message.getBytes(StandardCharsets.UTF_8);
+                    data.writeInt(payload.length);
+                    data.write(payload);
+                }
+                List<String> members = messageToMembers.getMembers(id);
+                data.writeShort(members.size());
+                for (String memberId : members) {
+                    data.writeUTF(memberId);
+                }
+            }
+            List<MemberInfo> members = getAllMembers();
+            data.writeInt(members.size());
+            for (MemberInfo member : members) {
+                data.writeUTF(member.getId());
+                data.writeUTF(member.getHost());
+                data.writeInt(member.getPort());
+            }
+            data.flush();
+        }
+
+        /**
+         * Yerleşimi ve üye listesini snapshot'takiyle değiştirir; diskteki mesajdan farklı olanlar yeniden yazılır
+         * Snapshot'tan sonra gelen kayıtlar apply ile uygulanır, abonelere sadece onlar iletilir
+         */
+        @Override
+        public void restore(InputStream in) throws IOException {
+            DataInputStream data = new DataInputStream(in);
+            clearMessageToMembers();
+            int count = data.readInt();
+            for (int i = 0; i < count; i++) {
+                int id = data.readInt();
+                int length = data.readInt();
+                if (length >= 0) {
+                    byte[] payload = new byte[length];
+                    data.readFully(payload);
+                    String message = new String(payload, StandardCharsets.UTF_8);
+                    if (!message.equals(commandHandler.getStorage().getMessage(id))) {
+                        String result = commandHandler.executeSet(id, message);
+                        if (!CommandHandler.OK.equals(result)) {
+                            logger.error("Snapshot'taki mesaj lider diskine yazılamadı: id={}, {}", id, result);
+                        }
+                    }
+                }
+                int memberCount = data.readUnsignedShort();
+                for (int j = 0; j < memberCount; j++) {
+                    addMessageToMember(id, data.readUTF());
+                }
+            }
+            int memberCount = data.readInt();
+            List<String> restored = new ArrayList<>(memberCount);
+            for (int i = 0; i < memberCount; i++) {
+                String memberId = data.readUTF();
+                addMember(memberId, data.readUTF(), data.readInt());
+                restored.add(memberId);
+            }
+            for (MemberInfo member : getAllMembers()) {
+                if (!restored.contains(member.getId())) {
+                    removeMember(member.getId());
+                }
+            }
+            logger.info("Raft snapshot'ından {} mesaj ve {} üye yüklendi", count, memberCount);
+        }
+
+        @Override
+        public void onRoleChange(RaftNode.Role role, long term) {
+            if (role == RaftNode.Role.LEADER) {
+                resetMemberHeartbeats();
+            }
+        }
+    }
+
+    /**
+     * Raft liderliği alındığında üyelerin heartbeat geçmişini sıfırlar: takipçiyken heartbeat almadığı
+     * için üyeler hemen ölü sayılmaz, yeni lidere yönelmeleri için bir heartbeat süresi tanınır
+     */
+    private void resetMemberHeartbeats() {
+        long now = System.currentTimeMillis();
+        for (MemberInfo member : activeMembers) {
+            member.setLastHeartbeatTimestamp(now);
+            failureDetector.remove(member.getId());
+            failureDetector.heartbeat(member.getId(), now);
+        }
+    }
+
+    /**
+     * Tüketici grubu kira süresini ve offset snapshot aralığını ayarlar (start'tan önce çağrılmalı)
+     *
+     * @param leaseMillis COMMIT edilmeyen aralığın başka tüketiciye verilmesi için geçmesi gereken süre
+     * @param commitIntervalMillis Commit edilen offset'lerin toplu olarak yazılıp replike edilme aralığı
+     */
+    public void setConsumerGroupTimeouts(long leaseMillis, long commitIntervalMillis) {
+        groups.setTimeouts(leaseMillis, commitIntervalMillis);
+    }
+
+    /**
+     * Üyelere gRPC kanalı açan fabrikayı değiştirir (ör. in-process transport)
+     * Kanal her RPC için açılıp kapatılır
+     */
+    public void setChannelFactory(Function<MemberInfo, ManagedChannel> channelFactory) {
+        this.channelFactory = channelFactory;
+    }
+
+    private static ManagedChannel openChannel(MemberInfo member) {
+        return ManagedChannelBuilder.forAddress(member.getHost(), member.getPort())
+                .usePlaintext()
+                .build();
     }
 
     /**
@@ -142,9 +750,22 @@ public class LeaderNode {
      */
     public void start() {
         try {
-            serverSocket = new ServerSocket(port);
+            // Kanal tabanlı socket: kabul edilen bağlantılar zero-copy GET için SocketChannel taşır
+            ServerSocketChannel serverChannel = ServerSocketChannel.open();
+            serverChannel.bind(new InetSocketAddress(port));
+            serverSocket = serverChannel.socket();
             running = true;
-            logger.info("Leader Node başlatıldı. Port: {}", port);
+            started.countDown();
+            logger.info("Leader Node başlatıldı. Port: {}", getPort());
+
+            if (metricsPort >= 0) {
+                metricsServer = new MetricsHttpServer(metricsPort, metrics);
+                metricsServer.start();
+            }
+
+            if (raft != null) {
+                raft.start();
+            }
 
             // Periyodik istatistikleri başlat
             startPeriodicStats();
@@ -152,11 +773,14 @@ public class LeaderNode {
             // Heartbeat kontrolünü başlat
             startHeartbeatCheck();
 
+            groups.start();
+
             // Aktif üye listesini logla
             logRegisteredMembers();
 
             while (running) {
                 Socket clientSocket = serverSocket.accept();
+                acceptedConnections.increment();
                 // DEBUG seviyesine alındı - heartbeat bağlantıları log spam yaratmasın
                 logger.debug("Yeni bağlantı: {}", clientSocket.getRemoteSocketAddress());
                 
@@ -198,6 +822,17 @@ public class LeaderNode {
             if (serverSocket != null && !serverSocket.isClosed()) {
                 serverSocket.close();
             }
+            if (metricsServer != null) {
+                metricsServer.close();
+            }
+            subscriptions.closeAll();
+            for (Socket socket : clientSockets) {
+                try {
+                    socket.close();
+                } catch (IOException e) {
+                    logger.debug("Client bağlantısı kapatılamadı: {}", e.getMessage());
+                }
+            }
             clientThreadPool.shutdown();
             statsScheduler.shutdown();
             heartbeatScheduler.shutdown();
@@ -207,6 +842,13 @@ public class LeaderNode {
             if (!heartbeatScheduler.awaitTermination(5, TimeUnit.SECONDS)) {
                 heartbeatScheduler.shutdownNow();
             }
+            eventLog.close();
+            groups.close();
+            if (raft != null) {
+                raft.close();
+            }
+            offsetLog.close();
+            commandHandler.getStorage().close();
             logger.info("Leader Node durduruldu.");
         } catch (IOException e) {
             logger.error("Leader Node kapatılırken hata: ", e);
@@ -230,8 +872,12 @@ public class LeaderNode {
         deadMembers.removeIf(m -> m.getId().equals(memberId));
         // Aktif üyeler listesine ekle
         activeMembers.add(member);
-        // Heartbeat timestamp'ini güncelle (yeni kayıt olduğu için)
-        member.setLastHeartbeatTimestamp(System.currentTimeMillis());
+        // Heartbeat timestamp'ini güncelle (yeni kayıt olduğu için), kayıt ilk heartbeat sayılır
+        long now = System.currentTimeMillis();
+        member.setLastHeartbeatTimestamp(now);
+        failureDetector.remove(memberId);
+        failureDetector.heartbeat(memberId, now);
+        registerMemberGauges(member);
         logger.info("Member registered: {} ({}:{})", memberId, host, port);
         System.out.println(String.format("Member registered: %s (%s:%d)", memberId, host, port));
     }
@@ -242,13 +888,25 @@ public class LeaderNode {
      * @param memberId Üye ID'si
      */
     public void removeMember(String memberId) {
-        boolean removedFromActive = activeMembers.removeIf(m -> m.getId().equals(memberId));
-        boolean removedFromDead = deadMembers.removeIf(m -> m.getId().equals(memberId));
+        boolean removedFromActive = activeMembers.removeIf(m -> detachIfMatches(m, memberId));
+        boolean removedFromDead = deadMembers.removeIf(m -> detachIfMatches(m, memberId));
         if (removedFromActive || removedFromDead) {
+            metrics.removeLabeled("member", memberId);
             logger.info("Üye kaldırıldı: {}", memberId);
         }
     }
 
+    /**
+     * Kaldırılan üyenin histogram bağlarını koparır: süren RPC'ler silinen histograma yazmaz
+     */
+    private static boolean detachIfMatches(MemberInfo member, String memberId) {
+        if (!member.getId().equals(memberId)) {
+            return false;
+        }
+        member.setReplicaHistograms(null, null);
+        return true;
+    }
+
     /**
      * Aktif üye listesini döndürür
      * 
@@ -299,8 +957,7 @@ public class LeaderNode {
      * @param memberId Üye ID'si
      */
     public void addMessageToMember(Integer messageId, String memberId) {
-        messageToMembers.computeIfAbsent(messageId, k -> new CopyOnWriteArrayList<>()).add(memberId);
-        logger.debug("Mesaj {} üye {}'ye eklendi", messageId, memberId);
+        messageToMembers.add(messageId, memberId);
     }
 
     /**
@@ -310,15 +967,64 @@ public class LeaderNode {
      * @param memberId Üye ID'si
      */
     public void removeMessageFromMember(Integer messageId, String memberId) {
-        List<String> memberList = messageToMembers.get(messageId);
-        if (memberList != null) {
-            memberList.remove(memberId);
-            // Eğer liste boşaldıysa map'ten kaldır
-            if (memberList.isEmpty()) {
-                messageToMembers.remove(messageId);
+        messageToMembers.remove(messageId, memberId);
+    }
+
+    /**
+     * Üyede saklandığı kaydedilen mesaj sayısı (messageToMembers ile birlikte güncellenir)
+     */
+    public long getStoredMessageCount(String memberId) {
+        return messageToMembers.getStoredMessageCount(memberId);
+    }
+
+    /**
+     * Küme görünümü metriklerini kaydeder: üye durumları, mesaj sayıları ve lider diski
+     */
+    private void registerClusterGauges() {
+        metrics.gauge("leader.messages", messageToMembers::size);
+        metrics.gauge("leader.tolerance", () -> tolerance);
+        for (MemberStatus status : MemberStatus.values()) {
+            metrics.gauge(MetricsRegistry.labeled("leader.members", "state", status.name()),
+                    () -> countMembers(status));
+        }
+        metrics.gauge("storage.messages", () -> commandHandler.getStorage().getUsage().getMessageCount());
+        metrics.gauge("storage.disk.bytes", () -> commandHandler.getStorage().getUsage().getDiskBytes());
+    }
+
+    private long countMembers(MemberStatus status) {
+        long count = 0;
+        for (MemberInfo member : status == MemberStatus.DEAD ? deadMembers : activeMembers) {
+            if (member.getStatus() == status) {
+                count++;
             }
-            logger.debug("Mesaj {} üye {}'den kaldırıldı", messageId, memberId);
         }
+        return count;
+    }
+
+    /**
+     * Üye başına metrikleri kaydeder (durum, phi, heartbeat yaşı, saklanan mesajlar, bildirilen yük ve
+     * replika RPC histogramları)
+     * Aynı ID ile yeniden kayıtta gauge'lar yeni MemberInfo'ya bağlanır
+     */
+    private void registerMemberGauges(MemberInfo member) {
+        String id = member.getId();
+        member.setReplicaHistograms(metrics.histogram(MetricsRegistry.labeled("replica.store", "member", id)),
+                metrics.histogram(MetricsRegistry.labeled("replica.retrieve", "member", id)));
+        for (MemberStatus status : MemberStatus.values()) {
+            metrics.gauge(MetricsRegistry.labeled("leader.member.state", "member", id, "state", status.name()),
+                    () -> member.getStatus() == status ? 1 : 0);
+        }
+        metrics.gauge(MetricsRegistry.labeled("leader.member.phi", "member", id), member::getPhi);
+        metrics.gauge(MetricsRegistry.labeled("leader.member.heartbeat.age.seconds", "member", id),
+                () -> (System.currentTimeMillis() - member.getLastHeartbeatTimestamp()) / 1000.0);
+        metrics.gauge(MetricsRegistry.labeled("leader.member.messages", "member", id),
+                () -> getStoredMessageCount(id));
+        metrics.gauge(MetricsRegistry.labeled("leader.member.reported.messages", "member", id),
+                member::getStoredMessageCount);
+        metrics.gauge(MetricsRegistry.labeled("leader.member.reported.disk.bytes", "member", id),
+                member::getDiskBytes);
+        metrics.gauge(MetricsRegistry.labeled("leader.member.reported.queue.depth", "member", id),
+                member::getQueueDepth);
     }
 
     /**
@@ -328,11 +1034,7 @@ public class LeaderNode {
      * @return Üye ID listesi (read-only), mesaj yoksa boş liste
      */
     public List<String> getMembersForMessage(Integer messageId) {
-        List<String> memberList = messageToMembers.get(messageId);
-        if (memberList == null) {
-            return Collections.emptyList();
-        }
-        return new ArrayList<>(memberList);
+        return messageToMembers.getMembers(messageId);
     }
 
     /**
@@ -343,8 +1045,7 @@ public class LeaderNode {
      * @return Mesaj üyede saklanıyorsa true
      */
     public boolean isMessageInMember(Integer messageId, String memberId) {
-        List<String> memberList = messageToMembers.get(messageId);
-        return memberList != null && memberList.contains(memberId);
+        return messageToMembers.contains(messageId, memberId);
     }
 
     /**
@@ -354,8 +1055,7 @@ public class LeaderNode {
      * @return Üye sayısı
      */
     public int getMemberCountForMessage(Integer messageId) {
-        List<String> memberList = messageToMembers.get(messageId);
-        return memberList != null ? memberList.size() : 0;
+        return messageToMembers.getMemberCount(messageId);
     }
 
     /**
@@ -391,41 +1091,48 @@ public class LeaderNode {
 
         try {
             // Lider diskindeki toplam mesaj sayısı
-            int leaderMessageCount = commandHandler.getStorage().getMessageCount();
-            
-            // Her üyenin mesaj sayısını hesapla (messageToMembers map'inden)
-            Map<String, Integer> memberMessageCounts = new ConcurrentHashMap<>();
-            for (Map.Entry<Integer, List<String>> entry : messageToMembers.entrySet()) {
-                for (String memberId : entry.getValue()) {
-                    memberMessageCounts.merge(memberId, Integer.valueOf(1), (a, b) -> Integer.valueOf(a.intValue() + b.intValue()));
-                }
-            }
+            long leaderMessageCount = commandHandler.getStorage().getUsage().getMessageCount();
             
             // Beklenen formatta console'a yazdır
             System.out.println("[STATS]");
             System.out.println(String.format("Total messages: %d", leaderMessageCount));
+            RaftNode raftNode = raft;
+            if (raftNode != null) {
+                int leaderId = raftNode.getLeaderId();
+                System.out.println(String.format("[RAFT] node %d | %s | term %d | lider: %s | commit: %d",
+                        raftNode.getId(), raftNode.getRole(), raftNode.getCurrentTerm(),
+                        leaderId >= 0 ? raftPeers.get(leaderId) : "-", raftNode.getCommitIndex()));
+            }
             
             if (activeMembers.isEmpty() && deadMembers.isEmpty()) {
                 System.out.println("(No members)");
             } else {
                 // Sadece aktif üyeleri yazdır
                 for (MemberInfo member : activeMembers) {
-                    int count = memberMessageCounts.getOrDefault(member.getId(), 0);
+                    long count = getStoredMessageCount(member.getId());
                     System.out.println(String.format("Member %s: %d", member.getId(), count));
                 }
+                // Üyelerin heartbeat ile bildirdiği yük
+                for (MemberInfo member : activeMembers) {
+                    if (member.getLoadTimestamp() > 0) {
+                        System.out.println(String.format(
+                            "[MEMBER LOAD] %s | Disk'teki mesaj: %d | Disk: %d byte | Yazma kuyruğu: %d",
+                            member.getId(),
+                            member.getStoredMessageCount(),
+                            member.getDiskBytes(),
+                            member.getQueueDepth()
+                        ));
+                    }
+                }
+            }
+            for (String line : metrics.report()) {
+                System.out.println("[METRICS] " + line);
             }
             System.out.println(); // Boş satır
             
             logger.debug("İstatistikler yazdırıldı. Lider: {}, Üyeler: {}", 
-                    leaderMessageCount, memberMessageCounts);
+                    leaderMessageCount, messageToMembers);
             
-        } catch (IOException e) {
-            String errorMsg = String.format(
-                "[STATS ERROR] Mesaj sayısı alınamadı: %s",
-                e.getMessage()
-            );
-            System.err.println(errorMsg);
-            logger.error("İstatistik yazdırılırken hata: ", e);
         } catch (Exception e) {
             String errorMsg = String.format(
                 "[STATS ERROR] Beklenmeyen hata: %s",
@@ -443,19 +1150,22 @@ public class LeaderNode {
         heartbeatScheduler.scheduleAtFixedRate(
             this::checkHeartbeats,
             0, // İlk çalıştırma gecikmesi (0 = hemen)
-            HEARTBEAT_CHECK_INTERVAL_SECONDS,
-            TimeUnit.SECONDS
+            HEARTBEAT_CHECK_INTERVAL_MS,
+            TimeUnit.MILLISECONDS
         );
-        logger.info("Heartbeat kontrolü başlatıldı. Aralık: {} saniye, Timeout: {} ms", 
-                HEARTBEAT_CHECK_INTERVAL_SECONDS, HEARTBEAT_TIMEOUT_MS);
+        logger.info("Heartbeat kontrolü başlatıldı. Aralık: {} ms, Phi eşikleri: SUSPECT={}, DEAD={}", 
+                HEARTBEAT_CHECK_INTERVAL_MS, phiSuspectThreshold, phiDeadThreshold);
     }
 
     /**
-     * Tüm aktif üyelerin heartbeat'lerini kontrol eder
-     * Timeout aşılan üyeleri DEAD olarak işaretler
+     * Tüm aktif üyelerin phi değerini hesaplar ve durumlarını günceller:
+     * - phi >= DEAD eşiği: DEAD (placement'tan çıkarılır)
+     * - phi >= SUSPECT eşiği veya yakın zamanda RPC hatası: SUSPECT (seçimde sona bırakılır)
+     * - aksi halde: ALIVE
      */
     private void checkHeartbeats() {
-        if (!running) {
+        // Raft takipçisine heartbeat gelmez, üyelerin durumunu sadece lider takip eder
+        if (!running || !isActiveLeader()) {
             return;
         }
 
@@ -464,63 +1174,93 @@ public class LeaderNode {
 
         // Tüm aktif üyeleri kontrol et
         for (MemberInfo member : activeMembers) {
-            long timeSinceLastHeartbeat = currentTime - member.getLastHeartbeatTimestamp();
-            
-            if (timeSinceLastHeartbeat > HEARTBEAT_TIMEOUT_MS) {
-                // Timeout aşıldı, üyeyi DEAD olarak işaretle
+            double phi = failureDetector.phi(member.getId(), currentTime);
+            member.setPhi(phi);
+
+            if (phi >= phiDeadThreshold) {
                 membersToMarkDead.add(member);
+            } else if (phi >= phiSuspectThreshold) {
+                markMemberAsSuspect(member, String.format("phi=%.2f", phi));
+            } else if (member.isSuspect() && !member.isRpcSuspect(currentTime)) {
+                member.setStatus(MemberStatus.ALIVE);
+                logger.info("Member {} SUSPECT durumundan çıktı (phi={})", member.getId(), phi);
             }
         }
 
-        // Timeout aşılan üyeleri DEAD olarak işaretle
+        // Eşiği aşan üyeleri DEAD olarak işaretle
         for (MemberInfo member : membersToMarkDead) {
             long timeSinceLastHeartbeat = currentTime - member.getLastHeartbeatTimestamp();
             String logMessage = String.format(
-                "[MEMBER DEAD] %s (no heartbeat for %d ms)",
+                "[MEMBER DEAD] %s (no heartbeat for %d ms, phi=%.2f)",
                 member.getId(),
-                timeSinceLastHeartbeat
+                timeSinceLastHeartbeat,
+                member.getPhi()
             );
             logger.warn(logMessage);
             System.out.println(logMessage);
-            markMemberAsDead(member.getId(), "Heartbeat timeout");
+            markMemberAsDead(member.getId(), "Heartbeat phi eşiği aşıldı");
+        }
+    }
+
+    /**
+     * Client SET komutunu işler, OK dönen SET'ler eşleşen abonelere iletilir (Raft modunda abonelere
+     * kayıt uygulanırken iletilir). Tüketici grubu offset'lerinin ID'sine client yazamaz
+     * 
+     * @param messageId Parser'ın int'e çevirdiği mesaj ID'si
+     * @param message Mesaj
+     */
+    private String handleSetCommand(int messageId, String message) {
+        if (messageId == ConsumerGroupManager.OFFSETS_MESSAGE_ID) {
+            return "ERROR: ID " + messageId + " tüketici grubu offset'leri için ayrılmış";
+        }
+        String result = replicateSet(messageId, message);
+        if (raft == null && CommandHandler.OK.equals(result)) {
+            subscriptions.publish(messageId, message);
         }
+        return result;
     }
 
     /**
-     * SET komutunu işler:
+     * Mesajı kaydeder ve replike eder:
      * 1. Lider mesajı kendi diskine kaydeder
      * 2. Tolerance kadar üye seçer
      * 3. Seçilen üyelere gRPC Store çağrısı yapar
      * 4. Tüm üyeler başarılıysa OK, herhangi biri başarısızsa ERROR döner
+     * Raft modunda 1. adım yerine mesaj ve kaydedildiği üyeler 4. adımdan sonra Raft log'una yazılır;
+     * lider diskine ve messageToMembers'a sadece commit edilen kayıt uygulanırken yazılır, commit
+     * başarısız olursa liderde takipçilerin görmediği yerleşim kalmaz
+     * 
+     * @param messageId Mesaj ID'si
+     * @param message Mesaj
      */
-    private String handleSetCommand(SetCommand command) {
+    private String replicateSet(int messageId, String message) {
         try {
-            Integer messageId = Integer.parseInt(command.getId());
-            String message = command.getMessage();
-
-            logger.info("SET komutu işleniyor: id={}, message length={}", messageId, message.length());
+            logger.debug("SET komutu işleniyor: id={}, message length={}", messageId, message.length());
+            RaftNode raftNode = raft;
 
             // 1. Lider mesajı kendi diskine kaydet
-            String leaderStoreResult = commandHandler.execute(command);
-            if (!leaderStoreResult.equals(CommandHandler.OK)) {
-                logger.error("SET komutu: Lider diskine kayıt başarısız: {}", leaderStoreResult);
-                return "ERROR: Lider diskine kayıt başarısız: " + leaderStoreResult;
+            if (raftNode == null) {
+                String leaderStoreResult = commandHandler.executeSet(messageId, message);
+                if (!leaderStoreResult.equals(CommandHandler.OK)) {
+                    logger.error("SET komutu: Lider diskine kayıt başarısız: {}", leaderStoreResult);
+                    return "ERROR: Lider diskine kayıt başarısız: " + leaderStoreResult;
+                }
+                logger.debug("Mesaj lider diskine kaydedildi: id={}", messageId);
+
+                // Lider mesajı tuttuğu için messageToMembers map'ine ekle
+                addMessageToMember(messageId, "leader");
+                logger.debug("Mesaj {} lider'e eklendi (messageToMembers map)", messageId);
             }
-            logger.debug("Mesaj lider diskine kaydedildi: id={}", messageId);
-            
-            // Lider mesajı tuttuğu için messageToMembers map'ine ekle
-            addMessageToMember(messageId, "leader");
-            logger.debug("Mesaj {} lider'e eklendi (messageToMembers map)", messageId);
 
             // 2. Tolerance kadar üye seç (load balancing stratejisine göre)
             List<MemberInfo> selectedMembers = selectMembers(tolerance, messageId);
             
             if (selectedMembers.isEmpty()) {
-                logger.warn("SET komutu: Üye bulunamadı, sadece lider diskine kaydedildi");
-                return CommandHandler.OK;
+                logger.debug("SET komutu: Üye bulunamadı, sadece lider diskine kaydedildi");
+                return commitSet(raftNode, messageId, message, List.of(), CommandHandler.OK);
             }
 
-            logger.info("SET komutu: {} üye seçildi", selectedMembers.size());
+            logger.debug("SET komutu: {} üye seçildi", selectedMembers.size());
 
             // 3. Seçilen üyelere gRPC Store çağrısı yap
             boolean allSuccess = true;
@@ -528,25 +1268,25 @@ public class LeaderNode {
             List<String> crashedMembers = new ArrayList<>();
 
             for (MemberInfo member : selectedMembers) {
+                long start = System.nanoTime();
                 try {
                     boolean success = storeMessageToMember(messageId, message, member);
+                    eventLog.record("SET_REPLICA", messageId, member.getId(), success, System.nanoTime() - start);
                     if (success) {
                         successfulMembers.add(member.getId());
-                        addMessageToMember(messageId, member.getId());
-                        String successLog = String.format(
-                            "[SET SUCCESS] Mesaj üye %s (%s:%d)'ye kaydedildi | Mesaj ID: %d",
-                            member.getId(), member.getHost(), member.getPort(), messageId
-                        );
-                        logger.info(successLog);
-                        System.out.println(successLog);
+                        if (raftNode == null) {
+                            addMessageToMember(messageId, member.getId());
+                        }
+                        logger.debug("[SET SUCCESS] Mesaj üye {} ({}:{})'ye kaydedildi | Mesaj ID: {}",
+                                member.getId(), member.getHost(), member.getPort(), messageId);
                     } else {
                         allSuccess = false;
                         logger.warn("Mesaj {} üye {}'ye kaydedilemedi", messageId, member.getId());
                     }
                 } catch (Exception e) {
                     allSuccess = false;
-                    // storeMessageToMember içinde üye zaten DEAD olarak işaretlenir
-                    if (member.isDead()) {
+                    // storeMessageToMember içinde üye zaten SUSPECT olarak işaretlenir
+                    if (!member.isAlive()) {
                         crashedMembers.add(member.getId());
                     }
                     logger.error("Mesaj {} üye {}'ye kaydedilirken hata: ", messageId, member.getId(), e);
@@ -555,33 +1295,30 @@ public class LeaderNode {
 
             // Crash olan üyeler varsa logla
             if (!crashedMembers.isEmpty()) {
-                String crashLog = String.format(
-                    "[SET CRASH] Mesaj kaydedilirken %d üye crash oldu: %s | Mesaj ID: %d",
-                    crashedMembers.size(), String.join(", ", crashedMembers), messageId
-                );
-                logger.warn(crashLog);
-                System.out.println(crashLog);
+                logger.warn("[SET CRASH] Mesaj kaydedilirken {} üye crash oldu: {} | Mesaj ID: {}",
+                        crashedMembers.size(), crashedMembers, messageId);
             }
 
             // 4. Başarı kontrolü
             if (allSuccess && successfulMembers.size() == selectedMembers.size()) {
-                logger.info("SET komutu başarılı: id={}, {} üyede saklandı", messageId, successfulMembers.size());
-                return CommandHandler.OK;
+                logger.debug("SET komutu başarılı: id={}, {} üyede saklandı", messageId, successfulMembers.size());
+                return commitSet(raftNode, messageId, message, successfulMembers, CommandHandler.OK);
             } else {
                 logger.warn("SET komutu kısmen başarısız: id={}, {}/{} üyede saklandı", 
                         messageId, successfulMembers.size(), selectedMembers.size());
-                // Başarısız üyelerden kayıtları temizle
-                for (MemberInfo member : selectedMembers) {
-                    if (!successfulMembers.contains(member.getId())) {
-                        removeMessageFromMember(messageId, member.getId());
+                // Başarısız üyelerden kayıtları temizle (Raft modunda yerleşim sadece apply'da değişir)
+                if (raftNode == null) {
+                    for (MemberInfo member : selectedMembers) {
+                        if (!successfulMembers.contains(member.getId())) {
+                            removeMessageFromMember(messageId, member.getId());
+                        }
                     }
                 }
-                return "ERROR: Bazı üyelere kayıt başarısız";
+                // Mesaj başarılı üyelerde kaldığı için Raft modunda yine de commit edilir
+                return commitSet(raftNode, messageId, message, successfulMembers,
+                        "ERROR: Bazı üyelere kayıt başarısız");
             }
 
-        } catch (NumberFormatException e) {
-            logger.error("SET komutu: Geçersiz ID formatı: {}", command.getId(), e);
-            return "ERROR: Geçersiz ID formatı";
         } catch (Exception e) {
             logger.error("SET komutu: Beklenmeyen hata", e);
             return "ERROR: " + e.getMessage();
@@ -589,128 +1326,77 @@ public class LeaderNode {
     }
 
     /**
-     * Tolerance kadar üye seçer (load balancing stratejisine göre)
-     * Sadece aktif üyelerden seçim yapar
-     * 
-     * @param count Seçilecek üye sayısı
-     * @param messageId Mesaj ID'si (hash-based için gerekli)
-     * @return Seçilen üye listesi
+     * Raft modunda SET'i (mesaj + kaydedildiği üyeler) Raft log'una yazar ve commit edilmesini bekler
+     *
+     * @param result Üye replikasyonunun sonucu; commit başarılıysa (veya Raft kapalıysa) döndürülür
      */
-    private List<MemberInfo> selectMembers(int count, Integer messageId) {
-        if (activeMembers.isEmpty() || count <= 0) {
-            return Collections.emptyList();
+    private String commitSet(RaftNode raftNode, int messageId, String message, List<String> members, String result) {
+        if (raftNode == null) {
+            return result;
         }
-
-        // Mevcut aktif üye sayısından fazla istenirse, tüm aktif üyeleri döndür
-        int selectCount = Math.min(count, activeMembers.size());
-
-        List<MemberInfo> selectedMembers = new ArrayList<>();
-
-        switch (loadBalancingStrategy) {
-            case ROUND_ROBIN:
-                selectedMembers = selectMembersRoundRobin(selectCount);
-                break;
-            case HASH_BASED:
-                selectedMembers = selectMembersHashBased(selectCount, messageId);
-                break;
-            default:
-                // Fallback: random seçim
-                selectedMembers = selectMembersRandom(selectCount);
-                break;
+        String error = proposeAndWait(raftNode, ReplicatedCommand.encodeSet(messageId, message, members));
+        if (error == null) {
+            return result;
         }
-
-        return selectedMembers;
+        // Liderlik commit beklenirken kaybedildiyse client yeni lidere yönlendirilir
+        return raftNode.isLeader() ? error : raftMovedResponse();
     }
 
     /**
-     * Round-robin ile üye seçer (sadece ALIVE üyeler)
-     * Thread-safe counter kullanır
+     * Tolerance kadar üye seçer (load balancing stratejisine göre)
+     * Strateji önce ALIVE üyelere uygulanır; yetmezse eksik kalan sayı SUSPECT üyelerden
+     * en düşük phi'den başlayarak tamamlanır. Böylece şüpheli üyeler placement'tan atılmaz,
+     * sadece sona bırakılır ve kısa süreli gecikmeler mesajların yeniden dağılmasına yol açmaz
      * 
      * @param count Seçilecek üye sayısı
+     * @param messageId Mesaj ID'si (hash-based için gerekli)
      * @return Seçilen üye listesi
      */
-    private List<MemberInfo> selectMembersRoundRobin(int count) {
-        List<MemberInfo> aliveMembers = getAliveMembers();
-        if (aliveMembers.isEmpty()) {
-            return Collections.emptyList();
-        }
-
-        List<MemberInfo> selected = new ArrayList<>();
-        int memberCount = aliveMembers.size();
-        
-        // Thread-safe counter'dan başlangıç değerini al
-        int startCounter = roundRobinCounter.get();
-        
-        for (int i = 0; i < count; i++) {
-            int index = (startCounter + i) % memberCount;
-            selected.add(aliveMembers.get(index));
-        }
-        
-        // Counter'ı thread-safe şekilde güncelle
-        int newCounter = (startCounter + count) % memberCount;
-        roundRobinCounter.set(newCounter);
-        
-        logger.debug("Round-robin üye seçimi: counter={}, seçilen üyeler={}", 
-                newCounter, selected.size());
-        
-        return selected;
+    private List<MemberInfo> selectMembers(int count, Integer messageId) {
+        return memberSelector.select(activeMembers, count, messageId);
     }
 
     /**
-     * Hash-based (message_id % member_count) ile üye seçer (sadece ALIVE üyeler)
+     * Üyeyi SUSPECT olarak işaretler
+     * Üye aktif listede kalır, seçimde ALIVE üyelerden sonraya bırakılır
      * 
-     * @param count Seçilecek üye sayısı
-     * @param messageId Mesaj ID'si
-     * @return Seçilen üye listesi
+     * @param member Üye
+     * @param reason Şüphe nedeni
      */
-    private List<MemberInfo> selectMembersHashBased(int count, Integer messageId) {
-        List<MemberInfo> aliveMembers = getAliveMembers();
-        if (aliveMembers.isEmpty()) {
-            return Collections.emptyList();
-        }
-
-        List<MemberInfo> selected = new ArrayList<>();
-        int memberCount = aliveMembers.size();
-
-        // İlk üyeyi hash ile seç
-        int startIndex = Math.abs(messageId % memberCount);
-        
-        // Tolerance kadar üyeyi sırayla seç (circular)
-        for (int i = 0; i < count; i++) {
-            int index = (startIndex + i) % memberCount;
-            selected.add(aliveMembers.get(index));
+    private void markMemberAsSuspect(MemberInfo member, String reason) {
+        if (member.isAlive() && activeMembers.contains(member)) {
+            member.setStatus(MemberStatus.SUSPECT);
+            String logMessage = String.format("[MEMBER SUSPECT] %s (%s)", member.getId(), reason);
+            logger.warn(logMessage);
+            System.out.println(logMessage);
         }
-        
-        logger.debug("Hash-based üye seçimi: messageId={}, startIndex={}, seçilen üyeler={}", 
-                messageId, startIndex, selected.size());
-        
-        return selected;
     }
 
     /**
-     * Random ile üye seçer (fallback, sadece ALIVE üyeler)
-     * 
-     * @param count Seçilecek üye sayısı
-     * @return Seçilen üye listesi
+     * RPC hatası alan üyeyi RPC_SUSPECT_MS süresince SUSPECT tutar
+     * Tek bir hata üyeyi öldürmez; ölüm kararı heartbeat phi değerine bırakılır
      */
-    private List<MemberInfo> selectMembersRandom(int count) {
-        List<MemberInfo> aliveMembers = getAliveMembers();
-        if (aliveMembers.isEmpty()) {
-            return Collections.emptyList();
+    private void markMemberAsRpcSuspect(String memberId, String reason) {
+        MemberInfo member = findMemberById(memberId);
+        if (member != null && !member.isDead()) {
+            member.setRpcSuspectUntil(System.currentTimeMillis() + RPC_SUSPECT_MS);
+            markMemberAsSuspect(member, reason);
         }
-        List<MemberInfo> shuffled = new ArrayList<>(aliveMembers);
-        Collections.shuffle(shuffled, random);
-        int selectCount = Math.min(count, shuffled.size());
-        return shuffled.subList(0, selectCount);
     }
 
     /**
-     * ALIVE durumundaki üyeleri döndürür (aktif üyeler listesi)
-     * 
-     * @return ALIVE üye listesi
+     * Başarılı RPC sonrası üyenin durumunu günceller (DEAD'den dönüş veya RPC şüphesinin kalkması)
      */
-    private List<MemberInfo> getAliveMembers() {
-        return new ArrayList<>(activeMembers);
+    private void onMemberRpcSuccess(MemberInfo member) {
+        if (member.isDead()) {
+            markMemberAsAlive(member.getId());
+        } else if (member.isSuspect()) {
+            member.setRpcSuspectUntil(0);
+            if (member.getPhi() < phiSuspectThreshold) {
+                member.setStatus(MemberStatus.ALIVE);
+                logger.info("Member {} SUSPECT durumundan çıktı (başarılı RPC)", member.getId());
+            }
+        }
     }
 
     /**
@@ -758,6 +1444,11 @@ public class LeaderNode {
             deadMembers.remove(member);
             // Status'u ALIVE yap
             member.setStatus(MemberStatus.ALIVE);
+            member.setRpcSuspectUntil(0);
+            // Dönüş yeni bir ilk heartbeat sayılır, ölüyken geçen süre phi'yi etkilemez
+            failureDetector.remove(memberId);
+            failureDetector.heartbeat(memberId, System.currentTimeMillis());
+            member.setPhi(0.0);
             // Aktif listesine ekle
             activeMembers.add(member);
             logger.info("Member {} marked as ALIVE", memberId);
@@ -766,108 +1457,107 @@ public class LeaderNode {
     }
 
     /**
-     * GET komutunu işler:
-     * 1. Liderin diskinde varsa direkt oku
-     * 2. Yoksa map'te kayıtlı üyelere sırayla gRPC Retrieve çağrısı yap
-     * 3. İlk başarılı cevabı client'a dön
+     * GET komutunun ilk adımı: mesaj liderin diskindeyse String'e çevirmeden doğrudan client kanalına yazar
+     * (büyük mesajlar zero-copy, diğerleri thread'e özel buffer üzerinden çerçevesiyle tek write'ta)
+     * Bulunamazsa çağıran retrieveFromMembers ile üyelere sorar
+     * 
+     * @param messageId Parser'ın int'e çevirdiği mesaj ID'si
+     * @param client Client kanalı veya cevabın toplandığı buffer (binary protokol)
+     * @param frame Mesajın önüne/arkasına yazılacak protokol çerçevesi (satır sonu veya binary header)
+     * @return Mesaj lider diskinden yazıldıysa true, kanala hiçbir şey yazılmadıysa false
+     * @throws IOException Lider diskinden aktarım hatası (cevap yarım kalmış olabilir)
      */
-    private String handleGetCommand(GetCommand command) {
-        try {
-            Integer messageId = Integer.parseInt(command.getId());
-
-            logger.info("GET komutu işleniyor: id={}", messageId);
-
-            // 1. Liderin diskinde kontrol et
-            String result = commandHandler.execute(command);
-            
-            if (!result.equals(CommandHandler.NOT_FOUND)) {
-                logger.debug("GET komutu: Mesaj lider diskinde bulundu: id={}", messageId);
-                return result;
-            }
+    private boolean writeFromLeaderDisk(int messageId, WritableByteChannel client, MessageFrame frame)
+            throws IOException {
+        logger.debug("GET komutu işleniyor: id={}", messageId);
+
+        long written = commandHandler.getStorage().writeMessage(messageId, client, frame, ZERO_COPY_MIN_BYTES);
+        if (written >= 0) {
+            logger.debug("GET komutu: Mesaj lider diskinden gönderildi: id={}, byte={}", messageId, written);
+            return true;
+        }
+        logger.debug("GET komutu: Mesaj lider diskinde bulunamadı, üyelerde aranıyor: id={}", messageId);
+        return false;
+    }
 
-            logger.debug("GET komutu: Mesaj lider diskinde bulunamadı, üyelerde aranıyor: id={}", messageId);
+    /**
+     * GET komutunun ikinci adımı (lider diskinde olmayan mesajlar):
+     * 1. Map'te kayıtlı üyeleri bul, SUSPECT üyeleri sona bırak
+     * 2. Üyelere sırayla gRPC Retrieve çağrısı yap
+     * 3. İlk başarılı cevabı döndür
+     * 
+     * @return Mesaj, hiçbir üyede bulunamazsa null
+     */
+    private String retrieveFromMembers(int messageId) {
+        // 1. Map'te kayıtlı üyeleri bul (sadece ALIVE üyeler)
+        List<String> memberIds = getMembersForMessage(messageId);
+        
+        if (memberIds.isEmpty()) {
+            logger.debug("GET komutu: Mesaj hiçbir üyede kayıtlı değil: id={}", messageId);
+            return null;
+        }
 
-            // 2. Map'te kayıtlı üyeleri bul (sadece ALIVE üyeler)
-            List<String> memberIds = getMembersForMessage(messageId);
-            
-            if (memberIds.isEmpty()) {
-                logger.debug("GET komutu: Mesaj hiçbir üyede kayıtlı değil: id={}", messageId);
-                return CommandHandler.NOT_FOUND;
-            }
-
-            // ALIVE üyeleri filtrele
-            List<MemberInfo> aliveMembersToCheck = new ArrayList<>();
-            for (String memberId : memberIds) {
-                MemberInfo member = findMemberById(memberId);
-                if (member != null && member.isAlive()) {
-                    aliveMembersToCheck.add(member);
-                } else if (member != null && member.isDead()) {
-                    logger.debug("GET komutu: Üye {} DEAD durumda, atlanıyor: id={}", memberId, messageId);
-                }
+        // ALIVE üyeleri filtrele, SUSPECT üyeler en sona bırakılır
+        List<MemberInfo> aliveMembersToCheck = new ArrayList<>();
+        List<MemberInfo> suspectMembersToCheck = new ArrayList<>();
+        for (String memberId : memberIds) {
+            MemberInfo member = findMemberById(memberId);
+            if (member != null && member.isAlive()) {
+                aliveMembersToCheck.add(member);
+            } else if (member != null && member.isSuspect()) {
+                suspectMembersToCheck.add(member);
+            } else if (member != null && member.isDead()) {
+                logger.debug("GET komutu: Üye {} DEAD durumda, atlanıyor: id={}", memberId, messageId);
             }
+        }
+        aliveMembersToCheck.addAll(suspectMembersToCheck);
 
-            if (aliveMembersToCheck.isEmpty()) {
-                logger.warn("GET komutu: Mesaj için hiçbir ALIVE üye yok: id={}", messageId);
-                return CommandHandler.NOT_FOUND;
-            }
+        if (aliveMembersToCheck.isEmpty()) {
+            logger.warn("GET komutu: Mesaj için hiçbir ALIVE üye yok: id={}", messageId);
+            return null;
+        }
 
-            logger.info("GET komutu: {} ALIVE üyede mesaj aranıyor: id={}", aliveMembersToCheck.size(), messageId);
+        logger.debug("GET komutu: {} ALIVE üyede mesaj aranıyor: id={}", aliveMembersToCheck.size(), messageId);
 
-            // 3. ALIVE üyelere sırayla gRPC Retrieve çağrısı yap
-            // Crash olan üyeler otomatik olarak atlanır ve bir sonraki üyeye geçilir
-            List<String> crashedMembers = new ArrayList<>();
-            for (MemberInfo member : aliveMembersToCheck) {
-                try {
-                    logger.debug("GET komutu: Üye {}'den mesaj alınmaya çalışılıyor: id={}", 
-                            member.getId(), messageId);
+        // 2. ALIVE üyelere sırayla gRPC Retrieve çağrısı yap
+        // Crash olan üyeler otomatik olarak atlanır ve bir sonraki üyeye geçilir
+        List<String> crashedMembers = new ArrayList<>();
+        for (MemberInfo member : aliveMembersToCheck) {
+            long start = System.nanoTime();
+            try {
+                logger.debug("GET komutu: Üye {}'den mesaj alınmaya çalışılıyor: id={}", 
+                        member.getId(), messageId);
+                
+                String message = retrieveMessageFromMember(messageId, member);
+                boolean found = message != null && !message.isEmpty();
+                eventLog.record("GET_REPLICA", messageId, member.getId(), found, System.nanoTime() - start);
+                if (found) {
+                    logger.debug("[GET SUCCESS] Mesaj üye {} ({}:{})'den alındı | Mesaj ID: {}",
+                            member.getId(), member.getHost(), member.getPort(), messageId);
                     
-                    String message = retrieveMessageFromMember(messageId, member);
-                    if (message != null && !message.isEmpty()) {
-                        String successLog = String.format(
-                            "[GET SUCCESS] Mesaj üye %s (%s:%d)'den alındı | Mesaj ID: %d",
-                            member.getId(), member.getHost(), member.getPort(), messageId
-                        );
-                        logger.info(successLog);
-                        System.out.println(successLog);
-                        
-                        // Crash olan üyeler varsa logla
-                        if (!crashedMembers.isEmpty()) {
-                            String crashLog = String.format(
-                                "[GET FALLBACK] Mesaj alınmadan önce %d üye crash oldu: %s",
-                                crashedMembers.size(), String.join(", ", crashedMembers)
-                            );
-                            logger.warn(crashLog);
-                            System.out.println(crashLog);
-                        }
-                        
-                        return message;
-                    } else {
-                        logger.debug("GET komutu: Üye {}'den mesaj boş: id={}", member.getId(), messageId);
-                        // Bir sonraki üyeyi dene
+                    // Crash olan üyeler varsa logla
+                    if (!crashedMembers.isEmpty()) {
+                        logger.warn("[GET FALLBACK] Mesaj alınmadan önce {} üye crash oldu: {}",
+                                crashedMembers.size(), crashedMembers);
                     }
-                } catch (Exception e) {
-                    // Exception retrieveMessageFromMember içinde yakalanır ve üye DEAD olarak işaretlenir
-                    crashedMembers.add(member.getId());
-                    String fallbackLog = String.format(
-                        "[GET FALLBACK] Üye %s (%s:%d) crash oldu, bir sonraki üyeye geçiliyor | Mesaj ID: %d",
-                        member.getId(), member.getHost(), member.getPort(), messageId
-                    );
-                    logger.warn(fallbackLog);
-                    System.out.println(fallbackLog);
-                    // Otomatik olarak bir sonraki üyeye geçilir (loop devam eder)
+                    
+                    return message;
+                } else {
+                    logger.debug("GET komutu: Üye {}'den mesaj boş: id={}", member.getId(), messageId);
+                    // Bir sonraki üyeyi dene
                 }
+            } catch (Exception e) {
+                // Exception retrieveMessageFromMember içinde yakalanır ve üye SUSPECT olarak işaretlenir
+                crashedMembers.add(member.getId());
+                eventLog.record("GET_REPLICA", messageId, member.getId(), false, System.nanoTime() - start);
+                logger.warn("[GET FALLBACK] Üye {} ({}:{}) crash oldu, bir sonraki üyeye geçiliyor | Mesaj ID: {}",
+                        member.getId(), member.getHost(), member.getPort(), messageId);
+                // Otomatik olarak bir sonraki üyeye geçilir (loop devam eder)
             }
-
-            logger.warn("GET komutu: Mesaj hiçbir ALIVE üyede bulunamadı: id={}", messageId);
-            return CommandHandler.NOT_FOUND;
-
-        } catch (NumberFormatException e) {
-            logger.error("GET komutu: Geçersiz ID formatı: {}", command.getId(), e);
-            return "ERROR: Geçersiz ID formatı";
-        } catch (Exception e) {
-            logger.error("GET komutu: Beklenmeyen hata", e);
-            return "ERROR: " + e.getMessage();
         }
+
+        logger.warn("GET komutu: Mesaj hiçbir ALIVE üyede bulunamadı: id={}", messageId);
+        return null;
     }
 
     /**
@@ -896,7 +1586,7 @@ public class LeaderNode {
 
     /**
      * Mesajı bir üyeden gRPC Retrieve çağrısı ile okur
-     * Bağlantı hatası durumunda üyeyi DEAD olarak işaretler
+     * Bağlantı hatası durumunda üyeyi SUSPECT olarak işaretler
      * 
      * @param messageId Mesaj ID'si
      * @param member Üye bilgisi
@@ -906,24 +1596,23 @@ public class LeaderNode {
         ManagedChannel channel = null;
         try {
             // gRPC channel oluştur
-            channel = ManagedChannelBuilder.forAddress(member.getHost(), member.getPort())
-                    .usePlaintext()
-                    .build();
+            channel = channelFactory.apply(member);
 
             // Blocking stub oluştur
-            StorageServiceGrpc.StorageServiceBlockingStub stub = StorageServiceGrpc.newBlockingStub(channel);
+            StorageServiceGrpc.StorageServiceBlockingStub stub = StorageServiceGrpc.newBlockingStub(channel)
+                    .withDeadlineAfter(MEMBER_RPC_DEADLINE_MS, TimeUnit.MILLISECONDS);
 
             // Retrieve RPC çağrısı
             com.sistem.proje.grpc.MessageId request = com.sistem.proje.grpc.MessageId.newBuilder()
                     .setId(messageId)
                     .build();
 
+            long start = System.nanoTime();
             StoredMessage result = stub.retrieve(request);
+            member.recordRetrieve(start);
 
             // Başarılı ise üyeyi ALIVE olarak işaretle (recovery)
-            if (member.isDead()) {
-                markMemberAsAlive(member.getId());
-            }
+            onMemberRpcSuccess(member);
 
             // Boş text kontrolü
             String text = result.getText();
@@ -934,21 +1623,21 @@ public class LeaderNode {
             return text;
 
         } catch (io.grpc.StatusRuntimeException e) {
-            // gRPC bağlantı hatası - üyeyi DEAD olarak işaretle
+            // gRPC bağlantı hatası - üyeyi SUSPECT olarak işaretle (ölüm kararı heartbeat'e bırakılır)
             String errorReason = String.format("gRPC StatusRuntimeException: %s", e.getStatus().getCode());
             logger.error("gRPC Retrieve çağrısı bağlantı hatası: member={}, messageId={}, error={}", 
                     member, messageId, e.getStatus());
-            markMemberAsDead(member.getId(), errorReason);
+            markMemberAsRpcSuspect(member.getId(), errorReason);
             throw e; // Üst seviyede yakalanması için fırlat
         } catch (Exception e) {
             // Diğer hatalar
             logger.error("gRPC Retrieve çağrısı hatası: member={}, messageId={}", member, messageId, e);
-            // Bağlantı hatası gibi görünüyorsa DEAD olarak işaretle
+            // Bağlantı hatası gibi görünüyorsa SUSPECT olarak işaretle
             if (e instanceof java.net.ConnectException || 
                 e instanceof java.io.IOException ||
                 e.getCause() instanceof java.net.ConnectException) {
                 String errorReason = e.getClass().getSimpleName() + ": " + e.getMessage();
-                markMemberAsDead(member.getId(), errorReason);
+                markMemberAsRpcSuspect(member.getId(), errorReason);
             }
             throw e; // Üst seviyede yakalanması için fırlat
         } finally {
@@ -996,7 +1685,7 @@ public class LeaderNode {
 
     /**
      * Mesajı bir üyeye gRPC Store çağrısı ile kaydeder
-     * Bağlantı hatası durumunda üyeyi DEAD olarak işaretler
+     * Bağlantı hatası durumunda üyeyi SUSPECT olarak işaretler
      * 
      * @param messageId Mesaj ID'si
      * @param message Mesaj içeriği
@@ -1007,12 +1696,14 @@ public class LeaderNode {
         ManagedChannel channel = null;
         try {
             // gRPC channel oluştur
-            channel = ManagedChannelBuilder.forAddress(member.getHost(), member.getPort())
-                    .usePlaintext()
-                    .build();
+            channel = channelFactory.apply(member);
 
-            // Blocking stub oluştur
-            StorageServiceGrpc.StorageServiceBlockingStub stub = StorageServiceGrpc.newBlockingStub(channel);
+            // Blocking stub oluştur, büyük mesajlar gzip ile sıkıştırılarak gönderilir
+            StorageServiceGrpc.StorageServiceBlockingStub stub = StorageServiceGrpc.newBlockingStub(channel)
+                    .withDeadlineAfter(MEMBER_RPC_DEADLINE_MS, TimeUnit.MILLISECONDS);
+            if (GrpcCompression.shouldCompress(message, grpcCompressionThreshold)) {
+                stub = stub.withCompression(GrpcCompression.GZIP);
+            }
 
             // Store RPC çağrısı
             StoredMessage request = StoredMessage.newBuilder()
@@ -1020,34 +1711,34 @@ public class LeaderNode {
                     .setText(message)
                     .build();
 
+            long start = System.nanoTime();
             StoreResult result = stub.store(request);
+            member.recordStore(start);
 
             if (result.getSuccess()) {
                 // Başarılı ise üyeyi ALIVE olarak işaretle (recovery)
-                if (member.isDead()) {
-                    markMemberAsAlive(member.getId());
-                }
+                onMemberRpcSuccess(member);
                 return true;
             } else {
                 return false;
             }
 
         } catch (io.grpc.StatusRuntimeException e) {
-            // gRPC bağlantı hatası - üyeyi DEAD olarak işaretle
+            // gRPC bağlantı hatası - üyeyi SUSPECT olarak işaretle (ölüm kararı heartbeat'e bırakılır)
             String errorReason = String.format("gRPC StatusRuntimeException: %s", e.getStatus().getCode());
             logger.error("gRPC Store çağrısı bağlantı hatası: member={}, messageId={}, error={}", 
                     member, messageId, e.getStatus());
-            markMemberAsDead(member.getId(), errorReason);
+            markMemberAsRpcSuspect(member.getId(), errorReason);
             return false;
         } catch (Exception e) {
             // Diğer hatalar
             logger.error("gRPC Store çağrısı hatası: member={}, messageId={}", member, messageId, e);
-            // Bağlantı hatası gibi görünüyorsa DEAD olarak işaretle
+            // Bağlantı hatası gibi görünüyorsa SUSPECT olarak işaretle
             if (e instanceof java.net.ConnectException || 
                 e instanceof java.io.IOException ||
                 e.getCause() instanceof java.net.ConnectException) {
                 String errorReason = e.getClass().getSimpleName() + ": " + e.getMessage();
-                markMemberAsDead(member.getId(), errorReason);
+                markMemberAsRpcSuspect(member.getId(), errorReason);
             }
             return false;
         } finally {
@@ -1059,10 +1750,22 @@ public class LeaderNode {
 
     /**
      * Her client bağlantısı için mesaj işleme
+     * Satırlar socket kanalından bağlantıya ait buffer'a byte olarak okunur ve ByteCommandParser ile
+     * String'e çevrilmeden parse edilir; OK/NOT_FOUND cevapları önceden kodlanmış byte'lardır.
+     * Lider diskinden karşılanan GET'lerde satır başına nesne ayrılmaz.
+     * İlk byte BinaryProtocol.MAGIC ise bağlantı BinaryClientHandler'a devredilir
      */
     private class ClientHandler implements Runnable {
         private final Socket clientSocket;
         private final Logger logger = LoggerFactory.getLogger(ClientHandler.class);
+        private final ParsedCommand command = new ParsedCommand();
+        // Okunan, henüz işlenmemiş byte'lar; satır sığmazsa iki katına büyütülür
+        private ByteBuffer input = ByteBuffer.allocate(LINE_BUFFER_SIZE);
+        private final ByteBuffer output = ByteBuffer.allocateDirect(LINE_BUFFER_SIZE);
+        private SocketChannel channel;
+        // SUBSCRIBE sonrası satırlar abonelik görevinden de yazılır, cevaplar araya girmesin diye kilit altında
+        private final Object writeLock = new Object();
+        private Subscription subscription;
 
         public ClientHandler(Socket clientSocket) {
             this.clientSocket = clientSocket;
@@ -1070,67 +1773,61 @@ public class LeaderNode {
 
         @Override
         public void run() {
-            try (BufferedReader reader = new BufferedReader(
-                    new InputStreamReader(clientSocket.getInputStream()));
-                 PrintWriter writer = new PrintWriter(clientSocket.getOutputStream(), true)) {
-                
-                String line;
-                while ((line = reader.readLine()) != null) {
-                    logger.debug("Client {} komut aldı: {}", 
-                            clientSocket.getRemoteSocketAddress(), line);
-                    
-                    try {
-                        // REGISTER komutu için özel işleme (MemberNode'dan)
-                        if (line.startsWith("REGISTER ")) {
-                            String result = handleRegisterCommand(line);
-                            writer.println(result);
-                            continue;
-                        }
-                        
-                        // HEARTBEAT komutu için özel işleme (MemberNode'dan)
-                        if (line.startsWith("HEARTBEAT ")) {
-                            String result = handleHeartbeatCommand(line);
-                            writer.println(result);
-                            continue;
-                        }
-                        
-                        // Komutu parse et
-                        Command command = commandParser.parse(line);
-                        
-                        // SET ve GET komutları özel işleme
-                        String result;
-                        if (command.getType() == com.sistem.proje.protocol.CommandType.SET) {
-                            // Gerçek client komutu geldi, logla
-                            logger.info("Client komutu (SET): {}", clientSocket.getRemoteSocketAddress());
-                            result = handleSetCommand((SetCommand) command);
-                        } else if (command.getType() == com.sistem.proje.protocol.CommandType.GET) {
-                            // Gerçek client komutu geldi, logla
-                            logger.info("Client komutu (GET): {}", clientSocket.getRemoteSocketAddress());
-                            result = handleGetCommand((GetCommand) command);
-                        } else {
-                            // Diğer komutlar normal işleme
-                            result = commandHandler.execute(command);
+            activeConnections.incrementAndGet();
+            clientSockets.add(clientSocket);
+            try {
+                // Sunucu ServerSocketChannel ile açıldığı için kabul edilen socket'in kanalı vardır
+                channel = clientSocket.getChannel();
+                // Her cevap tek write ile gider, Nagle yalnızca zero-copy aktarımın ardından gelen satır sonunu geciktirir
+                clientSocket.setTcpNoDelay(true);
+
+                // İlk byte protokolü belirler: binary MAGIC ile başlamayan bağlantılar text protokolüdür
+                if (channel.read(input) < 0) {
+                    return;
+                }
+                if (input.get(0) == BinaryProtocol.MAGIC) {
+                    binaryConnections.increment();
+                    new BinaryClientHandler(clientSocket, channel, input).serve();
+                    return;
+                }
+
+                int scanned = 0;
+                while (true) {
+                    byte[] array = input.array();
+                    int end = input.position();
+                    int lineStart = 0;
+                    for (int i = scanned; i < end; i++) {
+                        if (array[i] == '\n') {
+                            // readLine gibi "\r\n" de satır sonu sayılır
+                            int contentEnd = i > lineStart && array[i - 1] == '\r' ? i - 1 : i;
+                            handleLine(lineStart, contentEnd);
+                            lineStart = i + 1;
                         }
-                        
-                        // Sonucu client'a gönder
-                        writer.println(result);
-                        logger.debug("Client {} sonuç gönderildi: {}", 
-                                clientSocket.getRemoteSocketAddress(), result);
-                        
-                    } catch (CommandParseException e) {
-                        String errorMsg = "ERROR: " + e.getMessage();
-                        writer.println(errorMsg);
-                        logger.warn("Komut parse hatası: {}", e.getMessage());
-                    } catch (Exception e) {
-                        String errorMsg = "ERROR: " + e.getMessage();
-                        writer.println(errorMsg);
-                        logger.error("Komut çalıştırma hatası: ", e);
+                    }
+                    // İşlenen satırları at, yarım kalan satırı buffer başına taşı
+                    if (lineStart > 0) {
+                        System.arraycopy(array, lineStart, array, 0, end - lineStart);
+                        input.position(end - lineStart);
+                    }
+                    scanned = input.position();
+                    if (!input.hasRemaining()) {
+                        ByteBuffer larger = ByteBuffer.allocate(input.capacity() * 2);
+                        input.flip();
+                        input = larger.put(input);
+                    }
+                    if (channel.read(input) < 0) {
+                        break;
                     }
                 }
             } catch (IOException e) {
                 logger.info("Client bağlantısı kapatıldı: {}", 
                         clientSocket.getRemoteSocketAddress());
             } finally {
+                activeConnections.decrementAndGet();
+                clientSockets.remove(clientSocket);
+                if (subscription != null) {
+                    subscriptions.unsubscribe(subscription);
+                }
                 try {
                     clientSocket.close();
                 } catch (IOException e) {
@@ -1138,6 +1835,667 @@ public class LeaderNode {
                 }
             }
         }
+
+        /**
+         * input buffer'ının [start, end) aralığındaki satırı (satır sonu hariç) işler ve cevabı yazar
+         * 
+         * @throws IOException Cevap yazılamazsa (bağlantı kapatılır)
+         */
+        private void handleLine(int start, int end) throws IOException {
+            if (logger.isDebugEnabled()) {
+                logger.debug("Client {} komut aldı: {}", clientSocket.getRemoteSocketAddress(), decode(start, end));
+            }
+
+            try {
+                // REGISTER ve HEARTBEAT komutları için özel işleme (MemberNode'dan, String yolu yeterli)
+                // Raft takipçisi üyeleri lidere yönlendirir
+                if ((startsWith(start, end, REGISTER_PREFIX) || startsWith(start, end, HEARTBEAT_PREFIX))
+                        && !isActiveLeader()) {
+                    writeLine(notLeaderResponse());
+                    return;
+                }
+                if (startsWith(start, end, REGISTER_PREFIX)) {
+                    writeLine(handleRegisterCommand(decode(start, end)));
+                    return;
+                }
+                if (startsWith(start, end, HEARTBEAT_PREFIX)) {
+                    writeLine(handleHeartbeatCommand(decode(start, end)));
+                    return;
+                }
+                if (subscription != null) {
+                    // Abonelikte GET cevapları MSG satırlarıyla karışacağından sadece UNSUBSCRIBE kabul edilir
+                    if (UNSUBSCRIBE.equals(decode(start, end).trim())) {
+                        subscriptions.unsubscribe(subscription);
+                        subscription = null;
+                        writeLine(CommandHandler.OK);
+                    } else {
+                        writeLine("ERROR: Abonelik açıkken sadece UNSUBSCRIBE kabul edilir");
+                    }
+                    return;
+                }
+                if (startsWith(start, end, SUBSCRIBE_PREFIX)) {
+                    handleSubscribeCommand(decode(start, end));
+                    return;
+                }
+                if (startsWith(start, end, APPEND_PREFIX)) {
+                    handleAppendCommand(start + APPEND_PREFIX.length, end);
+                    return;
+                }
+                if (startsWith(start, end, READ_PREFIX)) {
+                    handleReadCommand(decode(start, end));
+                    return;
+                }
+                if (startsWith(start, end, GROUP_PREFIX)) {
+                    handleGroupCommand(decode(start, end));
+                    return;
+                }
+                if (end - start == PARTITIONS.length() && PARTITIONS.equals(decode(start, end))) {
+                    writeLine(partitionMapView().encode().getBytes(StandardCharsets.UTF_8), 0);
+                    return;
+                }
+
+                // Komutu parse et
+                commandParser.parse(input, start, end, command);
+                if (!ownsKey(command.getId())) {
+                    writeLine(movedResponse(command.getId()));
+                    return;
+                }
+                if (!isActiveLeader()) {
+                    writeLine(raftMovedResponse());
+                    return;
+                }
+
+                long begin = System.nanoTime();
+                if (command.getType() == CommandType.SET) {
+                    String result = handleSetCommand(command.getId(), command.payloadAsString());
+                    setLatency.recordSince(begin);
+                    writeLine(result);
+                } else {
+                    String readError = raftReadCheck();
+                    if (readError != null) {
+                        writeLine(readError);
+                        return;
+                    }
+                    if (!writeFromLeaderDisk(command.getId(), channel, LINE_FRAME)) {
+                        String message = retrieveFromMembers(command.getId());
+                        writeLine(message != null ? message : CommandHandler.NOT_FOUND);
+                    }
+                    getLatency.recordSince(begin);
+                }
+            } catch (CommandParseException e) {
+                writeLine("ERROR: " + e.getMessage());
+                logger.warn("Komut parse hatası: {}", e.getMessage());
+            } catch (RuntimeException e) {
+                writeLine("ERROR: " + e.getMessage());
+                logger.error("Komut çalıştırma hatası: ", e);
+            }
+        }
+
+        /**
+         * Cevabı satır sonuyla birlikte tek write'ta gönderir
+         */
+        private void writeLine(String result) throws IOException {
+            if (CommandHandler.OK.equals(result)) {
+                writeLine(OK_LINE, 0);
+            } else if (CommandHandler.NOT_FOUND.equals(result)) {
+                writeLine(NOT_FOUND_LINE, 0);
+            } else {
+                writeLine(result.getBytes(StandardCharsets.UTF_8), 1);
+            }
+            logger.debug("Client {} sonuç gönderildi: {}", clientSocket.getRemoteSocketAddress(), result);
+        }
+
+        /**
+         * @param trailing bytes'ın arkasına satır sonu eklenecekse 1, bytes zaten satır sonuyla bitiyorsa 0
+         */
+        private void writeLine(byte[] bytes, int trailing) throws IOException {
+            ByteBuffer buffer;
+            if (bytes.length + trailing <= output.capacity()) {
+                buffer = output;
+                buffer.clear();
+            } else {
+                // Üyeden gelen büyük mesaj: tek seferlik buffer
+                buffer = ByteBuffer.allocate(bytes.length + trailing);
+            }
+            buffer.put(bytes);
+            if (trailing > 0) {
+                buffer.put((byte) '\n');
+            }
+            buffer.flip();
+            synchronized (writeLock) {
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+            }
+        }
+
+        /**
+         * SUBSCRIBE komutunu işler, OK'den sonra bağlantı eşleşen SET'leri MSG satırları olarak alır
+         * Format: SUBSCRIBE RANGE &lt;from&gt; &lt;to&gt; | SUBSCRIBE PREFIX &lt;konu öneki&gt;
+         */
+        private void handleSubscribeCommand(String line) throws IOException {
+            String usage = "ERROR: Geçersiz SUBSCRIBE formatı. Kullanım: SUBSCRIBE RANGE <from> <to>"
+                    + " veya SUBSCRIBE PREFIX <önek>";
+            String[] parts = line.split(" ", 3);
+            if (parts.length < 3) {
+                writeLine(usage);
+                return;
+            }
+            SubscriptionFilter filter;
+            try {
+                if ("RANGE".equalsIgnoreCase(parts[1])) {
+                    String[] bounds = parts[2].trim().split("\\s+");
+                    if (bounds.length != 2) {
+                        writeLine(usage);
+                        return;
+                    }
+                    filter = SubscriptionFilter.range(Integer.parseInt(bounds[0]), Integer.parseInt(bounds[1]));
+                } else if ("PREFIX".equalsIgnoreCase(parts[1])) {
+                    filter = SubscriptionFilter.prefix(parts[2]);
+                } else {
+                    writeLine(usage);
+                    return;
+                }
+            } catch (NumberFormatException e) {
+                writeLine("ERROR: Geçersiz ID aralığı: " + parts[2]);
+                return;
+            } catch (IllegalArgumentException e) {
+                writeLine("ERROR: " + e.getMessage());
+                return;
+            }
+            // Kilit OK yazılana kadar tutulur, ilk MSG satırı OK'den sonra gelir
+            synchronized (writeLock) {
+                subscription = subscriptions.subscribe(filter, channel, writeLock);
+                writeLine(CommandHandler.OK);
+            }
+        }
+
+        /**
+         * APPEND komutunu işler, input'un [start, end) aralığı String'e çevrilmeden log'a eklenir
+         * Format: APPEND &lt;mesaj&gt; → OK &lt;offset&gt;
+         */
+        private void handleAppendCommand(int start, int end) throws IOException {
+            if (start >= end) {
+                writeLine("ERROR: APPEND mesajı boş olamaz");
+                return;
+            }
+            long begin = System.nanoTime();
+            long offset = offsetLog.append(ByteBuffer.wrap(input.array(), start, end - start));
+            appendLatency.recordSince(begin);
+            writeLine(CommandHandler.OK + " " + offset);
+        }
+
+        /**
+         * READ komutunu işler
+         * Format: READ &lt;offset&gt; [en fazla byte] → RECORDS &lt;kayıt sayısı&gt; &lt;sonraki offset&gt;,
+         * ardından her kayıt için "&lt;offset&gt; &lt;byte uzunluğu&gt; &lt;mesaj&gt;" satırı
+         */
+        private void handleReadCommand(String line) throws IOException {
+            String[] parts = line.trim().split("\\s+");
+            if (parts.length < 2 || parts.length > 3) {
+                writeLine("ERROR: Geçersiz READ formatı. Kullanım: READ <offset> [en fazla byte]");
+                return;
+            }
+            long offset;
+            int maxBytes;
+            try {
+                offset = Long.parseLong(parts[1]);
+                maxBytes = parts.length == 3 ? Integer.parseInt(parts[2]) : DEFAULT_READ_BYTES;
+            } catch (NumberFormatException e) {
+                writeLine("ERROR: Geçersiz READ argümanı: " + e.getMessage());
+                return;
+            }
+            if (offset < 0 || maxBytes < 1) {
+                writeLine("ERROR: offset negatif, en fazla byte sıfır veya negatif olamaz");
+                return;
+            }
+            long begin = System.nanoTime();
+            byte[] response = formatRecords(offsetLog.read(offset, maxBytes));
+            readLatency.recordSince(begin);
+            writeLine(response, 0);
+        }
+
+        /**
+         * Tüketici grubu komutlarını işler
+         * GROUP FETCH &lt;grup&gt; &lt;tüketici&gt; [en fazla byte] → READ ile aynı formatta kiralanan kayıtlar
+         * GROUP COMMIT &lt;grup&gt; &lt;offset&gt; → OK &lt;committed offset&gt;
+         * GROUP LEAVE &lt;grup&gt; &lt;tüketici&gt; → OK &lt;bırakılan kira sayısı&gt;
+         * GROUP OFFSET &lt;grup&gt; → OK &lt;committed offset&gt;
+         * Raft modunda reddedilir: offset'ler node'un kendi OffsetLog'una göre tutulur ve Raft ile replike
+         * edilmez, lider değişince grup başka bir log'un offset'leriyle devam ederdi
+         */
+        private void handleGroupCommand(String line) throws IOException {
+            if (raft != null) {
+                writeLine("ERROR: Tüketici grupları Raft modunda desteklenmiyor");
+                return;
+            }
+            String[] parts = line.trim().split("\\s+");
+            String subcommand = parts.length > 1 ? parts[1].toUpperCase() : "";
+            try {
+                if ("FETCH".equals(subcommand) && (parts.length == 4 || parts.length == 5)) {
+                    int maxBytes = parts.length == 5 ? Integer.parseInt(parts[4]) : DEFAULT_READ_BYTES;
+                    if (maxBytes < 1) {
+                        writeLine("ERROR: en fazla byte sıfır veya negatif olamaz");
+                        return;
+                    }
+                    long begin = System.nanoTime();
+                    byte[] response = formatRecords(groups.fetch(parts[2], parts[3], maxBytes));
+                    groupFetchLatency.recordSince(begin);
+                    writeLine(response, 0);
+                } else if ("COMMIT".equals(subcommand) && parts.length == 4) {
+                    writeLine(CommandHandler.OK + " " + groups.commit(parts[2], Long.parseLong(parts[3])));
+                } else if ("LEAVE".equals(subcommand) && parts.length == 4) {
+                    writeLine(CommandHandler.OK + " " + groups.leave(parts[2], parts[3]));
+                } else if ("OFFSET".equals(subcommand) && parts.length == 3) {
+                    writeLine(CommandHandler.OK + " " + groups.committedOffset(parts[2]));
+                } else {
+                    writeLine("ERROR: Geçersiz GROUP formatı. Kullanım: GROUP FETCH <grup> <tüketici> [en fazla byte]"
+                            + " | GROUP COMMIT <grup> <offset> | GROUP LEAVE <grup> <tüketici> | GROUP OFFSET <grup>");
+                }
+            } catch (NumberFormatException e) {
+                writeLine("ERROR: Geçersiz GROUP argümanı: " + e.getMessage());
+            } catch (IllegalArgumentException e) {
+                writeLine("ERROR: " + e.getMessage());
+            }
+        }
+
+        private boolean startsWith(int start, int end, byte[] prefix) {
+            if (end - start < prefix.length) {
+                return false;
+            }
+            byte[] array = input.array();
+            for (int i = 0; i < prefix.length; i++) {
+                if (array[start + i] != prefix[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private String decode(int start, int end) {
+            return new String(input.array(), start, end - start, StandardCharsets.UTF_8);
+        }
+    }
+
+    /**
+     * Binary protokol bağlantısı (BinaryProtocol)
+     * Bağlantı thread'i frame'leri okur ve her isteği clientThreadPool'da ayrı görev olarak çalıştırır;
+     * cevaplar istekler tamamlandıkça, sıradan bağımsız yazılır. Aynı anda en fazla BINARY_MAX_IN_FLIGHT
+     * istek işlenir, fazlası için bağlantıdan okuma bekler. Bir cevabın byte'ları diğerleriyle karışmasın
+     * diye yazmalar writeLock altında yapılır (lider diskinden okunan GET'lerde okuma da bu kilit altındadır,
+     * üye RPC'leri ve SET replikasyonu kilit dışındadır)
+     */
+    private class BinaryClientHandler {
+        private final Socket clientSocket;
+        private final SocketChannel channel;
+        private final Logger logger = LoggerFactory.getLogger(BinaryClientHandler.class);
+        private final Semaphore inFlight = new Semaphore(BINARY_MAX_IN_FLIGHT);
+        private final Object writeLock = new Object();
+        private ByteBuffer input;
+
+        /**
+         * @param input ClientHandler'ın okuduğu, MAGIC ile başlayan byte'lar (position = veri sonu)
+         */
+        BinaryClientHandler(Socket clientSocket, SocketChannel channel, ByteBuffer input) {
+            this.clientSocket = clientSocket;
+            this.channel = channel;
+            this.input = input;
+        }
+
+        /**
+         * El sıkışmayı yapar ve bağlantı kapanana kadar frame'leri işler
+         * Dönmeden önce işlenmekte olan isteklerin cevaplarının yazılmasını bekler
+         */
+        void serve() throws IOException {
+            logger.debug("Binary bağlantı: {}", clientSocket.getRemoteSocketAddress());
+            try {
+                if (!fill(0, 2)) {
+                    return;
+                }
+                byte version = input.get(1);
+                if (version != BinaryProtocol.VERSION) {
+                    writeFrame(BinaryOpcode.ERROR, 0, 0, "Desteklenmeyen binary protokol sürümü: " + version);
+                    return;
+                }
+                synchronized (writeLock) {
+                    writeFully(ByteBuffer.wrap(new byte[] {BinaryProtocol.MAGIC, BinaryProtocol.VERSION}));
+                }
+                readFrames(2);
+            } finally {
+                awaitInFlight();
+            }
+        }
+
+        /**
+         * Okunmuş isteklerin cevaplarının gönderilmesini bekler, socket sonra ClientHandler tarafından kapatılır
+         * Cevabını okumayan client'a yazma süresiz bloklanabileceği için en fazla BINARY_DRAIN_TIMEOUT_MS beklenir;
+         * socket kapanınca bekleyen yazmalar hata alıp biter
+         */
+        private void awaitInFlight() {
+            try {
+                if (!inFlight.tryAcquire(BINARY_MAX_IN_FLIGHT, BINARY_DRAIN_TIMEOUT_MS, TimeUnit.MILLISECONDS)) {
+                    logger.warn("Binary bağlantı kapanırken {} istek {} ms içinde tamamlanmadı",
+                            BINARY_MAX_IN_FLIGHT - inFlight.availablePermits(), BINARY_DRAIN_TIMEOUT_MS);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        /**
+         * input'taki frame'leri offset'ten başlayarak işler, eksik frame için socket'ten okur
+         */
+        private void readFrames(int offset) throws IOException {
+            while (true) {
+                int available = input.position() - offset;
+                int needed = BinaryProtocol.HEADER_SIZE;
+                if (available >= BinaryProtocol.HEADER_SIZE) {
+                    int length = BinaryProtocol.payloadLength(input, offset);
+                    if (length < 0 || length > BinaryProtocol.MAX_PAYLOAD_SIZE) {
+                        // Frame sınırı bilinemez, senkron kaybolduğu için bağlantı kapatılır
+                        writeFrame(BinaryOpcode.ERROR, BinaryProtocol.requestId(input, offset),
+                                BinaryProtocol.key(input, offset), "Geçersiz payload uzunluğu: " + length);
+                        logger.warn("Binary frame payload uzunluğu geçersiz: {}, bağlantı kapatılıyor", length);
+                        return;
+                    }
+                    needed += length;
+                    if (available >= needed) {
+                        dispatch(offset, length);
+                        offset += needed;
+                        continue;
+                    }
+                }
+                if (!fill(offset, needed)) {
+                    return;
+                }
+                offset = 0;
+            }
+        }
+
+        /**
+         * İşlenmiş byte'ları atar ve input'ta offset'ten itibaren en az needed byte olana kadar okur
+         * Sonrasında veri input'un başındadır
+         *
+         * @return Bağlantı kapandıysa false
+         */
+        private boolean fill(int offset, int needed) throws IOException {
+            int available = input.position() - offset;
+            if (offset > 0) {
+                System.arraycopy(input.array(), offset, input.array(), 0, available);
+                input.position(available);
+            }
+            if (input.capacity() < needed) {
+                ByteBuffer larger = ByteBuffer.allocate(Math.max(needed, input.capacity() * 2));
+                input.flip();
+                input = larger.put(input);
+            }
+            while (input.position() < needed) {
+                if (channel.read(input) < 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Frame'i görev olarak çalıştırır; SET payload'ı input yeniden kullanılmadan önce String'e çevrilir
+         */
+        private void dispatch(int offset, int length) {
+            byte code = BinaryProtocol.opcode(input, offset);
+            int requestId = BinaryProtocol.requestId(input, offset);
+            int key = BinaryProtocol.key(input, offset);
+            BinaryOpcode opcode = BinaryOpcode.fromCode(code);
+
+            Runnable task;
+            if ((opcode == BinaryOpcode.SET || opcode == BinaryOpcode.GET) && !ownsKey(key)) {
+                PartitionMap map = partitionMap;
+                int owner = map.partitionOf(key);
+                movedRequests.increment();
+                task = () -> writeFrame(BinaryOpcode.MOVED, requestId, owner, map.addressOf(owner));
+            } else if ((opcode == BinaryOpcode.SET || opcode == BinaryOpcode.GET) && !isActiveLeader()) {
+                task = () -> {
+                    String leader = raftLeaderAddress();
+                    if (leader == null) {
+                        writeFrame(BinaryOpcode.ERROR, requestId, key, "Raft lideri seçilemedi");
+                    } else {
+                        raftRedirects.increment();
+                        writeFrame(BinaryOpcode.MOVED, requestId, partition, leader);
+                    }
+                };
+            } else if (opcode == BinaryOpcode.PARTITIONS) {
+                task = () -> writeFrame(BinaryOpcode.OK, requestId, key, partitionMapView().encode());
+            } else if (opcode == BinaryOpcode.SET) {
+                String message = decodePayload(offset, length);
+                if (message != null) {
+                    task = () -> handleSet(requestId, key, message);
+                } else {
+                    task = () -> writeFrame(BinaryOpcode.ERROR, requestId, key, "SET payload'ı geçerli UTF-8 değil");
+                }
+            } else if (opcode == BinaryOpcode.GET) {
+                task = () -> handleGet(requestId, key);
+            } else if (opcode == BinaryOpcode.APPEND) {
+                byte[] payload = new byte[length];
+                System.arraycopy(input.array(), offset + BinaryProtocol.HEADER_SIZE, payload, 0, length);
+                task = () -> handleAppend(requestId, key, payload);
+            } else if (opcode == BinaryOpcode.READ && length == BinaryProtocol.READ_REQUEST_SIZE) {
+                ByteBuffer request = ByteBuffer.wrap(input.array(), offset + BinaryProtocol.HEADER_SIZE, length);
+                long readOffset = request.getLong();
+                int maxBytes = request.getInt();
+                task = () -> handleRead(requestId, readOffset, maxBytes);
+            } else if (opcode == BinaryOpcode.READ) {
+                task = () -> writeFrame(BinaryOpcode.ERROR, requestId, key,
+                        "READ payload'ı " + BinaryProtocol.READ_REQUEST_SIZE + " byte olmalı: " + length);
+            } else {
+                task = () -> writeFrame(BinaryOpcode.ERROR, requestId, key, "Bilinmeyen opcode: " + code);
+            }
+
+            inFlight.acquireUninterruptibly();
+            try {
+                clientThreadPool.execute(() -> {
+                    try {
+                        task.run();
+                    } finally {
+                        inFlight.release();
+                    }
+                });
+            } catch (RuntimeException e) {
+                // Lider kapanıyor
+                inFlight.release();
+                throw e;
+            }
+        }
+
+        /**
+         * SET payload'ını çözer; geçersiz UTF-8 sessizce U+FFFD'ye çevrilip kaydedilmez
+         *
+         * @return Mesaj, payload geçerli UTF-8 değilse null
+         */
+        private String decodePayload(int offset, int length) {
+            try {
+                return BinaryProtocol.decodeUtf8(input.array(), offset + BinaryProtocol.HEADER_SIZE, length);
+            } catch (CharacterCodingException e) {
+                return null;
+            }
+        }
+
+        private void handleSet(int requestId, int key, String message) {
+            long start = System.nanoTime();
+            String result = handleSetCommand(key, message);
+            setLatency.recordSince(start);
+            if (CommandHandler.OK.equals(result)) {
+                writeFrame(BinaryOpcode.OK, requestId, key, null);
+            } else {
+                writeRedirectOrError(requestId, key, result);
+            }
+        }
+
+        /**
+         * Text cevabını frame'e çevirir: "MOVED &lt;partition&gt; &lt;adres&gt;" (Raft liderliği kaybedildi) MOVED
+         * frame'i, diğerleri ERROR frame'i olarak gider
+         */
+        private void writeRedirectOrError(int requestId, int key, String result) {
+            if (result.startsWith("MOVED ")) {
+                String[] parts = result.split(" ");
+                writeFrame(BinaryOpcode.MOVED, requestId, Integer.parseInt(parts[1]), parts[2]);
+            } else {
+                writeFrame(BinaryOpcode.ERROR, requestId, key, stripErrorPrefix(result));
+            }
+        }
+
+        private void handleGet(int requestId, int key) {
+            long start = System.nanoTime();
+            try {
+                String readError = raftReadCheck();
+                if (readError != null) {
+                    writeRedirectOrError(requestId, key, readError);
+                    return;
+                }
+                // Disk okuması yazma kilidi dışında buffer'a yapılır, diğer cevaplar bu okumayı beklemez
+                ResponseBuffer response = new ResponseBuffer();
+                if (writeFromLeaderDisk(key, Channels.newChannel(response), BinaryProtocol.okFrame(requestId, key))) {
+                    writeBuffers(response.toByteBuffer());
+                    return;
+                }
+                String message = retrieveFromMembers(key);
+                if (message != null) {
+                    writeFrame(BinaryOpcode.OK, requestId, key, message);
+                } else {
+                    writeFrame(BinaryOpcode.NOT_FOUND, requestId, key, null);
+                }
+            } catch (IOException e) {
+                logger.error("Binary GET lider diskinden okunamadı: key={}", key, e);
+                writeFrame(BinaryOpcode.ERROR, requestId, key, String.valueOf(e.getMessage()));
+            } catch (RuntimeException e) {
+                logger.error("Binary GET hatası: key={}", key, e);
+                writeFrame(BinaryOpcode.ERROR, requestId, key, String.valueOf(e.getMessage()));
+            } finally {
+                getLatency.recordSince(start);
+            }
+        }
+
+        /**
+         * Paralel işlenen APPEND'ler offset'leri istek sırasına göre değil log'a eklenme sırasına göre alır
+         */
+        private void handleAppend(int requestId, int key, byte[] payload) {
+            long start = System.nanoTime();
+            try {
+                long offset = offsetLog.append(payload);
+                appendLatency.recordSince(start);
+                ByteBuffer response = ByteBuffer.allocate(BinaryProtocol.APPEND_RESPONSE_SIZE).putLong(0, offset);
+                writePayloadFrame(BinaryOpcode.OK, requestId, key, response);
+            } catch (IOException | RuntimeException e) {
+                logger.error("Binary APPEND hatası", e);
+                writeFrame(BinaryOpcode.ERROR, requestId, key, String.valueOf(e.getMessage()));
+            }
+        }
+
+        /**
+         * Kayıtlar okunduğu thread'e özel buffer'dan ayrıca kopyalanmadan header'la birlikte yazılır
+         */
+        private void handleRead(int requestId, long offset, int maxBytes) {
+            if (offset < 0 || maxBytes < 1) {
+                writeFrame(BinaryOpcode.ERROR, requestId, 0, "offset negatif, en fazla byte sıfır veya negatif olamaz");
+                return;
+            }
+            long start = System.nanoTime();
+            LogBatch batch;
+            try {
+                batch = offsetLog.read(offset, maxBytes);
+            } catch (IOException | RuntimeException e) {
+                logger.error("Binary READ hatası: offset={}", offset, e);
+                writeFrame(BinaryOpcode.ERROR, requestId, 0, String.valueOf(e.getMessage()));
+                return;
+            }
+            writePayloadFrame(BinaryOpcode.OK, requestId, batch.getRecordCount(), batch.getRecords());
+            readLatency.recordSince(start);
+        }
+
+        /**
+         * Header ve payload'ı tek gathering write ile gönderir (payload null ise boş)
+         * Yazma hatasında bağlantı kapatılır, okuyan thread bunu bir sonraki okumada görür
+         */
+        private void writeFrame(BinaryOpcode opcode, int requestId, int key, String payload) {
+            byte[] bytes = payload != null ? payload.getBytes(StandardCharsets.UTF_8) : new byte[0];
+            writePayloadFrame(opcode, requestId, key, ByteBuffer.wrap(bytes));
+        }
+
+        private void writePayloadFrame(BinaryOpcode opcode, int requestId, int key, ByteBuffer payload) {
+            ByteBuffer header = ByteBuffer.allocate(BinaryProtocol.HEADER_SIZE);
+            BinaryProtocol.putHeader(header, 0, opcode, requestId, key, payload.remaining());
+            writeBuffers(header, payload);
+        }
+
+        private void writeBuffers(ByteBuffer... frame) {
+            synchronized (writeLock) {
+                try {
+                    for (ByteBuffer buffer : frame) {
+                        while (buffer.hasRemaining()) {
+                            channel.write(frame);
+                        }
+                    }
+                } catch (IOException e) {
+                    logger.info("Binary cevap yazılamadı, bağlantı kapatılıyor: {}", e.getMessage());
+                    closeQuietly();
+                }
+            }
+        }
+
+        private void writeFully(ByteBuffer buffer) throws IOException {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+
+        private void closeQuietly() {
+            try {
+                clientSocket.close();
+            } catch (IOException e) {
+                logger.debug("Socket kapatılırken hata: {}", e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Binary GET cevabının (header ve mesaj) kopyalanmadan gönderilebildiği byte buffer'ı
+     */
+    private static final class ResponseBuffer extends ByteArrayOutputStream {
+        ByteBuffer toByteBuffer() {
+            return ByteBuffer.wrap(buf, 0, count);
+        }
+    }
+
+    /**
+     * Text protokolü READ cevabı: RECORDS satırı ve her kayıt için "offset uzunluk mesaj" satırı
+     * Mesaj byte'ları UTF-8'e çevrilmeden kopyalanır
+     */
+    private static byte[] formatRecords(LogBatch batch) {
+        ByteBuffer records = batch.getRecords();
+        StringBuilder line = new StringBuilder(48);
+        line.append("RECORDS ").append(batch.getRecordCount()).append(' ').append(batch.getNextOffset()).append('\n');
+        // Kayıt başlığı (16 byte) satırda en fazla 32 byte'lık "offset uzunluk " ve satır sonuna dönüşür
+        ByteBuffer out = ByteBuffer.allocate(line.length() + records.remaining() + batch.getRecordCount() * 17);
+        out.put(line.toString().getBytes(StandardCharsets.US_ASCII));
+        ByteBuffer payload = records.duplicate();
+        int position = records.position();
+        while (position < records.limit()) {
+            long offset = records.getLong(position);
+            int length = records.getInt(position + 8);
+            line.setLength(0);
+            line.append(offset).append(' ').append(length).append(' ');
+            out.put(line.toString().getBytes(StandardCharsets.US_ASCII));
+            payload.limit(position + OffsetLog.HEADER_SIZE + length).position(position + OffsetLog.HEADER_SIZE);
+            out.put(payload);
+            out.put((byte) '\n');
+            position += OffsetLog.HEADER_SIZE + length;
+        }
+        return Arrays.copyOf(out.array(), out.position());
+    }
+
+    /**
+     * Text protokolü hata cevabındaki "ERROR: " önekini atar (binary'de durum opcode'dadır)
+     */
+    private static String stripErrorPrefix(String result) {
+        return result.startsWith("ERROR: ") ? result.substring("ERROR: ".length()) : result;
     }
 
     /**
@@ -1145,6 +2503,8 @@ public class LeaderNode {
      */
     public enum MemberStatus {
         ALIVE,
+        // Heartbeat'ler gecikiyor veya son RPC hata verdi; seçimde sona bırakılır ama placement'tan çıkarılmaz
+        SUSPECT,
         DEAD
     }
 
@@ -1157,6 +2517,18 @@ public class LeaderNode {
         private final int port;
         private volatile MemberStatus status;
         private volatile long lastHeartbeatTimestamp;
+        private volatile double phi;
+        private volatile long rpcSuspectUntil;
+
+        // Heartbeat ile bildirilen yük (hiç bildirilmediyse loadTimestamp 0)
+        private volatile long storedMessageCount;
+        private volatile long diskBytes;
+        private volatile int queueDepth;
+        private volatile long loadTimestamp;
+
+        // Replika RPC gecikme histogramları; kayıtta bir kez çözülür, sıcak yolda isim oluşturulmaz
+        private volatile LatencyHistogram storeLatency;
+        private volatile LatencyHistogram retrieveLatency;
 
         public MemberInfo(String id, String host, int port) {
             this.id = id;
@@ -1190,10 +2562,36 @@ public class LeaderNode {
             return status == MemberStatus.ALIVE;
         }
 
+        public boolean isSuspect() {
+            return status == MemberStatus.SUSPECT;
+        }
+
         public boolean isDead() {
             return status == MemberStatus.DEAD;
         }
 
+        /**
+         * Hata dedektörünün son hesapladığı phi değeri
+         */
+        public double getPhi() {
+            return phi;
+        }
+
+        public void setPhi(double phi) {
+            this.phi = phi;
+        }
+
+        /**
+         * Son RPC hatasından kaynaklanan şüphe hâlâ sürüyor mu
+         */
+        public boolean isRpcSuspect(long nowMillis) {
+            return nowMillis < rpcSuspectUntil;
+        }
+
+        public void setRpcSuspectUntil(long timestamp) {
+            this.rpcSuspectUntil = timestamp;
+        }
+
         public long getLastHeartbeatTimestamp() {
             return lastHeartbeatTimestamp;
         }
@@ -1202,10 +2600,64 @@ public class LeaderNode {
             this.lastHeartbeatTimestamp = timestamp;
         }
 
+        /**
+         * Heartbeat ile gelen yük bilgisini günceller
+         */
+        public void updateLoad(long storedMessageCount, long diskBytes, int queueDepth, long timestamp) {
+            this.storedMessageCount = storedMessageCount;
+            this.diskBytes = diskBytes;
+            this.queueDepth = queueDepth;
+            this.loadTimestamp = timestamp;
+        }
+
+        /**
+         * Üyenin kendi diskinde saydığı mesaj sayısı
+         */
+        public long getStoredMessageCount() {
+            return storedMessageCount;
+        }
+
+        public long getDiskBytes() {
+            return diskBytes;
+        }
+
+        /**
+         * Üyenin write-behind kuyruğunda bekleyen yazma sayısı
+         */
+        public int getQueueDepth() {
+            return queueDepth;
+        }
+
+        public long getLoadTimestamp() {
+            return loadTimestamp;
+        }
+
+        /**
+         * Replika RPC histogramlarını bağlar, null ile üye kaldırılınca bağ koparılır
+         */
+        void setReplicaHistograms(LatencyHistogram storeLatency, LatencyHistogram retrieveLatency) {
+            this.storeLatency = storeLatency;
+            this.retrieveLatency = retrieveLatency;
+        }
+
+        void recordStore(long startNanos) {
+            LatencyHistogram histogram = storeLatency;
+            if (histogram != null) {
+                histogram.recordSince(startNanos);
+            }
+        }
+
+        void recordRetrieve(long startNanos) {
+            LatencyHistogram histogram = retrieveLatency;
+            if (histogram != null) {
+                histogram.recordSince(startNanos);
+            }
+        }
+
         @Override
         public String toString() {
-            return String.format("MemberInfo{id='%s', host='%s', port=%d, status=%s, lastHeartbeat=%d}", 
-                    id, host, port, status, lastHeartbeatTimestamp);
+            return String.format("MemberInfo{id='%s', host='%s', port=%d, status=%s, lastHeartbeat=%d, phi=%.2f}", 
+                    id, host, port, status, lastHeartbeatTimestamp, phi);
         }
 
         @Override
@@ -1237,8 +2689,151 @@ public class LeaderNode {
             }
         }
 
-        LeaderNode leader = new LeaderNode(port, IOMode.UNBUFFERED);
+        // Veri klasörü: 1) System property, 2) data/leader-<port>
+        String dataDirProperty = System.getProperty("leader.dataDir");
+        Path dataDirectory = dataDirProperty != null && !dataDirProperty.isEmpty()
+                ? Paths.get(dataDirProperty)
+                : Paths.get(DEFAULT_DATA_ROOT, "leader-" + port);
+        logger.info("Leader veri klasörü: {}", dataDirectory.toAbsolutePath());
+
+        IOMode ioMode = IOMode.UNBUFFERED;
+        String ioModeProperty = System.getProperty("leader.ioMode");
+        if (ioModeProperty != null && !ioModeProperty.isEmpty()) {
+            try {
+                ioMode = IOMode.valueOf(ioModeProperty.toUpperCase());
+            } catch (IllegalArgumentException e) {
+                logger.error("Geçersiz leader.ioMode değeri: {}. Varsayılan kullanılıyor: {}", ioModeProperty, ioMode);
+            }
+        }
+
+        StorageOptions storageOptions = new StorageOptions().setIoMode(ioMode);
+
+        // Dosya yerleşimi: -Dleader.layout=FLAT|SHARDED, SHARDED düz dosyaları arka planda taşır
+        String layoutProperty = System.getProperty("leader.layout");
+        if (layoutProperty != null && !layoutProperty.isEmpty()) {
+            try {
+                storageOptions.setLayout(FileLayout.valueOf(layoutProperty.toUpperCase()));
+            } catch (IllegalArgumentException e) {
+                logger.error("Geçersiz leader.layout değeri: {}. Varsayılan kullanılıyor: {}",
+                        layoutProperty, storageOptions.getLayout());
+            }
+        }
+
+        // Disk sıkıştırması: -Dleader.compression=NONE|DEFLATE, -Dleader.compressionThreshold=<byte>
+        String compressionProperty = System.getProperty("leader.compression");
+        String compressionThresholdProperty = System.getProperty("leader.compressionThreshold");
+        try {
+            if (compressionProperty != null && !compressionProperty.isEmpty()) {
+                storageOptions.setCompression(Compression.valueOf(compressionProperty.toUpperCase()));
+            }
+            if (compressionThresholdProperty != null && !compressionThresholdProperty.isEmpty()) {
+                storageOptions.setCompressionThreshold(Integer.parseInt(compressionThresholdProperty));
+            }
+        } catch (IllegalArgumentException e) {
+            logger.error("Geçersiz sıkıştırma ayarı: {}. Kullanılan: {}", e.getMessage(), storageOptions);
+        }
+
+        // Üyelere Store çağrılarında gzip eşiği: -Dleader.grpcCompressionThreshold=<byte>, negatif değer kapatır
+        int grpcCompressionThreshold = GrpcCompression.DEFAULT_THRESHOLD;
+        String grpcThresholdProperty = System.getProperty("leader.grpcCompressionThreshold");
+        if (grpcThresholdProperty != null && !grpcThresholdProperty.isEmpty()) {
+            try {
+                grpcCompressionThreshold = Integer.parseInt(grpcThresholdProperty);
+            } catch (NumberFormatException e) {
+                logger.error("Geçersiz leader.grpcCompressionThreshold değeri: {}. Varsayılan kullanılıyor: {}",
+                        grpcThresholdProperty, grpcCompressionThreshold);
+            }
+        }
+
+        // Metrik endpoint'i: -Dleader.metricsPort=<port>, negatif değer kapatır
+        int metricsPort = port + METRICS_PORT_OFFSET;
+        String metricsPortProperty = System.getProperty("leader.metricsPort");
+        if (metricsPortProperty != null && !metricsPortProperty.isEmpty()) {
+            try {
+                metricsPort = Integer.parseInt(metricsPortProperty);
+            } catch (NumberFormatException e) {
+                logger.error("Geçersiz leader.metricsPort değeri: {}. Varsayılan kullanılıyor: {}",
+                        metricsPortProperty, metricsPort);
+            }
+        }
+
+        // İstek olay günlüğü: -Dleader.eventSampleRate=N ile her N replika işleminden biri yazılır
+        int eventSampleRate = 0;
+        String eventSampleRateProperty = System.getProperty("leader.eventSampleRate");
+        if (eventSampleRateProperty != null && !eventSampleRateProperty.isEmpty()) {
+            try {
+                eventSampleRate = Integer.parseInt(eventSampleRateProperty);
+            } catch (NumberFormatException e) {
+                logger.error("Geçersiz leader.eventSampleRate değeri: {}. Olay günlüğü kapalı", eventSampleRateProperty);
+            }
+        }
+
+        LeaderNode leader = new LeaderNode(port, storageOptions, LoadBalancingStrategy.ROUND_ROBIN, dataDirectory,
+                metricsPort, eventSampleRate);
+        leader.setGrpcCompressionThreshold(grpcCompressionThreshold);
+
+        // Abone başına kuyruk sınırları: -Dleader.subscriptionMaxMessages=N, -Dleader.subscriptionMaxBytes=N
+        String maxMessagesProperty = System.getProperty("leader.subscriptionMaxMessages");
+        String maxBytesProperty = System.getProperty("leader.subscriptionMaxBytes");
+        if (maxMessagesProperty != null || maxBytesProperty != null) {
+            try {
+                leader.setSubscriptionLimits(
+                        maxMessagesProperty != null ? Integer.parseInt(maxMessagesProperty)
+                                : SubscriptionManager.DEFAULT_MAX_MESSAGES,
+                        maxBytesProperty != null ? Long.parseLong(maxBytesProperty)
+                                : SubscriptionManager.DEFAULT_MAX_BYTES);
+            } catch (IllegalArgumentException e) {
+                logger.error("Geçersiz abonelik sınırı: {}. Varsayılanlar kullanılıyor", e.getMessage());
+            }
+        }
         
+        // Bölünmüş ID uzayı: -Dleader.partitions=host1:port1,host2:port2,... -Dleader.partition=<bu liderin sırası>
+        String partitionsProperty = System.getProperty("leader.partitions");
+        if (partitionsProperty != null && !partitionsProperty.isEmpty()) {
+            try {
+                leader.setPartitioning(PartitionMap.parse(partitionsProperty),
+                        Integer.parseInt(System.getProperty("leader.partition", "0")));
+            } catch (IllegalArgumentException e) {
+                // Yanlış partition'la başlayan lider başka liderlerin ID'lerini kabul ederdi
+                logger.error("Geçersiz partition ayarı, lider başlatılmıyor: {}", e.getMessage());
+                leader.stop();
+                return;
+            }
+        }
+
+        // Raft ile replike lider grubu: -Dleader.raftPeers=host1:port1,host2:port2,... -Dleader.raftId=<bu liderin sırası>
+        String raftPeersProperty = System.getProperty("leader.raftPeers");
+        if (raftPeersProperty != null && !raftPeersProperty.isEmpty()) {
+            try {
+                leader.enableRaft(PartitionMap.parse(raftPeersProperty).getAddresses(),
+                        Integer.parseInt(System.getProperty("leader.raftId", "0")));
+                // Snapshot eşiği: -Dleader.raftSnapshotBytes=N (0 = kapalı)
+                String snapshotBytesProperty = System.getProperty("leader.raftSnapshotBytes");
+                if (snapshotBytesProperty != null) {
+                    leader.setRaftSnapshotThreshold(Long.parseLong(snapshotBytesProperty));
+                }
+            } catch (IllegalArgumentException | IOException e) {
+                logger.error("Geçersiz Raft ayarı, lider başlatılmıyor: {}", e.getMessage());
+                leader.stop();
+                return;
+            }
+        }
+
+        // Tüketici grupları: -Dleader.groupLeaseMillis=N, -Dleader.groupCommitIntervalMillis=N
+        String leaseProperty = System.getProperty("leader.groupLeaseMillis");
+        String commitIntervalProperty = System.getProperty("leader.groupCommitIntervalMillis");
+        if (leaseProperty != null || commitIntervalProperty != null) {
+            try {
+                leader.setConsumerGroupTimeouts(
+                        leaseProperty != null ? Long.parseLong(leaseProperty)
+                                : ConsumerGroupManager.DEFAULT_LEASE_MILLIS,
+                        commitIntervalProperty != null ? Long.parseLong(commitIntervalProperty)
+                                : ConsumerGroupManager.DEFAULT_COMMIT_INTERVAL_MILLIS);
+            } catch (IllegalArgumentException e) {
+                logger.error("Geçersiz tüketici grubu ayarı: {}. Varsayılanlar kullanılıyor", e.getMessage());
+            }
+        }
+
         // Üyeleri kaydet (bootstrap)
         // Varsayılan üyeler artık dinamik register ile ekleniyor
         // registerDefaultMembers(leader); // KALDIRILDI - MemberNode'lar kendileri register olacak
@@ -1267,7 +2862,17 @@ public class LeaderNode {
             String host = parts[2];
             int port = Integer.parseInt(parts[3]);
             
-            addMember(memberId, host, port);
+            // Raft modunda kayıt commit edildiğinde tüm node'larda uygulanır (addMember)
+            RaftNode raftNode = raft;
+            if (raftNode != null) {
+                String error = proposeAndWait(raftNode, ReplicatedCommand.encodeRegister(memberId, host, port));
+                if (error != null) {
+                    // Liderlik commit beklenirken kaybedildiyse üye yeni lidere yönlendirilir
+                    return raftNode.isLeader() ? error : notLeaderResponse();
+                }
+            } else {
+                addMember(memberId, host, port);
+            }
             logger.info("Member registered dynamically: {} ({}:{})", memberId, host, port);
             System.out.println(String.format("Member registered dynamically: %s (%s:%d)", memberId, host, port));
             return "REGISTERED";
@@ -1279,7 +2884,8 @@ public class LeaderNode {
 
     /**
      * HEARTBEAT komutunu işler - MemberNode'lar periyodik olarak heartbeat gönderir
-     * Format: HEARTBEAT <memberId>
+     * Format: HEARTBEAT <memberId> [<mesaj sayısı> <disk byte> <kuyruk derinliği>]
+     * Member'lar heartbeat'leri tek bir kalıcı bağlantı üzerinden gönderir, yük alanları isteğe bağlıdır
      */
     private String handleHeartbeatCommand(String line) {
         try {
@@ -1294,6 +2900,11 @@ public class LeaderNode {
             if (member != null) {
                 long currentTime = System.currentTimeMillis();
                 member.setLastHeartbeatTimestamp(currentTime);
+                failureDetector.heartbeat(memberId, currentTime);
+                if (parts.length >= 5) {
+                    member.updateLoad(Long.parseLong(parts[2]), Long.parseLong(parts[3]),
+                            Integer.parseInt(parts[4]), currentTime);
+                }
                 
                 // Eğer üye DEAD durumundaysa, ALIVE olarak işaretle (recovery)
                 if (member.isDead()) {
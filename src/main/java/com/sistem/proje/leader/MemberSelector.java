@@ -0,0 +1,194 @@
+package com.sistem.proje.leader;
+
+import com.sistem.proje.leader.LeaderNode.MemberInfo;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * SET için replika üyelerini load balancing stratejisine göre seçer
+ * Strateji önce ALIVE üyelere uygulanır; yetmezse eksik kalan sayı SUSPECT üyelerden
+ * en düşük phi'den başlayarak tamamlanır
+ */
+public class MemberSelector {
+    private static final Logger logger = LoggerFactory.getLogger(MemberSelector.class);
+
+    private final LoadBalancingStrategy strategy;
+    // Round-robin için sayaç
+    private final AtomicInteger roundRobinCounter = new AtomicInteger(0);
+    // Random seçim için
+    private final Random random = new Random();
+
+    public MemberSelector(LoadBalancingStrategy strategy) {
+        this.strategy = strategy != null ? strategy : LoadBalancingStrategy.HASH_BASED;
+    }
+
+    public LoadBalancingStrategy getStrategy() {
+        return strategy;
+    }
+
+    /**
+     * Aktif üyeler arasından count kadar üye seçer
+     *
+     * @param activeMembers Aktif üyeler (ALIVE ve SUSPECT)
+     * @param count Seçilecek üye sayısı
+     * @param messageId Mesaj ID'si (hash-based seçim için)
+     * @return Seçilen üye listesi, aktif üye yoksa boş liste
+     */
+    public List<MemberInfo> select(List<MemberInfo> activeMembers, int count, Integer messageId) {
+        if (activeMembers.isEmpty() || count <= 0) {
+            return Collections.emptyList();
+        }
+
+        List<MemberInfo> aliveMembers = getAliveMembers(activeMembers);
+        List<MemberInfo> suspectMembers = getSuspectMembers(activeMembers);
+
+        // Mevcut ALIVE üye sayısından fazla istenirse, tüm ALIVE üyeleri seç
+        int selectCount = Math.min(count, aliveMembers.size());
+
+        List<MemberInfo> selectedMembers = new ArrayList<>();
+        if (selectCount > 0) {
+            switch (strategy) {
+                case ROUND_ROBIN:
+                    selectedMembers = selectRoundRobin(aliveMembers, selectCount);
+                    break;
+                case HASH_BASED:
+                    selectedMembers = selectHashBased(aliveMembers, selectCount, messageId);
+                    break;
+                default:
+                    // Fallback: random seçim
+                    selectedMembers = selectRandom(aliveMembers, selectCount);
+                    break;
+            }
+        }
+
+        if (selectedMembers.size() < count && !suspectMembers.isEmpty()) {
+            selectedMembers = new ArrayList<>(selectedMembers);
+            for (MemberInfo suspect : suspectMembers) {
+                if (selectedMembers.size() >= count) {
+                    break;
+                }
+                selectedMembers.add(suspect);
+            }
+            logger.debug("Üye seçimi SUSPECT üyelerle tamamlandı: messageId={}, seçilen={}",
+                    messageId, selectedMembers.size());
+        }
+
+        return selectedMembers;
+    }
+
+    /**
+     * Round-robin ile üye seçer
+     * Thread-safe counter kullanır
+     *
+     * @param aliveMembers Aday üyeler
+     * @param count Seçilecek üye sayısı
+     * @return Seçilen üye listesi
+     */
+    private List<MemberInfo> selectRoundRobin(List<MemberInfo> aliveMembers, int count) {
+        if (aliveMembers.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        List<MemberInfo> selected = new ArrayList<>();
+        int memberCount = aliveMembers.size();
+
+        // Thread-safe counter'dan başlangıç değerini al
+        int startCounter = roundRobinCounter.get();
+
+        for (int i = 0; i < count; i++) {
+            int index = (startCounter + i) % memberCount;
+            selected.add(aliveMembers.get(index));
+        }
+
+        // Counter'ı thread-safe şekilde güncelle
+        int newCounter = (startCounter + count) % memberCount;
+        roundRobinCounter.set(newCounter);
+
+        logger.debug("Round-robin üye seçimi: counter={}, seçilen üyeler={}",
+                newCounter, selected.size());
+
+        return selected;
+    }
+
+    /**
+     * Hash-based (message_id % member_count) ile üye seçer
+     *
+     * @param aliveMembers Aday üyeler
+     * @param count Seçilecek üye sayısı
+     * @param messageId Mesaj ID'si
+     * @return Seçilen üye listesi
+     */
+    private List<MemberInfo> selectHashBased(List<MemberInfo> aliveMembers, int count, Integer messageId) {
+        if (aliveMembers.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        List<MemberInfo> selected = new ArrayList<>();
+        int memberCount = aliveMembers.size();
+
+        // İlk üyeyi hash ile seç
+        int startIndex = Math.abs(messageId % memberCount);
+
+        // Tolerance kadar üyeyi sırayla seç (circular)
+        for (int i = 0; i < count; i++) {
+            int index = (startIndex + i) % memberCount;
+            selected.add(aliveMembers.get(index));
+        }
+
+        logger.debug("Hash-based üye seçimi: messageId={}, startIndex={}, seçilen üyeler={}",
+                messageId, startIndex, selected.size());
+
+        return selected;
+    }
+
+    /**
+     * Random ile üye seçer (fallback)
+     *
+     * @param aliveMembers Aday üyeler
+     * @param count Seçilecek üye sayısı
+     * @return Seçilen üye listesi
+     */
+    private List<MemberInfo> selectRandom(List<MemberInfo> aliveMembers, int count) {
+        if (aliveMembers.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<MemberInfo> shuffled = new ArrayList<>(aliveMembers);
+        Collections.shuffle(shuffled, random);
+        int selectCount = Math.min(count, shuffled.size());
+        return shuffled.subList(0, selectCount);
+    }
+
+    /**
+     * ALIVE durumundaki üyeleri döndürür (aktif listede olup SUSPECT olmayanlar)
+     */
+    private static List<MemberInfo> getAliveMembers(List<MemberInfo> activeMembers) {
+        List<MemberInfo> alive = new ArrayList<>(activeMembers.size());
+        for (MemberInfo member : activeMembers) {
+            if (member.isAlive()) {
+                alive.add(member);
+            }
+        }
+        return alive;
+    }
+
+    /**
+     * SUSPECT durumundaki üyeleri en düşük phi'den başlayarak döndürür
+     */
+    private static List<MemberInfo> getSuspectMembers(List<MemberInfo> activeMembers) {
+        List<MemberInfo> suspects = new ArrayList<>();
+        for (MemberInfo member : activeMembers) {
+            if (member.isSuspect()) {
+                suspects.add(member);
+            }
+        }
+        suspects.sort(Comparator.comparingDouble(MemberInfo::getPhi));
+        return suspects;
+    }
+}
@@ -0,0 +1,119 @@
+package com.sistem.proje.leader;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Hangi mesajın hangi üyelerde saklandığının kaydı (messageToMembers)
+ * Üye başına mesaj sayıları eşleşmelerle birlikte güncellenir, istatistikler map'i taramadan okur.
+ * Ekleme ve çıkarma mesajın map girdisi üzerinde atomik yapılır: boşalan liste map'ten kaldırılırken
+ * aynı mesaja eş zamanlı eklenen üye kaybolmaz
+ */
+public class MessagePlacement {
+    private static final Logger logger = LoggerFactory.getLogger(MessagePlacement.class);
+
+    // Mesaj ID → mesajı tutan üye ID'leri
+    private final Map<Integer, CopyOnWriteArrayList<String>> messageToMembers = new ConcurrentHashMap<>();
+    // Üye ID → tuttuğu mesaj sayısı
+    private final Map<String, AtomicLong> memberMessageCounts = new ConcurrentHashMap<>();
+
+    /**
+     * Mesajın üyede saklandığını kaydeder
+     * Aynı ID'ye tekrar SET yapıldığında üye ikinci kez eklenmez
+     */
+    public void add(Integer messageId, String memberId) {
+        messageToMembers.compute(messageId, (id, memberList) -> {
+            CopyOnWriteArrayList<String> members = memberList != null ? memberList : new CopyOnWriteArrayList<>();
+            if (members.addIfAbsent(memberId)) {
+                memberMessageCounts.computeIfAbsent(memberId, k -> new AtomicLong()).incrementAndGet();
+            }
+            return members;
+        });
+        logger.debug("Mesaj {} üye {}'ye eklendi", messageId, memberId);
+    }
+
+    /**
+     * Mesajın üyeden kaldırıldığını kaydeder
+     */
+    public void remove(Integer messageId, String memberId) {
+        messageToMembers.computeIfPresent(messageId, (id, memberList) -> {
+            if (memberList.remove(memberId)) {
+                AtomicLong count = memberMessageCounts.get(memberId);
+                if (count != null) {
+                    count.decrementAndGet();
+                }
+            }
+            // Liste boşaldıysa girdi map'ten kaldırılır
+            return memberList.isEmpty() ? null : memberList;
+        });
+        logger.debug("Mesaj {} üye {}'den kaldırıldı", messageId, memberId);
+    }
+
+    /**
+     * Mesajı tutan üyeler
+     *
+     * @return Üye ID listesi (kopya), mesaj yoksa boş liste
+     */
+    public List<String> getMembers(Integer messageId) {
+        List<String> memberList = messageToMembers.get(messageId);
+        if (memberList == null) {
+            return Collections.emptyList();
+        }
+        return new ArrayList<>(memberList);
+    }
+
+    public boolean contains(Integer messageId, String memberId) {
+        List<String> memberList = messageToMembers.get(messageId);
+        return memberList != null && memberList.contains(memberId);
+    }
+
+    /**
+     * Mesajın kaç üyede saklandığı
+     */
+    public int getMemberCount(Integer messageId) {
+        List<String> memberList = messageToMembers.get(messageId);
+        return memberList != null ? memberList.size() : 0;
+    }
+
+    /**
+     * Üyede saklandığı kaydedilen mesaj sayısı
+     */
+    public long getStoredMessageCount(String memberId) {
+        AtomicLong count = memberMessageCounts.get(memberId);
+        return count != null ? count.get() : 0;
+    }
+
+    /**
+     * Kaydı bulunan mesajlar
+     *
+     * @return Mesaj ID listesi (kopya)
+     */
+    public List<Integer> getMessageIds() {
+        return new ArrayList<>(messageToMembers.keySet());
+    }
+
+    /**
+     * Kaydı bulunan farklı mesaj sayısı
+     */
+    public int size() {
+        return messageToMembers.size();
+    }
+
+    public void clear() {
+        messageToMembers.clear();
+        memberMessageCounts.clear();
+    }
+
+    @Override
+    public String toString() {
+        return memberMessageCounts.toString();
+    }
+}
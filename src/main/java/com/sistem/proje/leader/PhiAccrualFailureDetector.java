@@ -0,0 +1,134 @@
+package com.sistem.proje.leader;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Phi-accrual hata dedektörü (Hayashibara ve ark.)
+ * Her üye için heartbeat'ler arası sürelerin kayan penceresini tutar ve son heartbeat'ten bu yana
+ * geçen sürenin bu dağılıma göre ne kadar olağandışı olduğunu phi = -log10(P(gecikme >= t)) ile ölçer
+ * Sabit timeout yerine ağ gecikmesine ve GC duraklamalarına uyum sağlar:
+ * düzensiz heartbeat gönderen üyede phi daha yavaş yükselir
+ */
+public class PhiAccrualFailureDetector {
+    public static final int DEFAULT_MAX_SAMPLE_SIZE = 200;
+    public static final long DEFAULT_MIN_STD_DEVIATION_MS = 500;
+    public static final long DEFAULT_ACCEPTABLE_PAUSE_MS = 3000;
+
+    private final int maxSampleSize;
+    private final long minStdDeviationMillis;
+    private final long acceptablePauseMillis;
+    private final long firstHeartbeatEstimateMillis;
+    private final Map<String, HeartbeatHistory> histories = new ConcurrentHashMap<>();
+
+    /**
+     * @param firstHeartbeatEstimateMillis Henüz örnek yokken varsayılan heartbeat aralığı
+     */
+    public PhiAccrualFailureDetector(long firstHeartbeatEstimateMillis) {
+        this(DEFAULT_MAX_SAMPLE_SIZE, DEFAULT_MIN_STD_DEVIATION_MS, DEFAULT_ACCEPTABLE_PAUSE_MS,
+                firstHeartbeatEstimateMillis);
+    }
+
+    /**
+     * @param maxSampleSize Üye başına tutulan en fazla aralık örneği
+     * @param minStdDeviationMillis Standart sapmanın alt sınırı (çok düzenli heartbeat'lerde aşırı hassasiyeti önler)
+     * @param acceptablePauseMillis Ortalamaya eklenen tolerans (ör. GC duraklaması)
+     * @param firstHeartbeatEstimateMillis Henüz örnek yokken varsayılan heartbeat aralığı
+     */
+    public PhiAccrualFailureDetector(int maxSampleSize, long minStdDeviationMillis, long acceptablePauseMillis,
+                                     long firstHeartbeatEstimateMillis) {
+        this.maxSampleSize = maxSampleSize;
+        this.minStdDeviationMillis = minStdDeviationMillis;
+        this.acceptablePauseMillis = acceptablePauseMillis;
+        this.firstHeartbeatEstimateMillis = firstHeartbeatEstimateMillis;
+    }
+
+    /**
+     * Üyeden heartbeat geldiğini kaydeder
+     */
+    public void heartbeat(String memberId, long nowMillis) {
+        histories.computeIfAbsent(memberId, id -> new HeartbeatHistory()).record(nowMillis);
+    }
+
+    /**
+     * Üyenin şu anki phi değerini hesaplar
+     *
+     * @return phi (0 = şüphe yok), hiç heartbeat kaydı yoksa 0
+     */
+    public double phi(String memberId, long nowMillis) {
+        HeartbeatHistory history = histories.get(memberId);
+        return history != null ? history.phi(nowMillis) : 0.0;
+    }
+
+    /**
+     * Üyenin geçmişini siler (yeniden kayıt veya DEAD'den dönüşte uzun boşluk dağılımı bozmasın)
+     */
+    public void remove(String memberId) {
+        histories.remove(memberId);
+    }
+
+    /**
+     * Tek üyenin heartbeat aralıkları (halka buffer, toplam ve kareler toplamı ile O(1) istatistik)
+     */
+    private final class HeartbeatHistory {
+        private final long[] intervals = new long[maxSampleSize];
+        private int count;
+        private int next;
+        private double sum;
+        private double sumOfSquares;
+        private long lastTimestamp = -1;
+
+        synchronized void record(long nowMillis) {
+            if (lastTimestamp < 0) {
+                // İlk örnek: tahmini aralık ve ortalamanın dörtte biri kadar sapma ile başlanır
+                long estimate = firstHeartbeatEstimateMillis;
+                long deviation = estimate / 4;
+                add(estimate - deviation);
+                add(estimate + deviation);
+            } else {
+                long interval = nowMillis - lastTimestamp;
+                if (interval >= 0) {
+                    add(interval);
+                }
+            }
+            lastTimestamp = nowMillis;
+        }
+
+        private void add(long interval) {
+            if (count == intervals.length) {
+                long evicted = intervals[next];
+                sum -= evicted;
+                sumOfSquares -= (double) evicted * evicted;
+            } else {
+                count++;
+            }
+            intervals[next] = interval;
+            next = (next + 1) % intervals.length;
+            sum += interval;
+            sumOfSquares += (double) interval * interval;
+        }
+
+        synchronized double phi(long nowMillis) {
+            if (lastTimestamp < 0 || count == 0) {
+                return 0.0;
+            }
+            double mean = sum / count;
+            double variance = Math.max(0.0, sumOfSquares / count - mean * mean);
+            double stdDeviation = Math.max(Math.sqrt(variance), minStdDeviationMillis);
+            double elapsed = nowMillis - lastTimestamp;
+            return phi(elapsed, mean + acceptablePauseMillis, stdDeviation);
+        }
+
+        /**
+         * Normal dağılımın kuyruk olasılığı için lojistik yaklaşım
+         */
+        private double phi(double elapsed, double mean, double stdDeviation) {
+            double y = (elapsed - mean) / stdDeviation;
+            double e = Math.exp(-y * (1.5976 + 0.070566 * y * y));
+            if (elapsed > mean) {
+                return -Math.log10(e / (1.0 + e));
+            }
+            return -Math.log10(1.0 - 1.0 / (1.0 + e));
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.sistem.proje.leader;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Lider node'lar arasında Raft log'u ile replike edilen komut
+ *
+ * SET: mesaj ve onu saklayan üyeler (her node mesajı kendi diskine yazar ve messageToMembers'a ekler)
+ * REGISTER: üye kaydı (yeni lider üyeleri kayıt beklemeden tanır)
+ *
+ * Format: tip(1) | SET: id(4) | uzunluk(4) | mesaj | üye sayısı(2) | üye ID'leri (UTF)
+ *                  REGISTER: üye ID'si (UTF) | host (UTF) | port(4)
+ */
+final class ReplicatedCommand {
+    static final byte SET = 1;
+    static final byte REGISTER = 2;
+
+    final byte type;
+    final int messageId;
+    final String message;
+    final List<String> members;
+    final String memberId;
+    final String host;
+    final int port;
+
+    private ReplicatedCommand(byte type, int messageId, String message, List<String> members,
+                              String memberId, String host, int port) {
+        this.type = type;
+        this.messageId = messageId;
+        this.message = message;
+        this.members = members;
+        this.memberId = memberId;
+        this.host = host;
+        this.port = port;
+    }
+
+    static byte[] encodeSet(int messageId, String message, List<String> members) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(message.length() + 64);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            byte[] payload = message.getBytes(StandardCharsets.UTF_8);
+            out.writeByte(SET);
+            out.writeInt(messageId);
+            out.writeInt(payload.length);
+            out.write(payload);
+            out.writeShort(members.size());
+            for (String member : members) {
+                out.writeUTF(member);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    static byte[] encodeRegister(String memberId, String host, int port) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(REGISTER);
+            out.writeUTF(memberId);
+            out.writeUTF(host);
+            out.writeInt(port);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * @throws IllegalArgumentException Tanınmayan veya bozuk komut
+     */
+    static ReplicatedCommand decode(byte[] data) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(data))) {
+            byte type = in.readByte();
+            if (type == SET) {
+                int messageId = in.readInt();
+                byte[] payload = new byte[in.readInt()];
+                in.readFully(payload);
+                int count = in.readUnsignedShort();
+                List<String> members = new ArrayList<>(count);
+                for (int i = 0; i < count; i++) {
+                    members.add(in.readUTF());
+                }
+                return new ReplicatedCommand(SET, messageId, new String(payload, StandardCharsets.UTF_8), members,
+                        null, null, 0);
+            }
+            if (type == REGISTER) {
+                return new ReplicatedCommand(REGISTER, 0, null, List.of(), in.readUTF(), in.readUTF(), in.readInt());
+            }
+            throw new IllegalArgumentException("Bilinmeyen replike komut tipi: " + type);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Bozuk replike komut: " + e.getMessage(), e);
+        }
+    }
+}
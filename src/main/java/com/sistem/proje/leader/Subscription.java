@@ -0,0 +1,195 @@
+package com.sistem.proje.leader;
+
+import com.sistem.proje.metrics.Counter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.GatheringByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.concurrent.Executor;
+
+/**
+ * Tek bir abonenin sınırlı gönderim kuyruğu
+ *
+ * SET yolu offer ile kuyruğa ekler ve hiçbir zaman beklemez. Kuyruk boşken ilk eklenen satır
+ * executor'da bir boşaltma görevi başlatır; görev kuyruk boşalana kadar satırları abonenin
+ * kanalına gathering write ile yazar. Abone yavaş okursa TCP akış kontrolü görevi yavaşlatır,
+ * kuyruk sınıra ulaşınca yeni satırlar düşürülür ve abone sırasını koruyan bir LAGGED satırıyla
+ * kaç mesaj kaçırdığını öğrenir
+ */
+public final class Subscription {
+    private static final Logger logger = LoggerFactory.getLogger(Subscription.class);
+    // Tek gathering write'a konulacak en fazla satır
+    private static final int MAX_BATCH = 64;
+
+    private final long id;
+    private final SubscriptionFilter filter;
+    private final int maxMessages;
+    private final long maxBytes;
+    private final GatheringByteChannel channel;
+    private final Object writeLock;
+    private final Executor executor;
+    private final Counter delivered;
+    private final Counter dropped;
+
+    // Aşağıdaki alanlar this kilidi altında
+    private final ArrayDeque<Entry> queue = new ArrayDeque<>();
+    private int queuedMessages;
+    private long queuedBytes;
+    private boolean draining;
+    private boolean closed;
+
+    Subscription(long id, SubscriptionFilter filter, int maxMessages, long maxBytes, GatheringByteChannel channel,
+                 Object writeLock, Executor executor, Counter delivered, Counter dropped) {
+        this.id = id;
+        this.filter = filter;
+        this.maxMessages = maxMessages;
+        this.maxBytes = maxBytes;
+        this.channel = channel;
+        this.writeLock = writeLock;
+        this.executor = executor;
+        this.delivered = delivered;
+        this.dropped = dropped;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public SubscriptionFilter getFilter() {
+        return filter;
+    }
+
+    /**
+     * Kuyruktaki (henüz yazılmamış) mesaj sayısı
+     */
+    public synchronized int getQueuedMessages() {
+        return queuedMessages;
+    }
+
+    boolean matches(int messageId, String message) {
+        return filter.matches(messageId, message);
+    }
+
+    /**
+     * Satırı kuyruğa ekler, kuyruk doluysa düşürür
+     *
+     * @param line Tüm abonelerle paylaşılan, satır sonu dahil kodlanmış MSG satırı
+     */
+    void offer(byte[] line) {
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            boolean full = queuedMessages >= maxMessages
+                    || (queuedMessages > 0 && queuedBytes + line.length > maxBytes);
+            if (full) {
+                dropped.increment();
+                Entry last = queue.peekLast();
+                if (last != null && last.line == null) {
+                    last.lagged++;
+                } else {
+                    queue.addLast(Entry.lagged());
+                }
+            } else {
+                queue.addLast(new Entry(line));
+                queuedMessages++;
+                queuedBytes += line.length;
+            }
+            if (draining) {
+                return;
+            }
+            draining = true;
+        }
+        executor.execute(this::drain);
+    }
+
+    private void drain() {
+        ByteBuffer[] batch = new ByteBuffer[MAX_BATCH];
+        while (true) {
+            int count = 0;
+            int messages = 0;
+            synchronized (this) {
+                if (closed || queue.isEmpty()) {
+                    draining = false;
+                    return;
+                }
+                while (count < MAX_BATCH && !queue.isEmpty()) {
+                    Entry entry = queue.pollFirst();
+                    if (entry.line != null) {
+                        queuedMessages--;
+                        queuedBytes -= entry.line.length;
+                        messages++;
+                        batch[count++] = ByteBuffer.wrap(entry.line);
+                    } else {
+                        batch[count++] = ByteBuffer.wrap(
+                                ("LAGGED " + entry.lagged + "\n").getBytes(StandardCharsets.UTF_8));
+                    }
+                }
+            }
+            try {
+                write(batch, count);
+                delivered.add(messages);
+            } catch (IOException e) {
+                logger.info("Abone {} yazılamadı, abonelik kapatılıyor: {}", id, e.getMessage());
+                close();
+                synchronized (this) {
+                    draining = false;
+                }
+                return;
+            }
+        }
+    }
+
+    private void write(ByteBuffer[] batch, int count) throws IOException {
+        synchronized (writeLock) {
+            int first = 0;
+            while (first < count) {
+                channel.write(batch, first, count - first);
+                while (first < count && !batch[first].hasRemaining()) {
+                    batch[first++] = null;
+                }
+            }
+        }
+    }
+
+    /**
+     * Kuyruğu boşaltır; yazılmakta olan batch tamamlanır, sonrası gönderilmez
+     */
+    synchronized void close() {
+        closed = true;
+        queue.clear();
+        queuedMessages = 0;
+        queuedBytes = 0;
+    }
+
+    synchronized boolean isClosed() {
+        return closed;
+    }
+
+    @Override
+    public String toString() {
+        return "Subscription{id=" + id + ", " + filter + "}";
+    }
+
+    /**
+     * Kuyruk elemanı: MSG satırı veya (line == null) art arda düşürülen mesaj sayısı
+     */
+    private static final class Entry {
+        private final byte[] line;
+        private int lagged;
+
+        private Entry(byte[] line) {
+            this.line = line;
+        }
+
+        private static Entry lagged() {
+            Entry entry = new Entry(null);
+            entry.lagged = 1;
+            return entry;
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.sistem.proje.leader;
+
+/**
+ * Aboneliğin hangi SET'leri alacağı: ID aralığı veya mesajın başındaki konu (topic) öneki
+ */
+public final class SubscriptionFilter {
+    private final int from;
+    private final int to;
+    private final String prefix;
+
+    private SubscriptionFilter(int from, int to, String prefix) {
+        this.from = from;
+        this.to = to;
+        this.prefix = prefix;
+    }
+
+    /**
+     * [from, to] aralığındaki (uçlar dahil) ID'lere yapılan SET'ler
+     */
+    public static SubscriptionFilter range(int from, int to) {
+        if (from > to) {
+            throw new IllegalArgumentException("Geçersiz ID aralığı: " + from + " > " + to);
+        }
+        return new SubscriptionFilter(from, to, null);
+    }
+
+    /**
+     * Mesajı prefix ile başlayan SET'ler (ör. "orders/" öneki "orders/eu ..." mesajlarını alır)
+     */
+    public static SubscriptionFilter prefix(String prefix) {
+        if (prefix == null || prefix.isEmpty()) {
+            throw new IllegalArgumentException("Konu öneki boş olamaz");
+        }
+        return new SubscriptionFilter(Integer.MIN_VALUE, Integer.MAX_VALUE, prefix);
+    }
+
+    public boolean matches(int id, String message) {
+        if (prefix != null) {
+            return message.startsWith(prefix);
+        }
+        return id >= from && id <= to;
+    }
+
+    @Override
+    public String toString() {
+        return prefix != null ? "PREFIX " + prefix : "RANGE " + from + " " + to;
+    }
+}
@@ -0,0 +1,129 @@
+package com.sistem.proje.leader;
+
+import com.sistem.proje.metrics.Counter;
+import com.sistem.proje.metrics.MetricsRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.channels.GatheringByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Liderdeki açık abonelikler
+ *
+ * Başarılı her SET publish ile eşleşen abonelerin kuyruğuna eklenir. Satır bir kez kodlanır ve
+ * tüm eşleşen abonelerle paylaşılır:
+ * <pre>
+ * MSG &lt;id&gt; &lt;byte uzunluğu&gt; &lt;mesaj&gt;
+ * LAGGED &lt;düşürülen mesaj sayısı&gt;
+ * </pre>
+ * Byte uzunluğu mesajın UTF-8 uzunluğudur; binary protokolle yazılmış mesajlar satır sonu
+ * içerebileceği için okuyucu mesajı satır sonuna göre değil uzunluğa göre okumalıdır
+ */
+public class SubscriptionManager {
+    private static final Logger logger = LoggerFactory.getLogger(SubscriptionManager.class);
+    public static final int DEFAULT_MAX_MESSAGES = 1024;
+    public static final long DEFAULT_MAX_BYTES = 4L * 1024 * 1024;
+
+    private final List<Subscription> subscriptions = new CopyOnWriteArrayList<>();
+    private final AtomicLong nextId = new AtomicLong();
+    private final Executor executor;
+    private final Counter delivered;
+    private final Counter dropped;
+    private volatile int maxMessages = DEFAULT_MAX_MESSAGES;
+    private volatile long maxBytes = DEFAULT_MAX_BYTES;
+
+    /**
+     * @param executor Abone kuyruklarını boşaltan görevlerin çalışacağı executor
+     */
+    public SubscriptionManager(Executor executor, MetricsRegistry metrics) {
+        this.executor = executor;
+        this.delivered = metrics.counter("leader.subscriptions.delivered");
+        this.dropped = metrics.counter("leader.subscriptions.dropped");
+        metrics.gauge("leader.subscriptions.active", subscriptions::size);
+    }
+
+    /**
+     * Sonraki aboneliklerin kuyruk sınırları (açık abonelikler etkilenmez)
+     *
+     * @param maxMessages Abone başına kuyrukta bekleyebilecek en fazla mesaj
+     * @param maxBytes Abone başına kuyrukta bekleyebilecek en fazla byte (tek mesaj bu sınırı aşsa da kabul edilir)
+     */
+    public void setLimits(int maxMessages, long maxBytes) {
+        if (maxMessages < 1 || maxBytes < 1) {
+            throw new IllegalArgumentException("Geçersiz abonelik sınırı: mesaj=" + maxMessages + ", byte=" + maxBytes);
+        }
+        this.maxMessages = maxMessages;
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Abonelik açar; satırlar channel'a writeLock altında yazılır
+     */
+    public Subscription subscribe(SubscriptionFilter filter, GatheringByteChannel channel, Object writeLock) {
+        Subscription subscription = new Subscription(nextId.incrementAndGet(), filter, maxMessages, maxBytes,
+                channel, writeLock, executor, delivered, dropped);
+        subscriptions.add(subscription);
+        logger.info("Abonelik açıldı: {}", subscription);
+        return subscription;
+    }
+
+    public void unsubscribe(Subscription subscription) {
+        subscription.close();
+        if (subscriptions.remove(subscription)) {
+            logger.info("Abonelik kapatıldı: {}", subscription);
+        }
+    }
+
+    /**
+     * Onaylanmış SET'i eşleşen abonelere iletir, beklemez
+     */
+    public void publish(int messageId, String message) {
+        if (subscriptions.isEmpty()) {
+            return;
+        }
+        byte[] line = null;
+        for (Subscription subscription : subscriptions) {
+            if (!subscription.matches(messageId, message)) {
+                continue;
+            }
+            if (subscription.isClosed()) {
+                // Yazma hatasıyla kapanmış abonelik
+                subscriptions.remove(subscription);
+                continue;
+            }
+            if (line == null) {
+                line = encode(messageId, message);
+            }
+            subscription.offer(line);
+        }
+    }
+
+    public int getActiveCount() {
+        return subscriptions.size();
+    }
+
+    /**
+     * Tüm abonelikleri kapatır (lider durdurulurken)
+     */
+    public void closeAll() {
+        for (Subscription subscription : subscriptions) {
+            subscription.close();
+        }
+        subscriptions.clear();
+    }
+
+    private static byte[] encode(int messageId, String message) {
+        byte[] payload = message.getBytes(StandardCharsets.UTF_8);
+        byte[] prefix = ("MSG " + messageId + " " + payload.length + " ").getBytes(StandardCharsets.UTF_8);
+        byte[] line = new byte[prefix.length + payload.length + 1];
+        System.arraycopy(prefix, 0, line, 0, prefix.length);
+        System.arraycopy(payload, 0, line, prefix.length, payload.length);
+        line[line.length - 1] = '\n';
+        return line;
+    }
+}
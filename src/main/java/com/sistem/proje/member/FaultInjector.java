@@ -0,0 +1,87 @@
+package com.sistem.proje.member;
+
+import io.grpc.Metadata;
+import io.grpc.ServerCall;
+import io.grpc.ServerCallHandler;
+import io.grpc.ServerInterceptor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Üye tarafında hata enjeksiyonu (gömülü küme testleri ve benchmark'lar için)
+ * gRPC interceptor'ı olarak her Store/Retrieve çağrısını geciktirebilir veya duraklatabilir;
+ * duraklatılmış üye heartbeat de göndermez, dışarıdan GC duraklaması ya da ağ kopması gibi görünür
+ */
+public class FaultInjector implements ServerInterceptor {
+    private static final Logger logger = LoggerFactory.getLogger(FaultInjector.class);
+
+    private final Object pauseLock = new Object();
+    private volatile boolean paused;
+    private volatile long delayNanos;
+
+    /**
+     * Çağrıları ve heartbeat'leri resume() çağrılana kadar durdurur
+     * Lider RPC'lerinde deadline olmadığı için bu üyeye giden çağrılar devam ettirilene kadar bekler
+     */
+    public void pause() {
+        paused = true;
+        logger.info("Üye duraklatıldı");
+    }
+
+    public void resume() {
+        synchronized (pauseLock) {
+            paused = false;
+            pauseLock.notifyAll();
+        }
+        logger.info("Üye devam ettirildi");
+    }
+
+    public boolean isPaused() {
+        return paused;
+    }
+
+    /**
+     * Her gRPC çağrısına eklenecek gecikme (0 = gecikme yok)
+     */
+    public void setDelay(long delay, TimeUnit unit) {
+        delayNanos = unit.toNanos(Math.max(0, delay));
+        logger.info("Üye RPC gecikmesi: {} ms", TimeUnit.NANOSECONDS.toMillis(delayNanos));
+    }
+
+    public long getDelayNanos() {
+        return delayNanos;
+    }
+
+    /**
+     * Tüm hataları kaldırır
+     */
+    public void clear() {
+        setDelay(0, TimeUnit.NANOSECONDS);
+        resume();
+    }
+
+    @Override
+    public <ReqT, RespT> ServerCall.Listener<ReqT> interceptCall(ServerCall<ReqT, RespT> call, Metadata headers,
+                                                                 ServerCallHandler<ReqT, RespT> next) {
+        try {
+            awaitResume();
+            long delay = delayNanos;
+            if (delay > 0) {
+                TimeUnit.NANOSECONDS.sleep(delay);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return next.startCall(call, headers);
+    }
+
+    private void awaitResume() throws InterruptedException {
+        synchronized (pauseLock) {
+            while (paused) {
+                pauseLock.wait();
+            }
+        }
+    }
+}
@@ -1,8 +1,19 @@
 package com.sistem.proje.member;
 
 import com.sistem.proje.grpc.StorageServer;
+import com.sistem.proje.metrics.MetricsHttpServer;
+import com.sistem.proje.metrics.MetricsRegistry;
+import com.sistem.proje.protocol.PartitionMap;
+import com.sistem.proje.storage.AckMode;
+import com.sistem.proje.storage.Compression;
+import com.sistem.proje.storage.FileLayout;
 import com.sistem.proje.storage.IOMode;
+import com.sistem.proje.storage.LogCompactor;
 import com.sistem.proje.storage.MessageStorage;
+import com.sistem.proje.storage.StorageOptions;
+import com.sistem.proje.storage.StorageUsage;
+import com.sistem.proje.storage.WriteBehindQueue;
+import io.grpc.ServerBuilder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -10,7 +21,11 @@ import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStreamReader;
 import java.io.PrintWriter;
+import java.net.InetSocketAddress;
 import java.net.Socket;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
@@ -23,19 +38,46 @@ public class MemberNode {
     private static final Logger logger = LoggerFactory.getLogger(MemberNode.class);
     private static final int DEFAULT_GRPC_PORT = 9090;
     private static final long DEFAULT_STATS_INTERVAL_SECONDS = 10;
+    private static final String DEFAULT_DATA_ROOT = "data";
+    private static final String MESSAGES_SUBDIR = "messages";
+    // Metrik endpoint'i varsayılan olarak gRPC port'unun 1000 üstünde açılır
+    public static final int METRICS_PORT_OFFSET = 1000;
     
-    private final int grpcPort;
+    private final Path dataDirectory;
+    private final MetricsRegistry metrics = new MetricsRegistry();
     private final MessageStorage messageStorage;
+    // Write-behind kapalıysa null
+    private final WriteBehindQueue writeBehindQueue;
     private final StorageServer storageServer;
     private final ScheduledExecutorService scheduler;
     private final long statsIntervalSeconds;
     private volatile boolean running = false;
+    // Prometheus endpoint'i (-1 = kapalı)
+    private final int metricsPort;
+    private MetricsHttpServer metricsServer;
+    // Gömülü kümede gecikme/duraklatma enjeksiyonu, yoksa null
+    private final FaultInjector faultInjector;
     
     // Heartbeat için
     private final String memberId;
-    private final String leaderHost;
-    private final int leaderPort;
+    // Lider adresleri (Raft grubunda tüm liderler); heartbeat ve REGISTER currentLeader'a gider
+    private final List<String> leaderAddresses;
+    private volatile String currentLeader;
+    // REGISTER'da bildirilen adres; lider değişince aynı adresle yeniden kaydolunur (null = TCP ile kaydolunmadı)
+    private volatile String registeredHost;
+    private volatile int registeredPort;
     private static final long HEARTBEAT_INTERVAL_SECONDS = 3; // Her 3 saniyede bir heartbeat gönder
+    private static final int HEARTBEAT_TIMEOUT_MS = 2000; // Bağlantı ve cevap bekleme süresi
+    private static final int REGISTER_TIMEOUT_MS = 8000; // Raft liderinin kaydı commit etmesi dahil cevap süresi
+    // Lider seçimi sürerken kaydın tekrar denendiği toplam süre ve denemeler arası bekleme sınırları
+    private static final long REGISTER_DEADLINE_MS = 15_000;
+    private static final long REGISTER_BACKOFF_MIN_MS = 50;
+    private static final long REGISTER_BACKOFF_MAX_MS = 1000;
+
+    // Heartbeat'ler tek bir kalıcı bağlantı üzerinden gönderilir (sadece scheduler thread'i kullanır)
+    private volatile Socket heartbeatSocket;
+    private PrintWriter heartbeatWriter;
+    private BufferedReader heartbeatReader;
 
     /**
      * Varsayılan ayarlarla oluşturur
@@ -76,14 +118,44 @@ public class MemberNode {
      * @param memberId Member ID'si
      */
     public MemberNode(int grpcPort, IOMode ioMode, long statsIntervalSeconds, String leaderHost, int leaderPort, String memberId) {
-        this.grpcPort = grpcPort;
-        this.messageStorage = new MessageStorage(ioMode);
-        this.storageServer = new StorageServer(grpcPort, ioMode);
+        this(grpcPort, new MemberOptions()
+                .setStorage(new StorageOptions().setIoMode(ioMode))
+                .setStatsIntervalSeconds(statsIntervalSeconds > 0 ? statsIntervalSeconds : DEFAULT_STATS_INTERVAL_SECONDS)
+                .setLeader(leaderHost, leaderPort)
+                .setMemberId(memberId));
+    }
+
+    /**
+     * Verilen ayarlarla oluşturur
+     * Mesajlar veri klasörünün messages/ alt klasöründe saklanır, storage instance'ı gRPC server ile paylaşılır
+     * 
+     * @param grpcPort gRPC server port'u (builder verildiyse log'da gösterilen port)
+     * @param options Storage, lider, write-behind, metrik ve gömülü küme ayarları
+     */
+    public MemberNode(int grpcPort, MemberOptions options) {
+        this.memberId = options.getMemberId() != null ? options.getMemberId() : "member-" + grpcPort;
+        this.dataDirectory = options.getDataDirectory() != null
+                ? options.getDataDirectory()
+                : Paths.get(DEFAULT_DATA_ROOT, memberId);
+        this.metricsPort = options.getMetricsPort() != null ? options.getMetricsPort() : grpcPort + METRICS_PORT_OFFSET;
+        this.faultInjector = options.getFaultInjector();
+        this.messageStorage = new MessageStorage(dataDirectory.resolve(MESSAGES_SUBDIR), options.getStorage(), metrics);
+        this.writeBehindQueue = options.getWriteBehindAck() != null
+                ? new WriteBehindQueue(messageStorage, options.getWriteBehindAck())
+                : null;
+        ServerBuilder<?> serverBuilder = options.getServerBuilder() != null
+                ? options.getServerBuilder()
+                : ServerBuilder.forPort(grpcPort);
+        if (faultInjector != null) {
+            serverBuilder.intercept(faultInjector);
+        }
+        this.storageServer = new StorageServer(serverBuilder, grpcPort, messageStorage, writeBehindQueue, metrics);
+        this.storageServer.setCompressionThreshold(options.getGrpcCompressionThreshold());
+        registerGauges();
         this.scheduler = Executors.newScheduledThreadPool(1);
-        this.statsIntervalSeconds = statsIntervalSeconds > 0 ? statsIntervalSeconds : DEFAULT_STATS_INTERVAL_SECONDS;
-        this.leaderHost = leaderHost;
-        this.leaderPort = leaderPort;
-        this.memberId = memberId;
+        this.statsIntervalSeconds = options.getStatsIntervalSeconds();
+        this.leaderAddresses = options.getLeaderAddresses();
+        this.currentLeader = leaderAddresses.get(0);
     }
 
     /**
@@ -93,7 +165,12 @@ public class MemberNode {
         try {
             running = true;
             storageServer.start();
-            logger.info("Member Node başlatıldı. gRPC Port: {}", grpcPort);
+            logger.info("Member Node başlatıldı. gRPC Port: {}", getGrpcPort());
+
+            if (metricsPort >= 0) {
+                metricsServer = new MetricsHttpServer(metricsPort, metrics);
+                metricsServer.start();
+            }
             
             // Periyodik istatistik yazdırmayı başlat
             startPeriodicStats();
@@ -113,18 +190,75 @@ public class MemberNode {
     public void stop() {
         running = false;
         try {
+            if (metricsServer != null) {
+                metricsServer.close();
+            }
             storageServer.stop();
             scheduler.shutdown();
             if (!scheduler.awaitTermination(5, TimeUnit.SECONDS)) {
                 scheduler.shutdownNow();
             }
+            closeHeartbeatConnection();
+            // Kuyrukta kalan yazmalar storage kapanmadan önce diske aktarılır
+            if (writeBehindQueue != null) {
+                writeBehindQueue.close();
+            }
+            messageStorage.close();
             logger.info("Member Node durduruldu.");
+        } catch (IOException e) {
+            logger.error("Storage kapatılırken hata: ", e);
         } catch (InterruptedException e) {
             logger.error("Member Node kapatılırken hata: ", e);
             Thread.currentThread().interrupt();
         }
     }
 
+    /**
+     * Node'u crash gibi durdurur: gRPC çağrıları beklenmeden kesilir, heartbeat'ler durur
+     * Storage yine kapatılır (dosya handle'ları bırakılsın ve aynı klasörle yeniden başlatılabilsin),
+     * write-behind kuyruğundaki yazmalar bu sırada diske aktarılır
+     */
+    public void kill() {
+        running = false;
+        storageServer.stopNow();
+        scheduler.shutdownNow();
+        closeHeartbeatConnection();
+        if (metricsServer != null) {
+            metricsServer.close();
+        }
+        try {
+            if (writeBehindQueue != null) {
+                writeBehindQueue.close();
+            }
+            messageStorage.close();
+        } catch (IOException e) {
+            logger.error("Storage kapatılırken hata: ", e);
+        }
+        logger.info("Member Node öldürüldü.");
+    }
+
+    /**
+     * Storage, write-behind ve heartbeat gauge'larını kaydeder
+     * Disk kullanımı storage'ın sayaçlarından okunur, endpoint diski taramaz
+     */
+    private void registerGauges() {
+        metrics.gauge("storage.messages", () -> messageStorage.getUsage().getMessageCount());
+        metrics.gauge("storage.disk.bytes", () -> messageStorage.getUsage().getDiskBytes());
+        metrics.gauge("member.heartbeat.connected", () -> heartbeatSocket != null ? 1 : 0);
+        if (writeBehindQueue != null) {
+            metrics.gauge("member.writeBehind.queueDepth", writeBehindQueue::getQueueDepth);
+            metrics.gauge("member.writeBehind.batches", writeBehindQueue::getBatches);
+            metrics.gauge("member.writeBehind.written", writeBehindQueue::getWritten);
+            metrics.gauge("member.writeBehind.rejected", writeBehindQueue::getRejected);
+        }
+        LogCompactor compactor = messageStorage.getCompactor();
+        if (compactor != null) {
+            metrics.gauge("storage.space.amplification", messageStorage::getSpaceAmplification);
+            metrics.gauge("storage.compaction.segments", compactor::getSegmentsCompacted);
+            metrics.gauge("storage.compaction.reclaimed.bytes", compactor::getBytesReclaimed);
+        }
+    }
+
     /**
      * Periyodik istatistik yazdırmayı başlatır
      */
@@ -153,28 +287,101 @@ public class MemberNode {
 
     /**
      * Leader'a heartbeat mesajı gönderir
+     * Bağlantı açık tutulur ve sonraki heartbeat'lerde tekrar kullanılır, koparsa bir sonraki turda yeniden kurulur
+     * Format: HEARTBEAT <memberId> <mesaj sayısı> <disk byte> <kuyruk derinliği>
      */
     private void sendHeartbeat() {
-        if (!running) {
+        if (!running || (faultInjector != null && faultInjector.isPaused())) {
             return;
         }
 
-        try (Socket socket = new Socket(leaderHost, leaderPort);
-             PrintWriter writer = new PrintWriter(socket.getOutputStream(), true);
-             BufferedReader reader = new BufferedReader(new InputStreamReader(socket.getInputStream()))) {
-            
-            String heartbeatCmd = String.format("HEARTBEAT %s", memberId);
-            writer.println(heartbeatCmd);
+        try {
+            if (heartbeatSocket == null) {
+                openHeartbeatConnection();
+            }
+
+            StorageUsage usage = messageStorage.getUsage();
+            int queueDepth = writeBehindQueue != null ? writeBehindQueue.getQueueDepth() : 0;
+            heartbeatWriter.println("HEARTBEAT " + memberId + " " + usage.getMessageCount() + " "
+                    + usage.getDiskBytes() + " " + queueDepth);
             
-            String response = reader.readLine();
+            String response = heartbeatReader.readLine();
+            if (response == null) {
+                throw new IOException("Leader bağlantıyı kapattı");
+            }
             if ("HEARTBEAT_OK".equals(response)) {
                 logger.debug("Heartbeat sent successfully to leader: {}", memberId);
+            } else if (response.startsWith("NOT_LEADER")) {
+                // Raft takipçisi: belirtilen lidere geçilir ve yeniden kaydolunur
+                closeHeartbeatConnection();
+                followLeader(response);
+                register();
+            } else if ("ERROR: Member not registered".equals(response)) {
+                // Lider yeniden başlamış veya kayıt yeni lidere ulaşmamış
+                register();
             } else {
                 logger.warn("Heartbeat response unexpected: {}", response);
             }
         } catch (IOException e) {
-            logger.debug("Heartbeat gönderilemedi ({}:{}): {}", leaderHost, leaderPort, e.getMessage());
-            // Hata durumunda sessizce devam et, bir sonraki heartbeat'te tekrar dener
+            logger.debug("Heartbeat gönderilemedi ({}): {}", currentLeader, e.getMessage());
+            // Bağlantı bırakılır, bir sonraki heartbeat'te yeniden bağlanılır
+            closeHeartbeatConnection();
+            // Birden çok lider varsa lider düşmüş olabilir: sıradaki adaya kaydolunur, o da asıl lidere yönlendirir
+            if (leaderAddresses.size() > 1) {
+                nextLeader();
+                register();
+            }
+        }
+    }
+
+    /**
+     * NOT_LEADER &lt;host:port&gt; cevabındaki lidere geçer (adres yoksa seçim sürüyordur, lider değişmez)
+     */
+    private void followLeader(String response) {
+        String[] parts = response.split(" ");
+        if (parts.length == 2 && !parts[1].equals(currentLeader)) {
+            logger.info("Lider değişti: {} -> {}", currentLeader, parts[1]);
+            currentLeader = parts[1];
+        }
+    }
+
+    private void nextLeader() {
+        List<String> addresses = leaderAddresses;
+        currentLeader = addresses.get((addresses.indexOf(currentLeader) + 1) % addresses.size());
+    }
+
+    /**
+     * Leader'a kalıcı heartbeat bağlantısını açar
+     */
+    private void openHeartbeatConnection() throws IOException {
+        Socket socket = new Socket();
+        try {
+            String leader = currentLeader;
+            socket.connect(new InetSocketAddress(PartitionMap.host(leader), PartitionMap.port(leader)),
+                    HEARTBEAT_TIMEOUT_MS);
+            socket.setSoTimeout(HEARTBEAT_TIMEOUT_MS);
+            socket.setTcpNoDelay(true);
+            heartbeatWriter = new PrintWriter(socket.getOutputStream(), true);
+            heartbeatReader = new BufferedReader(new InputStreamReader(socket.getInputStream()));
+        } catch (IOException e) {
+            socket.close();
+            throw e;
+        }
+        heartbeatSocket = socket;
+        logger.info("Leader'a heartbeat bağlantısı açıldı: {}", currentLeader);
+    }
+
+    private void closeHeartbeatConnection() {
+        Socket socket = heartbeatSocket;
+        heartbeatSocket = null;
+        heartbeatWriter = null;
+        heartbeatReader = null;
+        if (socket != null) {
+            try {
+                socket.close();
+            } catch (IOException e) {
+                logger.debug("Heartbeat bağlantısı kapatılırken hata: {}", e.getMessage());
+            }
         }
     }
 
@@ -187,22 +394,52 @@ public class MemberNode {
         }
 
         try {
-            int messageCount = messageStorage.getMessageCount();
+            StorageUsage usage = messageStorage.getUsage();
             String message = String.format(
-                "[MEMBER STATS] Port: %d | Disk'teki mesaj sayısı: %d | Klasör: %s",
-                grpcPort,
-                messageCount,
+                "[MEMBER STATS] Port: %d | Disk'teki mesaj sayısı: %d | Disk kullanımı: %d byte | Klasör: %s",
+                getGrpcPort(),
+                usage.getMessageCount(),
+                usage.getDiskBytes(),
                 messageStorage.getMessagesDirectory().toAbsolutePath()
             );
             
             // Console'a yazdır
             System.out.println(message);
             logger.debug(message);
+
+            if (writeBehindQueue != null) {
+                System.out.println(String.format(
+                    "[MEMBER WRITE-BEHIND] Port: %d | Onay: %s | Kuyruk: %d | Batch: %d | Yazılan: %d | Reddedilen: %d",
+                    getGrpcPort(),
+                    writeBehindQueue.getAckMode(),
+                    writeBehindQueue.getQueueDepth(),
+                    writeBehindQueue.getBatches(),
+                    writeBehindQueue.getWritten(),
+                    writeBehindQueue.getRejected()
+                ));
+            }
+
+            // LOG modunda compaction metrikleri
+            LogCompactor compactor = messageStorage.getCompactor();
+            if (compactor != null) {
+                System.out.println(String.format(
+                    "[MEMBER COMPACTION] Port: %d | Alan büyütme: %.2f | Sıkıştırılan segment: %d | Bekleyen: %d | Geri kazanılan: %d byte",
+                    getGrpcPort(),
+                    messageStorage.getSpaceAmplification(),
+                    compactor.getSegmentsCompacted(),
+                    compactor.getPendingSegments(),
+                    compactor.getBytesReclaimed()
+                ));
+            }
+
+            for (String line : metrics.report()) {
+                System.out.println("[MEMBER METRICS] Port: " + getGrpcPort() + " | " + line);
+            }
             
-        } catch (IOException e) {
+        } catch (RuntimeException e) {
             String errorMsg = String.format(
-                "[MEMBER STATS ERROR] Port: %d | Mesaj sayısı alınamadı: %s",
-                grpcPort,
+                "[MEMBER STATS ERROR] Port: %d | İstatistikler yazdırılamadı: %s",
+                getGrpcPort(),
                 e.getMessage()
             );
             System.err.println(errorMsg);
@@ -221,10 +458,45 @@ public class MemberNode {
     }
 
     /**
-     * gRPC port'unu döndürür
+     * Node'un metrik registry'sini döndürür
+     */
+    public MetricsRegistry getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * gRPC port'unu döndürür (port 0 ile oluşturulduysa start() sonrası gerçek port)
      */
     public int getGrpcPort() {
-        return grpcPort;
+        return storageServer.getPort();
+    }
+
+    /**
+     * Heartbeat ve REGISTER'ların gönderildiği güncel lider adresi (host:port)
+     */
+    public String getCurrentLeader() {
+        return currentLeader;
+    }
+
+    /**
+     * Member ID'sini döndürür
+     */
+    public String getMemberId() {
+        return memberId;
+    }
+
+    /**
+     * Hata enjeksiyonunu döndürür, oluşturulurken verilmediyse null
+     */
+    public FaultInjector getFaultInjector() {
+        return faultInjector;
+    }
+
+    /**
+     * Node'un veri kök klasörünü döndürür
+     */
+    public Path getDataDirectory() {
+        return dataDirectory;
     }
 
     /**
@@ -245,17 +517,94 @@ public class MemberNode {
         }
 
         IOMode ioMode = IOMode.UNBUFFERED;
-        long statsInterval = DEFAULT_STATS_INTERVAL_SECONDS;
+        String ioModeProperty = System.getProperty("member.ioMode");
+        if (ioModeProperty != null && !ioModeProperty.isEmpty()) {
+            try {
+                ioMode = IOMode.valueOf(ioModeProperty.toUpperCase());
+            } catch (IllegalArgumentException e) {
+                logger.error("Geçersiz member.ioMode değeri: {}. Varsayılan kullanılıyor: {}", ioModeProperty, ioMode);
+            }
+        }
+
+        // Write-behind: -Dmember.writeBehind=ENQUEUED|WRITTEN|FSYNCED, verilmezse senkron yazma
+        AckMode writeBehindAck = null;
+        String writeBehindProperty = System.getProperty("member.writeBehind");
+        if (writeBehindProperty != null && !writeBehindProperty.isEmpty()) {
+            try {
+                writeBehindAck = AckMode.valueOf(writeBehindProperty.toUpperCase());
+            } catch (IllegalArgumentException e) {
+                logger.error("Geçersiz member.writeBehind değeri: {}. Senkron yazma kullanılıyor", writeBehindProperty);
+            }
+        }
         
-        // Leader bilgileri
-        String leaderHost = "localhost";
-        int leaderPort = 6666;
+        MemberOptions options = new MemberOptions()
+                .setStorage(new StorageOptions().setIoMode(ioMode))
+                .setWriteBehindAck(writeBehindAck);
+
+        // Dosya yerleşimi: -Dmember.layout=FLAT|SHARDED, SHARDED düz dosyaları arka planda taşır
+        String layoutProperty = System.getProperty("member.layout");
+        if (layoutProperty != null && !layoutProperty.isEmpty()) {
+            try {
+                options.getStorage().setLayout(FileLayout.valueOf(layoutProperty.toUpperCase()));
+            } catch (IllegalArgumentException e) {
+                logger.error("Geçersiz member.layout değeri: {}. Varsayılan kullanılıyor: {}",
+                        layoutProperty, options.getStorage().getLayout());
+            }
+        }
+
+        // Disk sıkıştırması: -Dmember.compression=NONE|DEFLATE, -Dmember.compressionThreshold=<byte>
+        // Retrieve cevaplarında gzip eşiği: -Dmember.grpcCompressionThreshold=<byte>, negatif değer kapatır
+        String compressionProperty = System.getProperty("member.compression");
+        String compressionThresholdProperty = System.getProperty("member.compressionThreshold");
+        String grpcThresholdProperty = System.getProperty("member.grpcCompressionThreshold");
+        try {
+            if (compressionProperty != null && !compressionProperty.isEmpty()) {
+                options.getStorage().setCompression(Compression.valueOf(compressionProperty.toUpperCase()));
+            }
+            if (compressionThresholdProperty != null && !compressionThresholdProperty.isEmpty()) {
+                options.getStorage().setCompressionThreshold(Integer.parseInt(compressionThresholdProperty));
+            }
+            if (grpcThresholdProperty != null && !grpcThresholdProperty.isEmpty()) {
+                options.setGrpcCompressionThreshold(Integer.parseInt(grpcThresholdProperty));
+            }
+        } catch (IllegalArgumentException e) {
+            logger.error("Geçersiz sıkıştırma ayarı: {}. Kullanılan: {}", e.getMessage(), options);
+        }
+
+        // Leader bilgileri: -Dmember.leaders=host1:port1,host2:port2,... (Raft grubu), verilmezse localhost:6666
+        String leadersProperty = System.getProperty("member.leaders");
+        if (leadersProperty != null && !leadersProperty.isEmpty()) {
+            try {
+                options.setLeaderAddresses(PartitionMap.parse(leadersProperty).getAddresses());
+            } catch (IllegalArgumentException e) {
+                logger.error("Geçersiz member.leaders değeri: {}. Varsayılan kullanılıyor: {}",
+                        leadersProperty, options.getLeaderAddresses());
+            }
+        }
         String memberId = "member-" + port;
+        options.setMemberId(memberId);
+
+        // Veri klasörü: 1) System property, 2) data/<memberId>
+        String dataDirProperty = System.getProperty("member.dataDir");
+        Path dataDirectory = dataDirProperty != null && !dataDirProperty.isEmpty()
+                ? Paths.get(dataDirProperty)
+                : Paths.get(DEFAULT_DATA_ROOT, memberId);
+        options.setDataDirectory(dataDirectory);
 
-        logger.info("=== MemberNode başlatılıyor === Port: {}", port);
+        logger.info("=== MemberNode başlatılıyor === Port: {}, Veri klasörü: {}", port, dataDirectory.toAbsolutePath());
+
+        // Metrik endpoint'i: -Dmember.metricsPort=<port>, negatif değer kapatır
+        String metricsPortProperty = System.getProperty("member.metricsPort");
+        if (metricsPortProperty != null && !metricsPortProperty.isEmpty()) {
+            try {
+                options.setMetricsPort(Integer.parseInt(metricsPortProperty));
+            } catch (NumberFormatException e) {
+                logger.error("Geçersiz member.metricsPort değeri: {}. Varsayılan kullanılıyor: {}",
+                        metricsPortProperty, port + METRICS_PORT_OFFSET);
+            }
+        }
 
-        // MemberNode'u leader bilgileri ile oluştur
-        MemberNode member = new MemberNode(port, ioMode, statsInterval, leaderHost, leaderPort, memberId);
+        MemberNode member = new MemberNode(port, options);
         
         // Shutdown hook ekle
         final int finalPort = port;
@@ -267,7 +616,7 @@ public class MemberNode {
         member.start();
         
         // LeaderNode'a register ol
-        registerToLeader(leaderHost, leaderPort, memberId, "localhost", finalPort);
+        member.registerToLeader("localhost", finalPort);
         
         // Server'ın çalışmasını bekle
         try {
@@ -280,26 +629,78 @@ public class MemberNode {
 
     /**
      * LeaderNode'a TCP üzerinden REGISTER mesajı gönderir
+     * Adres saklanır, lider değiştiğinde heartbeat akışı aynı adresle yeniden kaydolur
+     *
+     * @param memberHost Liderin gRPC çağrıları için kullanacağı host
+     * @param memberPort Liderin gRPC çağrıları için kullanacağı port
+     * @return Kaydolunduysa true
      */
-    private static void registerToLeader(String leaderHost, int leaderPort, String memberId, String memberHost, int memberPort) {
-        try (Socket socket = new Socket(leaderHost, leaderPort);
-             PrintWriter writer = new PrintWriter(socket.getOutputStream(), true);
-             BufferedReader reader = new BufferedReader(new InputStreamReader(socket.getInputStream()))) {
-            
-            String registerCmd = String.format("REGISTER %s %s %d", memberId, memberHost, memberPort);
-            writer.println(registerCmd);
-            
-            String response = reader.readLine();
-            if ("REGISTERED".equals(response)) {
-                logger.info("Registered to leader as {}:{}", memberHost, memberPort);
-                System.out.println(String.format("Registered to leader as %s:%d", memberHost, memberPort));
-            } else {
-                logger.warn("Leader registration failed: {}", response);
+    public boolean registerToLeader(String memberHost, int memberPort) {
+        this.registeredHost = memberHost;
+        this.registeredPort = memberPort;
+        return register();
+    }
+
+    /**
+     * Güncel lidere kaydolur; NOT_LEADER cevabında belirtilen lidere, ulaşılamayan liderde sıradaki adrese
+     * geçer. Lider seçimi sürerken gelen cevaplar (adressiz NOT_LEADER, "ERROR: Raft ..." commit hataları)
+     * geçicidir: REGISTER_DEADLINE_MS dolana kadar artan beklemelerle tekrar denenir
+     */
+    private boolean register() {
+        String memberHost = registeredHost;
+        if (memberHost == null) {
+            return false;
+        }
+        long deadline = System.currentTimeMillis() + REGISTER_DEADLINE_MS;
+        long backoff = REGISTER_BACKOFF_MIN_MS;
+        while (running && System.currentTimeMillis() < deadline) {
+            String leader = currentLeader;
+            try (Socket socket = new Socket()) {
+                socket.connect(new InetSocketAddress(PartitionMap.host(leader), PartitionMap.port(leader)),
+                        HEARTBEAT_TIMEOUT_MS);
+                socket.setSoTimeout(REGISTER_TIMEOUT_MS);
+                PrintWriter writer = new PrintWriter(socket.getOutputStream(), true);
+                BufferedReader reader = new BufferedReader(new InputStreamReader(socket.getInputStream()));
+
+                String registerCmd = String.format("REGISTER %s %s %d", memberId, memberHost, registeredPort);
+                writer.println(registerCmd);
+
+                String response = reader.readLine();
+                if ("REGISTERED".equals(response)) {
+                    logger.info("Registered to leader {} as {}:{}", leader, memberHost, registeredPort);
+                    System.out.println(String.format("Registered to leader %s as %s:%d", leader, memberHost,
+                            registeredPort));
+                    return true;
+                }
+                if (response != null && response.startsWith("NOT_LEADER")) {
+                    followLeader(response);
+                    if (!leader.equals(currentLeader)) {
+                        continue;
+                    }
+                    // Adres yok veya aynı node: seçim sürüyor
+                } else if (response == null || !response.startsWith("ERROR: Raft")) {
+                    logger.warn("Leader registration failed: {}", response);
+                    return false;
+                } else {
+                    logger.info("Kayıt geçici olarak başarısız ({}): {}", leader, response);
+                }
+            } catch (IOException e) {
+                logger.error("Leader'a bağlanılamadı ({}): {}", leader, e.getMessage());
+                if (leaderAddresses.size() == 1) {
+                    break;
+                }
+                nextLeader();
             }
-        } catch (IOException e) {
-            logger.error("Leader'a bağlanılamadı ({}:{}): {}", leaderHost, leaderPort, e.getMessage());
-            System.err.println("UYARI: Leader'a bağlanılamadı. Leader çalışıyor mu?");
+            try {
+                Thread.sleep(backoff);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+            backoff = Math.min(backoff * 2, REGISTER_BACKOFF_MAX_MS);
         }
+        System.err.println("UYARI: Leader'a bağlanılamadı. Leader çalışıyor mu?");
+        return false;
     }
 }
 
@@ -0,0 +1,185 @@
+package com.sistem.proje.member;
+
+import com.sistem.proje.grpc.GrpcCompression;
+import com.sistem.proje.storage.AckMode;
+import com.sistem.proje.storage.StorageOptions;
+import io.grpc.ServerBuilder;
+
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * MemberNode ayarları
+ * Verilmeyen değerler gRPC port'undan türetilir: ID member-&lt;port&gt;, veri klasörü data/&lt;ID&gt;,
+ * metrik endpoint'i port + METRICS_PORT_OFFSET
+ */
+public class MemberOptions {
+    private static final long DEFAULT_STATS_INTERVAL_SECONDS = 10;
+    private static final String DEFAULT_LEADER = "localhost:6666";
+
+    private StorageOptions storage = new StorageOptions();
+    private long statsIntervalSeconds = DEFAULT_STATS_INTERVAL_SECONDS;
+    private List<String> leaderAddresses = List.of(DEFAULT_LEADER);
+    private String memberId;
+    private Path dataDirectory;
+    private AckMode writeBehindAck;
+    private Integer metricsPort;
+    private int grpcCompressionThreshold = GrpcCompression.DEFAULT_THRESHOLD;
+    private ServerBuilder<?> serverBuilder;
+    private FaultInjector faultInjector;
+
+    public StorageOptions getStorage() {
+        return storage;
+    }
+
+    /**
+     * @param storage Mesaj storage'ının IO modu, yerleşimi ve sıkıştırma ayarları
+     */
+    public MemberOptions setStorage(StorageOptions storage) {
+        if (storage == null) {
+            throw new IllegalArgumentException("Storage ayarları null olamaz");
+        }
+        this.storage = storage;
+        return this;
+    }
+
+    public long getStatsIntervalSeconds() {
+        return statsIntervalSeconds;
+    }
+
+    /**
+     * @param statsIntervalSeconds İstatistik yazdırma aralığı (saniye)
+     */
+    public MemberOptions setStatsIntervalSeconds(long statsIntervalSeconds) {
+        if (statsIntervalSeconds < 1) {
+            throw new IllegalArgumentException("İstatistik aralığı en az 1 saniye olmalı: " + statsIntervalSeconds);
+        }
+        this.statsIntervalSeconds = statsIntervalSeconds;
+        return this;
+    }
+
+    public List<String> getLeaderAddresses() {
+        return leaderAddresses;
+    }
+
+    /**
+     * Heartbeat'e NOT_LEADER cevabı gelirse belirtilen lidere, lidere ulaşılamazsa sıradaki adrese geçilir
+     *
+     * @param leaderAddresses Kaydolunabilecek liderler (host:port), ilki ilk denenecek lider
+     */
+    public MemberOptions setLeaderAddresses(List<String> leaderAddresses) {
+        if (leaderAddresses == null || leaderAddresses.isEmpty()) {
+            throw new IllegalArgumentException("Lider adres listesi boş olamaz");
+        }
+        this.leaderAddresses = List.copyOf(leaderAddresses);
+        return this;
+    }
+
+    public MemberOptions setLeader(String host, int port) {
+        return setLeaderAddresses(List.of(host + ":" + port));
+    }
+
+    /**
+     * @return Member ID'si, verilmediyse null (member-&lt;port&gt;)
+     */
+    public String getMemberId() {
+        return memberId;
+    }
+
+    public MemberOptions setMemberId(String memberId) {
+        this.memberId = memberId;
+        return this;
+    }
+
+    /**
+     * @return Node'un veri kök klasörü, verilmediyse null (data/&lt;ID&gt;)
+     */
+    public Path getDataDirectory() {
+        return dataDirectory;
+    }
+
+    /**
+     * @param dataDirectory Node'un veri kök klasörü, mesajlar bunun altındaki messages/ klasöründe saklanır
+     */
+    public MemberOptions setDataDirectory(Path dataDirectory) {
+        this.dataDirectory = dataDirectory;
+        return this;
+    }
+
+    public AckMode getWriteBehindAck() {
+        return writeBehindAck;
+    }
+
+    /**
+     * Write-behind açıksa Store çağrıları sınırlı bir kuyruğa alınır ve batch'ler halinde diske yazılır,
+     * çağrı writeBehindAck aşamasında onaylanır
+     *
+     * @param writeBehindAck Store onay aşaması, null ise write-behind kapalı (senkron yazma)
+     */
+    public MemberOptions setWriteBehindAck(AckMode writeBehindAck) {
+        this.writeBehindAck = writeBehindAck;
+        return this;
+    }
+
+    /**
+     * @return Metrik endpoint'i port'u, verilmediyse null (gRPC port'u + METRICS_PORT_OFFSET)
+     */
+    public Integer getMetricsPort() {
+        return metricsPort;
+    }
+
+    /**
+     * @param metricsPort Prometheus metrik endpoint'i port'u (0 = boş port, negatif = kapalı)
+     */
+    public MemberOptions setMetricsPort(int metricsPort) {
+        this.metricsPort = metricsPort;
+        return this;
+    }
+
+    public int getGrpcCompressionThreshold() {
+        return grpcCompressionThreshold;
+    }
+
+    /**
+     * @param grpcCompressionThreshold Retrieve cevaplarında gzip eşiği (UTF-8 byte), negatif değer kapatır
+     */
+    public MemberOptions setGrpcCompressionThreshold(int grpcCompressionThreshold) {
+        this.grpcCompressionThreshold = grpcCompressionThreshold;
+        return this;
+    }
+
+    /**
+     * @return Storage servisinin ekleneceği builder, verilmediyse null (gRPC port'unda TCP)
+     */
+    public ServerBuilder<?> getServerBuilder() {
+        return serverBuilder;
+    }
+
+    /**
+     * @param serverBuilder Storage servisinin ekleneceği builder (TCP veya in-process, gömülü küme için)
+     */
+    public MemberOptions setServerBuilder(ServerBuilder<?> serverBuilder) {
+        this.serverBuilder = serverBuilder;
+        return this;
+    }
+
+    public FaultInjector getFaultInjector() {
+        return faultInjector;
+    }
+
+    /**
+     * @param faultInjector RPC ve heartbeat'lere uygulanacak hatalar, null ise kapalı
+     */
+    public MemberOptions setFaultInjector(FaultInjector faultInjector) {
+        this.faultInjector = faultInjector;
+        return this;
+    }
+
+    @Override
+    public String toString() {
+        return "MemberOptions{" + storage + ", statsInterval=" + statsIntervalSeconds + "s, leaders="
+                + leaderAddresses + ", memberId=" + memberId + ", dataDirectory=" + dataDirectory
+                + ", writeBehind=" + writeBehindAck + ", metricsPort=" + metricsPort
+                + ", grpcCompressionThreshold=" + grpcCompressionThreshold + "}";
+    }
+}
@@ -0,0 +1,23 @@
+package com.sistem.proje.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Kilitsiz, yalnızca artan sayaç
+ * Yoğun eşzamanlı artırmalarda LongAdder hücreleri çekişmeyi dağıtır
+ */
+public final class Counter {
+    private final LongAdder value = new LongAdder();
+
+    public void increment() {
+        value.increment();
+    }
+
+    public void add(long amount) {
+        value.add(amount);
+    }
+
+    public long get() {
+        return value.sum();
+    }
+}
@@ -0,0 +1,173 @@
+package com.sistem.proje.metrics;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Örneklenmiş, yapılandırılmış istek olay günlüğü
+ * İstek thread'i olayı sadece sabit boyutlu bir halka buffer'a koyar (kilit, I/O ve String formatlama yok),
+ * arka plan thread'i buffer'ı boşaltıp "events" logger'ına key=value satırları olarak yazar
+ * Buffer dolarsa en eski olaylar üzerine yazılır ve düşürülen olay sayısı tutulur; istek thread'i hiç beklemez
+ * Örnekleme oranı 0 ise (varsayılan) olay kaydı tamamen kapalıdır
+ */
+public class EventLog implements Closeable {
+    private static final Logger eventLogger = LoggerFactory.getLogger("events");
+    private static final Logger logger = LoggerFactory.getLogger(EventLog.class);
+    public static final int DEFAULT_CAPACITY = 4096;
+    private static final long DRAIN_INTERVAL_MILLIS = 100;
+
+    private final int sampleRate;
+    private final int mask;
+    private final AtomicReferenceArray<Event> slots;
+    private final AtomicLong writeSequence = new AtomicLong();
+    private final AtomicLong sampleCounter = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final Thread drainThread;
+    private long readSequence;
+    private volatile boolean closed;
+
+    /**
+     * @param sampleRate Her N olaydan biri kaydedilir (1 = hepsi, 0 = kapalı)
+     */
+    public EventLog(int sampleRate) {
+        this(sampleRate, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param sampleRate Her N olaydan biri kaydedilir (1 = hepsi, 0 = kapalı)
+     * @param capacity Halka buffer boyutu (ikinin kuvvetine yuvarlanır)
+     */
+    public EventLog(int sampleRate, int capacity) {
+        this.sampleRate = Math.max(0, sampleRate);
+        int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        this.mask = size - 1;
+        this.slots = new AtomicReferenceArray<>(size);
+        if (this.sampleRate > 0) {
+            this.drainThread = new Thread(this::runDrain, "event-log-drain");
+            this.drainThread.setDaemon(true);
+            this.drainThread.start();
+            logger.info("Olay günlüğü açık. Örnekleme: 1/{}, Buffer: {}", this.sampleRate, size);
+        } else {
+            this.drainThread = null;
+        }
+    }
+
+    public boolean isEnabled() {
+        return sampleRate > 0;
+    }
+
+    /**
+     * Olayı örnekleme oranına göre buffer'a koyar
+     *
+     * @param type Olay türü (ör. SET_REPLICA)
+     * @param messageId Mesaj ID'si
+     * @param memberId İlgili üye, yoksa null
+     * @param success İşlem başarılı mı
+     * @param latencyNanos İşlem süresi (nanosaniye)
+     */
+    public void record(String type, int messageId, String memberId, boolean success, long latencyNanos) {
+        if (sampleRate == 0 || sampleCounter.getAndIncrement() % sampleRate != 0) {
+            return;
+        }
+        long sequence = writeSequence.getAndIncrement();
+        slots.lazySet((int) sequence & mask, new Event(sequence, System.currentTimeMillis(), type, messageId,
+                memberId, success, latencyNanos));
+    }
+
+    /**
+     * Buffer taştığı için yazılamadan üzerine yazılan olay sayısı
+     */
+    public long getDropped() {
+        return dropped.get();
+    }
+
+    private void runDrain() {
+        while (!closed) {
+            try {
+                Thread.sleep(DRAIN_INTERVAL_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            drain();
+        }
+        drain();
+    }
+
+    /**
+     * Yayınlanmış olayları sırayla yazar
+     * Henüz yayınlanmamış slot'ta durur, üzerine yazılmış olayları düşürülmüş sayar
+     */
+    private void drain() {
+        long published = writeSequence.get();
+        if (published - readSequence > slots.length()) {
+            long lost = published - readSequence - slots.length();
+            dropped.addAndGet(lost);
+            readSequence += lost;
+        }
+        while (readSequence < published) {
+            Event event = slots.get((int) readSequence & mask);
+            if (event == null || event.sequence < readSequence) {
+                // Yazan thread sırayı aldı ama olayı henüz koymadı
+                return;
+            }
+            if (event.sequence > readSequence) {
+                dropped.incrementAndGet();
+            } else {
+                write(event);
+            }
+            readSequence++;
+        }
+    }
+
+    private static void write(Event event) {
+        if (event.memberId != null) {
+            eventLogger.info("ts={} type={} id={} member={} ok={} latencyUs={}", event.timestampMillis, event.type,
+                    event.messageId, event.memberId, event.success, event.latencyNanos / 1000);
+        } else {
+            eventLogger.info("ts={} type={} id={} ok={} latencyUs={}", event.timestampMillis, event.type,
+                    event.messageId, event.success, event.latencyNanos / 1000);
+        }
+    }
+
+    /**
+     * Buffer'da kalan olayları yazar ve boşaltma thread'ini durdurur
+     */
+    @Override
+    public void close() {
+        closed = true;
+        if (drainThread != null) {
+            drainThread.interrupt();
+            try {
+                drainThread.join(1000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private static final class Event {
+        final long sequence;
+        final long timestampMillis;
+        final String type;
+        final int messageId;
+        final String memberId;
+        final boolean success;
+        final long latencyNanos;
+
+        Event(long sequence, long timestampMillis, String type, int messageId, String memberId, boolean success,
+              long latencyNanos) {
+            this.sequence = sequence;
+            this.timestampMillis = timestampMillis;
+            this.type = type;
+            this.messageId = messageId;
+            this.memberId = memberId;
+            this.success = success;
+            this.latencyNanos = latencyNanos;
+        }
+    }
+}
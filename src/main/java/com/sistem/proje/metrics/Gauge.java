@@ -0,0 +1,9 @@
+package com.sistem.proje.metrics;
+
+/**
+ * Okunduğu anda hesaplanan anlık değer (ör. kuyruk derinliği, açık bağlantı sayısı, phi)
+ */
+@FunctionalInterface
+public interface Gauge {
+    double value();
+}
@@ -0,0 +1,176 @@
+package com.sistem.proje.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Kilitsiz, log-lineer kovalı gecikme histogramı (HdrHistogram yaklaşımı)
+ * Değerler nanosaniye olarak kaydedilir; her ikinin kuvveti aralığı 32 eşit kovaya bölünür,
+ * bu da tüm aralıkta ~%3 göreli hassasiyet sağlar (64 ns'nin altı birebir tutulur)
+ * Kayıt tek bir atomik artırmadır, nesne ayırmaz; yüzdelikler snapshot üzerinden hesaplanır
+ */
+public final class LatencyHistogram {
+    private static final int LINEAR_BUCKETS = 64;
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    // 2^46 ns (~19 saat) üstü son kovaya yazılır
+    private static final int MAX_SHIFT = 40;
+    private static final int BUCKET_COUNT = LINEAR_BUCKETS + MAX_SHIFT * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+    private final LongAdder totalCount = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final AtomicLong maxNanos = new AtomicLong();
+
+    /**
+     * Süreyi nanosaniye olarak kaydeder
+     */
+    public void record(long nanos) {
+        if (nanos < 0) {
+            nanos = 0;
+        }
+        counts.incrementAndGet(indexOf(nanos));
+        totalCount.increment();
+        totalNanos.add(nanos);
+        long currentMax;
+        while (nanos > (currentMax = maxNanos.get())) {
+            if (maxNanos.compareAndSet(currentMax, nanos)) {
+                break;
+            }
+        }
+    }
+
+    /**
+     * System.nanoTime() ile alınmış başlangıçtan bu yana geçen süreyi kaydeder
+     */
+    public void recordSince(long startNanos) {
+        record(System.nanoTime() - startNanos);
+    }
+
+    static int indexOf(long value) {
+        if (value < LINEAR_BUCKETS) {
+            return (int) value;
+        }
+        int shift = (63 - Long.numberOfLeadingZeros(value)) - SUB_BUCKET_BITS;
+        if (shift > MAX_SHIFT) {
+            return BUCKET_COUNT - 1;
+        }
+        int subBucket = (int) (value >>> shift) - SUB_BUCKETS;
+        return LINEAR_BUCKETS + (shift - 1) * SUB_BUCKETS + subBucket;
+    }
+
+    /**
+     * Kovanın temsil ettiği aralığın orta noktası
+     */
+    static long valueOf(int index) {
+        if (index < LINEAR_BUCKETS) {
+            return index;
+        }
+        int offset = index - LINEAR_BUCKETS;
+        int shift = offset / SUB_BUCKETS + 1;
+        long low = (long) (offset % SUB_BUCKETS + SUB_BUCKETS) << shift;
+        return low + (1L << shift) / 2;
+    }
+
+    /**
+     * Kovaların anlık kopyasını alır
+     * Kayıtlar devam ederken alınırsa toplam sayı ile kovalar arasında birkaç kayıtlık fark olabilir
+     */
+    public Snapshot snapshot() {
+        long[] copy = new long[BUCKET_COUNT];
+        long count = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            copy[i] = counts.get(i);
+            count += copy[i];
+        }
+        return new Snapshot(copy, count, totalNanos.sum(), maxNanos.get());
+    }
+
+    public long getCount() {
+        return totalCount.sum();
+    }
+
+    /**
+     * Histogramın belirli bir andaki görüntüsü
+     */
+    public static final class Snapshot {
+        private final long[] counts;
+        private final long count;
+        private final long sumNanos;
+        private final long maxNanos;
+
+        private Snapshot(long[] counts, long count, long sumNanos, long maxNanos) {
+            this.counts = counts;
+            this.count = count;
+            this.sumNanos = sumNanos;
+            this.maxNanos = maxNanos;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public long getSumNanos() {
+            return sumNanos;
+        }
+
+        public long getMaxNanos() {
+            return maxNanos;
+        }
+
+        public double getMeanNanos() {
+            return count == 0 ? 0.0 : (double) sumNanos / count;
+        }
+
+        /**
+         * Yüzdelik değeri (nanosaniye)
+         *
+         * @param quantile 0.0 - 1.0 arası (ör. 0.99)
+         */
+        public long getValueAtQuantile(double quantile) {
+            if (count == 0) {
+                return 0;
+            }
+            long rank = Math.max(1, (long) Math.ceil(quantile * count));
+            long seen = 0;
+            for (int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if (seen >= rank) {
+                    return Math.min(valueOf(i), maxNanos);
+                }
+            }
+            return maxNanos;
+        }
+
+        public long getP50() {
+            return getValueAtQuantile(0.50);
+        }
+
+        public long getP99() {
+            return getValueAtQuantile(0.99);
+        }
+
+        public long getP999() {
+            return getValueAtQuantile(0.999);
+        }
+
+        /**
+         * Ham kova sayıları (export için); i. kovanın temsil değeri valueOf(i)
+         */
+        long[] bucketCounts() {
+            return counts;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("count=%d p50=%.3fms p99=%.3fms p999=%.3fms max=%.3fms",
+                    count, toMillis(getP50()), toMillis(getP99()), toMillis(getP999()), toMillis(maxNanos));
+        }
+
+        private static double toMillis(long nanos) {
+            return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+        }
+    }
+}
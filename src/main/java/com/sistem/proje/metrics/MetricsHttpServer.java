@@ -0,0 +1,87 @@
+package com.sistem.proje.metrics;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Node metriklerini GET /metrics altında Prometheus metin formatında sunan gömülü HTTP server
+ * JDK HttpServer kullanır, istekler tek bir daemon thread'de işlenir;
+ * her istek registry'deki önceden toplanmış değerlerden yazılır
+ */
+public class MetricsHttpServer implements Closeable {
+    private static final Logger logger = LoggerFactory.getLogger(MetricsHttpServer.class);
+    public static final String PATH = "/metrics";
+
+    private final MetricsRegistry registry;
+    private final HttpServer server;
+    private final ExecutorService executor;
+
+    /**
+     * @param port Dinlenecek port (0 = işletim sisteminin seçtiği boş port)
+     * @param registry Sunulacak metrikler
+     * @throws IOException Port bağlanamazsa
+     */
+    public MetricsHttpServer(int port, MetricsRegistry registry) throws IOException {
+        this.registry = registry;
+        this.server = HttpServer.create(new InetSocketAddress(port), 0);
+        this.executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "metrics-http");
+            thread.setDaemon(true);
+            return thread;
+        });
+        server.setExecutor(executor);
+        server.createContext(PATH, this::handle);
+    }
+
+    public void start() {
+        server.start();
+        logger.info("Metrik endpoint'i başlatıldı: http://localhost:{}{}", getPort(), PATH);
+    }
+
+    /**
+     * Dinlenen port (0 verildiyse seçilen port)
+     */
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            if (!"GET".equals(exchange.getRequestMethod()) && !"HEAD".equals(exchange.getRequestMethod())) {
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+            byte[] body = PrometheusFormat.render(registry).getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", PrometheusFormat.CONTENT_TYPE);
+            if ("HEAD".equals(exchange.getRequestMethod())) {
+                exchange.sendResponseHeaders(200, -1);
+                return;
+            }
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream output = exchange.getResponseBody()) {
+                output.write(body);
+            }
+        } catch (RuntimeException e) {
+            logger.error("Metrikler yazılamadı: ", e);
+            exchange.sendResponseHeaders(500, -1);
+        } finally {
+            exchange.close();
+        }
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+}
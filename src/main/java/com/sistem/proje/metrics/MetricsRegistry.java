@@ -0,0 +1,122 @@
+package com.sistem.proje.metrics;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Düğüm başına metrik kayıt defteri
+ * Metrikler isimle ilk kullanıldığında oluşturulur; sıcak yolda çağıranlar dönen nesneyi
+ * bir alanda saklayıp her istekte map aramasından kaçınmalıdır
+ * Etiketli metrikler isimde Prometheus biçimiyle tutulur: {@code replica.store{member="member-9091"}}
+ */
+public class MetricsRegistry {
+    private final Map<String, Counter> counters = new ConcurrentHashMap<>();
+    private final Map<String, LatencyHistogram> histograms = new ConcurrentHashMap<>();
+    private final Map<String, Gauge> gauges = new ConcurrentHashMap<>();
+
+    /**
+     * Etiketli metrik ismi oluşturur
+     *
+     * @param name Metrik ismi
+     * @param labels Sırayla etiket adı ve değeri çiftleri
+     */
+    public static String labeled(String name, String... labels) {
+        if (labels.length % 2 != 0) {
+            throw new IllegalArgumentException("Etiketler ad/değer çiftleri olmalı");
+        }
+        StringBuilder builder = new StringBuilder(name).append('{');
+        for (int i = 0; i < labels.length; i += 2) {
+            if (i > 0) {
+                builder.append(',');
+            }
+            builder.append(labels[i]).append("=\"");
+            String value = labels[i + 1];
+            for (int j = 0; j < value.length(); j++) {
+                char c = value.charAt(j);
+                if (c == '"' || c == '\\') {
+                    builder.append('\\');
+                }
+                builder.append(c == '\n' ? ' ' : c);
+            }
+            builder.append('"');
+        }
+        return builder.append('}').toString();
+    }
+
+    public Counter counter(String name) {
+        return counters.computeIfAbsent(name, n -> new Counter());
+    }
+
+    public LatencyHistogram histogram(String name) {
+        return histograms.computeIfAbsent(name, n -> new LatencyHistogram());
+    }
+
+    /**
+     * Gauge kaydeder, aynı isimde önceki gauge varsa değiştirilir
+     */
+    public void gauge(String name, Gauge gauge) {
+        gauges.put(name, gauge);
+    }
+
+    /**
+     * Verilen etiket değerini taşıyan tüm metrikleri siler (ör. kaldırılan üyenin metrikleri)
+     */
+    public void removeLabeled(String labelName, String labelValue) {
+        String label = labeled("", labelName, labelValue);
+        String token = label.substring(1, label.length() - 1);
+        counters.keySet().removeIf(name -> hasLabel(name, token));
+        histograms.keySet().removeIf(name -> hasLabel(name, token));
+        gauges.keySet().removeIf(name -> hasLabel(name, token));
+    }
+
+    private static boolean hasLabel(String name, String token) {
+        return name.contains("{" + token) || name.contains("," + token);
+    }
+
+    public SortedMap<String, Counter> getCounters() {
+        return new TreeMap<>(counters);
+    }
+
+    public SortedMap<String, LatencyHistogram> getHistograms() {
+        return new TreeMap<>(histograms);
+    }
+
+    public SortedMap<String, Gauge> getGauges() {
+        return new TreeMap<>(gauges);
+    }
+
+    /**
+     * İstatistik çıktısı için metrik satırları
+     * Hiç kayıt almamış histogramlar atlanır
+     */
+    public List<String> report() {
+        List<String> lines = new ArrayList<>();
+        for (Map.Entry<String, LatencyHistogram> entry : getHistograms().entrySet()) {
+            LatencyHistogram.Snapshot snapshot = entry.getValue().snapshot();
+            if (snapshot.getCount() > 0) {
+                lines.add(entry.getKey() + " " + snapshot);
+            }
+        }
+        for (Map.Entry<String, Counter> entry : getCounters().entrySet()) {
+            lines.add(entry.getKey() + " count=" + entry.getValue().get());
+        }
+        for (Map.Entry<String, Gauge> entry : getGauges().entrySet()) {
+            lines.add(entry.getKey() + " value=" + formatValue(entry.getValue().value()));
+        }
+        return lines;
+    }
+
+    /**
+     * Tam sayı değerleri ondalıksız yazar
+     */
+    static String formatValue(double value) {
+        if (value == Math.rint(value) && !Double.isInfinite(value) && Math.abs(value) < 1e15) {
+            return Long.toString((long) value);
+        }
+        return Double.toString(value);
+    }
+}
@@ -0,0 +1,105 @@
+package com.sistem.proje.metrics;
+
+import java.util.Map;
+
+/**
+ * MetricsRegistry içeriğini Prometheus metin formatına (0.0.4) çevirir
+ * Metrik isimlerindeki noktalar alt çizgiye çevrilir ve önek eklenir:
+ * {@code leader.set} → {@code sistem_leader_set_seconds}
+ * Histogramlar summary olarak (p50/p99/p999, _sum, _count) saniye cinsinden yazılır,
+ * sayaçlar {@code _total} sonekiyle yazılır
+ */
+public final class PrometheusFormat {
+    public static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+    private static final String PREFIX = "sistem_";
+    private static final double[] QUANTILES = {0.5, 0.99, 0.999};
+    private static final double NANOS_PER_SECOND = 1_000_000_000.0;
+
+    private PrometheusFormat() {
+    }
+
+    /**
+     * Registry'deki tüm metrikleri yazar
+     * Sadece önceden toplanmış değerler okunur, yazım sırasında disk taraması yapılmaz
+     */
+    public static String render(MetricsRegistry registry) {
+        StringBuilder out = new StringBuilder(4096);
+        String lastFamily = null;
+        for (Map.Entry<String, LatencyHistogram> entry : registry.getHistograms().entrySet()) {
+            String family = familyName(entry.getKey()) + "_seconds";
+            String labels = labels(entry.getKey());
+            if (!family.equals(lastFamily)) {
+                out.append("# TYPE ").append(family).append(" summary\n");
+                lastFamily = family;
+            }
+            LatencyHistogram.Snapshot snapshot = entry.getValue().snapshot();
+            for (double quantile : QUANTILES) {
+                out.append(family).append('{').append(labels);
+                if (!labels.isEmpty()) {
+                    out.append(',');
+                }
+                // Kayıt yokken yüzdelik tanımsızdır (Prometheus summary kuralı)
+                out.append("quantile=\"").append(quantile).append("\"} ")
+                        .append(snapshot.getCount() > 0 ? seconds(snapshot.getValueAtQuantile(quantile)) : "NaN")
+                        .append('\n');
+            }
+            sample(out, family + "_sum", labels, seconds(snapshot.getSumNanos()));
+            sample(out, family + "_count", labels, Long.toString(snapshot.getCount()));
+        }
+
+        lastFamily = null;
+        for (Map.Entry<String, Counter> entry : registry.getCounters().entrySet()) {
+            String family = familyName(entry.getKey()) + "_total";
+            if (!family.equals(lastFamily)) {
+                out.append("# TYPE ").append(family).append(" counter\n");
+                lastFamily = family;
+            }
+            sample(out, family, labels(entry.getKey()), Long.toString(entry.getValue().get()));
+        }
+
+        lastFamily = null;
+        for (Map.Entry<String, Gauge> entry : registry.getGauges().entrySet()) {
+            String family = familyName(entry.getKey());
+            if (!family.equals(lastFamily)) {
+                out.append("# TYPE ").append(family).append(" gauge\n");
+                lastFamily = family;
+            }
+            sample(out, family, labels(entry.getKey()), MetricsRegistry.formatValue(entry.getValue().value()));
+        }
+        return out.toString();
+    }
+
+    private static void sample(StringBuilder out, String family, String labels, String value) {
+        out.append(family);
+        if (!labels.isEmpty()) {
+            out.append('{').append(labels).append('}');
+        }
+        out.append(' ').append(value).append('\n');
+    }
+
+    /**
+     * Etiketsiz isim, Prometheus'ta geçerli karakterlere çevrilmiş
+     */
+    private static String familyName(String name) {
+        int brace = name.indexOf('{');
+        String base = brace >= 0 ? name.substring(0, brace) : name;
+        StringBuilder family = new StringBuilder(PREFIX.length() + base.length()).append(PREFIX);
+        for (int i = 0; i < base.length(); i++) {
+            char c = base.charAt(i);
+            family.append(Character.isLetterOrDigit(c) && c < 128 ? c : '_');
+        }
+        return family.toString();
+    }
+
+    /**
+     * Süslü parantezler olmadan etiket listesi, etiket yoksa boş
+     */
+    private static String labels(String name) {
+        int brace = name.indexOf('{');
+        return brace >= 0 ? name.substring(brace + 1, name.length() - 1) : "";
+    }
+
+    private static String seconds(long nanos) {
+        return Double.toString(nanos / NANOS_PER_SECOND);
+    }
+}
@@ -0,0 +1,81 @@
+package com.sistem.proje.protocol;
+
+/**
+ * Binary protokol frame'lerinin ilk byte'ı
+ * İstekler SET/GET/APPEND/READ/PARTITIONS, cevaplar OK/NOT_FOUND/ERROR/MOVED taşır; cevap isteğin request id'si
+ * ile eşleştirilir
+ */
+public enum BinaryOpcode {
+    /**
+     * İstek: key'e payload'ı yaz
+     */
+    SET((byte) 0x01),
+
+    /**
+     * İstek: key'in değerini oku (payload boş)
+     */
+    GET((byte) 0x02),
+
+    /**
+     * İstek: payload'ı offset log'una ekle (key kullanılmaz); OK cevabının payload'ı 8 byte offset'tir
+     */
+    APPEND((byte) 0x03),
+
+    /**
+     * İstek: offset log'undan oku, payload = offset(8) | en fazla byte(4); OK cevabında key kayıt
+     * sayısı, payload kayıtların diskteki biçimidir (OffsetLog)
+     */
+    READ((byte) 0x04),
+
+    /**
+     * İstek: partition map'i (payload boş); OK cevabının payload'ı PartitionMap.encode() metnidir
+     */
+    PARTITIONS((byte) 0x05),
+
+    /**
+     * Cevap: başarılı; GET'te payload mesajdır, SET'te boştur
+     */
+    OK((byte) 0x10),
+
+    /**
+     * Cevap: GET edilen key yok (payload boş)
+     */
+    NOT_FOUND((byte) 0x11),
+
+    /**
+     * Cevap: hata, payload UTF-8 hata mesajıdır
+     */
+    ERROR((byte) 0x12),
+
+    /**
+     * Cevap: key bu liderin partition'ında değil; cevabın key'i partition, payload'ı sahibi liderin
+     * host:port adresidir (UTF-8)
+     */
+    MOVED((byte) 0x13);
+
+    // Kod → opcode tablosu, her frame'de values() kopyası oluşturulmasın
+    private static final BinaryOpcode[] BY_CODE = new BinaryOpcode[256];
+
+    static {
+        for (BinaryOpcode opcode : values()) {
+            BY_CODE[opcode.code & 0xFF] = opcode;
+        }
+    }
+
+    private final byte code;
+
+    BinaryOpcode(byte code) {
+        this.code = code;
+    }
+
+    public byte code() {
+        return code;
+    }
+
+    /**
+     * @return Koda karşılık gelen opcode, bilinmeyen kodlarda null
+     */
+    public static BinaryOpcode fromCode(byte code) {
+        return BY_CODE[code & 0xFF];
+    }
+}
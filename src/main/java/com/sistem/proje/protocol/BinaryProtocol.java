@@ -0,0 +1,108 @@
+package com.sistem.proje.protocol;
+
+import com.sistem.proje.storage.MessageFrame;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Text protokolüyle aynı port'ta konuşulan uzunluk önekli binary protokol
+ *
+ * Bağlantının ilk byte'ı MAGIC ise bağlantı binary'dir: client MAGIC ve VERSION byte'larını gönderir,
+ * lider aynı iki byte ile cevap verir. 0xB1 bir UTF-8 devam byte'ıdır, geçerli bir text satırı
+ * hiçbir zaman bununla başlamaz. Sonrasında iki yönde de frame'ler akar (big-endian):
+ * <pre>
+ * opcode(1) | request id(4) | key(4) | payload uzunluğu(4) | payload
+ * </pre>
+ * Payload içeriği kaçışsız taşınır (satır sonu dahil). Mesajlar storage'da metin olarak saklandığı için
+ * SET payload'ı geçerli UTF-8 olmalıdır, değilse ERROR ile reddedilir. İstekler paralel işlenir ve cevaplar
+ * tamamlanma sırasıyla yazılır; client cevapları request id ile eşleştirir
+ */
+public final class BinaryProtocol {
+    public static final byte MAGIC = (byte) 0xB1;
+    public static final byte VERSION = 1;
+    public static final int HEADER_SIZE = 13;
+    // Bu boyuttan büyük payload bildiren frame protokol hatası sayılır ve bağlantı kapatılır
+    public static final int MAX_PAYLOAD_SIZE = 64 * 1024 * 1024;
+    // READ isteğinin payload'ı: offset(8) | en fazla byte(4)
+    public static final int READ_REQUEST_SIZE = 12;
+    // APPEND cevabının payload'ı: offset(8)
+    public static final int APPEND_RESPONSE_SIZE = 8;
+
+    private static final int REQUEST_ID_OFFSET = 1;
+    private static final int KEY_OFFSET = 5;
+    private static final int LENGTH_OFFSET = 9;
+    // Geçersiz byte dizisini U+FFFD ile değiştirmek yerine hata veren decoder (thread başına)
+    private static final ThreadLocal<CharsetDecoder> STRICT_UTF8 = ThreadLocal.withInitial(() ->
+            StandardCharsets.UTF_8.newDecoder()
+                    .onMalformedInput(CodingErrorAction.REPORT)
+                    .onUnmappableCharacter(CodingErrorAction.REPORT));
+
+    private BinaryProtocol() {
+    }
+
+    /**
+     * Frame header'ını target'ın index konumuna yazar (target'ın position'ı değiştirilmez)
+     */
+    public static void putHeader(ByteBuffer target, int index, BinaryOpcode opcode, int requestId, int key,
+                                 int payloadLength) {
+        target.put(index, opcode.code());
+        target.putInt(index + REQUEST_ID_OFFSET, requestId);
+        target.putInt(index + KEY_OFFSET, key);
+        target.putInt(index + LENGTH_OFFSET, payloadLength);
+    }
+
+    public static byte opcode(ByteBuffer source, int index) {
+        return source.get(index);
+    }
+
+    public static int requestId(ByteBuffer source, int index) {
+        return source.getInt(index + REQUEST_ID_OFFSET);
+    }
+
+    public static int key(ByteBuffer source, int index) {
+        return source.getInt(index + KEY_OFFSET);
+    }
+
+    public static int payloadLength(ByteBuffer source, int index) {
+        return source.getInt(index + LENGTH_OFFSET);
+    }
+
+    /**
+     * Payload'ı UTF-8 olarak çözer
+     *
+     * @throws CharacterCodingException Payload geçerli UTF-8 değilse
+     */
+    public static String decodeUtf8(byte[] source, int offset, int length) throws CharacterCodingException {
+        return STRICT_UTF8.get().reset().decode(ByteBuffer.wrap(source, offset, length)).toString();
+    }
+
+    /**
+     * MessageStorage.writeMessage için OK cevap çerçevesi: mesajın önüne uzunluğuyla birlikte header yazar
+     */
+    public static MessageFrame okFrame(int requestId, int key) {
+        return new MessageFrame() {
+            @Override
+            public int headerSize() {
+                return HEADER_SIZE;
+            }
+
+            @Override
+            public void putHeader(ByteBuffer target, int index, int messageLength) {
+                BinaryProtocol.putHeader(target, index, BinaryOpcode.OK, requestId, key, messageLength);
+            }
+
+            @Override
+            public int trailerSize() {
+                return 0;
+            }
+
+            @Override
+            public void putTrailer(ByteBuffer target, int index) {
+            }
+        };
+    }
+}
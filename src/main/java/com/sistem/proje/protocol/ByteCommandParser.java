@@ -0,0 +1,149 @@
+package com.sistem.proje.protocol;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Socket'ten okunan byte'lar üzerinde doğrudan çalışan komut parser'ı
+ * CommandParser ile aynı grameri kabul eder (SET <id> <message>, GET <id>, komut büyük/küçük harf duyarsız)
+ * ancak satırı String'e çevirmez: komut byte'lardan tanınır, ID ara String olmadan int'e çevrilir,
+ * SET payload'ı buffer içindeki dilim olarak verilir. Başarılı parse'ta hiç nesne ayrılmaz,
+ * sadece hata yolunda exception mesajı için String üretilir
+ */
+public class ByteCommandParser {
+
+    /**
+     * buffer'ın [start, end) aralığındaki satırı (satır sonu hariç) parse eder
+     * Buffer'ın position/limit'i değiştirilmez
+     *
+     * @param buffer Satırı içeren buffer
+     * @param start Satırın ilk byte'ı
+     * @param end Satırın son byte'ından sonraki indeks
+     * @param result Sonucun yazılacağı tekrar kullanılan nesne
+     * @throws CommandParseException Hatalı format durumunda (mesajlar CommandParser ile aynı)
+     */
+    public void parse(ByteBuffer buffer, int start, int end, ParsedCommand result) throws CommandParseException {
+        // String.trim ile aynı: baştaki ve sondaki <= ' ' byte'ları atılır
+        while (start < end && (buffer.get(start) & 0xFF) <= ' ') {
+            start++;
+        }
+        while (end > start && (buffer.get(end - 1) & 0xFF) <= ' ') {
+            end--;
+        }
+        if (start == end) {
+            throw new CommandParseException("Boş satır parse edilemez");
+        }
+
+        int verbEnd = skipToken(buffer, start, end);
+        CommandType type = verb(buffer, start, verbEnd);
+        if (type == null) {
+            String command = new String(bytes(buffer, start, verbEnd), StandardCharsets.UTF_8).toUpperCase();
+            throw new CommandParseException("Bilinmeyen komut: " + command + ". Desteklenen komutlar: SET, GET");
+        }
+
+        int idStart = skipWhitespace(buffer, verbEnd, end);
+        int idEnd = skipToken(buffer, idStart, end);
+        int payloadStart = skipWhitespace(buffer, idEnd, end);
+
+        if (type == CommandType.SET) {
+            if (idStart == end || payloadStart == end) {
+                throw new CommandParseException("SET komutu formatı: SET <id> <message>");
+            }
+            result.set(type, parseId(buffer, idStart, idEnd), buffer, payloadStart, end);
+        } else {
+            if (idStart == end) {
+                throw new CommandParseException("GET komutu formatı: GET <id>");
+            }
+            // GET'te ID'den sonraki token'lar CommandParser'daki gibi yok sayılır
+            result.set(type, parseId(buffer, idStart, idEnd), buffer, idEnd, idEnd);
+        }
+    }
+
+    /**
+     * Üç byte'lık komutu büyük/küçük harf duyarsız tanır
+     *
+     * @return SET, GET veya bilinmeyen komutsa null
+     */
+    private static CommandType verb(ByteBuffer buffer, int start, int end) {
+        if (end - start != 3) {
+            return null;
+        }
+        // ASCII harflerde 0x20 biti küçük harfi belirtir
+        int first = buffer.get(start) & 0xDF;
+        if ((buffer.get(start + 1) & 0xDF) != 'E' || (buffer.get(start + 2) & 0xDF) != 'T') {
+            return null;
+        }
+        if (first == 'S') {
+            return CommandType.SET;
+        }
+        if (first == 'G') {
+            return CommandType.GET;
+        }
+        return null;
+    }
+
+    /**
+     * İşaretli onluk tam sayıyı Integer.parseInt ile aynı kurallarla (taşma dahil) parse eder
+     */
+    private static int parseId(ByteBuffer buffer, int start, int end) throws CommandParseException {
+        int i = start;
+        boolean negative = false;
+        byte sign = buffer.get(i);
+        if (sign == '-' || sign == '+') {
+            negative = sign == '-';
+            i++;
+        }
+        if (i == end) {
+            throw invalidId(buffer, start, end);
+        }
+        // Negatif birikim: Integer.MIN_VALUE da taşmadan temsil edilir
+        int limit = negative ? Integer.MIN_VALUE : -Integer.MAX_VALUE;
+        int value = 0;
+        for (; i < end; i++) {
+            int digit = buffer.get(i) - '0';
+            if (digit < 0 || digit > 9 || value < limit / 10) {
+                throw invalidId(buffer, start, end);
+            }
+            value *= 10;
+            if (value < limit + digit) {
+                throw invalidId(buffer, start, end);
+            }
+            value -= digit;
+        }
+        return negative ? value : -value;
+    }
+
+    private static CommandParseException invalidId(ByteBuffer buffer, int start, int end) {
+        String id = new String(bytes(buffer, start, end), StandardCharsets.UTF_8);
+        return new CommandParseException("Geçersiz ID formatı. ID bir tam sayı olmalıdır: " + id);
+    }
+
+    private static int skipToken(ByteBuffer buffer, int index, int end) {
+        while (index < end && !isWhitespace(buffer.get(index))) {
+            index++;
+        }
+        return index;
+    }
+
+    private static int skipWhitespace(ByteBuffer buffer, int index, int end) {
+        while (index < end && isWhitespace(buffer.get(index))) {
+            index++;
+        }
+        return index;
+    }
+
+    /**
+     * Regex \s ile aynı küme: boşluk ve 0x09-0x0D (\t, \n, dikey tab, \f, \r)
+     */
+    private static boolean isWhitespace(byte b) {
+        return b == ' ' || (b >= '\t' && b <= '\r');
+    }
+
+    private static byte[] bytes(ByteBuffer buffer, int start, int end) {
+        byte[] bytes = new byte[end - start];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = buffer.get(start + i);
+        }
+        return bytes;
+    }
+}
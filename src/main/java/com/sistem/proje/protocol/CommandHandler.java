@@ -34,7 +34,16 @@ public class CommandHandler {
      * @param ioMode IO modu (BUFFERED veya UNBUFFERED)
      */
     public CommandHandler(IOMode ioMode) {
-        this.storage = new MessageStorage(ioMode);
+        this(new MessageStorage(ioMode));
+    }
+
+    /**
+     * Verilen storage instance'ını kullanır
+     * 
+     * @param storage Mesajların saklanacağı storage
+     */
+    public CommandHandler(MessageStorage storage) {
+        this.storage = storage;
     }
 
     /**
@@ -70,17 +79,28 @@ public class CommandHandler {
      * SET komutunu çalıştırır - Disk'e yazar
      */
     private String executeSet(SetCommand command) {
+        return executeSet(parseId(command.getId()), command.getMessage());
+    }
+
+    /**
+     * SET komutunu önceden parse edilmiş ID ile çalıştırır (ByteCommandParser yolu, ID tekrar parse edilmez)
+     * 
+     * @param id Mesaj ID'si
+     * @param message Kaydedilecek mesaj
+     * @return OK veya hata mesajı
+     */
+    public String executeSet(int id, String message) {
         try {
-            Integer id = parseId(command.getId());
-            String message = command.getMessage();
-            
             storage.saveMessage(id, message);
-            logger.debug("SET komutu: id={}, message={}", id, message);
+            logger.debug("SET komutu: id={}, uzunluk={}", id, message.length());
             
             return OK;
         } catch (IOException e) {
             logger.error("SET komutu disk yazma hatası: ", e);
             return "ERROR: Disk yazma hatası: " + e.getMessage();
+        } catch (Exception e) {
+            logger.error("Komut çalıştırma hatası: ", e);
+            return "ERROR: " + e.getMessage();
         }
     }
 
@@ -88,9 +108,17 @@ public class CommandHandler {
      * GET komutunu çalıştırır - Disk'ten okur
      */
     private String executeGet(GetCommand command) {
+        return executeGet(parseId(command.getId()));
+    }
+
+    /**
+     * GET komutunu önceden parse edilmiş ID ile çalıştırır
+     * 
+     * @param id Mesaj ID'si
+     * @return Mesaj, NOT_FOUND veya hata mesajı
+     */
+    public String executeGet(int id) {
         try {
-            Integer id = parseId(command.getId());
-            
             String message = storage.getMessage(id);
             
             if (message == null) {
@@ -98,18 +126,21 @@ public class CommandHandler {
                 return NOT_FOUND;
             }
             
-            logger.debug("GET komutu: id={}, message={}", id, message);
+            logger.debug("GET komutu: id={}, uzunluk={}", id, message.length());
             return message;
         } catch (IOException e) {
             logger.error("GET komutu disk okuma hatası: ", e);
             return "ERROR: Disk okuma hatası: " + e.getMessage();
+        } catch (Exception e) {
+            logger.error("Komut çalıştırma hatası: ", e);
+            return "ERROR: " + e.getMessage();
         }
     }
 
     /**
      * String ID'yi Integer'a parse eder
      */
-    private Integer parseId(String id) throws NumberFormatException {
+    private int parseId(String id) throws NumberFormatException {
         try {
             return Integer.parseInt(id);
         } catch (NumberFormatException e) {
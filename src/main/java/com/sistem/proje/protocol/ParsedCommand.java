@@ -0,0 +1,84 @@
+package com.sistem.proje.protocol;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * ByteCommandParser'ın sonucu - bağlantı başına bir kez oluşturulup her satırda tekrar doldurulur
+ * SET payload'ı kopyalanmaz, parse edilen buffer içindeki [payloadStart, payloadEnd) dilimi olarak tutulur;
+ * dilim buffer'ın içeriği değişene kadar (bir sonraki okuma/compact) geçerlidir
+ */
+public final class ParsedCommand {
+    private CommandType type;
+    private int id;
+    private ByteBuffer buffer;
+    private int payloadStart;
+    private int payloadEnd;
+
+    void set(CommandType type, int id, ByteBuffer buffer, int payloadStart, int payloadEnd) {
+        this.type = type;
+        this.id = id;
+        this.buffer = buffer;
+        this.payloadStart = payloadStart;
+        this.payloadEnd = payloadEnd;
+    }
+
+    public CommandType getType() {
+        return type;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    /**
+     * SET payload'ının buffer içindeki başlangıç indeksi (GET için payloadEnd ile aynı)
+     */
+    public int getPayloadStart() {
+        return payloadStart;
+    }
+
+    public int getPayloadEnd() {
+        return payloadEnd;
+    }
+
+    public int getPayloadLength() {
+        return payloadEnd - payloadStart;
+    }
+
+    /**
+     * Payload'ın bulunduğu buffer (kopya değil, parse edilen buffer'ın kendisi)
+     */
+    public ByteBuffer getBuffer() {
+        return buffer;
+    }
+
+    /**
+     * Payload'ı UTF-8 olarak çözer
+     * SET yolunda mesaj diske ve gRPC ile üyelere String olarak gittiği için tek ayrılan nesne budur
+     */
+    public String payloadAsString() {
+        int length = getPayloadLength();
+        if (buffer.hasArray()) {
+            return new String(buffer.array(), buffer.arrayOffset() + payloadStart, length, StandardCharsets.UTF_8);
+        }
+        byte[] bytes = new byte[length];
+        for (int i = 0; i < length; i++) {
+            bytes[i] = buffer.get(payloadStart + i);
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Eski nesne tabanlı API için SetCommand/GetCommand üretir
+     */
+    public Command toCommand() {
+        String commandId = Integer.toString(id);
+        return type == CommandType.SET ? new SetCommand(commandId, payloadAsString()) : new GetCommand(commandId);
+    }
+
+    @Override
+    public String toString() {
+        return "ParsedCommand{type=" + type + ", id=" + id + ", payloadLength=" + getPayloadLength() + "}";
+    }
+}
@@ -0,0 +1,156 @@
+package com.sistem.proje.protocol;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * ID uzayının lider node'lara bölünmesi
+ *
+ * Her ID karıştırılmış hash'ine göre tek bir partition'a düşer, her partition'ın tek bir lideri vardır.
+ * Liderler map'i PARTITIONS komutuyla (text ve binary) sunar, client'lar bir kez alıp önbellekler ve
+ * SET/GET'i doğrudan ilgili lidere gönderir. Yanlış lidere gelen istek MOVED ile cevaplanır, client
+ * map'i yeniler. Text biçimi:
+ * <pre>
+ * PARTITIONS &lt;partition sayısı&gt;
+ * &lt;partition&gt; &lt;host:port&gt;
+ * </pre>
+ * Tek partition'lı (bölünmemiş) kümede adres LOCAL'dir: tüm ID'ler bağlanılan lidere aittir. Raft
+ * takipçisi kendi partition'ı için grubun liderinin adresini verir
+ */
+public final class PartitionMap {
+    public static final String LOCAL = "-";
+
+    private final List<String> addresses;
+
+    private PartitionMap(List<String> addresses) {
+        if (addresses.isEmpty()) {
+            throw new IllegalArgumentException("Partition map boş olamaz");
+        }
+        this.addresses = Collections.unmodifiableList(new ArrayList<>(addresses));
+    }
+
+    /**
+     * Bölünmemiş küme: tek partition, bağlanılan lider
+     */
+    public static PartitionMap single() {
+        return new PartitionMap(List.of(LOCAL));
+    }
+
+    /**
+     * Virgülle ayrılmış lider adreslerini partition sırasıyla parse eder (ör. "host1:6666,host2:6666")
+     *
+     * @throws IllegalArgumentException Adres host:port biçiminde değilse
+     */
+    public static PartitionMap parse(String spec) {
+        List<String> addresses = new ArrayList<>();
+        for (String address : spec.split(",")) {
+            addresses.add(validateAddress(address.trim()));
+        }
+        return new PartitionMap(addresses);
+    }
+
+    /**
+     * PARTITIONS cevabını çözer
+     *
+     * @throws IllegalArgumentException Metin geçerli bir partition map değilse
+     */
+    public static PartitionMap decode(String text) {
+        String[] lines = text.split("\n");
+        String[] header = lines[0].trim().split(" ");
+        if (header.length != 2 || !"PARTITIONS".equals(header[0])) {
+            throw new IllegalArgumentException("Geçersiz PARTITIONS cevabı: " + lines[0]);
+        }
+        int count = Integer.parseInt(header[1]);
+        if (lines.length != count + 1) {
+            throw new IllegalArgumentException("PARTITIONS cevabında " + count + " partition bekleniyordu, "
+                    + (lines.length - 1) + " satır geldi");
+        }
+        List<String> addresses = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String[] parts = lines[i + 1].trim().split(" ");
+            if (parts.length != 2 || Integer.parseInt(parts[0]) != i) {
+                throw new IllegalArgumentException("Geçersiz partition satırı: " + lines[i + 1]);
+            }
+            addresses.add(count == 1 && LOCAL.equals(parts[1]) ? LOCAL : validateAddress(parts[1]));
+        }
+        return new PartitionMap(addresses);
+    }
+
+    private static String validateAddress(String address) {
+        int colon = address.lastIndexOf(':');
+        if (colon <= 0 || colon == address.length() - 1) {
+            throw new IllegalArgumentException("Geçersiz lider adresi (host:port bekleniyordu): " + address);
+        }
+        int port = Integer.parseInt(address.substring(colon + 1));
+        if (port < 1 || port > 65535) {
+            throw new IllegalArgumentException("Geçersiz port: " + address);
+        }
+        return address;
+    }
+
+    public int size() {
+        return addresses.size();
+    }
+
+    public boolean isPartitioned() {
+        return addresses.size() > 1;
+    }
+
+    /**
+     * ID'nin partition'ı; ardışık ID'ler partition'lara dağılsın diye ID önce karıştırılır (murmur3 fmix32)
+     */
+    public int partitionOf(int id) {
+        int h = id;
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        h ^= h >>> 16;
+        return Math.floorMod(h, addresses.size());
+    }
+
+    /**
+     * @return Partition liderinin host:port adresi (bölünmemiş kümede LOCAL)
+     */
+    public String addressOf(int partition) {
+        return addresses.get(partition);
+    }
+
+    /**
+     * Partition'ın adresi değiştirilmiş kopya (ör. Raft takipçisinin yerine grubun lideri)
+     */
+    public PartitionMap withAddress(int partition, String address) {
+        List<String> copy = new ArrayList<>(addresses);
+        copy.set(partition, validateAddress(address));
+        return new PartitionMap(copy);
+    }
+
+    public List<String> getAddresses() {
+        return addresses;
+    }
+
+    public static String host(String address) {
+        return address.substring(0, address.lastIndexOf(':'));
+    }
+
+    public static int port(String address) {
+        return Integer.parseInt(address.substring(address.lastIndexOf(':') + 1));
+    }
+
+    /**
+     * PARTITIONS cevabı (satır sonuyla biter)
+     */
+    public String encode() {
+        StringBuilder text = new StringBuilder("PARTITIONS ").append(addresses.size()).append('\n');
+        for (int i = 0; i < addresses.size(); i++) {
+            text.append(i).append(' ').append(addresses.get(i)).append('\n');
+        }
+        return text.toString();
+    }
+
+    @Override
+    public String toString() {
+        return addresses.toString();
+    }
+}
@@ -0,0 +1,440 @@
+package com.sistem.proje.raft;
+
+import com.google.protobuf.ByteString;
+import com.sistem.proje.grpc.RaftEntry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.zip.CRC32;
+
+/**
+ * Raft'ın kalıcı log'u ve oy durumu
+ *
+ * Kayıtlar tek dosyanın sonuna eklenir, index'ler 1'den başlar. Snapshot alındıktan sonra log'un o index'e
+ * kadarki öneki atılır (compactTo): kalan kuyruk yeni bir dosyaya kopyalanıp atomik olarak eski dosyanın
+ * yerine konur, dosya başlığı log'un başladığı index'i (baseIndex) ve o kaydın term'ini tutar. Her kaydın
+ * term'i ve dosyadaki konumu memory'de tutulur, data replikasyon ve uygulama sırasında dosyadan okunur.
+ * Lider değiştiğinde takipçinin çakışan kuyruğu dosyadan kesilir. Açılışta bozuk kuyruk (yarım yazılmış
+ * kayıt) atılır. currentTerm ve votedFor ayrı bir dosyaya atomik olarak yazılır
+ *
+ * Dosya formatı: magic(4) | baseIndex(8) | baseTerm(8) | kayıtlar
+ * Kayıt formatı: term(8) | length(4) | crc(4) | data(length)
+ */
+final class RaftLog implements Closeable {
+    private static final Logger logger = LoggerFactory.getLogger(RaftLog.class);
+
+    private static final int HEADER_SIZE = 16;
+    private static final int MAGIC = 0x52414654; // "RAFT"
+    private static final int FILE_HEADER_SIZE = 20;
+    private static final String LOG_FILE = "raft.log";
+    private static final String COMPACT_FILE = "raft.log.compact";
+    private static final String STATE_FILE = "state";
+
+    private final Path directory;
+    // Öneki atılırken dosya değişir; kilitsiz okuyucular (entries, sync) okuma kilidini tutar
+    private final ReadWriteLock channelLock = new ReentrantReadWriteLock();
+    private FileChannel channel;
+    // terms[i], positions[i]: baseIndex + i. kaydın term'i ve dosyadaki konumu (0. eleman baseIndex'tir)
+    private long[] terms = new long[1024];
+    private long[] positions = new long[1024];
+    private long baseIndex;
+    private long lastIndex;
+    // Dosya sonu
+    private long size;
+    private long currentTerm;
+    private int votedFor = -1;
+
+    RaftLog(Path directory) throws IOException {
+        this.directory = directory;
+        Files.createDirectories(directory);
+        Files.deleteIfExists(directory.resolve(COMPACT_FILE));
+        this.channel = FileChannel.open(directory.resolve(LOG_FILE), StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        recover();
+        loadState();
+        logger.info("Raft log açıldı: index {}-{}, term {}, dizin={}", baseIndex + 1, lastIndex, currentTerm,
+                directory);
+    }
+
+    private void recover() throws IOException {
+        long fileSize = channel.size();
+        if (fileSize == 0) {
+            writeFileHeader(channel, 0, 0);
+            fileSize = FILE_HEADER_SIZE;
+        }
+        readFileHeader(fileSize);
+        long position = FILE_HEADER_SIZE;
+        lastIndex = baseIndex;
+
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        while (position + HEADER_SIZE <= fileSize) {
+            header.clear();
+            readFully(header, position);
+            header.flip();
+            long term = header.getLong();
+            int length = header.getInt();
+            int crc = header.getInt();
+            if (length < 0 || position + HEADER_SIZE + length > fileSize) {
+                break;
+            }
+            ByteBuffer data = ByteBuffer.allocate(length);
+            readFully(data, position + HEADER_SIZE);
+            if (checksum(term, data.array(), 0, length) != crc) {
+                break;
+            }
+            track(term, position);
+            position += HEADER_SIZE + length;
+        }
+        if (position < fileSize) {
+            logger.warn("Raft log bozuk kuyruk içeriyor, {} byte'a kesiliyor (dosya boyutu {})", position, fileSize);
+            channel.truncate(position);
+        }
+        size = position;
+    }
+
+    /**
+     * Dosya başlığını okur, baseIndex ve baseTerm'i ayarlar
+     *
+     * @throws IOException Başlık eksik veya magic tutmuyorsa
+     */
+    private void readFileHeader(long fileSize) throws IOException {
+        if (fileSize < FILE_HEADER_SIZE) {
+            throw new IOException("Raft log başlığı eksik: " + fileSize + " byte");
+        }
+        ByteBuffer header = ByteBuffer.allocate(FILE_HEADER_SIZE);
+        readFully(header, 0);
+        header.flip();
+        int magic = header.getInt();
+        if (magic != MAGIC) {
+            throw new IOException("Raft log başlığı geçersiz: magic " + Integer.toHexString(magic));
+        }
+        baseIndex = header.getLong();
+        terms[0] = header.getLong();
+    }
+
+    private static void writeFileHeader(FileChannel target, long baseIndex, long baseTerm) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(FILE_HEADER_SIZE).putInt(MAGIC).putLong(baseIndex).putLong(baseTerm);
+        header.flip();
+        long position = 0;
+        while (header.hasRemaining()) {
+            position += target.write(header, position);
+        }
+    }
+
+    private void loadState() throws IOException {
+        Path path = directory.resolve(STATE_FILE);
+        if (!Files.exists(path)) {
+            return;
+        }
+        String[] parts = new String(Files.readAllBytes(path), StandardCharsets.UTF_8).trim().split(" ");
+        currentTerm = Long.parseLong(parts[0]);
+        votedFor = Integer.parseInt(parts[1]);
+    }
+
+    /**
+     * currentTerm ve votedFor'u diske yazar; oy veya term değişikliği cevaplanmadan önce kalıcı olmalıdır
+     */
+    synchronized void saveState(long term, int votedFor) throws IOException {
+        Path temp = directory.resolve(STATE_FILE + ".tmp");
+        try (FileChannel out = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.wrap((term + " " + votedFor + "\n").getBytes(StandardCharsets.UTF_8));
+            while (buffer.hasRemaining()) {
+                out.write(buffer);
+            }
+            out.force(true);
+        }
+        Files.move(temp, directory.resolve(STATE_FILE), StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+        this.currentTerm = term;
+        this.votedFor = votedFor;
+    }
+
+    synchronized long getCurrentTerm() {
+        return currentTerm;
+    }
+
+    synchronized int getVotedFor() {
+        return votedFor;
+    }
+
+    /**
+     * @return Snapshot'a devredilmiş son index (log bundan sonraki kayıtları tutar), önek atılmadıysa 0
+     */
+    synchronized long baseIndex() {
+        return baseIndex;
+    }
+
+    synchronized long lastIndex() {
+        return lastIndex;
+    }
+
+    synchronized long lastTerm() {
+        return terms[(int) (lastIndex - baseIndex)];
+    }
+
+    /**
+     * @return Kaydın term'i; baseIndex (0 dahil) için snapshot'ın term'i, log dışındaki veya atılmış index için -1
+     */
+    synchronized long termAt(long index) {
+        if (index < baseIndex || index > lastIndex) {
+            return -1;
+        }
+        return terms[(int) (index - baseIndex)];
+    }
+
+    /**
+     * @return baseIndex'ten sonra index'e kadarki kayıtların diskte kapladığı alan (dosya başlığı hariç)
+     */
+    synchronized long sizeThrough(long index) {
+        if (index <= baseIndex) {
+            return 0;
+        }
+        return entryEnd(Math.min(index, lastIndex)) - FILE_HEADER_SIZE;
+    }
+
+    /**
+     * Kayıtları tek yazma ile log'un sonuna ekler (diske zorlanmaz, bkz. sync)
+     *
+     * @return Son eklenen kaydın index'i
+     */
+    synchronized long append(List<RaftEntry> entries) throws IOException {
+        int total = 0;
+        for (RaftEntry entry : entries) {
+            total += HEADER_SIZE + entry.getData().size();
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(total);
+        long position = size;
+        for (RaftEntry entry : entries) {
+            byte[] data = entry.getData().toByteArray();
+            buffer.putLong(entry.getTerm())
+                  .putInt(data.length)
+                  .putInt(checksum(entry.getTerm(), data, 0, data.length))
+                  .put(data);
+        }
+        buffer.flip();
+        writeFully(buffer, size);
+        for (RaftEntry entry : entries) {
+            track(entry.getTerm(), position);
+            position += HEADER_SIZE + entry.getData().size();
+        }
+        size = position;
+        return lastIndex;
+    }
+
+    synchronized long append(long term, byte[] data) throws IOException {
+        return append(List.of(RaftEntry.newBuilder().setTerm(term).setData(ByteString.copyFrom(data)).build()));
+    }
+
+    /**
+     * index ve sonrasındaki kayıtları siler (takipçinin liderle çakışan kuyruğu)
+     * Snapshot'a devredilmiş kayıtlar commit edilmiştir, kesilmez
+     */
+    synchronized void truncateFrom(long index) throws IOException {
+        if (index > lastIndex || index <= baseIndex) {
+            return;
+        }
+        long position = positions[(int) (index - baseIndex)];
+        channel.truncate(position);
+        size = position;
+        lastIndex = index - 1;
+    }
+
+    /**
+     * index'e kadarki kayıtları atar, log index + 1'den başlar
+     * Kalan kuyruk yeni dosyaya kopyalanıp fsync edilir ve atomik olarak eski dosyanın yerine konur; çökme
+     * olursa ya eski ya yeni dosya kalır
+     *
+     * @param index Snapshot'ı kalıcı olarak yazılmış son index
+     * @param term Bu index'in term'i; log'da bu index yoksa veya term'i farklıysa log tamamen atılır
+     */
+    synchronized void compactTo(long index, long term) throws IOException {
+        if (index <= baseIndex) {
+            return;
+        }
+        boolean keepTail = index <= lastIndex && termAt(index) == term;
+        long tailStart = keepTail ? entryEnd(index) : size;
+        long tailLength = size - tailStart;
+
+        Path compacted = directory.resolve(COMPACT_FILE);
+        FileChannel target = FileChannel.open(compacted, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        try {
+            writeFileHeader(target, index, term);
+            long copied = 0;
+            while (copied < tailLength) {
+                copied += channel.transferTo(tailStart + copied, tailLength - copied,
+                        target.position(FILE_HEADER_SIZE + copied));
+            }
+            target.force(true);
+        } catch (IOException e) {
+            target.close();
+            Files.deleteIfExists(compacted);
+            throw e;
+        }
+
+        channelLock.writeLock().lock();
+        try {
+            Files.move(compacted, directory.resolve(LOG_FILE), StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+            FileChannel old = channel;
+            channel = target;
+            old.close();
+        } finally {
+            channelLock.writeLock().unlock();
+        }
+        syncDirectory();
+
+        int kept = keepTail ? (int) (lastIndex - index) : 0;
+        long shift = FILE_HEADER_SIZE - tailStart;
+        long[] newTerms = new long[Math.max(1024, Integer.highestOneBit(kept + 1) * 2)];
+        long[] newPositions = new long[newTerms.length];
+        newTerms[0] = term;
+        for (int i = 1; i <= kept; i++) {
+            int from = (int) (index - baseIndex) + i;
+            newTerms[i] = terms[from];
+            newPositions[i] = positions[from] + shift;
+        }
+        long dropped = index - baseIndex;
+        terms = newTerms;
+        positions = newPositions;
+        baseIndex = index;
+        lastIndex = index + kept;
+        size = FILE_HEADER_SIZE + tailLength;
+        logger.info("Raft log öneki atıldı: {} kayıt, log {}-{} arası", dropped, baseIndex + 1, lastIndex);
+    }
+
+    private void syncDirectory() {
+        try (FileChannel dir = FileChannel.open(directory, StandardOpenOption.READ)) {
+            dir.force(true);
+        } catch (IOException e) {
+            logger.debug("Raft klasörü fsync edilemedi: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * from'dan başlayan ardışık kayıtları okur
+     *
+     * @param maxEntries En fazla kayıt sayısı
+     * @param maxBytes Kayıtların toplam byte sınırı (başlıklar dahil); ilk kayıt bundan büyükse tek başına döner
+     * @return Kayıtlar, from log sonunu geçiyorsa veya snapshot'a devredildiyse boş liste
+     */
+    List<RaftEntry> entries(long from, int maxEntries, int maxBytes) throws IOException {
+        long start;
+        long end;
+        long[] entryTerms;
+        synchronized (this) {
+            if (from <= baseIndex || from > lastIndex) {
+                return List.of();
+            }
+            long to = from;
+            start = positions[(int) (from - baseIndex)];
+            end = entryEnd(from);
+            while (to < lastIndex && to - from + 1 < maxEntries && entryEnd(to + 1) - start <= maxBytes) {
+                to++;
+                end = entryEnd(to);
+            }
+            entryTerms = Arrays.copyOfRange(terms, (int) (from - baseIndex), (int) (to - baseIndex) + 1);
+            // Önek atılırken dosya değişmesin; kilit okuma bitince bırakılır
+            channelLock.readLock().lock();
+        }
+        // Okunan aralık sadece çakışmada kesilir, o sırada okunan kayıtları lider zaten reddeder
+        ByteBuffer buffer = ByteBuffer.allocate((int) (end - start));
+        try {
+            readFully(buffer, start);
+        } finally {
+            channelLock.readLock().unlock();
+        }
+        buffer.flip();
+        List<RaftEntry> entries = new ArrayList<>(entryTerms.length);
+        for (long term : entryTerms) {
+            buffer.position(buffer.position() + 8);
+            int length = buffer.getInt();
+            buffer.getInt();
+            entries.add(RaftEntry.newBuilder()
+                    .setTerm(term)
+                    .setData(ByteString.copyFrom(buffer.array(), buffer.position(), length))
+                    .build());
+            buffer.position(buffer.position() + length);
+        }
+        return entries;
+    }
+
+    private long entryEnd(long index) {
+        return index == lastIndex ? size : positions[(int) (index - baseIndex) + 1];
+    }
+
+    /**
+     * Eklenen kayıtları diske zorlar (fsync); çağrı sırasında eklenen kayıtlar bir sonraki sync'e kalabilir
+     *
+     * @return Kalıcı olduğu kesin son index
+     */
+    long sync() throws IOException {
+        long durable;
+        synchronized (this) {
+            durable = lastIndex;
+            channelLock.readLock().lock();
+        }
+        try {
+            channel.force(false);
+        } finally {
+            channelLock.readLock().unlock();
+        }
+        return durable;
+    }
+
+    private void track(long term, long position) {
+        int index = (int) (++lastIndex - baseIndex);
+        if (index == terms.length) {
+            terms = Arrays.copyOf(terms, index * 2);
+            positions = Arrays.copyOf(positions, index * 2);
+        }
+        terms[index] = term;
+        positions[index] = position;
+    }
+
+    private void readFully(ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position);
+            if (read < 0) {
+                throw new IOException("Raft log beklenmeden bitti: " + position);
+            }
+            position += read;
+        }
+    }
+
+    private void writeFully(ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+    }
+
+    private static int checksum(long term, byte[] data, int offset, int length) {
+        CRC32 crc = new CRC32();
+        for (int shift = 56; shift >= 0; shift -= 8) {
+            crc.update((int) (term >>> shift));
+        }
+        crc.update(data, offset, length);
+        return (int) crc.getValue();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        channel.force(false);
+        channel.close();
+    }
+}
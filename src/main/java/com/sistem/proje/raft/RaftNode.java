@@ -0,0 +1,1260 @@
+package com.sistem.proje.raft;
+
+import com.google.protobuf.ByteString;
+import com.sistem.proje.grpc.AppendRequest;
+import com.sistem.proje.grpc.AppendResponse;
+import com.sistem.proje.grpc.RaftEntry;
+import com.sistem.proje.grpc.RaftServiceGrpc;
+import com.sistem.proje.grpc.SnapshotRequest;
+import com.sistem.proje.grpc.SnapshotResponse;
+import com.sistem.proje.grpc.VoteRequest;
+import com.sistem.proje.grpc.VoteResponse;
+import com.sistem.proje.metrics.Counter;
+import com.sistem.proje.metrics.LatencyHistogram;
+import com.sistem.proje.metrics.MetricsRegistry;
+import io.grpc.ManagedChannel;
+import io.grpc.ManagedChannelBuilder;
+import io.grpc.Server;
+import io.grpc.ServerBuilder;
+import io.grpc.StatusRuntimeException;
+import io.grpc.stub.StreamObserver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lider node'lar arasında Raft uzlaşması (gRPC üzerinden)
+ *
+ * Küme sabit bir node listesidir, her node listedeki sırasıyla (id) tanınır. Seçim zaman aşımı
+ * ELECTION_TIMEOUT_MIN_MILLIS - ELECTION_TIMEOUT_MAX_MILLIS arasında rastgeledir, lider her
+ * HEARTBEAT_MILLIS'te boş AppendEntries gönderir; lider düştüğünde yenisi genellikle 200-400 ms içinde seçilir.
+ *
+ * Replikasyon: her takipçi için ayrı bir thread log'u MAX_BATCH_ENTRIES / MAX_BATCH_BYTES'lık batch'ler
+ * halinde, cevap beklemeden en fazla MAX_IN_FLIGHT batch ileride gönderir (pipelining). Takipçi çakışma
+ * bildirirse o takipçinin pipeline'ı geri sarılır, yoldaki cevaplar generation ile ayıklanır. Liderin
+ * kendi kayıtları ayrı bir thread'de toplu fsync edilir (group commit); çoğunluğa ulaşan kayıt commit
+ * edilir ve tüm node'larda aynı sırayla StateMachine'e uygulanır.
+ *
+ * Snapshot: uygulanmış kayıtlar log'da snapshotThresholdBytes'ı ve son snapshot'ın boyutunu geçince uygulama
+ * thread'i durum makinesinin snapshot'ını alır, kalıcı olunca log'un o index'e kadarki öneki atılır. Böylece
+ * snapshot yazma maliyeti log büyümesine oranlı kalır. Yeniden başlayan node önce snapshot'ı yükler, sonra
+ * log'un kalanını uygular. İhtiyaç duyduğu kayıtlar atılmış takipçiye lider snapshot'ı InstallSnapshot ile
+ * SNAPSHOT_CHUNK_BYTES'lık parçalar halinde gönderir
+ *
+ * Check-quorum: lider son ELECTION_TIMEOUT_MAX_MILLIS içinde gönderdiği bir isteği çoğunluğa onaylatamazsa
+ * liderliği bırakır; çoğunluktan kopan lider süresiz lider kalmaz. Takipçiler liderden son
+ * ELECTION_TIMEOUT_MIN_MILLIS içinde haber aldıysa oy istemlerini reddeder. Bu sayede çoğunluğun bu süre
+ * içinde gönderilmiş bir isteği onayladığı lider, o süre dolmadan yerine yeni lider seçilemeyeceğini bilir
+ * ve bu term'in ilk kaydını uyguladıktan sonra okumaları yerel durumdan yapabilir (awaitReadLease)
+ */
+public class RaftNode implements Closeable {
+    private static final Logger logger = LoggerFactory.getLogger(RaftNode.class);
+
+    public static final long ELECTION_TIMEOUT_MIN_MILLIS = 150;
+    public static final long ELECTION_TIMEOUT_MAX_MILLIS = 300;
+    public static final long HEARTBEAT_MILLIS = 50;
+    static final int MAX_BATCH_ENTRIES = 512;
+    static final int MAX_BATCH_BYTES = 1024 * 1024;
+    static final int MAX_IN_FLIGHT = 8;
+    public static final long DEFAULT_SNAPSHOT_THRESHOLD_BYTES = 64L * 1024 * 1024;
+    static final int SNAPSHOT_CHUNK_BYTES = 1024 * 1024;
+    private static final long RPC_TIMEOUT_MILLIS = 1000;
+
+    public enum Role { FOLLOWER, CANDIDATE, LEADER }
+
+    /**
+     * Commit edilen kayıtların uygulandığı durum makinesi
+     */
+    public interface StateMachine {
+        /**
+         * Commit edilen kaydı uygular; tüm node'larda aynı sırayla ve tek thread'den çağrılır
+         * Node yeniden başladığında log baştan tekrar uygulanır, uygulama idempotent olmalıdır
+         */
+        void apply(long index, byte[] data);
+
+        /**
+         * Uygulanmış durumun tamamını yazar; apply ile aynı thread'den, iki apply arasında çağrılır
+         * Akış kapatılmamalıdır, ardından CRC yazılır
+         */
+        void snapshot(OutputStream out) throws IOException;
+
+        /**
+         * Durumu snapshot'takiyle değiştirir; apply ile aynı thread'den çağrılır. Açılışta snapshot varsa log'dan
+         * önce, takipçi liderden snapshot aldığında ise o anki durumun yerine yüklenir
+         */
+        void restore(InputStream in) throws IOException;
+
+        /**
+         * Node'un rolü değiştiğinde Raft thread'i dışından çağrılır
+         */
+        default void onRoleChange(Role role, long term) {
+        }
+    }
+
+    private final int id;
+    private final List<String> peers;
+    private final Path directory;
+    private final RaftLog log;
+    private final StateMachine stateMachine;
+    private final Server server;
+    private final Replicator[] replicators;
+    private final ScheduledExecutorService timer;
+    private final List<Thread> threads = new ArrayList<>();
+
+    // Aşağıdakiler bu nesne üzerinde senkronize edilir
+    // role ve leaderId istek yolunda kilitsiz okunur
+    private volatile Role role = Role.FOLLOWER;
+    private long currentTerm;
+    private int votedFor;
+    private volatile int leaderId = -1;
+    private int votes;
+    private long commitIndex;
+    private long lastApplied;
+    // Liderde fsync edilmiş son index (liderin kendi match index'i)
+    private long syncedIndex;
+    private final Map<Long, Proposal> pending = new HashMap<>();
+    private ScheduledFuture<?> electionTimer;
+    // Liderken çoğunluğun hâlâ ulaşılabilir olduğunu kontrol eden periyodik görev
+    private ScheduledFuture<?> quorumCheck;
+    // Liderin bu term'de eklediği ilk kayıt (no-op); uygulanmadan okuma kirası verilmez
+    private long termStartIndex;
+    // Geçerli liderden son AppendEntries/InstallSnapshot alındığı an (takipçide)
+    private long lastLeaderContactNanos;
+    // Yerel okumaların bu ana kadar güvenli olduğu an (liderde, 0 = kira yok); kilitsiz okunur
+    private volatile long readLeaseUntilNanos;
+    private volatile boolean closed;
+    // En güncel kalıcı snapshot (log bunun index'inden sonrasını tutar) ve uygulama thread'inin yükleyeceği snapshot
+    private RaftSnapshot snapshot;
+    private RaftSnapshot pendingRestore;
+    // Liderden parça parça alınan snapshot
+    private FileChannel receiving;
+    private long receivingIndex;
+    private volatile long snapshotThresholdBytes = DEFAULT_SNAPSHOT_THRESHOLD_BYTES;
+
+    private final Counter elections;
+    private final Counter appendRpcs;
+    private final Counter appendedEntries;
+    private final LatencyHistogram commitLatency;
+    private final Counter snapshots;
+    private final Counter snapshotInstalls;
+    private final Counter quorumStepDowns;
+    private final Counter rejectedVotes;
+
+    /**
+     * @param peers Tüm node'ların Raft adresleri (host:port), sıraları id'leridir; tüm node'larda aynı olmalı
+     * @param id Bu node'un listedeki sırası
+     * @param directory Log ve oy durumunun saklandığı klasör
+     * @param stateMachine Commit edilen kayıtların uygulanacağı yer
+     * @param metrics raft.* metriklerinin kaydedileceği registry
+     */
+    public RaftNode(List<String> peers, int id, Path directory, StateMachine stateMachine, MetricsRegistry metrics)
+            throws IOException {
+        if (id < 0 || id >= peers.size()) {
+            throw new IllegalArgumentException("Raft id " + id + " node listesinde yok (" + peers.size() + " node)");
+        }
+        this.id = id;
+        this.peers = List.copyOf(peers);
+        this.stateMachine = stateMachine;
+        this.directory = directory;
+        this.log = new RaftLog(directory);
+        this.currentTerm = log.getCurrentTerm();
+        this.votedFor = log.getVotedFor();
+        this.snapshot = RaftSnapshot.load(directory);
+        if (snapshot != null) {
+            // Snapshot yazıldıktan sonra önek atılmadan çökülmüş olabilir
+            log.compactTo(snapshot.index, snapshot.term);
+            pendingRestore = snapshot;
+            commitIndex = snapshot.index;
+        }
+        this.server = ServerBuilder.forPort(port(peers.get(id)))
+                // Aynı bağlantıdan gelen AppendEntries'ler sırayla işlenir, pipeline'daki batch'ler yer değiştirmez
+                .directExecutor()
+                .addService(new RaftService())
+                .build();
+        this.replicators = new Replicator[peers.size()];
+        for (int i = 0; i < peers.size(); i++) {
+            if (i != id) {
+                replicators[i] = new Replicator(i, peers.get(i));
+            }
+        }
+        this.timer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "raft-timer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.elections = metrics.counter("raft.elections");
+        this.appendRpcs = metrics.counter("raft.append.rpcs");
+        this.appendedEntries = metrics.counter("raft.append.entries");
+        this.commitLatency = metrics.histogram("raft.commit");
+        this.snapshots = metrics.counter("raft.snapshots");
+        this.snapshotInstalls = metrics.counter("raft.snapshot.installs");
+        this.quorumStepDowns = metrics.counter("raft.quorum.stepdowns");
+        this.rejectedVotes = metrics.counter("raft.votes.rejected.leaderAlive");
+        metrics.gauge("raft.snapshot.index", log::baseIndex);
+        metrics.gauge("raft.log.bytes", () -> log.sizeThrough(log.lastIndex()));
+        metrics.gauge("raft.term", this::getCurrentTerm);
+        metrics.gauge("raft.commit.index", this::getCommitIndex);
+        metrics.gauge("raft.leader", () -> isLeader() ? 1 : 0);
+    }
+
+    private static String host(String address) {
+        return address.substring(0, address.lastIndexOf(':'));
+    }
+
+    private static int port(String address) {
+        return Integer.parseInt(address.substring(address.lastIndexOf(':') + 1));
+    }
+
+    /**
+     * Raft servisini açar, replikasyon ve uygulama thread'lerini başlatır ve seçim zamanlayıcısını kurar
+     */
+    public void start() throws IOException {
+        server.start();
+        startThread("raft-applier", this::applyLoop);
+        startThread("raft-sync", this::syncLoop);
+        for (Replicator replicator : replicators) {
+            if (replicator != null) {
+                startThread("raft-replicator-" + replicator.peer, replicator::run);
+            }
+        }
+        synchronized (this) {
+            resetElectionTimer();
+        }
+        logger.info("Raft node {} başlatıldı: port {}, {} node, term {}, snapshot {}, log sonu {}",
+                id, server.getPort(), peers.size(), currentTerm, log.baseIndex(), log.lastIndex());
+    }
+
+    /**
+     * Snapshot alma eşiğini ayarlar: uygulanmış kayıtlar log'da bu boyutu ve son snapshot'ın boyutunu geçince
+     * snapshot alınır ve log'un öneki atılır
+     *
+     * @param bytes Eşik (byte), 0 veya negatif değer snapshot almayı kapatır (log sınırsız büyür)
+     */
+    public void setSnapshotThreshold(long bytes) {
+        this.snapshotThresholdBytes = bytes;
+    }
+
+    private void startThread(String name, Runnable body) {
+        Thread thread = new Thread(body, name);
+        thread.setDaemon(true);
+        threads.add(thread);
+        thread.start();
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public boolean isLeader() {
+        return role == Role.LEADER;
+    }
+
+    public Role getRole() {
+        return role;
+    }
+
+    public synchronized long getCurrentTerm() {
+        return currentTerm;
+    }
+
+    public synchronized long getCommitIndex() {
+        return commitIndex;
+    }
+
+    /**
+     * @return Bilinen liderin id'si, seçim sürüyorsa -1
+     */
+    public int getLeaderId() {
+        return leaderId;
+    }
+
+    /**
+     * Lider bilinene kadar bekler
+     *
+     * @return Liderin id'si, süre dolduysa -1
+     */
+    public synchronized int awaitLeader(long timeoutMillis) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        while (leaderId < 0 && !closed) {
+            long remaining = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+            if (remaining <= 0) {
+                break;
+            }
+            wait(remaining);
+        }
+        return leaderId;
+    }
+
+    /**
+     * Okuma kirası geçerli olana kadar bekler. Kira, çoğunluğun son ELECTION_TIMEOUT_MIN_MILLIS içinde
+     * gönderilmiş bir isteği onaylamasıyla ve bu term'in no-op kaydı uygulanmışsa verilir; bu durumda daha
+     * yeni bir lider commit yapmış olamaz ve lider yerel durumdan okuyabilir
+     *
+     * @return Kira geçerliyse true; node lider değilse, liderliği kaybederse veya süre dolarsa false
+     */
+    public boolean awaitReadLease(long timeoutMillis) throws InterruptedException {
+        if (role == Role.LEADER && System.nanoTime() < readLeaseUntilNanos) {
+            return true;
+        }
+        synchronized (this) {
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+            while (role == Role.LEADER && !closed) {
+                updateReadLease();
+                long now = System.nanoTime();
+                if (now < readLeaseUntilNanos) {
+                    return true;
+                }
+                long remaining = TimeUnit.NANOSECONDS.toMillis(deadline - now);
+                if (remaining <= 0) {
+                    break;
+                }
+                wait(Math.min(remaining, HEARTBEAT_MILLIS));
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Çoğunluğun (lider dahil) onayladığı en yeni isteğin gönderilme anı; çoğunluk onay vermediyse 0
+     */
+    private long quorumAckNanos() {
+        long[] acks = new long[peers.size()];
+        int count = 0;
+        for (Replicator replicator : replicators) {
+            if (replicator != null) {
+                acks[count++] = replicator.ackSentNanos;
+            }
+        }
+        // Liderin kendisi her zaman güncel sayılır
+        acks[count] = Long.MAX_VALUE;
+        Arrays.sort(acks);
+        return acks[acks.length - (peers.size() / 2 + 1)];
+    }
+
+    private void updateReadLease() {
+        if (role != Role.LEADER || lastApplied < termStartIndex) {
+            readLeaseUntilNanos = 0;
+            return;
+        }
+        long ack = quorumAckNanos();
+        if (ack == 0 || ack == Long.MAX_VALUE) {
+            // Onay yok, ya da tek node'luk grup (çoğunluk liderin kendisi)
+            readLeaseUntilNanos = ack;
+            return;
+        }
+        readLeaseUntilNanos = ack + TimeUnit.MILLISECONDS.toNanos(ELECTION_TIMEOUT_MIN_MILLIS);
+    }
+
+    /**
+     * Liderken periyodik çalışır: çoğunluk son ELECTION_TIMEOUT_MAX_MILLIS içinde gönderilen bir isteği
+     * onaylamadıysa liderlik bırakılır
+     */
+    private synchronized void checkQuorum() {
+        if (role != Role.LEADER || closed) {
+            return;
+        }
+        long ack = quorumAckNanos();
+        if (ack == 0 || System.nanoTime() - ack > TimeUnit.MILLISECONDS.toNanos(ELECTION_TIMEOUT_MAX_MILLIS)) {
+            logger.warn("Raft çoğunluğundan {} ms içinde cevap alınamadı, liderlik bırakılıyor: term {}",
+                    ELECTION_TIMEOUT_MAX_MILLIS, currentTerm);
+            quorumStepDowns.increment();
+            stepDown(currentTerm);
+        }
+    }
+
+    /**
+     * Kaydı lider log'una ekler ve replike eder
+     *
+     * @return Kayıt commit edilip bu node'da uygulandığında index ile tamamlanan future; node lider değilse
+     *         veya kayıt commit edilmeden liderliğini kaybederse IllegalStateException ile tamamlanır
+     */
+    public CompletableFuture<Long> propose(byte[] data) {
+        CompletableFuture<Long> future = new CompletableFuture<>();
+        synchronized (this) {
+            if (role != Role.LEADER || closed) {
+                future.completeExceptionally(new IllegalStateException("Raft lideri değil (lider: " + leaderId + ")"));
+                return future;
+            }
+            try {
+                long index = log.append(currentTerm, data);
+                pending.put(index, new Proposal(future, System.nanoTime()));
+            } catch (IOException e) {
+                logger.error("Raft log'una yazılamadı: ", e);
+                future.completeExceptionally(new UncheckedIOException(e));
+                return future;
+            }
+            notifyAll();
+        }
+        return future;
+    }
+
+    // ---- Seçim ----
+
+    private void resetElectionTimer() {
+        if (electionTimer != null) {
+            electionTimer.cancel(false);
+        }
+        if (closed) {
+            return;
+        }
+        long timeout = ThreadLocalRandom.current().nextLong(ELECTION_TIMEOUT_MIN_MILLIS, ELECTION_TIMEOUT_MAX_MILLIS + 1);
+        electionTimer = timer.schedule(this::startElection, timeout, TimeUnit.MILLISECONDS);
+    }
+
+    private void startElection() {
+        VoteRequest request;
+        synchronized (this) {
+            if (role == Role.LEADER || closed) {
+                return;
+            }
+            if (!persistState(currentTerm + 1, id)) {
+                resetElectionTimer();
+                return;
+            }
+            role = Role.CANDIDATE;
+            leaderId = -1;
+            votes = 1;
+            elections.increment();
+            logger.info("Raft seçimi başlatıldı: term {}", currentTerm);
+            resetElectionTimer();
+            if (votes > peers.size() / 2) {
+                becomeLeader();
+                return;
+            }
+            request = VoteRequest.newBuilder()
+                    .setTerm(currentTerm)
+                    .setCandidateId(id)
+                    .setLastLogIndex(log.lastIndex())
+                    .setLastLogTerm(log.lastTerm())
+                    .build();
+        }
+        for (Replicator replicator : replicators) {
+            if (replicator != null) {
+                replicator.requestVote(request);
+            }
+        }
+    }
+
+    private synchronized void onVoteResponse(VoteRequest request, VoteResponse response) {
+        if (response.getTerm() > currentTerm) {
+            stepDown(response.getTerm());
+            return;
+        }
+        if (role != Role.CANDIDATE || currentTerm != request.getTerm() || !response.getGranted()) {
+            return;
+        }
+        votes++;
+        if (votes > peers.size() / 2) {
+            becomeLeader();
+        }
+    }
+
+    private void becomeLeader() {
+        role = Role.LEADER;
+        leaderId = id;
+        if (electionTimer != null) {
+            electionTimer.cancel(false);
+        }
+        try {
+            // Önceki term'lerin kayıtları ancak bu term'in bir kaydıyla birlikte commit edilebilir (no-op)
+            log.append(currentTerm, new byte[0]);
+            syncedIndex = log.sync();
+        } catch (IOException e) {
+            logger.error("Raft lider no-op kaydı yazılamadı: ", e);
+        }
+        termStartIndex = log.lastIndex();
+        readLeaseUntilNanos = 0;
+        long next = log.lastIndex() + 1;
+        for (Replicator replicator : replicators) {
+            if (replicator != null) {
+                replicator.reset(next);
+            }
+        }
+        // İlk kontrolden önce takipçilere bir seçim zaman aşımı kadar süre tanınır
+        quorumCheck = timer.scheduleWithFixedDelay(this::checkQuorum, ELECTION_TIMEOUT_MAX_MILLIS,
+                HEARTBEAT_MILLIS, TimeUnit.MILLISECONDS);
+        logger.info("Raft lideri seçildi: node {}, term {}", id, currentTerm);
+        notifyRoleChange();
+        notifyAll();
+    }
+
+    /**
+     * Daha büyük bir term görüldüğünde veya aynı term'de lider bulunduğunda takipçi olur
+     */
+    private void stepDown(long term) {
+        if (term > currentTerm) {
+            persistState(term, -1);
+        }
+        if (role != Role.FOLLOWER) {
+            boolean wasLeader = role == Role.LEADER;
+            role = Role.FOLLOWER;
+            if (wasLeader) {
+                logger.info("Raft liderliği bırakıldı: term {}", currentTerm);
+                readLeaseUntilNanos = 0;
+                if (quorumCheck != null) {
+                    quorumCheck.cancel(false);
+                    quorumCheck = null;
+                }
+                failPending("Raft liderliği kaybedildi");
+            }
+            notifyRoleChange();
+        }
+        leaderId = -1;
+        resetElectionTimer();
+        notifyAll();
+    }
+
+    private boolean persistState(long term, int vote) {
+        try {
+            log.saveState(term, vote);
+            currentTerm = term;
+            votedFor = vote;
+            return true;
+        } catch (IOException e) {
+            logger.error("Raft oy durumu yazılamadı: ", e);
+            return false;
+        }
+    }
+
+    private void notifyRoleChange() {
+        Role newRole = role;
+        long term = currentTerm;
+        timer.execute(() -> {
+            try {
+                stateMachine.onRoleChange(newRole, term);
+            } catch (RuntimeException e) {
+                logger.error("Raft rol değişikliği bildirilirken hata: ", e);
+            }
+        });
+    }
+
+    private void failPending(String reason) {
+        for (Proposal proposal : pending.values()) {
+            proposal.future.completeExceptionally(new IllegalStateException(reason));
+        }
+        pending.clear();
+    }
+
+    // ---- Takipçi tarafı ----
+
+    synchronized VoteResponse handleVote(VoteRequest request) {
+        if (request.getTerm() > currentTerm && leaderAlive()) {
+            // Lider ayaktayken gelen oy istemi term'i değiştirmez: kopan bir node çalışan lideri düşüremez
+            rejectedVotes.increment();
+            return VoteResponse.newBuilder().setTerm(currentTerm).setGranted(false).build();
+        }
+        if (request.getTerm() > currentTerm) {
+            stepDown(request.getTerm());
+        }
+        boolean upToDate = request.getLastLogTerm() > log.lastTerm()
+                || (request.getLastLogTerm() == log.lastTerm() && request.getLastLogIndex() >= log.lastIndex());
+        boolean granted = request.getTerm() == currentTerm
+                && (votedFor < 0 || votedFor == request.getCandidateId())
+                && upToDate
+                && persistState(currentTerm, request.getCandidateId());
+        if (granted) {
+            resetElectionTimer();
+        }
+        return VoteResponse.newBuilder().setTerm(currentTerm).setGranted(granted).build();
+    }
+
+    /**
+     * Bu node lider mi, ya da liderden son ELECTION_TIMEOUT_MIN_MILLIS içinde haber aldı mı
+     */
+    private boolean leaderAlive() {
+        if (role == Role.LEADER) {
+            return true;
+        }
+        return leaderId >= 0
+                && System.nanoTime() - lastLeaderContactNanos < TimeUnit.MILLISECONDS.toNanos(ELECTION_TIMEOUT_MIN_MILLIS);
+    }
+
+    synchronized AppendResponse handleAppend(AppendRequest request) {
+        AppendResponse.Builder response = AppendResponse.newBuilder();
+        if (request.getTerm() < currentTerm) {
+            return response.setTerm(currentTerm).setSuccess(false).build();
+        }
+        if (request.getTerm() > currentTerm || role != Role.FOLLOWER) {
+            stepDown(request.getTerm());
+        }
+        if (leaderId != request.getLeaderId()) {
+            leaderId = request.getLeaderId();
+            logger.info("Raft lideri: node {}, term {}", leaderId, currentTerm);
+            notifyAll();
+        }
+        lastLeaderContactNanos = System.nanoTime();
+        resetElectionTimer();
+        response.setTerm(currentTerm);
+
+        long prevIndex = request.getPrevLogIndex();
+        List<RaftEntry> entries = request.getEntriesList();
+        long baseIndex = log.baseIndex();
+        boolean coveredBySnapshot = prevIndex < baseIndex;
+        if (coveredBySnapshot) {
+            // Snapshot'a devredilmiş kayıtlar commit edilmiştir ve liderinkiyle aynıdır, atlanır
+            int covered = (int) Math.min(entries.size(), baseIndex - prevIndex);
+            entries = entries.subList(covered, entries.size());
+            prevIndex += covered;
+            if (prevIndex < baseIndex) {
+                return response.setSuccess(true).setMatchIndex(prevIndex).build();
+            }
+        }
+        long lastIndex = log.lastIndex();
+        if (prevIndex > lastIndex) {
+            return response.setSuccess(false).setConflictIndex(lastIndex + 1).build();
+        }
+        long prevTerm = log.termAt(prevIndex);
+        if (!coveredBySnapshot && prevTerm != request.getPrevLogTerm()) {
+            // Çakışan term'in ilk kaydından itibaren tekrar gönderilsin (term başına tek tur)
+            long conflict = prevIndex;
+            while (conflict > commitIndex + 1 && log.termAt(conflict - 1) == prevTerm) {
+                conflict--;
+            }
+            return response.setSuccess(false).setConflictIndex(conflict).build();
+        }
+
+        try {
+            int skip = 0;
+            while (skip < entries.size()) {
+                long index = prevIndex + 1 + skip;
+                long term = log.termAt(index);
+                if (term < 0) {
+                    break;
+                }
+                if (term != entries.get(skip).getTerm()) {
+                    log.truncateFrom(index);
+                    break;
+                }
+                skip++;
+            }
+            if (skip < entries.size()) {
+                log.append(entries.subList(skip, entries.size()));
+                log.sync();
+            }
+        } catch (IOException e) {
+            logger.error("Raft kayıtları yazılamadı: ", e);
+            return response.setSuccess(false).setConflictIndex(Math.max(1, log.lastIndex())).build();
+        }
+
+        long matchIndex = prevIndex + entries.size();
+        long newCommit = Math.min(request.getLeaderCommit(), matchIndex);
+        if (newCommit > commitIndex) {
+            commitIndex = newCommit;
+            notifyAll();
+        }
+        return response.setSuccess(true).setMatchIndex(matchIndex).build();
+    }
+
+    /**
+     * Liderin snapshot parçasını alır; son parça gelince snapshot doğrulanır, log'un öneki atılır ve snapshot
+     * uygulama thread'ine yüklenmek üzere verilir
+     */
+    synchronized SnapshotResponse handleSnapshot(SnapshotRequest request) {
+        SnapshotResponse.Builder response = SnapshotResponse.newBuilder();
+        if (request.getTerm() < currentTerm) {
+            return response.setTerm(currentTerm).setSuccess(false).build();
+        }
+        if (request.getTerm() > currentTerm || role != Role.FOLLOWER) {
+            stepDown(request.getTerm());
+        }
+        if (leaderId != request.getLeaderId()) {
+            leaderId = request.getLeaderId();
+            logger.info("Raft lideri: node {}, term {}", leaderId, currentTerm);
+            notifyAll();
+        }
+        lastLeaderContactNanos = System.nanoTime();
+        resetElectionTimer();
+        response.setTerm(currentTerm);
+
+        long index = request.getLastIncludedIndex();
+        if (index <= Math.max(commitIndex, log.baseIndex())) {
+            // Bu index'e kadar commit edilmiş kayıtlar zaten var
+            closeReceiving();
+            return response.setSuccess(true).build();
+        }
+        try {
+            if (request.getOffset() == 0) {
+                closeReceiving();
+                receiving = FileChannel.open(RaftSnapshot.receivePath(directory), StandardOpenOption.CREATE,
+                        StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+                receivingIndex = index;
+            } else if (receiving == null || receivingIndex != index || receiving.size() != request.getOffset()) {
+                return response.setSuccess(false).build();
+            }
+            ByteBuffer data = request.getData().asReadOnlyByteBuffer();
+            long position = request.getOffset();
+            while (data.hasRemaining()) {
+                position += receiving.write(data, position);
+            }
+            if (!request.getDone()) {
+                return response.setSuccess(true).build();
+            }
+            receiving.force(true);
+            closeReceiving();
+            RaftSnapshot installed = RaftSnapshot.install(directory, index, request.getLastIncludedTerm());
+            log.compactTo(installed.index, installed.term);
+            snapshot = installed;
+            pendingRestore = installed;
+            commitIndex = Math.max(commitIndex, installed.index);
+            snapshotInstalls.increment();
+            logger.info("Raft snapshot'ı liderden alındı: {}", installed);
+            notifyAll();
+            return response.setSuccess(true).build();
+        } catch (IOException e) {
+            logger.error("Raft snapshot'ı alınamadı: ", e);
+            closeReceiving();
+            return response.setSuccess(false).build();
+        }
+    }
+
+    private void closeReceiving() {
+        if (receiving == null) {
+            return;
+        }
+        try {
+            receiving.close();
+        } catch (IOException e) {
+            logger.debug("Snapshot dosyası kapatılamadı: {}", e.getMessage());
+        }
+        receiving = null;
+    }
+
+    // ---- Lider tarafı ----
+
+    /**
+     * Çoğunluğun (lider dahil) sahip olduğu en büyük index bu term'e aitse commit edilir
+     */
+    private void advanceCommit() {
+        if (role != Role.LEADER) {
+            return;
+        }
+        long[] matches = new long[peers.size()];
+        for (int i = 0; i < peers.size(); i++) {
+            matches[i] = i == id ? syncedIndex : replicators[i].matchIndex;
+        }
+        Arrays.sort(matches);
+        long majority = matches[(peers.size() - 1) / 2];
+        if (majority > commitIndex && log.termAt(majority) == currentTerm) {
+            commitIndex = majority;
+            notifyAll();
+        }
+    }
+
+    private void syncLoop() {
+        while (!closed) {
+            try {
+                synchronized (this) {
+                    while (!closed && (role != Role.LEADER || log.lastIndex() <= syncedIndex)) {
+                        wait();
+                    }
+                }
+                long durable = log.sync();
+                synchronized (this) {
+                    if (role == Role.LEADER && durable > syncedIndex) {
+                        syncedIndex = durable;
+                        advanceCommit();
+                    }
+                }
+            } catch (InterruptedException e) {
+                return;
+            } catch (IOException e) {
+                if (!closed) {
+                    logger.error("Raft log fsync hatası: ", e);
+                }
+            }
+        }
+    }
+
+    private void applyLoop() {
+        while (!closed) {
+            try {
+                long from;
+                long to;
+                RaftSnapshot restore;
+                synchronized (this) {
+                    while (!closed && lastApplied >= commitIndex && pendingRestore == null) {
+                        wait();
+                    }
+                    restore = pendingRestore;
+                    pendingRestore = null;
+                    from = lastApplied + 1;
+                    to = commitIndex;
+                }
+                if (restore != null) {
+                    restoreSnapshot(restore);
+                    continue;
+                }
+                List<RaftEntry> entries = log.entries(from, (int) Math.min(to - from + 1, MAX_BATCH_ENTRIES),
+                        MAX_BATCH_BYTES);
+                if (entries.isEmpty()) {
+                    // Kayıtlar bu sırada alınan snapshot'a devredildi, snapshot'ın yüklenmesi beklenir
+                    synchronized (this) {
+                        if (pendingRestore == null && !closed) {
+                            wait(HEARTBEAT_MILLIS);
+                        }
+                    }
+                    continue;
+                }
+                long index = from;
+                for (RaftEntry entry : entries) {
+                    if (!entry.getData().isEmpty()) {
+                        try {
+                            stateMachine.apply(index, entry.getData().toByteArray());
+                        } catch (RuntimeException e) {
+                            logger.error("Raft kaydı {} uygulanırken hata: ", index, e);
+                        }
+                    }
+                    Proposal proposal;
+                    synchronized (this) {
+                        lastApplied = index;
+                        proposal = pending.remove(index);
+                        if (index == termStartIndex) {
+                            updateReadLease();
+                        }
+                    }
+                    if (proposal != null) {
+                        commitLatency.recordSince(proposal.startNanos);
+                        proposal.future.complete(index);
+                    }
+                    index++;
+                }
+                maybeSnapshot();
+            } catch (InterruptedException e) {
+                return;
+            } catch (IOException e) {
+                if (!closed) {
+                    logger.error("Raft log okunamadı: ", e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Snapshot'ı durum makinesine yükler (uygulama thread'inde)
+     */
+    private void restoreSnapshot(RaftSnapshot restore) {
+        long start = System.nanoTime();
+        try (InputStream in = restore.openData()) {
+            stateMachine.restore(in);
+            logger.info("Raft snapshot'ı yüklendi: {} ({} ms)", restore,
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        } catch (IOException | RuntimeException e) {
+            // Log'un öneki atıldığı için kayıtlardan tekrar kurulamaz, durum eksik kalır
+            logger.error("Raft snapshot'ı yüklenemedi, durum makinesi {} index'ine kadar eksik: ", restore.index, e);
+        }
+        synchronized (this) {
+            lastApplied = Math.max(lastApplied, restore.index);
+            commitIndex = Math.max(commitIndex, restore.index);
+            notifyAll();
+        }
+    }
+
+    /**
+     * Uygulanmış kayıtlar log'da eşiği ve son snapshot'ın boyutunu geçtiyse snapshot alır ve log'un önekini atar
+     * Uygulama thread'inde iki batch arasında çağrılır, durum makinesi lastApplied'daki haliyle yazılır
+     */
+    private void maybeSnapshot() {
+        long threshold = snapshotThresholdBytes;
+        if (threshold <= 0 || closed) {
+            return;
+        }
+        long index;
+        long term;
+        long limit;
+        synchronized (this) {
+            index = lastApplied;
+            term = log.termAt(index);
+            limit = Math.max(threshold, snapshot != null ? snapshot.size : 0);
+        }
+        if (term < 0 || index <= log.baseIndex() || log.sizeThrough(index) < limit) {
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            RaftSnapshot written = RaftSnapshot.write(directory, index, term, stateMachine);
+            synchronized (this) {
+                if (snapshot == null || written.index > snapshot.index) {
+                    snapshot = written;
+                }
+                log.compactTo(written.index, written.term);
+            }
+            snapshots.increment();
+            logger.info("Raft snapshot'ı alındı: {} ({} ms)", written,
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        } catch (IOException e) {
+            logger.error("Raft snapshot'ı alınamadı, log büyümeye devam ediyor: ", e);
+        }
+    }
+
+    @Override
+    public void close() {
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            if (electionTimer != null) {
+                electionTimer.cancel(false);
+            }
+            failPending("Raft node kapatıldı");
+            closeReceiving();
+            notifyAll();
+        }
+        timer.shutdownNow();
+        server.shutdownNow();
+        for (Replicator replicator : replicators) {
+            if (replicator != null) {
+                replicator.channel.shutdownNow();
+            }
+        }
+        for (Thread thread : threads) {
+            thread.interrupt();
+        }
+        try {
+            for (Thread thread : threads) {
+                thread.join(1000);
+            }
+            server.awaitTermination(1, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        try {
+            log.close();
+        } catch (IOException e) {
+            logger.error("Raft log kapatılırken hata: ", e);
+        }
+        logger.info("Raft node {} durduruldu", id);
+    }
+
+    private static final class Proposal {
+        final CompletableFuture<Long> future;
+        final long startNanos;
+
+        Proposal(CompletableFuture<Long> future, long startNanos) {
+            this.future = future;
+            this.startNanos = startNanos;
+        }
+    }
+
+    /**
+     * Tek takipçiye replikasyon; alanları RaftNode üzerinde senkronize edilir
+     */
+    private final class Replicator {
+        final int peer;
+        final ManagedChannel channel;
+        final RaftServiceGrpc.RaftServiceStub stub;
+        final RaftServiceGrpc.RaftServiceBlockingStub blockingStub;
+        long nextIndex = 1;
+        long matchIndex;
+        int inFlight;
+        // Geri sarmada artar, önceki pipeline'ın cevapları yok sayılır
+        long generation;
+        long lastSendNanos;
+        long retryAtNanos;
+        // Bu term'de takipçinin onayladığı en yeni isteğin gönderilme anı (0 = onay yok)
+        long ackSentNanos;
+
+        Replicator(int peer, String address) {
+            this.peer = peer;
+            this.channel = ManagedChannelBuilder.forAddress(host(address), port(address))
+                    .usePlaintext()
+                    .build();
+            this.stub = RaftServiceGrpc.newStub(channel);
+            this.blockingStub = RaftServiceGrpc.newBlockingStub(channel);
+        }
+
+        void reset(long next) {
+            nextIndex = next;
+            matchIndex = 0;
+            generation++;
+            lastSendNanos = 0;
+            retryAtNanos = 0;
+            ackSentNanos = 0;
+        }
+
+        void requestVote(VoteRequest request) {
+            stub.withDeadlineAfter(ELECTION_TIMEOUT_MIN_MILLIS, TimeUnit.MILLISECONDS)
+                    .requestVote(request, new StreamObserver<VoteResponse>() {
+                        @Override
+                        public void onNext(VoteResponse response) {
+                            onVoteResponse(request, response);
+                        }
+
+                        @Override
+                        public void onError(Throwable t) {
+                            logger.debug("Raft node {} oy isteğine cevap vermedi: {}", peer, t.getMessage());
+                            channel.resetConnectBackoff();
+                        }
+
+                        @Override
+                        public void onCompleted() {
+                        }
+                    });
+        }
+
+        void run() {
+            long heartbeatNanos = TimeUnit.MILLISECONDS.toNanos(HEARTBEAT_MILLIS);
+            while (!closed) {
+                try {
+                    long from;
+                    long term;
+                    long prevTerm;
+                    long leaderCommit;
+                    long sentGeneration;
+                    boolean hasEntries;
+                    RaftSnapshot install = null;
+                    synchronized (RaftNode.this) {
+                        while (true) {
+                            if (closed) {
+                                return;
+                            }
+                            long now = System.nanoTime();
+                            if (role != Role.LEADER || inFlight >= MAX_IN_FLIGHT) {
+                                // Liderlik veya pipeline'da yer açılınca notifyAll ile uyanılır
+                                RaftNode.this.wait();
+                                continue;
+                            }
+                            if (now < retryAtNanos) {
+                                RaftNode.this.wait(Math.max(1, TimeUnit.NANOSECONDS.toMillis(retryAtNanos - now)));
+                                continue;
+                            }
+                            if (nextIndex <= log.lastIndex() || now - lastSendNanos >= heartbeatNanos) {
+                                break;
+                            }
+                            RaftNode.this.wait(Math.max(1,
+                                    TimeUnit.NANOSECONDS.toMillis(lastSendNanos + heartbeatNanos - now)));
+                        }
+                        from = nextIndex;
+                        term = currentTerm;
+                        prevTerm = log.termAt(from - 1);
+                        leaderCommit = commitIndex;
+                        if (from <= log.baseIndex() && snapshot != null) {
+                            // Takipçinin ihtiyaç duyduğu kayıtlar snapshot'a devredildi, yoldaki cevaplar yok sayılır
+                            generation++;
+                            install = snapshot;
+                        }
+                        sentGeneration = generation;
+                        hasEntries = from <= log.lastIndex();
+                    }
+                    if (install != null) {
+                        sendSnapshot(install, term, sentGeneration);
+                        continue;
+                    }
+
+                    List<RaftEntry> entries = hasEntries
+                            ? log.entries(from, MAX_BATCH_ENTRIES, MAX_BATCH_BYTES) : List.of();
+                    synchronized (RaftNode.this) {
+                        if (role != Role.LEADER || currentTerm != term || generation != sentGeneration
+                                || nextIndex != from || (hasEntries && entries.isEmpty())) {
+                            // Boş sonuç: kayıtlar bu sırada snapshot'a devredildi, sonraki turda snapshot gönderilir
+                            continue;
+                        }
+                        nextIndex = from + entries.size();
+                        inFlight++;
+                        lastSendNanos = System.nanoTime();
+                    }
+                    send(AppendRequest.newBuilder()
+                            .setTerm(term)
+                            .setLeaderId(id)
+                            .setPrevLogIndex(from - 1)
+                            .setPrevLogTerm(prevTerm)
+                            .addAllEntries(entries)
+                            .setLeaderCommit(leaderCommit)
+                            .build(), sentGeneration);
+                } catch (InterruptedException e) {
+                    return;
+                } catch (IOException e) {
+                    if (!closed) {
+                        logger.error("Raft log okunamadı: ", e);
+                    }
+                }
+            }
+        }
+
+        /**
+         * Snapshot dosyasını parça parça gönderir (replikasyon thread'inde, cevap beklenerek)
+         * Dosya bu sırada yenisiyle değiştirilip silinse de açık kanaldan okunmaya devam edilir
+         */
+        private void sendSnapshot(RaftSnapshot install, long term, long sentGeneration) {
+            boolean installed = false;
+            long start = System.nanoTime();
+            try (FileChannel file = FileChannel.open(install.path, StandardOpenOption.READ)) {
+                ByteBuffer chunk = ByteBuffer.allocate(SNAPSHOT_CHUNK_BYTES);
+                long offset = 0;
+                while (!installed) {
+                    chunk.clear().limit((int) Math.min(SNAPSHOT_CHUNK_BYTES, install.size - offset));
+                    RaftSnapshot.readFully(file, chunk, offset);
+                    chunk.flip();
+                    boolean done = offset + chunk.remaining() >= install.size;
+                    long sentNanos = System.nanoTime();
+                    SnapshotResponse response = blockingStub
+                            .withDeadlineAfter(RPC_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)
+                            .installSnapshot(SnapshotRequest.newBuilder()
+                                    .setTerm(term)
+                                    .setLeaderId(id)
+                                    .setLastIncludedIndex(install.index)
+                                    .setLastIncludedTerm(install.term)
+                                    .setOffset(offset)
+                                    .setData(ByteString.copyFrom(chunk))
+                                    .setDone(done)
+                                    .build());
+                    synchronized (RaftNode.this) {
+                        lastSendNanos = System.nanoTime();
+                        if (response.getTerm() > currentTerm) {
+                            stepDown(response.getTerm());
+                            return;
+                        }
+                        if (role != Role.LEADER || currentTerm != term) {
+                            return;
+                        }
+                        acknowledged(sentNanos);
+                        if (generation != sentGeneration) {
+                            return;
+                        }
+                    }
+                    if (!response.getSuccess()) {
+                        break;
+                    }
+                    offset += chunk.limit();
+                    installed = done;
+                }
+            } catch (IOException | StatusRuntimeException e) {
+                logger.debug("Raft node {} snapshot gönderimi başarısız: {}", peer, e.getMessage());
+                channel.resetConnectBackoff();
+            }
+            synchronized (RaftNode.this) {
+                if (role == Role.LEADER && currentTerm == term && generation == sentGeneration) {
+                    if (installed) {
+                        matchIndex = Math.max(matchIndex, install.index);
+                        nextIndex = install.index + 1;
+                        advanceCommit();
+                        logger.info("Raft node {} snapshot'ı aldı: {} ({} ms)", peer, install,
+                                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+                    } else {
+                        retryAtNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(HEARTBEAT_MILLIS);
+                    }
+                }
+                RaftNode.this.notifyAll();
+            }
+        }
+
+        /**
+         * Takipçi bu term'de sentNanos'ta gönderilen isteği kabul etti: check-quorum ve okuma kirası için sayılır
+         */
+        private void acknowledged(long sentNanos) {
+            if (sentNanos > ackSentNanos) {
+                ackSentNanos = sentNanos;
+                updateReadLease();
+            }
+        }
+
+        private void send(AppendRequest request, long sentGeneration) {
+            appendRpcs.increment();
+            appendedEntries.add(request.getEntriesCount());
+            long sentNanos = System.nanoTime();
+            stub.withDeadlineAfter(RPC_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)
+                    .appendEntries(request, new StreamObserver<AppendResponse>() {
+                        @Override
+                        public void onNext(AppendResponse response) {
+                            onAppendResponse(request, response, sentGeneration, sentNanos);
+                        }
+
+                        @Override
+                        public void onError(Throwable t) {
+                            onAppendError(t, sentGeneration);
+                        }
+
+                        @Override
+                        public void onCompleted() {
+                        }
+                    });
+        }
+
+        private void onAppendResponse(AppendRequest request, AppendResponse response, long sentGeneration,
+                                      long sentNanos) {
+            synchronized (RaftNode.this) {
+                inFlight--;
+                if (response.getTerm() > currentTerm) {
+                    stepDown(response.getTerm());
+                    return;
+                }
+                if (role == Role.LEADER && request.getTerm() == currentTerm) {
+                    // Uyuşmayan log da olsa takipçi bu term'in liderini kabul etti
+                    acknowledged(sentNanos);
+                }
+                if (role == Role.LEADER && request.getTerm() == currentTerm && generation == sentGeneration) {
+                    if (response.getSuccess()) {
+                        if (response.getMatchIndex() > matchIndex) {
+                            matchIndex = response.getMatchIndex();
+                            advanceCommit();
+                        }
+                    } else {
+                        // Pipeline geri sarılır, takipçinin bildirdiği yerden tekrar gönderilir
+                        generation++;
+                        nextIndex = Math.max(matchIndex + 1, Math.min(response.getConflictIndex(), log.lastIndex() + 1));
+                        logger.debug("Raft node {} log'u uyuşmadı, {} index'inden tekrar gönderilecek", peer, nextIndex);
+                    }
+                }
+                RaftNode.this.notifyAll();
+            }
+        }
+
+        private void onAppendError(Throwable t, long sentGeneration) {
+            synchronized (RaftNode.this) {
+                inFlight--;
+                if (generation == sentGeneration) {
+                    generation++;
+                    nextIndex = matchIndex + 1;
+                    // Ulaşılamayan takipçiye heartbeat aralığında bir denenir
+                    retryAtNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(HEARTBEAT_MILLIS);
+                    logger.debug("Raft node {} AppendEntries hatası: {}", peer, t.getMessage());
+                }
+                RaftNode.this.notifyAll();
+            }
+            channel.resetConnectBackoff();
+        }
+    }
+
+    /**
+     * Diğer node'lardan gelen RPC'ler (directExecutor ile Netty thread'inde çalışır)
+     */
+    private final class RaftService extends RaftServiceGrpc.RaftServiceImplBase {
+        @Override
+        public void requestVote(VoteRequest request, StreamObserver<VoteResponse> responseObserver) {
+            responseObserver.onNext(handleVote(request));
+            responseObserver.onCompleted();
+        }
+
+        @Override
+        public void appendEntries(AppendRequest request, StreamObserver<AppendResponse> responseObserver) {
+            responseObserver.onNext(handleAppend(request));
+            responseObserver.onCompleted();
+        }
+
+        @Override
+        public void installSnapshot(SnapshotRequest request, StreamObserver<SnapshotResponse> responseObserver) {
+            responseObserver.onNext(handleSnapshot(request));
+            responseObserver.onCompleted();
+        }
+    }
+}
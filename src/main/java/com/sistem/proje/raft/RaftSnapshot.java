@@ -0,0 +1,284 @@
+package com.sistem.proje.raft;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Durum makinesinin bir index'e kadar uygulanmış hali; Raft log'unun o index'e kadarki kısmının yerini alır
+ *
+ * Her snapshot kendi index'iyle adlandırılmış dosyadadır (snapshot-&lt;index&gt;). Dosya önce geçici isimle
+ * yazılıp fsync edilir, sonra atomik olarak yerine taşınır ve eski snapshot'lar silinir. Silinen dosyayı
+ * okuyan takipçi gönderimi açık kanaldan tamamlanır. Açılışta CRC'si tutmayan snapshot yok sayılır
+ *
+ * Dosya formatı: index(8) | term(8) | durum makinesi verisi | crc(4), CRC index, term ve veriyi kapsar
+ */
+final class RaftSnapshot {
+    private static final Logger logger = LoggerFactory.getLogger(RaftSnapshot.class);
+
+    static final int HEADER_SIZE = 16;
+    private static final int TRAILER_SIZE = 4;
+    private static final String PREFIX = "snapshot-";
+    private static final String TEMP_FILE = "snapshot.tmp";
+    private static final String RECEIVE_FILE = "snapshot.recv";
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    final Path path;
+    final long index;
+    final long term;
+    final long size;
+
+    private RaftSnapshot(Path path, long index, long term, long size) {
+        this.path = path;
+        this.index = index;
+        this.term = term;
+        this.size = size;
+    }
+
+    /**
+     * Klasördeki en güncel geçerli snapshot'ı bulur, yarım kalmış geçici dosyaları siler
+     *
+     * @return Snapshot, yoksa null
+     */
+    static RaftSnapshot load(Path directory) throws IOException {
+        Files.deleteIfExists(directory.resolve(TEMP_FILE));
+        Files.deleteIfExists(directory.resolve(RECEIVE_FILE));
+        RaftSnapshot latest = null;
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, PREFIX + "*")) {
+            for (Path path : stream) {
+                RaftSnapshot snapshot = verify(path);
+                if (snapshot == null) {
+                    logger.error("Raft snapshot'ı bozuk, yok sayılıyor: {}", path);
+                } else if (latest == null || snapshot.index > latest.index) {
+                    latest = snapshot;
+                }
+            }
+        }
+        if (latest != null) {
+            deleteOlder(directory, latest.index);
+        }
+        return latest;
+    }
+
+    /**
+     * Durum makinesinin şu anki halini snapshot olarak yazar ve kalıcı yapar
+     *
+     * @param index Durum makinesine uygulanmış son kaydın index'i
+     * @param term Bu kaydın term'i
+     */
+    static RaftSnapshot write(Path directory, long index, long term, RaftNode.StateMachine stateMachine)
+            throws IOException {
+        Path temp = directory.resolve(TEMP_FILE);
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            CRC32 crc = new CRC32();
+            DataOutputStream out = new DataOutputStream(new CheckedOutputStream(
+                    new BufferedOutputStream(Channels.newOutputStream(channel), BUFFER_SIZE), crc));
+            out.writeLong(index);
+            out.writeLong(term);
+            stateMachine.snapshot(out);
+            out.flush();
+            ByteBuffer trailer = ByteBuffer.allocate(TRAILER_SIZE).putInt((int) crc.getValue());
+            trailer.flip();
+            while (trailer.hasRemaining()) {
+                channel.write(trailer);
+            }
+            channel.force(true);
+        }
+        return publish(directory, temp, index);
+    }
+
+    /**
+     * Liderden parça parça alınan snapshot'ın yazıldığı dosya
+     */
+    static Path receivePath(Path directory) {
+        return directory.resolve(RECEIVE_FILE);
+    }
+
+    /**
+     * Alınması tamamlanan snapshot'ı doğrular ve geçerli snapshot yapar
+     *
+     * @throws IOException CRC veya başlık liderin bildirdiğiyle uyuşmuyorsa
+     */
+    static RaftSnapshot install(Path directory, long index, long term) throws IOException {
+        Path received = receivePath(directory);
+        RaftSnapshot snapshot = verify(received);
+        if (snapshot == null || snapshot.index != index || snapshot.term != term) {
+            Files.deleteIfExists(received);
+            throw new IOException("Alınan Raft snapshot'ı bozuk veya beklenen index'te değil: " + index);
+        }
+        return publish(directory, received, index);
+    }
+
+    private static RaftSnapshot publish(Path directory, Path file, long index) throws IOException {
+        Path path = directory.resolve(PREFIX + index);
+        Files.move(file, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        try (FileChannel dir = FileChannel.open(directory, StandardOpenOption.READ)) {
+            dir.force(true);
+        } catch (IOException e) {
+            logger.debug("Raft klasörü fsync edilemedi: {}", e.getMessage());
+        }
+        RaftSnapshot snapshot = verifyHeader(path);
+        deleteOlder(directory, index);
+        return snapshot;
+    }
+
+    private static void deleteOlder(Path directory, long index) throws IOException {
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, PREFIX + "*")) {
+            for (Path path : stream) {
+                Long other = indexOf(path);
+                if (other != null && other < index) {
+                    Files.deleteIfExists(path);
+                }
+            }
+        }
+    }
+
+    private static Long indexOf(Path path) {
+        String name = path.getFileName().toString();
+        try {
+            return Long.parseLong(name.substring(PREFIX.length()));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Dosyanın tamamını okuyup CRC'sini kontrol eder
+     *
+     * @return Snapshot, dosya kısa veya CRC'si tutmuyorsa null
+     */
+    private static RaftSnapshot verify(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_SIZE + TRAILER_SIZE) {
+                return null;
+            }
+            CRC32 crc = new CRC32();
+            ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+            long position = 0;
+            long dataEnd = size - TRAILER_SIZE;
+            while (position < dataEnd) {
+                buffer.clear().limit((int) Math.min(BUFFER_SIZE, dataEnd - position));
+                int read = channel.read(buffer, position);
+                if (read < 0) {
+                    return null;
+                }
+                crc.update(buffer.array(), 0, read);
+                position += read;
+            }
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE + TRAILER_SIZE);
+            header.limit(HEADER_SIZE);
+            readFully(channel, header, 0);
+            header.limit(HEADER_SIZE + TRAILER_SIZE);
+            readFully(channel, header, dataEnd);
+            header.flip();
+            long index = header.getLong();
+            long term = header.getLong();
+            if (header.getInt() != (int) crc.getValue()) {
+                return null;
+            }
+            return new RaftSnapshot(path, index, term, size);
+        }
+    }
+
+    private static RaftSnapshot verifyHeader(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            readFully(channel, header, 0);
+            header.flip();
+            return new RaftSnapshot(path, header.getLong(), header.getLong(), channel.size());
+        }
+    }
+
+    /**
+     * Durum makinesi verisini okur (başlık ve CRC hariç); akış kapatılınca dosya da kapanır
+     */
+    InputStream openData() throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        channel.position(HEADER_SIZE);
+        long remaining = size - HEADER_SIZE - TRAILER_SIZE;
+        return new BufferedInputStream(new LimitedInputStream(Channels.newInputStream(channel), remaining),
+                BUFFER_SIZE);
+    }
+
+    static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position);
+            if (read < 0) {
+                throw new IOException("Raft snapshot'ı beklenmeden bitti: " + position);
+            }
+            position += read;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "RaftSnapshot{index=" + index + ", term=" + term + ", size=" + size + "}";
+    }
+
+    /**
+     * Verinin sonundaki CRC'nin durum makinesine okunmaması için akışı sınırlar
+     */
+    private static final class LimitedInputStream extends FilterInputStream {
+        private long remaining;
+
+        LimitedInputStream(InputStream in, long limit) {
+            super(in);
+            this.remaining = limit;
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (remaining <= 0) {
+                return -1;
+            }
+            int value = super.read();
+            if (value >= 0) {
+                remaining--;
+            }
+            return value;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (remaining <= 0) {
+                return -1;
+            }
+            int read = super.read(b, off, (int) Math.min(len, remaining));
+            if (read > 0) {
+                remaining -= read;
+            }
+            return read;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = super.skip(Math.min(n, remaining));
+            remaining -= skipped;
+            return skipped;
+        }
+
+        @Override
+        public int available() throws IOException {
+            return (int) Math.min(super.available(), remaining);
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.sistem.proje.storage;
+
+/**
+ * Write-behind modunda Store çağrısının hangi aşamada onaylanacağı
+ * Gecikme ile dayanıklılık arasındaki tercih deployment başına yapılır
+ */
+public enum AckMode {
+    /**
+     * Mesaj kuyruğa alındığında onaylanır
+     * En düşük gecikme; node çökerse kuyruktaki yazmalar kaybolur
+     */
+    ENQUEUED,
+
+    /**
+     * Mesaj storage'a yazıldığında (OS page cache) onaylanır
+     * Process çökmesine dayanıklı, işletim sistemi/makine çökmesine değil
+     */
+    WRITTEN,
+
+    /**
+     * Mesaj yazılıp fsync ile diske zorlandığında onaylanır
+     * Batch başına tek fsync yapılır (group commit)
+     */
+    FSYNCED
+}
@@ -0,0 +1,41 @@
+package com.sistem.proje.storage;
+
+/**
+ * Kayıt başına sıkıştırma algoritmaları
+ * Sıkıştırılmış kayıtlar kendini tanımlayan bir çerçeveyle saklanır, bu yüzden
+ * ayar değiştirildiğinde eski kayıtlar okunmaya devam eder
+ */
+public enum Compression {
+    /**
+     * Sıkıştırma yok - payload ham UTF-8 olarak saklanır
+     */
+    NONE((byte) 0),
+
+    /**
+     * java.util.zip Deflater, en hızlı seviye (BEST_SPEED)
+     * Metin payload'larda düşük CPU maliyetiyle belirgin alan kazancı sağlar
+     */
+    DEFLATE((byte) 1);
+
+    private final byte id;
+
+    Compression(byte id) {
+        this.id = id;
+    }
+
+    /**
+     * Çerçeve header'ında saklanan algoritma kodu
+     */
+    byte id() {
+        return id;
+    }
+
+    static Compression fromId(byte id) {
+        for (Compression compression : values()) {
+            if (compression.id == id) {
+                return compression;
+            }
+        }
+        throw new IllegalArgumentException("Bilinmeyen sıkıştırma kodu: " + id);
+    }
+}
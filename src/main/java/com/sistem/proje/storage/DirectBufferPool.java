@@ -0,0 +1,75 @@
+package com.sistem.proje.storage;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Thread başına yeniden kullanılan direct buffer ve byte[] havuzu
+ * FileChannel okuma/yazmalarında JDK'nın her çağrıda geçici direct buffer kopyası yapmasını
+ * ve her istekte yeni buffer ayrılmasını önler
+ * Dönen buffer'lar sadece aynı thread'de, bir sonraki acquire çağrısına kadar geçerlidir
+ */
+final class DirectBufferPool {
+    private static final int INITIAL_CAPACITY = 8 * 1024;
+    // Bu boyuttan büyük istekler havuzda tutulmaz (thread başına bellek sınırı)
+    static final int MAX_POOLED_CAPACITY = 4 * 1024 * 1024;
+
+    private static final ThreadLocal<ByteBuffer> DIRECT =
+            ThreadLocal.withInitial(() -> ByteBuffer.allocateDirect(INITIAL_CAPACITY));
+    // İlk buffer'daki veriden türetilen çıktı için (ör. okunan çerçevenin açılmış hali)
+    private static final ThreadLocal<ByteBuffer> SECONDARY =
+            ThreadLocal.withInitial(() -> ByteBuffer.allocateDirect(INITIAL_CAPACITY));
+    private static final ThreadLocal<byte[]> SCRATCH =
+            ThreadLocal.withInitial(() -> new byte[INITIAL_CAPACITY]);
+
+    private DirectBufferPool() {
+    }
+
+    /**
+     * En az capacity byte'lık, temizlenmiş ve limit'i capacity'ye ayarlanmış bir direct buffer döndürür
+     */
+    static ByteBuffer acquire(int capacity) {
+        return acquire(DIRECT, capacity);
+    }
+
+    /**
+     * acquire ile aynı, ancak ondan bağımsız ikinci bir buffer döndürür
+     * acquire ile alınmış buffer'daki veriyi okurken başka bir buffer'a yazmak için kullanılır
+     */
+    static ByteBuffer acquireSecondary(int capacity) {
+        return acquire(SECONDARY, capacity);
+    }
+
+    private static ByteBuffer acquire(ThreadLocal<ByteBuffer> pool, int capacity) {
+        ByteBuffer buffer = pool.get();
+        if (buffer.capacity() < capacity) {
+            if (capacity > MAX_POOLED_CAPACITY) {
+                // Çok büyük payload: havuzu şişirmeden tek seferlik buffer
+                return ByteBuffer.allocateDirect(capacity);
+            }
+            buffer = ByteBuffer.allocateDirect(nextPowerOfTwo(capacity));
+            pool.set(buffer);
+        }
+        buffer.clear().limit(capacity);
+        return buffer;
+    }
+
+    /**
+     * En az capacity byte'lık thread'e özel heap dizisi döndürür (String dönüşümü için)
+     */
+    static byte[] scratch(int capacity) {
+        byte[] array = SCRATCH.get();
+        if (array.length < capacity) {
+            if (capacity > MAX_POOLED_CAPACITY) {
+                return new byte[capacity];
+            }
+            array = new byte[nextPowerOfTwo(capacity)];
+            SCRATCH.set(array);
+        }
+        return array;
+    }
+
+    private static int nextPowerOfTwo(int value) {
+        int highest = Integer.highestOneBit(value);
+        return highest == value ? value : highest << 1;
+    }
+}
@@ -0,0 +1,17 @@
+package com.sistem.proje.storage;
+
+/**
+ * Dosya-başına-mesaj modlarında (BUFFERED / UNBUFFERED) klasör yerleşimi
+ */
+public enum FileLayout {
+    /**
+     * Tüm <id>.msg dosyaları tek klasörde tutulur
+     */
+    FLAT,
+
+    /**
+     * Dosyalar id'den türetilen iki seviyeli hex klasörlere dağıtılır: ab/cd/<id>.msg
+     * Her klasörde en fazla 256 alt klasör bulunur, milyonlarca mesajda bile dizin taraması hızlı kalır
+     */
+    SHARDED
+}
@@ -14,6 +14,18 @@ public enum IOMode {
      * Unbuffered IO - FileOutputStream / FileInputStream kullanır
      * Direkt dosya IO, buffer kullanmaz
      */
-    UNBUFFERED
+    UNBUFFERED,
+
+    /**
+     * FileChannel IO - Pozisyonel FileChannel read/write, thread'e özel direct buffer havuzu kullanır
+     * İstek başına sonuç dışında nesne ayırmaz, payload byte-byte aynen döner
+     */
+    CHANNEL,
+
+    /**
+     * Append-only segment log - Tüm mesajlar segment dosyalarına eklenir
+     * Eski ve silinmiş kopyalar arka planda compaction ile temizlenir
+     */
+    LOG
 }
 
@@ -0,0 +1,50 @@
+package com.sistem.proje.storage;
+
+import java.nio.ByteBuffer;
+
+/**
+ * OffsetLog.read sonucu: ardışık kayıtların diskteki biçimiyle ham byte'ları
+ *
+ * Kayıt formatı (big-endian): offset(8) | uzunluk(4) | crc(4) | payload(uzunluk)
+ * Buffer thread'e özel havuzdan gelir ve aynı thread'in bir sonraki DirectBufferPool
+ * kullanımına kadar geçerlidir; okuyan thread kayıtları hemen yazmalı veya kopyalamalıdır
+ */
+public final class LogBatch {
+    private final ByteBuffer records;
+    private final long firstOffset;
+    private final int recordCount;
+    private final long nextOffset;
+
+    LogBatch(ByteBuffer records, long firstOffset, int recordCount, long nextOffset) {
+        this.records = records;
+        this.firstOffset = firstOffset;
+        this.recordCount = recordCount;
+        this.nextOffset = nextOffset;
+    }
+
+    /**
+     * Kayıtlar: position ilk kaydın başı, limit son kaydın sonu
+     */
+    public ByteBuffer getRecords() {
+        return records;
+    }
+
+    public long getFirstOffset() {
+        return firstOffset;
+    }
+
+    public int getRecordCount() {
+        return recordCount;
+    }
+
+    /**
+     * Bir sonraki READ'in başlayacağı offset (batch boşsa log sonu)
+     */
+    public long getNextOffset() {
+        return nextOffset;
+    }
+
+    public int getByteLength() {
+        return records.remaining();
+    }
+}
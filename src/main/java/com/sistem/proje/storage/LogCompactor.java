@@ -0,0 +1,169 @@
+package com.sistem.proje.storage;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Segment log için arka plan compactor'ı
+ * Canlı veri oranı eşiğin altına düşen segment'leri yeniden yazar,
+ * üzerine yazılmış ve silinmiş kayıtların kapladığı alanı geri kazanır
+ * Disk I/O hızı saniyede belirli bir byte sayısıyla sınırlandırılır
+ */
+public class LogCompactor {
+    private static final Logger logger = LoggerFactory.getLogger(LogCompactor.class);
+    public static final double DEFAULT_LIVE_RATIO_THRESHOLD = 0.5;
+    public static final long DEFAULT_MAX_BYTES_PER_SECOND = 32L * 1024 * 1024;
+    public static final long DEFAULT_INTERVAL_SECONDS = 30;
+
+    private final SegmentLog log;
+    private final double liveRatioThreshold;
+    private final long maxBytesPerSecond;
+    private final long intervalSeconds;
+    private final ScheduledExecutorService scheduler;
+
+    // İlerleme metrikleri
+    private final AtomicLong runs = new AtomicLong();
+    private final AtomicLong segmentsCompacted = new AtomicLong();
+    private final AtomicLong bytesCopied = new AtomicLong();
+    private final AtomicLong bytesReclaimed = new AtomicLong();
+    private volatile long lastRunTimestamp;
+    private volatile int pendingSegments;
+
+    // Token bucket durumu (sadece compactor thread'i kullanır)
+    private long throttleStartNanos;
+    private long throttledBytes;
+
+    LogCompactor(SegmentLog log) {
+        this(log, DEFAULT_LIVE_RATIO_THRESHOLD, DEFAULT_MAX_BYTES_PER_SECOND, DEFAULT_INTERVAL_SECONDS);
+    }
+
+    LogCompactor(SegmentLog log, double liveRatioThreshold, long maxBytesPerSecond, long intervalSeconds) {
+        this.log = log;
+        this.liveRatioThreshold = liveRatioThreshold;
+        this.maxBytesPerSecond = maxBytesPerSecond;
+        this.intervalSeconds = intervalSeconds;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "log-compactor");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Periyodik compaction'ı başlatır
+     */
+    void start() {
+        scheduler.scheduleWithFixedDelay(this::runOnce, intervalSeconds, intervalSeconds, TimeUnit.SECONDS);
+        logger.info("Log compactor başlatıldı. Eşik: {}, Hız limiti: {} byte/s, Aralık: {} saniye",
+                liveRatioThreshold, maxBytesPerSecond, intervalSeconds);
+    }
+
+    /**
+     * Compactor'ı durdurur, devam eden segment bitene kadar bekler
+     */
+    void stop() {
+        scheduler.shutdown();
+        try {
+            if (!scheduler.awaitTermination(10, TimeUnit.SECONDS)) {
+                scheduler.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            scheduler.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Eşiğin altındaki segment'leri en düşük canlı orandan başlayarak sıkıştırır
+     */
+    void runOnce() {
+        List<SegmentLog.SegmentInfo> candidates = log.inactiveSegments();
+        candidates.removeIf(info -> info.liveRatio() >= liveRatioThreshold);
+        candidates.sort(Comparator.comparingDouble(SegmentLog.SegmentInfo::liveRatio));
+        pendingSegments = candidates.size();
+
+        throttleStartNanos = System.nanoTime();
+        throttledBytes = 0;
+
+        for (SegmentLog.SegmentInfo candidate : candidates) {
+            if (scheduler.isShutdown()) {
+                break;
+            }
+            try {
+                long reclaimed = log.compact(candidate.id, this::throttle);
+                segmentsCompacted.incrementAndGet();
+                bytesReclaimed.addAndGet(reclaimed);
+                logger.debug("Segment {} sıkıştırıldı (canlı oran {}), {} byte geri kazanıldı",
+                        candidate.id, candidate.liveRatio(), reclaimed);
+            } catch (InterruptedIOException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (IOException e) {
+                logger.error("Segment {} sıkıştırılırken hata: ", candidate.id, e);
+            } catch (Exception e) {
+                logger.error("Compaction beklenmeyen hata: ", e);
+            }
+            pendingSegments--;
+        }
+
+        runs.incrementAndGet();
+        lastRunTimestamp = System.currentTimeMillis();
+    }
+
+    /**
+     * Kopyalanan byte'ları hız limitine göre bekletir
+     */
+    private void throttle(long bytes) throws IOException {
+        bytesCopied.addAndGet(bytes);
+        if (maxBytesPerSecond <= 0) {
+            return;
+        }
+        throttledBytes += bytes;
+        long expectedNanos = throttledBytes * 1_000_000_000L / maxBytesPerSecond;
+        long aheadNanos = expectedNanos - (System.nanoTime() - throttleStartNanos);
+        if (aheadNanos > 1_000_000L) {
+            try {
+                TimeUnit.NANOSECONDS.sleep(aheadNanos);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Compaction kesildi");
+            }
+        }
+    }
+
+    public long getRuns() {
+        return runs.get();
+    }
+
+    public long getSegmentsCompacted() {
+        return segmentsCompacted.get();
+    }
+
+    public long getBytesCopied() {
+        return bytesCopied.get();
+    }
+
+    public long getBytesReclaimed() {
+        return bytesReclaimed.get();
+    }
+
+    public long getLastRunTimestamp() {
+        return lastRunTimestamp;
+    }
+
+    /**
+     * Son çalıştırmada henüz işlenmemiş aday segment sayısı
+     */
+    public int getPendingSegments() {
+        return pendingSegments;
+    }
+}
@@ -0,0 +1,58 @@
+package com.sistem.proje.storage;
+
+import java.nio.ByteBuffer;
+
+/**
+ * MessageStorage.writeMessage'ın mesajın önüne ve arkasına yazdığı protokol çerçevesi
+ * Header mesaj uzunluğu belli olduktan sonra yazılır (ör. uzunluk önekli binary cevap),
+ * trailer mesajdan hemen sonra gelir (ör. text protokolünde satır sonu).
+ * Küçük mesajlarda header, mesaj ve trailer aynı buffer'da tek write ile gönderilir
+ */
+public interface MessageFrame {
+
+    int headerSize();
+
+    /**
+     * Header'ı target'ın [index, index + headerSize) aralığına yazar (target'ın position'ı değiştirilmez)
+     *
+     * @param messageLength Header'dan sonra gelecek mesajın byte uzunluğu
+     */
+    void putHeader(ByteBuffer target, int index, int messageLength);
+
+    int trailerSize();
+
+    /**
+     * Trailer'ı target'ın [index, index + trailerSize) aralığına yazar (target'ın position'ı değiştirilmez)
+     */
+    void putTrailer(ByteBuffer target, int index);
+
+    /**
+     * Header'ı olmayan, mesajın arkasına sabit byte'lar ekleyen çerçeve
+     * Dönen nesne durumsuzdur, thread'ler arasında paylaşılabilir
+     */
+    static MessageFrame trailer(byte[] trailer) {
+        byte[] bytes = trailer.clone();
+        return new MessageFrame() {
+            @Override
+            public int headerSize() {
+                return 0;
+            }
+
+            @Override
+            public void putHeader(ByteBuffer target, int index, int messageLength) {
+            }
+
+            @Override
+            public int trailerSize() {
+                return bytes.length;
+            }
+
+            @Override
+            public void putTrailer(ByteBuffer target, int index) {
+                for (int i = 0; i < bytes.length; i++) {
+                    target.put(index + i, bytes[i]);
+                }
+            }
+        };
+    }
+}
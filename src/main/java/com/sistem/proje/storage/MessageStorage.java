@@ -1,27 +1,80 @@
 package com.sistem.proje.storage;
 
+import com.sistem.proje.metrics.LatencyHistogram;
+import com.sistem.proje.metrics.MetricsRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.FileVisitOption;
+import java.nio.file.FileVisitResult;
 import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.Lock;
 
 /**
  * Disk tabanlı mesaj saklama sınıfı
- * Her mesajı messages/ klasörü altında ayrı dosyada saklar
+ * Her mesajı verilen klasör (varsayılan messages/) altında ayrı dosyada saklar
  * Buffered veya Unbuffered IO modu seçilebilir
+ * Dosyalar düz (FLAT) veya iki seviyeli hex klasörlere dağıtılmış (SHARDED) yerleşimde tutulur
+ * LOG modunda mesajlar append-only segment dosyalarında tutulur ve arka planda sıkıştırılır
+ * Sıkıştırma açılırsa eşikten büyük mesajlar kayıt başına sıkıştırılarak saklanır (varsayılan kapalı)
  */
-public class MessageStorage {
+public class MessageStorage implements Closeable {
     private static final Logger logger = LoggerFactory.getLogger(MessageStorage.class);
     private static final String MESSAGES_DIR = "messages";
     private static final String FILE_EXTENSION = ".msg";
     private static final IOMode DEFAULT_IO_MODE = IOMode.UNBUFFERED;
+    // Bu boyuttan (UTF-8 byte) küçük mesajlarda sıkıştırma kazancı header maliyetini karşılamaz
+    public static final int DEFAULT_COMPRESSION_THRESHOLD = 512;
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+    private static final int LOCK_STRIPES = 1024;
     
     private final Path messagesDirectory;
     private final IOMode ioMode;
+    private final FileLayout layout;
+    private final Compression compression;
+    private final int compressionThreshold;
+
+    // Dosya modlarında ID başına okuma/yazma kilidi (okuyucular yarım yazılmış dosya görmez)
+    private final StripedLock locks = new StripedLock(LOCK_STRIPES);
+
+    // Okuma, yazma ve fsync gecikmeleri (storage.read / storage.write / storage.fsync)
+    private final LatencyHistogram readLatency;
+    private final LatencyHistogram writeLatency;
+    private final LatencyHistogram fsyncLatency;
+
+    // SHARDED yerleşimde oluşturulmuş bucket klasörleri (65536 bit), her yazmada createDirectories çağrılmaz
+    private final AtomicLongArray createdBuckets = new AtomicLongArray(1024);
+    // Düz yerleşimden taşıma devam ederken okumalar eski yola da bakar
+    private volatile boolean migrating;
+    private volatile boolean closed;
+
+    // Dosya modlarında diskteki mesaj dosyası sayısı ve toplam boyutu
+    // Açılışta bir kez taranır, sonra yazma/silmelerde güncellenir; metrik ve heartbeat okumaları diski taramaz
+    private final AtomicLong fileCount = new AtomicLong();
+    private final AtomicLong fileBytes = new AtomicLong();
+
+    // Sadece LOG modunda kullanılır
+    private final SegmentLog segmentLog;
+    private final LogCompactor compactor;
 
     /**
      * Varsayılan Buffered IO modu ile oluşturur
@@ -36,10 +89,171 @@ public class MessageStorage {
      * @param ioMode IO modu (BUFFERED veya UNBUFFERED)
      */
     public MessageStorage(IOMode ioMode) {
-        this.messagesDirectory = Paths.get(MESSAGES_DIR);
-        this.ioMode = ioMode != null ? ioMode : DEFAULT_IO_MODE;
+        this(Paths.get(MESSAGES_DIR), ioMode);
+    }
+
+    /**
+     * Belirtilen klasör ve IO modu ile oluşturur
+     * Aynı makinede çalışan node'ların dosyaları paylaşmaması için her node kendi klasörünü verir
+     * 
+     * @param messagesDirectory Mesaj dosyalarının saklanacağı klasör
+     * @param ioMode IO modu (BUFFERED, UNBUFFERED veya LOG)
+     */
+    public MessageStorage(Path messagesDirectory, IOMode ioMode) {
+        this(messagesDirectory, new StorageOptions().setIoMode(ioMode != null ? ioMode : DEFAULT_IO_MODE));
+    }
+
+    /**
+     * Belirtilen klasör ve ayarlarla oluşturur
+     * 
+     * @param messagesDirectory Mesaj dosyalarının saklanacağı klasör
+     * @param options IO modu, dosya yerleşimi ve sıkıştırma ayarları
+     */
+    public MessageStorage(Path messagesDirectory, StorageOptions options) {
+        this(messagesDirectory, options, new MetricsRegistry());
+    }
+
+    /**
+     * Gecikme metriklerini verilen registry'ye kaydeden storage oluşturur
+     * SHARDED seçilirse ve klasörde düz yerleşimde dosyalar varsa arka planda taşınır,
+     * taşıma sürerken okuma/yazma işlemleri kesintisiz devam eder
+     * 
+     * @param messagesDirectory Mesaj dosyalarının saklanacağı klasör
+     * @param options IO modu, dosya yerleşimi ve sıkıştırma ayarları
+     * @param metrics Node'un metrik registry'si
+     */
+    public MessageStorage(Path messagesDirectory, StorageOptions options, MetricsRegistry metrics) {
+        this.readLatency = metrics.histogram("storage.read");
+        this.writeLatency = metrics.histogram("storage.write");
+        this.fsyncLatency = metrics.histogram("storage.fsync");
+        this.messagesDirectory = messagesDirectory;
+        this.ioMode = options.getIoMode();
+        this.layout = options.getLayout();
+        this.compression = options.getCompression();
+        this.compressionThreshold = options.getCompressionThreshold();
         initializeDirectory();
-        logger.info("MessageStorage başlatıldı. IO Modu: {}", this.ioMode);
+        if (this.ioMode == IOMode.LOG) {
+            try {
+                this.segmentLog = new SegmentLog(messagesDirectory);
+            } catch (IOException e) {
+                logger.error("Segment log açılamadı: ", e);
+                throw new RuntimeException("Storage başlatılamadı", e);
+            }
+            this.compactor = new LogCompactor(segmentLog);
+            this.compactor.start();
+        } else {
+            this.segmentLog = null;
+            this.compactor = null;
+            // Taşıma thread'i başlamadan sayılır, aynı dosya iki yolda görülmez
+            seedUsage();
+            if (this.layout == FileLayout.SHARDED) {
+                startLayoutMigration();
+            } else {
+                warnIfShardedData();
+            }
+        }
+        logger.info("MessageStorage başlatıldı. IO Modu: {}, Yerleşim: {}, Sıkıştırma: {} (eşik {} byte)",
+                this.ioMode, this.layout, this.compression, compressionThreshold);
+    }
+
+    /**
+     * FLAT yerleşimde açılan klasörde bucket klasörleri varsa uyarır
+     * SHARDED'den FLAT'e geri taşıma yapılmaz, bucket'lardaki mesajlar bu yerleşimde görünmez
+     */
+    private void warnIfShardedData() {
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(messagesDirectory,
+                path -> Files.isDirectory(path) && path.getFileName().toString().matches("[0-9a-f]{2}"))) {
+            if (stream.iterator().hasNext()) {
+                logger.warn("{} klasöründe SHARDED yerleşimde yazılmış mesajlar var, FLAT yerleşimde okunamazlar. "
+                        + "SHARDED yerleşimle başlatın", messagesDirectory.toAbsolutePath());
+            }
+        } catch (IOException e) {
+            logger.debug("Bucket klasörleri kontrol edilemedi: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Düz yerleşimde kalmış dosya varsa SHARDED yerleşime taşıma thread'ini başlatır
+     */
+    private void startLayoutMigration() {
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(messagesDirectory, "*" + FILE_EXTENSION)) {
+            if (!stream.iterator().hasNext()) {
+                return;
+            }
+        } catch (IOException e) {
+            logger.error("Düz yerleşim kontrol edilemedi: ", e);
+            return;
+        }
+
+        migrating = true;
+        Thread migrationThread = new Thread(this::migrateFlatLayout, "storage-layout-migration");
+        migrationThread.setDaemon(true);
+        migrationThread.start();
+    }
+
+    /**
+     * Düz yerleşimdeki <id>.msg dosyalarını bucket klasörlerine taşır
+     * Hard link ile taşınır: hedefte daha yeni bir yazma varsa link başarısız olur ve eski kopya silinir
+     */
+    private void migrateFlatLayout() {
+        long moved = 0;
+        long skipped = 0;
+        logger.info("Düz yerleşimden SHARDED yerleşime taşıma başladı: {}", messagesDirectory.toAbsolutePath());
+
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(messagesDirectory, "*" + FILE_EXTENSION)) {
+            for (Path flatFile : stream) {
+                if (closed) {
+                    logger.info("Taşıma storage kapatıldığı için durduruldu. Taşınan: {}", moved);
+                    return;
+                }
+                String fileName = flatFile.getFileName().toString();
+                Integer id;
+                try {
+                    id = Integer.valueOf(fileName.substring(0, fileName.length() - FILE_EXTENSION.length()));
+                } catch (NumberFormatException e) {
+                    logger.warn("Taşıma: tanınmayan dosya atlandı: {}", flatFile);
+                    continue;
+                }
+
+                Path shardedFile = getShardedFilePath(id);
+                // Aynı ID'ye yazma/silme ile çakışmasın, kullanım sayaçları dosyalarla tutarlı kalır
+                Lock lock = locks.forId(id).writeLock();
+                lock.lock();
+                try {
+                    try {
+                        ensureBucket(id, shardedFile);
+                        Files.createLink(shardedFile, flatFile);
+                        moved++;
+                    } catch (FileAlreadyExistsException e) {
+                        // Taşıma sırasında yeni yerleşime daha güncel bir yazma yapılmış, eski kopya fazladan dosyadır
+                        skipped++;
+                        deleteCounted(flatFile);
+                        continue;
+                    } catch (NoSuchFileException e) {
+                        // Taşıma sırasında silinmiş
+                        continue;
+                    } catch (UnsupportedOperationException e) {
+                        if (!Files.exists(shardedFile)) {
+                            Files.move(flatFile, shardedFile);
+                            moved++;
+                            continue;
+                        }
+                        skipped++;
+                        deleteCounted(flatFile);
+                        continue;
+                    }
+                    // Hard link ile aynı dosya iki isimde, eski ismin silinmesi sayaçları değiştirmez
+                    Files.deleteIfExists(flatFile);
+                } finally {
+                    lock.unlock();
+                }
+            }
+            migrating = false;
+            logger.info("SHARDED yerleşime taşıma tamamlandı. Taşınan: {}, Atlanan (daha yeni kopya var): {}",
+                    moved, skipped);
+        } catch (IOException e) {
+            logger.error("Yerleşim taşıma hatası, eski yol okumalarda kullanılmaya devam edecek: ", e);
+        }
     }
 
     /**
@@ -73,8 +287,66 @@ public class MessageStorage {
             throw new IllegalArgumentException("Message null olamaz");
         }
 
-        Path messageFile = getMessageFilePath(id);
-        
+        long start = System.nanoTime();
+        try {
+            // Sıkıştırma kilit dışında yapılır, kilit sadece dosya yazması süresince tutulur
+            ByteBuffer frame = compress(message);
+
+            // Segment log kayıtları index güncellemesiyle atomik olarak görünür, ek kilit gerekmez
+            if (ioMode == IOMode.LOG) {
+                if (frame != null) {
+                    segmentLog.append(id, SegmentLog.ATTR_COMPRESSED, frame);
+                } else {
+                    saveMessageLog(id, message);
+                }
+                logger.debug("Mesaj kaydedildi: id={}, mod={}", id, ioMode);
+                return;
+            }
+
+            Path messageFile = getMessageFilePath(id);
+            if (layout == FileLayout.SHARDED) {
+                ensureBucket(id, messageFile);
+            }
+
+            // Dosya TRUNCATE ile yeniden yazılırken aynı ID'nin okuyucuları ve diğer yazıcıları bekler
+            Lock lock = locks.forId(id).writeLock();
+            lock.lock();
+            try {
+                long previousSize = fileSize(messageFile);
+                long writtenSize = -1;
+                try {
+                    writtenSize = writeMessageFile(messageFile, message, frame);
+                } finally {
+                    // Yazma yarıda kaldıysa dosyanın gerçek boyutu sayılır
+                    updateUsage(previousSize, writtenSize >= 0 ? writtenSize : fileSize(messageFile));
+                }
+
+                // Taşıma bitmediyse eski yoldaki kopya yeni yazmanın önüne geçmesin
+                if (migrating) {
+                    deleteCounted(getFlatFilePath(id));
+                }
+            } finally {
+                lock.unlock();
+            }
+
+            logger.debug("Mesaj kaydedildi: id={}, dosya={}, mod={}", id, messageFile, ioMode);
+        } finally {
+            writeLatency.recordSince(start);
+        }
+    }
+
+    /**
+     * Mesajı dosya moduna göre yazar
+     *
+     * @return Dosyaya yazılan byte sayısı
+     */
+    private long writeMessageFile(Path messageFile, String message, ByteBuffer frame) throws IOException {
+        if (frame != null) {
+            // Sıkıştırılmış çerçeve her modda aynı byte dizisidir, doğrudan kanala yazılır
+            int frameSize = frame.remaining();
+            saveFrame(messageFile, frame);
+            return frameSize;
+        }
         switch (ioMode) {
             case BUFFERED:
                 saveMessageBuffered(messageFile, message);
@@ -82,9 +354,41 @@ public class MessageStorage {
             case UNBUFFERED:
                 saveMessageUnbuffered(messageFile, message);
                 break;
+            case CHANNEL:
+                saveMessageChannel(messageFile, message);
+                break;
+            default:
+                throw new IllegalStateException("Bilinmeyen IO modu: " + ioMode);
+        }
+        return Utf8.encodedLength(message);
+    }
+
+    /**
+     * Mesaj eşikten büyükse sıkıştırılmış çerçeveyi hazırlar
+     * LOG modunda buffer başında segment kayıt header'ı için yer ayrılır
+     * 
+     * @return Yazılmaya hazır çerçeve; sıkıştırma kapalıysa, mesaj küçükse veya yer kazandırmıyorsa null
+     */
+    private ByteBuffer compress(String message) {
+        if (compression == Compression.NONE || message.length() * 3 < compressionThreshold) {
+            return null;
+        }
+        int rawLength = Utf8.encodedLength(message);
+        if (rawLength < compressionThreshold) {
+            return null;
+        }
+        int reserved = ioMode == IOMode.LOG ? SegmentLog.HEADER_SIZE : 0;
+        return PayloadCodec.compress(message, rawLength, compression, reserved);
+    }
+
+    /**
+     * Sıkıştırılmış çerçeveyi mesaj dosyasına yazar
+     */
+    private void saveFrame(Path messageFile, ByteBuffer frame) throws IOException {
+        try (FileChannel channel = FileChannel.open(messageFile, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            SegmentLog.writeFully(channel, frame, 0);
         }
-        
-        logger.debug("Mesaj kaydedildi: id={}, dosya={}, mod={}", id, messageFile, ioMode);
     }
 
     /**
@@ -111,6 +415,68 @@ public class MessageStorage {
         }
     }
 
+    /**
+     * FileChannel ile mesaj kaydeder
+     * Metin thread'e özel direct buffer'a doğrudan UTF-8 olarak kodlanır, ara byte[] oluşturulmaz
+     */
+    private void saveMessageChannel(Path messageFile, String message) throws IOException {
+        ByteBuffer buffer = DirectBufferPool.acquire(Utf8.encodedLength(message));
+        Utf8.encode(message, buffer);
+        buffer.flip();
+        try (FileChannel channel = FileChannel.open(messageFile, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            SegmentLog.writeFully(channel, buffer, 0);
+        }
+    }
+
+    /**
+     * Segment log'a mesaj ekler, header alanı buffer'ın başında ayrılır
+     */
+    private void saveMessageLog(Integer id, String message) throws IOException {
+        ByteBuffer record = DirectBufferPool.acquire(SegmentLog.HEADER_SIZE + Utf8.encodedLength(message));
+        record.position(SegmentLog.HEADER_SIZE);
+        Utf8.encode(message, record);
+        segmentLog.append(id, record);
+    }
+
+    /**
+     * Verilen mesajların yazmalarını diske zorlar (fsync)
+     * LOG modunda aktif segment'e tek fsync yapılır; dosya modlarında her mesaj dosyası ve
+     * yeni dosya isimlerinin kalıcı olması için bulundukları klasörler fsync edilir
+     * 
+     * @param ids Daha önce saveMessage ile yazılmış mesaj ID'leri
+     * @throws IOException fsync hatası
+     */
+    public void sync(Collection<Integer> ids) throws IOException {
+        long start = System.nanoTime();
+        try {
+            if (ioMode == IOMode.LOG) {
+                segmentLog.sync();
+                return;
+            }
+            Set<Path> directories = new HashSet<>();
+            for (Integer id : ids) {
+                Path messageFile = getMessageFilePath(id);
+                try (FileChannel channel = FileChannel.open(messageFile, StandardOpenOption.WRITE)) {
+                    channel.force(false);
+                } catch (NoSuchFileException e) {
+                    continue;
+                }
+                directories.add(messageFile.getParent());
+            }
+            for (Path directory : directories) {
+                try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+                    channel.force(true);
+                } catch (IOException e) {
+                    // Bazı platformlar (ör. Windows) klasör fsync'ini desteklemez
+                    logger.debug("Klasör fsync edilemedi: {} ({})", directory, e.getMessage());
+                }
+            }
+        } finally {
+            fsyncLatency.recordSince(start);
+        }
+    }
+
     /**
      * Mesajı dosyadan okur (GET işlemi)
      * 
@@ -123,10 +489,48 @@ public class MessageStorage {
             throw new IllegalArgumentException("ID null olamaz");
         }
 
-        Path messageFile = getMessageFilePath(id);
+        long start = System.nanoTime();
+        try {
+            if (ioMode == IOMode.LOG) {
+                ByteBuffer payload = segmentLog.read(id);
+                logger.debug("Mesaj okundu: id={}, bulundu={}, mod={}", id, payload != null, ioMode);
+                if (payload == null) {
+                    return null;
+                }
+                return PayloadCodec.isCompressed(payload) ? PayloadCodec.decompress(payload) : Utf8.decode(payload);
+            }
+
+            Lock lock = locks.forId(id).readLock();
+            lock.lock();
+            try {
+                return getMessageFile(id);
+            } finally {
+                lock.unlock();
+            }
+        } finally {
+            readLatency.recordSince(start);
+        }
+    }
+
+    /**
+     * Dosya modlarında mesajı okur (ID'nin read lock'u altında çağrılır)
+     */
+    private String getMessageFile(Integer id) throws IOException {
+        if (ioMode == IOMode.CHANNEL) {
+            // Ayrı bir exists/size stat'ı yapılmaz, dosya yoksa open hatası alınır
+            String message = getMessageChannel(getMessageFilePath(id));
+            if (message == null && migrating) {
+                Path flatFile = resolveExistingFile(id);
+                message = flatFile != null ? getMessageChannel(flatFile) : null;
+            }
+            logger.debug("Mesaj okundu: id={}, bulundu={}, mod={}", id, message != null, ioMode);
+            return message;
+        }
+
+        Path messageFile = resolveExistingFile(id);
         
         // Dosya yoksa null döndür
-        if (!Files.exists(messageFile)) {
+        if (messageFile == null) {
             logger.debug("Mesaj bulunamadı: id={}, dosya={}", id, messageFile);
             return null;
         }
@@ -147,18 +551,200 @@ public class MessageStorage {
         return message;
     }
 
+    /**
+     * Büyük mesajları heap'e okumadan doğrudan hedef kanala aktarır (GET için zero-copy yol)
+     * Dosya modlarında mesaj dosyası, LOG modunda segment içindeki kayıt dilimi
+     * FileChannel.transferTo ile (Linux'ta sendfile) gönderilir
+     * 
+     * @param id Mesaj ID'si
+     * @param target Hedef kanal (ör. client socket'i)
+     * @param minBytes Bu boyuttan küçük mesajlar aktarılmaz, normal getMessage yolu daha ucuzdur
+     * @return Aktarılan byte sayısı; mesaj yoksa veya minBytes'tan küçükse -1 (çağıran getMessage'a düşer)
+     * @throws IOException Okuma veya aktarım hatası
+     */
+    public long transferMessage(Integer id, WritableByteChannel target, long minBytes) throws IOException {
+        if (id == null) {
+            throw new IllegalArgumentException("ID null olamaz");
+        }
+
+        long start = System.nanoTime();
+        try {
+            if (ioMode == IOMode.LOG) {
+                return segmentLog.transferTo(id, target, minBytes);
+            }
+
+            // Aktarım süresince aynı ID'ye yazmalar bekler (sadece minBytes üstü mesajlarda, aynı stripe için)
+            Lock lock = locks.forId(id).readLock();
+            lock.lock();
+            try {
+                Path messageFile = resolveExistingFile(id);
+                return messageFile != null ? transferFile(id, messageFile, target, minBytes) : -1;
+            } finally {
+                lock.unlock();
+            }
+        } finally {
+            readLatency.recordSince(start);
+        }
+    }
+
+    private long transferFile(Integer id, Path messageFile, WritableByteChannel target, long minBytes)
+            throws IOException {
+        try (FileChannel channel = FileChannel.open(messageFile, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < minBytes || isCompressedFile(channel)) {
+                return -1;
+            }
+            long position = 0;
+            while (position < size) {
+                position += channel.transferTo(position, size - position, target);
+            }
+            logger.debug("Mesaj zero-copy aktarıldı: id={}, byte={}", id, size);
+            return size;
+        } catch (NoSuchFileException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Mesajı String'e çevirmeden protokol çerçevesiyle birlikte hedef kanala yazar (GET için allocation'sız yol)
+     * Sıkıştırılmamış ve zeroCopyMinBytes'tan büyük kayıtlar transferMessage gibi FileChannel.transferTo ile,
+     * diğerleri thread'e özel direct buffer'a okunup (sıkıştırılmışsa açılıp) header ve trailer ile
+     * tek write'ta gönderilir
+     * 
+     * @param id Mesaj ID'si
+     * @param target Hedef kanal (ör. client socket'i)
+     * @param frame Mesajın önüne/arkasına yazılacak çerçeve (ör. satır sonu, uzunluk önekli header)
+     * @param zeroCopyMinBytes Bu boyuttan büyük sıkıştırılmamış kayıtlar buffer'a okunmadan aktarılır
+     * @return Yazılan mesaj byte sayısı (çerçeve hariç), mesaj yoksa -1 (kanala hiçbir şey yazılmaz)
+     * @throws IOException Okuma veya yazma hatası (kanala yarım cevap yazılmış olabilir)
+     */
+    public long writeMessage(int id, WritableByteChannel target, MessageFrame frame, long zeroCopyMinBytes)
+            throws IOException {
+        long start = System.nanoTime();
+        try {
+            if (ioMode == IOMode.LOG) {
+                long transferred = segmentLog.transferTo(id, target, zeroCopyMinBytes, frame);
+                if (transferred >= 0) {
+                    return transferred;
+                }
+                return writeFramed(segmentLog.read(id, frame.headerSize(), frame.trailerSize()), target, frame);
+            }
+
+            Lock lock = locks.forId(id).readLock();
+            lock.lock();
+            try {
+                // CHANNEL okumasındaki gibi ayrı bir exists stat'ı yapılmaz, dosya yoksa open hatası alınır
+                Path messageFile = migrating ? resolveExistingFile(id) : getMessageFilePath(id);
+                return messageFile != null ? writeFile(messageFile, target, frame, zeroCopyMinBytes) : -1;
+            } finally {
+                lock.unlock();
+            }
+        } finally {
+            readLatency.recordSince(start);
+        }
+    }
+
+    private long writeFile(Path messageFile, WritableByteChannel target, MessageFrame frame, long zeroCopyMinBytes)
+            throws IOException {
+        FileChannel channel;
+        try {
+            channel = FileChannel.open(messageFile, StandardOpenOption.READ);
+        } catch (NoSuchFileException e) {
+            return -1;
+        }
+        try (FileChannel source = channel) {
+            long size = source.size();
+            if (size >= zeroCopyMinBytes && !isCompressedFile(source)) {
+                writeHeader(frame, size, target);
+                long position = 0;
+                while (position < size) {
+                    position += source.transferTo(position, size - position, target);
+                }
+                writeTrailer(frame, target);
+                return size;
+            }
+            return writeFramed(readChannel(source, frame.headerSize(), frame.trailerSize()), target, frame);
+        }
+    }
+
+    /**
+     * Payload'ı (sıkıştırılmışsa açarak) çerçevesiyle birlikte tek buffer'dan yazar
+     * Buffer'da payload'ın önünde header, arkasında trailer kadar boş yer olmalıdır
+     */
+    private static long writeFramed(ByteBuffer payload, WritableByteChannel target, MessageFrame frame)
+            throws IOException {
+        if (payload == null) {
+            return -1;
+        }
+        if (PayloadCodec.isCompressed(payload)) {
+            payload = PayloadCodec.decompressToBuffer(payload, frame.headerSize(), frame.trailerSize());
+        }
+        int length = payload.remaining();
+        int start = payload.position() - frame.headerSize();
+        frame.putHeader(payload, start, length);
+        int end = payload.limit();
+        payload.limit(end + frame.trailerSize());
+        frame.putTrailer(payload, end);
+        payload.position(start);
+        while (payload.hasRemaining()) {
+            target.write(payload);
+        }
+        return length;
+    }
+
+    /**
+     * Zero-copy aktarımdan önce çerçeve header'ını ayrı bir write ile gönderir
+     */
+    static void writeHeader(MessageFrame frame, long messageLength, WritableByteChannel target) throws IOException {
+        if (frame.headerSize() > 0) {
+            ByteBuffer header = DirectBufferPool.acquire(frame.headerSize());
+            frame.putHeader(header, 0, (int) messageLength);
+            writeFully(header, target);
+        }
+    }
+
+    static void writeTrailer(MessageFrame frame, WritableByteChannel target) throws IOException {
+        if (frame.trailerSize() > 0) {
+            ByteBuffer trailer = DirectBufferPool.acquire(frame.trailerSize());
+            frame.putTrailer(trailer, 0);
+            writeFully(trailer, target);
+        }
+    }
+
+    private static void writeFully(ByteBuffer buffer, WritableByteChannel target) throws IOException {
+        while (buffer.hasRemaining()) {
+            target.write(buffer);
+        }
+    }
+
+    /**
+     * Dosyanın sıkıştırılmış çerçeveyle başlayıp başlamadığını ilk byte'ından anlar
+     */
+    private static boolean isCompressedFile(FileChannel channel) throws IOException {
+        ByteBuffer first = DirectBufferPool.acquire(1);
+        return channel.read(first, 0) == 1 && first.get(0) == PayloadCodec.MAGIC;
+    }
+
     /**
      * Buffered IO ile mesaj okur
+     * Satır sonları olduğu gibi korunur (readLine ile bölünmez)
+     * Dosya sıkıştırılmış çerçeveyle başlıyorsa byte olarak okunup açılır
      */
     private String getMessageBuffered(Path messageFile) throws IOException {
         StringBuilder content = new StringBuilder();
-        try (BufferedReader reader = Files.newBufferedReader(messageFile, StandardCharsets.UTF_8)) {
-            String line;
-            while ((line = reader.readLine()) != null) {
-                if (content.length() > 0) {
-                    content.append(System.lineSeparator());
-                }
-                content.append(line);
+        try (BufferedInputStream input = new BufferedInputStream(Files.newInputStream(messageFile))) {
+            input.mark(1);
+            if (input.read() == (PayloadCodec.MAGIC & 0xFF)) {
+                input.reset();
+                byte[] frame = input.readAllBytes();
+                return PayloadCodec.decompress(frame, frame.length);
+            }
+            input.reset();
+            Reader reader = new InputStreamReader(input, StandardCharsets.UTF_8);
+            char[] chunk = new char[8192];
+            int read;
+            while ((read = reader.read(chunk)) != -1) {
+                content.append(chunk, 0, read);
             }
         }
         return content.toString();
@@ -166,31 +752,140 @@ public class MessageStorage {
 
     /**
      * Unbuffered IO ile mesaj okur
+     * Boyut açık dosyanın kendisinden alınır ve dosya sonuna kadar okunur
      */
     private String getMessageUnbuffered(Path messageFile) throws IOException {
         try (FileInputStream fis = new FileInputStream(messageFile.toFile())) {
-            byte[] buffer = new byte[(int) Files.size(messageFile)];
-            int bytesRead = fis.read(buffer);
-            if (bytesRead == -1) {
-                return "";
+            byte[] buffer = new byte[(int) fis.getChannel().size()];
+            int total = 0;
+            int bytesRead;
+            while (total < buffer.length && (bytesRead = fis.read(buffer, total, buffer.length - total)) != -1) {
+                total += bytesRead;
+            }
+            if (PayloadCodec.isCompressed(buffer, total)) {
+                return PayloadCodec.decompress(buffer, total);
             }
-            return new String(buffer, 0, bytesRead, StandardCharsets.UTF_8);
+            return new String(buffer, 0, total, StandardCharsets.UTF_8);
+        }
+    }
+
+    /**
+     * FileChannel ile mesaj okur
+     * Boyut açık kanaldan alınır, thread'e özel direct buffer'a pozisyonel okunur
+     * 
+     * @return Mesaj, dosya yoksa null
+     */
+    private String getMessageChannel(Path messageFile) throws IOException {
+        try (FileChannel channel = FileChannel.open(messageFile, StandardOpenOption.READ)) {
+            ByteBuffer buffer = readChannel(channel, 0, 0);
+            return PayloadCodec.isCompressed(buffer) ? PayloadCodec.decompress(buffer) : Utf8.decode(buffer);
+        } catch (NoSuchFileException e) {
+            return null;
         }
     }
 
+    /**
+     * Dosyanın tamamını thread'e özel direct buffer'a pozisyonel okur
+     * 
+     * @param headroom Buffer'da içeriğin önünde boş bırakılacak byte sayısı
+     * @param trailing Buffer'da içeriğin arkasında boş bırakılacak byte sayısı
+     * @return position'ı headroom, limit'i içeriğin sonu olan buffer
+     */
+    private static ByteBuffer readChannel(FileChannel channel, int headroom, int trailing) throws IOException {
+        int size = (int) channel.size();
+        ByteBuffer buffer = DirectBufferPool.acquire(headroom + size + trailing);
+        buffer.position(headroom).limit(headroom + size);
+        long position = 0;
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position);
+            if (read < 0) {
+                break;
+            }
+            position += read;
+        }
+        buffer.limit(buffer.position()).position(headroom);
+        return buffer;
+    }
+
     /**
      * Mesaj dosyasının path'ini döndürür
+     * SHARDED yerleşimde: <klasör>/<h1>/<h2>/<id>.msg (h1, h2: id hash'inin ilk iki byte'ı, hex)
      * 
      * @param id Mesaj ID'si
      * @return Dosya path'i
      */
     private Path getMessageFilePath(Integer id) {
-        String fileName = id + FILE_EXTENSION;
-        return messagesDirectory.resolve(fileName);
+        return layout == FileLayout.SHARDED ? getShardedFilePath(id) : getFlatFilePath(id);
+    }
+
+    private Path getFlatFilePath(Integer id) {
+        return messagesDirectory.resolve(id + FILE_EXTENSION);
+    }
+
+    private Path getShardedFilePath(Integer id) {
+        int bucket = bucketOf(id);
+        char[] level1 = {HEX[(bucket >>> 12) & 0xF], HEX[(bucket >>> 8) & 0xF]};
+        char[] level2 = {HEX[(bucket >>> 4) & 0xF], HEX[bucket & 0xF]};
+        return messagesDirectory.resolve(new String(level1))
+                .resolve(new String(level2))
+                .resolve(id + FILE_EXTENSION);
+    }
+
+    /**
+     * ID'yi 16 bit bucket numarasına dağıtır (ardışık id'ler farklı klasörlere düşer)
+     */
+    private static int bucketOf(int id) {
+        int h = id;
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        h ^= h >>> 16;
+        return (h >>> 16) & 0xFFFF;
+    }
+
+    /**
+     * Bucket klasörünü ilk kullanımda oluşturur
+     */
+    private void ensureBucket(Integer id, Path messageFile) throws IOException {
+        int bucket = bucketOf(id);
+        int slot = bucket >>> 6;
+        long bit = 1L << (bucket & 63);
+        if ((createdBuckets.get(slot) & bit) != 0) {
+            return;
+        }
+        Files.createDirectories(messageFile.getParent());
+        long current;
+        do {
+            current = createdBuckets.get(slot);
+        } while (!createdBuckets.compareAndSet(slot, current, current | bit));
+    }
+
+    /**
+     * Okuma için mevcut dosyanın yolunu bulur
+     * Taşıma sürerken yeni yol yoksa eski (düz) yola, o da yoksa tekrar yeni yola bakılır
+     * (bu arada taşınmış olabilir)
+     * 
+     * @return Dosya yolu, mesaj yoksa null
+     */
+    private Path resolveExistingFile(Integer id) {
+        Path messageFile = getMessageFilePath(id);
+        if (Files.exists(messageFile)) {
+            return messageFile;
+        }
+        if (!migrating) {
+            return null;
+        }
+        Path flatFile = getFlatFilePath(id);
+        if (Files.exists(flatFile)) {
+            return flatFile;
+        }
+        return Files.exists(messageFile) ? messageFile : null;
     }
 
     /**
      * Mesajı siler
+     * LOG modunda tombstone yazılır, alan compaction ile geri kazanılır
      * 
      * @param id Mesaj ID'si
      * @return Silme başarılı ise true
@@ -201,13 +896,29 @@ public class MessageStorage {
             throw new IllegalArgumentException("ID null olamaz");
         }
 
+        if (ioMode == IOMode.LOG) {
+            boolean deleted = segmentLog.delete(id);
+            logger.debug("Mesaj silindi: id={}, sonuç={}, mod={}", id, deleted, ioMode);
+            return deleted;
+        }
+
         Path messageFile = getMessageFilePath(id);
-        
-        if (!Files.exists(messageFile)) {
+
+        boolean deleted;
+        boolean deletedFlat;
+        Lock lock = locks.forId(id).writeLock();
+        lock.lock();
+        try {
+            // Taşıma sürüyorsa önce eski kopya silinir, böylece taşıyıcı silinen mesajı geri getiremez
+            deletedFlat = migrating && deleteCounted(getFlatFilePath(id));
+            deleted = deleteCounted(messageFile);
+        } finally {
+            lock.unlock();
+        }
+        if (!deleted && !deletedFlat) {
             return false;
         }
 
-        Files.delete(messageFile);
         logger.debug("Mesaj silindi: id={}, dosya={}", id, messageFile);
         
         return true;
@@ -220,6 +931,27 @@ public class MessageStorage {
         return messagesDirectory;
     }
 
+    /**
+     * Kullanılan dosya yerleşimini döndürür
+     */
+    public FileLayout getLayout() {
+        return layout;
+    }
+
+    /**
+     * Düz yerleşimden taşıma devam ediyor mu
+     */
+    public boolean isMigrating() {
+        return migrating;
+    }
+
+    /**
+     * Yeni yazmalarda kullanılan sıkıştırma algoritmasını döndürür
+     */
+    public Compression getCompression() {
+        return compression;
+    }
+
     /**
      * Kullanılan IO modunu döndürür
      */
@@ -234,17 +966,143 @@ public class MessageStorage {
      * @throws IOException Dosya okuma hatası
      */
     public int getMessageCount() throws IOException {
-        if (!Files.exists(messagesDirectory)) {
-            return 0;
+        if (ioMode == IOMode.LOG) {
+            return segmentLog.size();
+        }
+        return (int) fileCount.get();
+    }
+
+    /**
+     * Mesaj sayısını ve diskte kaplanan alanı döndürür
+     * LOG modunda memory'deki index ve segment boyutlarından, dosya modlarında yazma/silmelerde
+     * güncellenen sayaçlardan okunur; diske erişmez, metrik gauge'larından çağrılabilir
+     * 
+     * @return Anlık doluluk bilgisi
+     */
+    public StorageUsage getUsage() {
+        if (ioMode == IOMode.LOG) {
+            return new StorageUsage(segmentLog.size(), segmentLog.totalBytes());
         }
+        return new StorageUsage(fileCount.get(), fileBytes.get());
+    }
 
+    /**
+     * Dosya modlarında kullanım sayaçlarını klasör ağacını bir kez tarayarak başlatır
+     */
+    private void seedUsage() {
+        long start = System.nanoTime();
         try {
-            return (int) Files.list(messagesDirectory)
-                    .filter(path -> path.toString().endsWith(FILE_EXTENSION))
-                    .count();
+            StorageUsage usage = scanUsage();
+            fileCount.set(usage.getMessageCount());
+            fileBytes.set(usage.getDiskBytes());
+            logger.info("Disk kullanımı tarandı: {} mesaj, {} byte ({} ms)", usage.getMessageCount(),
+                    usage.getDiskBytes(), (System.nanoTime() - start) / 1_000_000);
         } catch (IOException e) {
-            logger.error("Mesaj sayısı alınırken hata: ", e);
-            throw e;
+            logger.error("Disk kullanımı taranamadı, sayaçlar sıfırdan başlıyor: ", e);
+        }
+    }
+
+    /**
+     * Yazılan dosyanın önceki ve yeni boyutuna göre sayaçları günceller
+     *
+     * @param previousSize Yazmadan önceki boyut, dosya yoksa -1
+     * @param newSize Yazmadan sonraki boyut, dosya yoksa -1
+     */
+    private void updateUsage(long previousSize, long newSize) {
+        if (previousSize < 0 && newSize >= 0) {
+            fileCount.incrementAndGet();
+        } else if (previousSize >= 0 && newSize < 0) {
+            fileCount.decrementAndGet();
+        }
+        fileBytes.addAndGet(Math.max(newSize, 0) - Math.max(previousSize, 0));
+    }
+
+    /**
+     * Dosyayı siler ve varsa sayaçlardan düşer
+     *
+     * @return Dosya silindiyse true
+     */
+    private boolean deleteCounted(Path file) throws IOException {
+        long size = fileSize(file);
+        if (!Files.deleteIfExists(file)) {
+            return false;
+        }
+        updateUsage(Math.max(size, 0), -1);
+        return true;
+    }
+
+    /**
+     * @return Dosya boyutu, dosya yoksa -1
+     */
+    private static long fileSize(Path file) {
+        try {
+            return Files.size(file);
+        } catch (IOException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Mesaj dosyalarının sayısını ve toplam boyutunu klasör ağacını dolaşarak hesaplar
+     * Dosya sayısıyla orantılıdır, sadece açılışta kullanılır
+     */
+    private StorageUsage scanUsage() throws IOException {
+        if (!Files.exists(messagesDirectory)) {
+            return new StorageUsage(0, 0);
+        }
+
+        long[] totals = new long[2];
+        int depth = layout == FileLayout.SHARDED ? 3 : 1;
+        Files.walkFileTree(messagesDirectory, EnumSet.noneOf(FileVisitOption.class), depth,
+                new SimpleFileVisitor<Path>() {
+                    @Override
+                    public FileVisitResult visitFile(Path file, BasicFileAttributes attributes) {
+                        if (attributes.isRegularFile() && file.toString().endsWith(FILE_EXTENSION)) {
+                            totals[0]++;
+                            totals[1] += attributes.size();
+                        }
+                        return FileVisitResult.CONTINUE;
+                    }
+
+                    @Override
+                    public FileVisitResult visitFileFailed(Path file, IOException e) {
+                        // Tarama sırasında silinen dosya
+                        return FileVisitResult.CONTINUE;
+                    }
+                });
+        return new StorageUsage(totals[0], totals[1]);
+    }
+
+    /**
+     * Alan büyütme oranı: diskteki toplam byte / canlı byte
+     * LOG dışındaki modlarda eski kopya kalmadığı için 1.0 döner
+     */
+    public double getSpaceAmplification() {
+        if (ioMode != IOMode.LOG) {
+            return 1.0;
+        }
+        long live = segmentLog.liveBytes();
+        return live == 0 ? 1.0 : (double) segmentLog.totalBytes() / live;
+    }
+
+    /**
+     * Compactor'ı döndürür (ilerleme metrikleri için), LOG modu dışında null
+     */
+    public LogCompactor getCompactor() {
+        return compactor;
+    }
+
+    /**
+     * Compactor'ı durdurur ve açık dosyaları kapatır
+     */
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        if (compactor != null) {
+            compactor.stop();
+        }
+        if (segmentLog != null) {
+            segmentLog.close();
         }
     }
 }
@@ -0,0 +1,343 @@
+package com.sistem.proje.storage;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.CRC32;
+
+/**
+ * Offset'li sıralı log (APPEND/READ)
+ * Her APPEND kayda bir sonraki offset'i verir ve aktif segment'in sonuna ekler. Segment dosyaları
+ * ilk kaydın offset'iyle adlandırılır; segment içinde her INDEX_INTERVAL kayıttan birinin konumu
+ * memory'de tutulur (seyrek index), okuma en yakın index noktasından başlık atlayarak ilerler.
+ * Okumalar kilit almaz: kayıt tamamen yazıldıktan sonra segment boyutu ve sonraki offset
+ * ilerletilir, okuyucular sadece bu sınıra kadar okur. Kayıtlar silinmez (retention yok)
+ *
+ * Kayıt formatı: offset(8) | length(4) | crc(4) | payload(length)
+ */
+public class OffsetLog implements Closeable {
+    private static final Logger logger = LoggerFactory.getLogger(OffsetLog.class);
+
+    public static final int HEADER_SIZE = 16;
+    static final String SEGMENT_EXTENSION = ".log";
+    private static final long DEFAULT_MAX_SEGMENT_BYTES = 64L * 1024 * 1024;
+    // Seyrek index aralığı (kayıt sayısı), okuma en fazla INDEX_INTERVAL - 1 başlık atlar
+    private static final int INDEX_INTERVAL = 64;
+    // Tek READ'in üst sınırı, batch thread'e özel havuz buffer'ına sığar (ilk kayıt daha büyükse yine döner)
+    public static final int MAX_READ_BYTES = DirectBufferPool.MAX_POOLED_CAPACITY;
+    private static final ThreadLocal<CRC32> CRC = ThreadLocal.withInitial(CRC32::new);
+
+    private final Path directory;
+    private final long maxSegmentBytes;
+    // İlk offset → Segment
+    private final ConcurrentSkipListMap<Long, Segment> segments = new ConcurrentSkipListMap<>();
+    private final Object appendLock = new Object();
+    private volatile Segment activeSegment;
+    private volatile boolean closed;
+
+    public OffsetLog(Path directory) throws IOException {
+        this(directory, DEFAULT_MAX_SEGMENT_BYTES);
+    }
+
+    public OffsetLog(Path directory, long maxSegmentBytes) throws IOException {
+        this.directory = directory;
+        this.maxSegmentBytes = maxSegmentBytes;
+        Files.createDirectories(directory);
+        recover();
+    }
+
+    /**
+     * Segment'leri sırayla tarar, index'leri kurar ve son segment'in bozuk kuyruğunu keser
+     */
+    private void recover() throws IOException {
+        List<Long> baseOffsets = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "*" + SEGMENT_EXTENSION)) {
+            for (Path path : stream) {
+                String name = path.getFileName().toString();
+                baseOffsets.add(Long.parseLong(name.substring(0, name.length() - SEGMENT_EXTENSION.length())));
+            }
+        }
+        baseOffsets.sort(null);
+
+        for (Long baseOffset : baseOffsets) {
+            Segment segment = openSegment(baseOffset);
+            segments.put(baseOffset, segment);
+            replay(segment);
+        }
+        if (segments.isEmpty()) {
+            segments.put(0L, openSegment(0L));
+        }
+        activeSegment = segments.lastEntry().getValue();
+        logger.info("Offset log açıldı: {} segment, sonraki offset {}, dizin={}",
+                segments.size(), activeSegment.nextOffset, directory);
+    }
+
+    private void replay(Segment segment) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        long position = 0;
+        long fileSize = segment.channel.size();
+        long expected = segment.baseOffset;
+
+        while (position + HEADER_SIZE <= fileSize) {
+            header.clear();
+            SegmentLog.readFully(segment.channel, header, position);
+            header.flip();
+            long offset = header.getLong();
+            int length = header.getInt();
+            int crc = header.getInt();
+            if (offset != expected || length < 0 || position + HEADER_SIZE + length > fileSize) {
+                break;
+            }
+            ByteBuffer payload = ByteBuffer.allocate(length);
+            SegmentLog.readFully(segment.channel, payload, position + HEADER_SIZE);
+            payload.flip();
+            if (checksum(offset, length, payload) != crc) {
+                break;
+            }
+            segment.indexIfNeeded(offset, position);
+            position += HEADER_SIZE + length;
+            expected++;
+        }
+
+        if (position < fileSize) {
+            logger.warn("Offset log segment'i {} bozuk kuyruk içeriyor, {} byte'a kesiliyor (dosya boyutu {})",
+                    segment.baseOffset, position, fileSize);
+            segment.channel.truncate(position);
+        }
+        segment.size.set(position);
+        segment.nextOffset = expected;
+    }
+
+    /**
+     * Payload'ı log'un sonuna ekler
+     *
+     * @param payload position..limit aralığı kaydedilir (buffer'ın pozisyonu ilerletilir)
+     * @return Kayda verilen offset
+     */
+    public long append(ByteBuffer payload) throws IOException {
+        int length = payload.remaining();
+        ByteBuffer record = DirectBufferPool.acquire(HEADER_SIZE + length);
+        record.position(HEADER_SIZE);
+        record.put(payload);
+        record.flip();
+
+        synchronized (appendLock) {
+            if (closed) {
+                throw new IOException("Offset log kapatıldı");
+            }
+            Segment segment = activeSegment;
+            long offset = segment.nextOffset;
+            record.position(HEADER_SIZE);
+            int crc = checksum(offset, length, record);
+            record.putLong(0, offset)
+                  .putInt(8, length)
+                  .putInt(12, crc)
+                  .position(0);
+
+            if (segment.size.get() > 0 && segment.size.get() + record.limit() > maxSegmentBytes) {
+                segment = roll(offset);
+            }
+            long position = segment.size.get();
+            SegmentLog.writeFully(segment.channel, record, position);
+            segment.indexIfNeeded(offset, position);
+            // Okuyucu nextOffset'i gördüğünde kaydı kapsayan size ve index noktası da görünürdür
+            segment.size.set(position + HEADER_SIZE + length);
+            segment.nextOffset = offset + 1;
+            return offset;
+        }
+    }
+
+    public long append(byte[] payload) throws IOException {
+        return append(ByteBuffer.wrap(payload));
+    }
+
+    private Segment roll(long baseOffset) throws IOException {
+        Segment next = openSegment(baseOffset);
+        next.nextOffset = baseOffset;
+        segments.put(baseOffset, next);
+        activeSegment = next;
+        logger.debug("Yeni offset log segment'i açıldı: {}", baseOffset);
+        return next;
+    }
+
+    /**
+     * offset'ten başlayan ardışık kayıtları okur
+     * Batch tek segment içinde kalır; bir sonraki READ getNextOffset() ile devam eder
+     *
+     * @param offset İlk kaydın offset'i (log başından küçükse log başı kullanılır)
+     * @param maxBytes Batch'in en fazla byte'ı (başlıklar dahil, MAX_READ_BYTES ile sınırlı); ilk kayıt
+     *                 bundan büyükse tek başına döner
+     * @return Kayıtlar; offset log sonundaysa veya ötesindeyse boş batch (nextOffset = log sonu)
+     */
+    public LogBatch read(long offset, int maxBytes) throws IOException {
+        return read(offset, maxBytes, Integer.MAX_VALUE);
+    }
+
+    /**
+     * read(offset, maxBytes) ile aynı, batch ayrıca en fazla maxRecords kayıt içerir
+     */
+    public LogBatch read(long offset, int maxBytes, int maxRecords) throws IOException {
+        if (closed) {
+            throw new IOException("Offset log kapatıldı");
+        }
+        if (maxBytes < 1 || maxRecords < 1) {
+            throw new IllegalArgumentException("maxBytes ve maxRecords pozitif olmalı: " + maxBytes + ", " + maxRecords);
+        }
+        Map.Entry<Long, Segment> entry = segments.floorEntry(offset);
+        if (entry == null) {
+            entry = segments.firstEntry();
+            offset = entry.getKey();
+        }
+        Segment segment = entry.getValue();
+        // nextOffset size'tan önce okunur: size en az nextOffset'e kadarki kayıtları kapsar, fazlası da tamdır
+        long segmentNextOffset = segment.nextOffset;
+        long committedSize = segment.size.get();
+        if (offset >= segmentNextOffset) {
+            return new LogBatch(DirectBufferPool.acquire(0), offset, 0, Math.min(offset, endOffset()));
+        }
+
+        // En yakın index noktasından hedef kayda kadar başlıkları atla
+        long relative = offset - segment.baseOffset;
+        long position = segment.indexedPosition((int) (relative / INDEX_INTERVAL));
+        int skip = (int) (relative % INDEX_INTERVAL);
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        int firstLength;
+        while (true) {
+            header.clear();
+            SegmentLog.readFully(segment.channel, header, position);
+            firstLength = header.getInt(8);
+            if (skip-- == 0) {
+                break;
+            }
+            position += HEADER_SIZE + firstLength;
+        }
+
+        int limit = Math.min(maxBytes, MAX_READ_BYTES);
+        long window = Math.min(committedSize - position, Math.max(limit, HEADER_SIZE + (long) firstLength));
+        ByteBuffer buffer = DirectBufferPool.acquire((int) window);
+        SegmentLog.readFully(segment.channel, buffer, position);
+        buffer.flip();
+
+        // Pencereye tamamen sığan kayıtları say
+        int end = 0;
+        int count = 0;
+        while (count < maxRecords && end + HEADER_SIZE <= buffer.limit()) {
+            int recordEnd = end + HEADER_SIZE + buffer.getInt(end + 8);
+            if (recordEnd > buffer.limit()) {
+                break;
+            }
+            end = recordEnd;
+            count++;
+        }
+        buffer.limit(end);
+        return new LogBatch(buffer, offset, count, offset + count);
+    }
+
+    /**
+     * Bir sonraki APPEND'e verilecek offset
+     */
+    public long endOffset() {
+        return activeSegment.nextOffset;
+    }
+
+    public long totalBytes() {
+        long total = 0;
+        for (Segment segment : segments.values()) {
+            total += segment.size.get();
+        }
+        return total;
+    }
+
+    /**
+     * Aktif segment'i diske zorlar (fsync)
+     */
+    public void sync() throws IOException {
+        activeSegment.channel.force(false);
+    }
+
+    private Segment openSegment(long baseOffset) throws IOException {
+        Path path = directory.resolve(String.format("%020d%s", baseOffset, SEGMENT_EXTENSION));
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        return new Segment(baseOffset, channel);
+    }
+
+    private static int checksum(long offset, int length, ByteBuffer payload) {
+        CRC32 crc = CRC.get();
+        crc.reset();
+        for (int shift = 56; shift >= 0; shift -= 8) {
+            crc.update((int) (offset >>> shift));
+        }
+        crc.update(length >>> 24);
+        crc.update(length >>> 16);
+        crc.update(length >>> 8);
+        crc.update(length);
+        int position = payload.position();
+        crc.update(payload);
+        payload.position(position);
+        return (int) crc.getValue();
+    }
+
+    @Override
+    public void close() throws IOException {
+        synchronized (appendLock) {
+            closed = true;
+            activeSegment.channel.force(false);
+            for (Segment segment : segments.values()) {
+                segment.channel.close();
+            }
+        }
+    }
+
+    private static final class Segment {
+        final long baseOffset;
+        final FileChannel channel;
+        final AtomicLong size = new AtomicLong();
+        volatile long nextOffset;
+        // positions[i] = (baseOffset + i * INDEX_INTERVAL) offset'li kaydın konumu
+        // Eleman yazıldıktan sonra dizi ve sayaç yayınlanır, okuyucular kilitsiz okur
+        private volatile long[] positions = new long[16];
+        private volatile int indexed;
+
+        Segment(long baseOffset, FileChannel channel) {
+            this.baseOffset = baseOffset;
+            this.channel = channel;
+            this.nextOffset = baseOffset;
+        }
+
+        /**
+         * Tek yazıcıdan (append kilidi veya recovery) çağrılır
+         */
+        void indexIfNeeded(long offset, long position) {
+            if ((offset - baseOffset) % INDEX_INTERVAL != 0) {
+                return;
+            }
+            long[] current = positions;
+            int count = indexed;
+            if (count == current.length) {
+                current = Arrays.copyOf(current, count * 2);
+            }
+            current[count] = position;
+            positions = current;
+            indexed = count + 1;
+        }
+
+        long indexedPosition(int slot) {
+            return positions[slot];
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package com.sistem.proje.storage;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Kayıt payload'ları için sıkıştırma çerçevesi
+ * Çerçeve formatı: magic(1) = 0xC0 | algoritma(1) | ham uzunluk(4) | sıkıştırılmış veri
+ * 0xC0 geçerli UTF-8'de hiçbir zaman ilk byte olamaz, bu yüzden ham kayıtlar ile
+ * sıkıştırılmış kayıtlar ek bir bayrak dosyası olmadan ayırt edilir
+ * Deflater/Inflater nesneleri thread başına tekrar kullanılır
+ */
+final class PayloadCodec {
+    static final byte MAGIC = (byte) 0xC0;
+    static final int FRAME_HEADER_SIZE = 6;
+
+    private static final ThreadLocal<Deflater> DEFLATER =
+            ThreadLocal.withInitial(() -> new Deflater(Deflater.BEST_SPEED));
+    private static final ThreadLocal<Inflater> INFLATER = ThreadLocal.withInitial(Inflater::new);
+
+    private PayloadCodec() {
+    }
+
+    /**
+     * Mesajı sıkıştırılmış çerçeve olarak thread'e özel direct buffer'a yazar
+     * Ham UTF-8 thread'e özel byte dizisine kodlanır, sıkıştırılmış çıktı doğrudan buffer'a yazılır
+     *
+     * @param message Mesaj
+     * @param rawLength Mesajın UTF-8 uzunluğu
+     * @param compression Kullanılacak algoritma (NONE olamaz)
+     * @param reserved Buffer başında boş bırakılacak byte sayısı (ör. segment kayıt header'ı)
+     * @return position 0, limit çerçeve sonu olan buffer; sıkıştırma yer kazandırmıyorsa null
+     */
+    static ByteBuffer compress(String message, int rawLength, Compression compression, int reserved) {
+        byte[] raw = DirectBufferPool.scratch(rawLength);
+        Utf8.encode(message, ByteBuffer.wrap(raw, 0, rawLength));
+
+        // Çıktı ham kayıttan büyük olacaksa sıkıştırmadan vazgeçilir
+        ByteBuffer out = DirectBufferPool.acquire(reserved + rawLength);
+        out.position(reserved);
+        out.put(MAGIC).put(compression.id()).putInt(rawLength);
+
+        Deflater deflater = DEFLATER.get();
+        deflater.reset();
+        deflater.setInput(raw, 0, rawLength);
+        deflater.finish();
+        while (!deflater.finished()) {
+            if (!out.hasRemaining()) {
+                return null;
+            }
+            deflater.deflate(out);
+        }
+        out.flip();
+        return out;
+    }
+
+    /**
+     * Buffer'ın mevcut pozisyonunda sıkıştırılmış çerçeve var mı
+     */
+    static boolean isCompressed(ByteBuffer payload) {
+        return payload.remaining() >= FRAME_HEADER_SIZE && payload.get(payload.position()) == MAGIC;
+    }
+
+    static boolean isCompressed(byte[] payload, int length) {
+        return length >= FRAME_HEADER_SIZE && payload[0] == MAGIC;
+    }
+
+    /**
+     * Çerçeveyi açar ve mesajı döndürür
+     * Çıktı thread'e özel byte dizisine açılır, tek ayrılan nesne sonuç String'idir
+     *
+     * @param frame position'ı çerçeve başında olan buffer (tüketilir)
+     * @throws IOException Çerçeve bozuksa
+     */
+    static String decompress(ByteBuffer frame) throws IOException {
+        int rawLength = rawLength(frame);
+        byte[] raw = DirectBufferPool.scratch(rawLength);
+        inflate(frame, ByteBuffer.wrap(raw, 0, rawLength));
+        return new String(raw, 0, rawLength, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Çerçeveyi String üretmeden thread'e özel ikinci direct buffer'a açar
+     * Çerçeve DirectBufferPool.acquire ile alınmış buffer'da olabilir, çıktı onunla çakışmaz
+     *
+     * @param frame position'ı çerçeve başında olan buffer (tüketilir)
+     * @param headroom Açılan verinin önünde boş bırakılacak byte sayısı
+     * @param trailing Açılan verinin arkasında boş bırakılacak byte sayısı
+     * @return position'ı headroom, limit'i ham verinin sonu olan buffer
+     * @throws IOException Çerçeve bozuksa
+     */
+    static ByteBuffer decompressToBuffer(ByteBuffer frame, int headroom, int trailing) throws IOException {
+        int rawLength = rawLength(frame);
+        ByteBuffer raw = DirectBufferPool.acquireSecondary(headroom + rawLength + trailing);
+        raw.position(headroom).limit(headroom + rawLength);
+        inflate(frame, raw);
+        raw.position(headroom);
+        return raw;
+    }
+
+    private static int rawLength(ByteBuffer frame) throws IOException {
+        int rawLength = frame.getInt(frame.position() + 2);
+        if (rawLength < 0) {
+            throw new IOException("Sıkıştırılmış kayıt bozuk: ham uzunluk " + rawLength);
+        }
+        return rawLength;
+    }
+
+    /**
+     * Çerçeveyi out'un kalan alanına açar, out tam olarak ham uzunluk kadar yer bırakmalıdır
+     */
+    private static void inflate(ByteBuffer frame, ByteBuffer out) throws IOException {
+        int start = frame.position();
+        Compression compression;
+        try {
+            compression = Compression.fromId(frame.get(start + 1));
+        } catch (IllegalArgumentException e) {
+            throw new IOException(e.getMessage(), e);
+        }
+        int rawLength = frame.getInt(start + 2);
+        frame.position(start + FRAME_HEADER_SIZE);
+
+        int outStart = out.position();
+        if (compression == Compression.DEFLATE) {
+            Inflater inflater = INFLATER.get();
+            inflater.reset();
+            inflater.setInput(frame);
+            try {
+                while (out.hasRemaining() && !inflater.finished()) {
+                    int inflated = inflater.inflate(out);
+                    if (inflated == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                        break;
+                    }
+                }
+            } catch (DataFormatException e) {
+                throw new IOException("Sıkıştırılmış kayıt bozuk", e);
+            }
+        } else {
+            int copied = Math.min(out.remaining(), frame.remaining());
+            int frameLimit = frame.limit();
+            frame.limit(frame.position() + copied);
+            out.put(frame);
+            frame.limit(frameLimit);
+        }
+        int total = out.position() - outStart;
+        if (total != rawLength) {
+            throw new IOException("Sıkıştırılmış kayıt eksik: beklenen " + rawLength + " byte, açılan " + total);
+        }
+    }
+
+    static String decompress(byte[] frame, int length) throws IOException {
+        return decompress(ByteBuffer.wrap(frame, 0, length));
+    }
+}
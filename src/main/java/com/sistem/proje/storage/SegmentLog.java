@@ -0,0 +1,652 @@
+package com.sistem.proje.storage;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only segment log
+ * Her SET aktif segment'in sonuna yeni kayıt ekler, DELETE tombstone yazar
+ * id → (segment, offset) index'i memory'de tutulur, açılışta segment'ler taranarak kurulur
+ * Okumalar kilit almaz: segment'ler referans sayımlıdır, compaction sonrası eski dosya
+ * son okuyucu bırakana kadar açık kalır
+ *
+ * Kayıt formatı: id(4) | attributes(1) | length(4) | crc(4) | payload(length)
+ */
+class SegmentLog implements Closeable {
+    private static final Logger logger = LoggerFactory.getLogger(SegmentLog.class);
+
+    static final String SEGMENT_EXTENSION = ".seg";
+    static final String COMPACT_EXTENSION = ".compact";
+    static final int HEADER_SIZE = 13;
+    static final byte ATTR_TOMBSTONE = 0x01;
+    // Payload PayloadCodec çerçevesiyle sıkıştırılmış, ham aktarılamaz
+    static final byte ATTR_COMPRESSED = 0x02;
+    private static final long DEFAULT_MAX_SEGMENT_BYTES = 64L * 1024 * 1024;
+    private static final ThreadLocal<CRC32> CRC = ThreadLocal.withInitial(CRC32::new);
+
+    private final Path directory;
+    private final long maxSegmentBytes;
+
+    // Segment ID → Segment (ID sırası = yazma sırası, recovery bu sıraya göre yapılır)
+    private final ConcurrentSkipListMap<Long, Segment> segments = new ConcurrentSkipListMap<>();
+    // Mesaj ID → son geçerli kaydın yeri (tombstone'lar index'te tutulmaz)
+    private final Map<Integer, Location> index = new ConcurrentHashMap<>();
+
+    // Append'lerin index güncellemesi read lock, compactor segment değişimi write lock alır
+    private final ReentrantReadWriteLock swapLock = new ReentrantReadWriteLock();
+    private final Object appendLock = new Object();
+    private volatile Segment activeSegment;
+    private volatile boolean closed;
+
+    SegmentLog(Path directory) throws IOException {
+        this(directory, DEFAULT_MAX_SEGMENT_BYTES);
+    }
+
+    SegmentLog(Path directory, long maxSegmentBytes) throws IOException {
+        this.directory = directory;
+        this.maxSegmentBytes = maxSegmentBytes;
+        recover();
+    }
+
+    /**
+     * Diskteki segment'leri sırayla tarar ve index'i yeniden kurar
+     * Yarım kalmış compaction dosyalarını siler, bozuk kuyruğu keser
+     */
+    private void recover() throws IOException {
+        List<Long> segmentIds = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory)) {
+            for (Path path : stream) {
+                String name = path.getFileName().toString();
+                if (name.endsWith(COMPACT_EXTENSION)) {
+                    Files.deleteIfExists(path);
+                    logger.warn("Yarım kalmış compaction dosyası silindi: {}", path);
+                } else if (name.endsWith(SEGMENT_EXTENSION)) {
+                    segmentIds.add(Long.parseLong(name.substring(0, name.length() - SEGMENT_EXTENSION.length())));
+                }
+            }
+        }
+        segmentIds.sort(null);
+
+        for (Long segmentId : segmentIds) {
+            Segment segment = openSegment(segmentId);
+            segments.put(segmentId, segment);
+            replay(segment);
+        }
+
+        if (segments.isEmpty()) {
+            Segment first = openSegment(0L);
+            segments.put(0L, first);
+        }
+        activeSegment = segments.lastEntry().getValue();
+        logger.info("Segment log açıldı: {} segment, {} mesaj, dizin={}", segments.size(), index.size(), directory);
+    }
+
+    /**
+     * Tek bir segment'i baştan sona okuyup index'e uygular
+     */
+    private void replay(Segment segment) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        long position = 0;
+        long fileSize = segment.channel.size();
+
+        while (position + HEADER_SIZE <= fileSize) {
+            header.clear();
+            readFully(segment.channel, header, position);
+            header.flip();
+            int id = header.getInt();
+            byte attributes = header.get();
+            int length = header.getInt();
+            int crc = header.getInt();
+
+            if (length < 0 || position + HEADER_SIZE + length > fileSize) {
+                break;
+            }
+            ByteBuffer payload = ByteBuffer.allocate(length);
+            readFully(segment.channel, payload, position + HEADER_SIZE);
+            payload.flip();
+            if (checksum(id, attributes, length, payload) != crc) {
+                break;
+            }
+
+            int recordSize = HEADER_SIZE + length;
+            if ((attributes & ATTR_TOMBSTONE) != 0) {
+                release(index.remove(id));
+            } else {
+                release(index.put(id, new Location(segment, position, length, attributes)));
+                segment.liveBytes.addAndGet(recordSize);
+            }
+            position += recordSize;
+        }
+
+        if (position < fileSize) {
+            logger.warn("Segment {} bozuk kuyruk içeriyor, {} byte'a kesiliyor (dosya boyutu {})",
+                    segment.id, position, fileSize);
+            segment.channel.truncate(position);
+        }
+        segment.size.set(position);
+    }
+
+    /**
+     * Kaydı aktif segment'in sonuna ekler
+     * Buffer'ın ilk HEADER_SIZE byte'ı header için ayrılmıştır, payload HEADER_SIZE..limit aralığındadır
+     * (çağıran payload'ı doğrudan havuzdan alınmış buffer'a yazar, ek kopya yapılmaz)
+     *
+     * @return Aynı ID için önceki kayıt varsa true
+     */
+    boolean append(int id, ByteBuffer record) throws IOException {
+        return write(id, (byte) 0, record);
+    }
+
+    /**
+     * Kayıt özellik bitleriyle birlikte ekler (ör. ATTR_COMPRESSED)
+     */
+    boolean append(int id, byte attributes, ByteBuffer record) throws IOException {
+        return write(id, attributes, record);
+    }
+
+    /**
+     * Tombstone kaydı ekler
+     *
+     * @return Silinen bir kayıt varsa true
+     */
+    boolean delete(int id) throws IOException {
+        if (!index.containsKey(id)) {
+            return false;
+        }
+        return write(id, ATTR_TOMBSTONE, DirectBufferPool.acquire(HEADER_SIZE));
+    }
+
+    private boolean write(int id, byte attributes, ByteBuffer record) throws IOException {
+        int recordSize = record.limit();
+        int length = recordSize - HEADER_SIZE;
+        record.position(HEADER_SIZE);
+        int crc = checksum(id, attributes, length, record);
+        record.putInt(0, id)
+              .put(4, attributes)
+              .putInt(5, length)
+              .putInt(9, crc)
+              .position(0);
+
+        synchronized (appendLock) {
+            Segment segment = activeSegment;
+            if (segment.size.get() > 0 && segment.size.get() + recordSize > maxSegmentBytes) {
+                segment = roll();
+            }
+            long position = segment.size.get();
+            writeFully(segment.channel, record, position);
+            segment.size.addAndGet(recordSize);
+
+            swapLock.readLock().lock();
+            try {
+                Location previous;
+                if ((attributes & ATTR_TOMBSTONE) != 0) {
+                    previous = index.remove(id);
+                } else {
+                    previous = index.put(id, new Location(segment, position, length, attributes));
+                    segment.liveBytes.addAndGet(recordSize);
+                }
+                release(previous);
+                return previous != null;
+            } finally {
+                swapLock.readLock().unlock();
+            }
+        }
+    }
+
+    /**
+     * Aktif segment'i kapatıp yeni bir segment açar (appendLock altında çağrılır)
+     * sync() sadece aktif segment'i zorladığı için çıkan segment burada fsync edilir; yeni dosyanın
+     * klasör kaydı da diske yazılır
+     */
+    private Segment roll() throws IOException {
+        activeSegment.channel.force(false);
+        Segment next = openSegment(activeSegment.id + 1);
+        syncDirectory();
+        segments.put(next.id, next);
+        activeSegment = next;
+        logger.debug("Yeni segment açıldı: {}", next.id);
+        return next;
+    }
+
+    private void syncDirectory() {
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            // Bazı platformlar (ör. Windows) klasör fsync'ini desteklemez
+            logger.debug("Klasör fsync edilemedi: {} ({})", directory, e.getMessage());
+        }
+    }
+
+    /**
+     * Mesajın payload'ını thread'e özel direct buffer'a okur
+     * Dönen buffer bu thread'in bir sonraki DirectBufferPool kullanımına kadar geçerlidir
+     *
+     * @return Okumaya hazır (flip edilmiş) payload, mesaj yoksa null
+     */
+    ByteBuffer read(int id) throws IOException {
+        return read(id, 0, 0);
+    }
+
+    /**
+     * read(id) ile aynı, buffer'da payload'ın önünde headroom, arkasında trailing byte'lık boş yer bırakır
+     *
+     * @return position'ı headroom, limit'i payload sonu olan buffer; mesaj yoksa null
+     */
+    ByteBuffer read(int id, int headroom, int trailing) throws IOException {
+        Location location = acquire(id);
+        if (location == null) {
+            return null;
+        }
+        try {
+            ByteBuffer payload = DirectBufferPool.acquire(headroom + location.length + trailing);
+            payload.position(headroom).limit(headroom + location.length);
+            readFully(location.segment.channel, payload, location.position + HEADER_SIZE);
+            payload.position(headroom);
+            return payload;
+        } finally {
+            location.segment.release();
+        }
+    }
+
+    /**
+     * Mesajın payload'ını segment dosyasından doğrudan hedef kanala aktarır (FileChannel.transferTo)
+     * Veri Java heap'ine kopyalanmaz; aktarım sürerken compaction segment'i değiştirse bile
+     * eski dosya aktarım bitene kadar açık kalır
+     *
+     * @param minBytes Bu boyuttan küçük payload'lar aktarılmaz
+     * @return Aktarılan byte sayısı, mesaj yoksa, minBytes'tan küçükse veya sıkıştırılmışsa -1
+     */
+    long transferTo(int id, WritableByteChannel target, long minBytes) throws IOException {
+        return transferTo(id, target, minBytes, null);
+    }
+
+    /**
+     * transferTo ile aynı, aktarılan payload'ın önüne ve arkasına çerçeveyi yazar (frame null olabilir)
+     * Mesaj aktarılmayacaksa (-1) hedefe hiçbir şey yazılmaz
+     */
+    long transferTo(int id, WritableByteChannel target, long minBytes, MessageFrame frame) throws IOException {
+        Location location = acquire(id);
+        if (location == null) {
+            return -1;
+        }
+        try {
+            if (location.length < minBytes || (location.attributes & ATTR_COMPRESSED) != 0) {
+                return -1;
+            }
+            if (frame != null) {
+                MessageStorage.writeHeader(frame, location.length, target);
+            }
+            long position = location.position + HEADER_SIZE;
+            long end = position + location.length;
+            while (position < end) {
+                position += location.segment.channel.transferTo(position, end - position, target);
+            }
+            if (frame != null) {
+                MessageStorage.writeTrailer(frame, target);
+            }
+            return location.length;
+        } finally {
+            location.segment.release();
+        }
+    }
+
+    /**
+     * Kaydın yerini bulur ve segment'ini okuma için referansla tutar
+     * Compaction segment'i tam bu sırada kapattıysa index yeni yeri gösterene kadar tekrar dener
+     *
+     * @return Segment'i retain edilmiş konum (çağıran release etmeli), mesaj yoksa null
+     */
+    private Location acquire(int id) throws IOException {
+        while (true) {
+            if (closed) {
+                throw new IOException("Segment log kapatıldı");
+            }
+            Location location = index.get(id);
+            if (location == null) {
+                return null;
+            }
+            if (location.segment.retain()) {
+                return location;
+            }
+        }
+    }
+
+    boolean contains(int id) {
+        return index.containsKey(id);
+    }
+
+    int size() {
+        return index.size();
+    }
+
+    /**
+     * Aktif segment'i diske zorlar (fsync)
+     */
+    void sync() throws IOException {
+        activeSegment.channel.force(false);
+    }
+
+    /**
+     * Compaction adayı olabilecek (aktif olmayan) segment'lerin anlık görüntüsü
+     */
+    List<SegmentInfo> inactiveSegments() {
+        List<SegmentInfo> result = new ArrayList<>();
+        long activeId = activeSegment.id;
+        for (Segment segment : segments.values()) {
+            if (segment.id != activeId) {
+                result.add(new SegmentInfo(segment.id, segment.size.get(), segment.liveBytes.get()));
+            }
+        }
+        return result;
+    }
+
+    long totalBytes() {
+        long total = 0;
+        for (Segment segment : segments.values()) {
+            total += segment.size.get();
+        }
+        return total;
+    }
+
+    long liveBytes() {
+        long live = 0;
+        for (Segment segment : segments.values()) {
+            live += segment.liveBytes.get();
+        }
+        return live;
+    }
+
+    /**
+     * Segment'in canlı kayıtlarını yeni bir dosyaya kopyalar ve eskisiyle atomik olarak değiştirir
+     * Kopyalama kilitsiz yapılır, sadece dosya/index değişimi write lock altında gerçekleşir
+     *
+     * @param segmentId Sıkıştırılacak segment
+     * @param throttle Kopyalanan her kayıt için çağrılır (I/O hız sınırı)
+     * @return Geri kazanılan byte sayısı
+     */
+    long compact(long segmentId, Throttle throttle) throws IOException {
+        Segment segment = segments.get(segmentId);
+        if (segment == null || segment == activeSegment) {
+            return 0;
+        }
+        boolean oldest = segments.firstKey() == segmentId;
+
+        Path compactPath = directory.resolve(segmentFileName(segmentId) + COMPACT_EXTENSION);
+        List<Move> moves = new ArrayList<>();
+        long newSize = 0;
+        long copiedLive = 0;
+
+        try (FileChannel out = FileChannel.open(compactPath, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            long position = 0;
+            long end = segment.size.get();
+
+            while (position < end) {
+                header.clear();
+                readFully(segment.channel, header, position);
+                header.flip();
+                int id = header.getInt();
+                byte attributes = header.get();
+                int length = header.getInt();
+                int recordSize = HEADER_SIZE + length;
+
+                boolean keep;
+                if ((attributes & ATTR_TOMBSTONE) != 0) {
+                    // Daha eski segment'lerde silinmiş kopya kalmış olabilir, tombstone korunur
+                    keep = !oldest && !index.containsKey(id);
+                } else {
+                    Location current = index.get(id);
+                    keep = current != null && current.segment == segment && current.position == position;
+                }
+
+                if (keep) {
+                    ByteBuffer record = ByteBuffer.allocate(recordSize);
+                    readFully(segment.channel, record, position);
+                    record.flip();
+                    writeFully(out, record, newSize);
+                    if ((attributes & ATTR_TOMBSTONE) == 0) {
+                        moves.add(new Move(id, position, newSize, length, attributes));
+                        copiedLive += recordSize;
+                    }
+                    newSize += recordSize;
+                    throttle.acquire(recordSize);
+                }
+                position += recordSize;
+            }
+            out.force(true);
+        }
+
+        swapLock.writeLock().lock();
+        try {
+            Path segmentPath = directory.resolve(segmentFileName(segmentId));
+            if (newSize == 0) {
+                Files.deleteIfExists(compactPath);
+                Files.deleteIfExists(segmentPath);
+                segments.remove(segmentId);
+            } else {
+                // Eski dosya açık okuyucular için inode üzerinden erişilebilir kalır
+                Files.move(compactPath, segmentPath, StandardCopyOption.ATOMIC_MOVE,
+                        StandardCopyOption.REPLACE_EXISTING);
+                Segment compacted = openSegment(segmentId);
+                compacted.size.set(newSize);
+                compacted.liveBytes.set(copiedLive);
+                for (Move move : moves) {
+                    Location from = new Location(segment, move.fromPosition, move.length, move.attributes);
+                    Location to = new Location(compacted, move.toPosition, move.length, move.attributes);
+                    // Kopyalama sırasında üzerine yazılan kayıtlar yeni segment'te ölü sayılır
+                    if (!index.replace(move.id, from, to)) {
+                        compacted.liveBytes.addAndGet(-(HEADER_SIZE + move.length));
+                    }
+                }
+                segments.put(segmentId, compacted);
+            }
+        } finally {
+            swapLock.writeLock().unlock();
+        }
+        // Sahiplik referansı bırakılır, devam eden okuma/aktarım varsa kanal onlar bitince kapanır
+        segment.release();
+
+        long reclaimed = segment.size.get() - newSize;
+        logger.debug("Segment {} sıkıştırıldı: {} → {} byte", segmentId, segment.size.get(), newSize);
+        return reclaimed;
+    }
+
+    /**
+     * Önceki kaydın segment'indeki canlı byte sayısını düşürür
+     */
+    private void release(Location previous) {
+        if (previous == null) {
+            return;
+        }
+        previous.segment.liveBytes.addAndGet(-(HEADER_SIZE + previous.length));
+    }
+
+    private Segment openSegment(long segmentId) throws IOException {
+        Path path = directory.resolve(segmentFileName(segmentId));
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        return new Segment(segmentId, channel);
+    }
+
+    private static String segmentFileName(long segmentId) {
+        return String.format("%020d%s", segmentId, SEGMENT_EXTENSION);
+    }
+
+    /**
+     * Header alanları ve payload üzerinden CRC32 hesaplar (payload buffer'ının pozisyonu değişmez)
+     */
+    private static int checksum(int id, byte attributes, int length, ByteBuffer payload) {
+        CRC32 crc = CRC.get();
+        crc.reset();
+        crc.update(id >>> 24);
+        crc.update(id >>> 16);
+        crc.update(id >>> 8);
+        crc.update(id);
+        crc.update(attributes);
+        crc.update(length >>> 24);
+        crc.update(length >>> 16);
+        crc.update(length >>> 8);
+        crc.update(length);
+        int position = payload.position();
+        crc.update(payload);
+        payload.position(position);
+        return (int) crc.getValue();
+    }
+
+    static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position);
+            if (read < 0) {
+                throw new IOException("Beklenmeyen dosya sonu: position=" + position);
+            }
+            position += read;
+        }
+    }
+
+    static void writeFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        swapLock.writeLock().lock();
+        try {
+            closed = true;
+            for (Segment segment : segments.values()) {
+                segment.release();
+            }
+        } finally {
+            swapLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Compactor'ın I/O hızını sınırlamak için kullanılır
+     */
+    interface Throttle {
+        void acquire(long bytes) throws IOException;
+    }
+
+    /**
+     * Segment durumu (compaction kararı için)
+     */
+    static final class SegmentInfo {
+        final long id;
+        final long size;
+        final long liveBytes;
+
+        SegmentInfo(long id, long size, long liveBytes) {
+            this.id = id;
+            this.size = size;
+            this.liveBytes = liveBytes;
+        }
+
+        double liveRatio() {
+            return size == 0 ? 1.0 : (double) liveBytes / size;
+        }
+    }
+
+    private static final class Segment {
+        final long id;
+        final FileChannel channel;
+        final AtomicLong size = new AtomicLong();
+        final AtomicLong liveBytes = new AtomicLong();
+        // 1 = log'un sahiplik referansı, her okuma/aktarım +1
+        private final AtomicInteger references = new AtomicInteger(1);
+
+        Segment(long id, FileChannel channel) {
+            this.id = id;
+            this.channel = channel;
+        }
+
+        /**
+         * Okuma için referans alır; segment zaten bırakılmışsa false döner
+         */
+        boolean retain() {
+            int current;
+            do {
+                current = references.get();
+                if (current <= 0) {
+                    return false;
+                }
+            } while (!references.compareAndSet(current, current + 1));
+            return true;
+        }
+
+        void release() {
+            if (references.decrementAndGet() == 0) {
+                try {
+                    channel.close();
+                } catch (IOException e) {
+                    logger.warn("Segment {} kapatılırken hata: {}", id, e.getMessage());
+                }
+            }
+        }
+    }
+
+    private static final class Location {
+        final Segment segment;
+        final long position;
+        final int length;
+        final byte attributes;
+
+        Location(Segment segment, long position, int length, byte attributes) {
+            this.segment = segment;
+            this.position = position;
+            this.length = length;
+            this.attributes = attributes;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            Location that = (Location) o;
+            return segment == that.segment && position == that.position && length == that.length;
+        }
+
+        @Override
+        public int hashCode() {
+            return Long.hashCode(segment.id) * 31 + Long.hashCode(position);
+        }
+    }
+
+    private static final class Move {
+        final int id;
+        final long fromPosition;
+        final long toPosition;
+        final int length;
+        final byte attributes;
+
+        Move(int id, long fromPosition, long toPosition, int length, byte attributes) {
+            this.id = id;
+            this.fromPosition = fromPosition;
+            this.toPosition = toPosition;
+            this.length = length;
+            this.attributes = attributes;
+        }
+    }
+}
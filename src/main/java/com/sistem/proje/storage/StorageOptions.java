@@ -0,0 +1,81 @@
+package com.sistem.proje.storage;
+
+/**
+ * MessageStorage ayarları
+ * Varsayılanlar: UNBUFFERED IO, FLAT yerleşim, sıkıştırma kapalı (açılırsa 512 byte eşiği)
+ */
+public class StorageOptions {
+    private IOMode ioMode = IOMode.UNBUFFERED;
+    private FileLayout layout = FileLayout.FLAT;
+    // Açıkken 512 byte üstü .msg dosyaları ham metin değil sıkıştırılmış çerçevedir ve transferTo ile gönderilemez
+    private Compression compression = Compression.NONE;
+    private int compressionThreshold = MessageStorage.DEFAULT_COMPRESSION_THRESHOLD;
+
+    public IOMode getIoMode() {
+        return ioMode;
+    }
+
+    /**
+     * @param ioMode IO modu (BUFFERED, UNBUFFERED, CHANNEL veya LOG)
+     */
+    public StorageOptions setIoMode(IOMode ioMode) {
+        this.ioMode = requireNonNull(ioMode, "IO modu");
+        return this;
+    }
+
+    public FileLayout getLayout() {
+        return layout;
+    }
+
+    /**
+     * SHARDED seçildiğinde düz yerleşimdeki dosyalar açılışta arka planda taşınır, FLAT'e geri dönüş yapılmaz
+     *
+     * @param layout Dosya yerleşimi (LOG modunda kullanılmaz)
+     */
+    public StorageOptions setLayout(FileLayout layout) {
+        this.layout = requireNonNull(layout, "Dosya yerleşimi");
+        return this;
+    }
+
+    public Compression getCompression() {
+        return compression;
+    }
+
+    /**
+     * Sıkıştırma sadece yeni yazmaları etkiler, önceki ayarla yazılmış kayıtlar okunmaya devam eder
+     *
+     * @param compression Kayıt sıkıştırma algoritması (NONE ile kapatılır)
+     */
+    public StorageOptions setCompression(Compression compression) {
+        this.compression = requireNonNull(compression, "Sıkıştırma");
+        return this;
+    }
+
+    public int getCompressionThreshold() {
+        return compressionThreshold;
+    }
+
+    /**
+     * @param compressionThreshold Bu boyuttan (UTF-8 byte) küçük mesajlar sıkıştırılmaz
+     */
+    public StorageOptions setCompressionThreshold(int compressionThreshold) {
+        if (compressionThreshold < 0) {
+            throw new IllegalArgumentException("Sıkıştırma eşiği negatif olamaz: " + compressionThreshold);
+        }
+        this.compressionThreshold = compressionThreshold;
+        return this;
+    }
+
+    private static <T> T requireNonNull(T value, String name) {
+        if (value == null) {
+            throw new IllegalArgumentException(name + " null olamaz");
+        }
+        return value;
+    }
+
+    @Override
+    public String toString() {
+        return "StorageOptions{ioMode=" + ioMode + ", layout=" + layout + ", compression=" + compression
+                + ", compressionThreshold=" + compressionThreshold + "}";
+    }
+}
@@ -0,0 +1,30 @@
+package com.sistem.proje.storage;
+
+/**
+ * Storage'ın anlık doluluk bilgisi (mesaj sayısı ve diskte kaplanan alan)
+ */
+public final class StorageUsage {
+    private final long messageCount;
+    private final long diskBytes;
+
+    public StorageUsage(long messageCount, long diskBytes) {
+        this.messageCount = messageCount;
+        this.diskBytes = diskBytes;
+    }
+
+    public long getMessageCount() {
+        return messageCount;
+    }
+
+    /**
+     * Mesaj dosyalarının (LOG modunda segment'lerin) toplam boyutu, klasör metadata'sı hariç
+     */
+    public long getDiskBytes() {
+        return diskBytes;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("StorageUsage{messageCount=%d, diskBytes=%d}", messageCount, diskBytes);
+    }
+}
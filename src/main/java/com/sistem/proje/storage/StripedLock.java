@@ -0,0 +1,34 @@
+package com.sistem.proje.storage;
+
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Mesaj ID'si başına okuma/yazma kilidi, sabit sayıda kilide (stripe) dağıtılmış
+ * Aynı ID'ye eşzamanlı yazmalar sıraya girer, okuyucular yarım yazılmış dosya görmez
+ * Farklı ID'ler büyük olasılıkla farklı stripe'lara düşer, çekişme stripe sayısıyla ters orantılıdır
+ */
+final class StripedLock {
+    private final ReadWriteLock[] stripes;
+    private final int shift;
+
+    /**
+     * @param stripeCount Kilit sayısı, 2'nin kuvvetine yuvarlanır
+     */
+    StripedLock(int stripeCount) {
+        int bits = 32 - Integer.numberOfLeadingZeros(Math.max(1, stripeCount) - 1);
+        this.stripes = new ReadWriteLock[1 << bits];
+        this.shift = 32 - bits;
+        for (int i = 0; i < stripes.length; i++) {
+            stripes[i] = new ReentrantReadWriteLock();
+        }
+    }
+
+    /**
+     * ID'nin kilidini döndürür
+     * Fibonacci hashing ile ardışık ID'ler farklı stripe'lara dağıtılır
+     */
+    ReadWriteLock forId(int id) {
+        return shift == 32 ? stripes[0] : stripes[(id * 0x9E3779B9) >>> shift];
+    }
+}
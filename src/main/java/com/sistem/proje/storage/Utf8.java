@@ -0,0 +1,86 @@
+package com.sistem.proje.storage;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Ara nesne üretmeden String ↔ UTF-8 dönüşümü
+ * String.getBytes ile aynı çıktıyı verir (eşleşmemiş surrogate'ler '?' olarak yazılır)
+ */
+public final class Utf8 {
+
+    private Utf8() {
+    }
+
+    /**
+     * Metnin UTF-8 kodlanmış byte uzunluğunu hesaplar
+     */
+    public static int encodedLength(CharSequence text) {
+        int length = text.length();
+        int bytes = length;
+        for (int i = 0; i < length; i++) {
+            char c = text.charAt(i);
+            if (c >= 0x80) {
+                if (c < 0x800) {
+                    bytes += 1;
+                } else if (Character.isHighSurrogate(c) && i + 1 < length
+                        && Character.isLowSurrogate(text.charAt(i + 1))) {
+                    bytes += 2;
+                    i++;
+                } else if (Character.isSurrogate(c)) {
+                    // '?' ile değiştirilir, tek byte
+                } else {
+                    bytes += 2;
+                }
+            }
+        }
+        return bytes;
+    }
+
+    /**
+     * Metni buffer'ın mevcut pozisyonundan itibaren UTF-8 olarak yazar
+     * Buffer'da encodedLength kadar yer olmalıdır
+     */
+    static void encode(CharSequence text, ByteBuffer target) {
+        int length = text.length();
+        for (int i = 0; i < length; i++) {
+            char c = text.charAt(i);
+            if (c < 0x80) {
+                target.put((byte) c);
+            } else if (c < 0x800) {
+                target.put((byte) (0xC0 | (c >> 6)));
+                target.put((byte) (0x80 | (c & 0x3F)));
+            } else if (Character.isSurrogate(c)) {
+                if (Character.isHighSurrogate(c) && i + 1 < length
+                        && Character.isLowSurrogate(text.charAt(i + 1))) {
+                    int codePoint = Character.toCodePoint(c, text.charAt(++i));
+                    target.put((byte) (0xF0 | (codePoint >> 18)));
+                    target.put((byte) (0x80 | ((codePoint >> 12) & 0x3F)));
+                    target.put((byte) (0x80 | ((codePoint >> 6) & 0x3F)));
+                    target.put((byte) (0x80 | (codePoint & 0x3F)));
+                } else {
+                    target.put((byte) '?');
+                }
+            } else {
+                target.put((byte) (0xE0 | (c >> 12)));
+                target.put((byte) (0x80 | ((c >> 6) & 0x3F)));
+                target.put((byte) (0x80 | (c & 0x3F)));
+            }
+        }
+    }
+
+    /**
+     * Buffer'ın position..limit aralığını String'e çevirir
+     * Direct buffer thread'e özel heap dizisine kopyalanır, tek ayrılan nesne sonuç String'idir
+     */
+    static String decode(ByteBuffer source) {
+        int length = source.remaining();
+        if (source.hasArray()) {
+            return new String(source.array(), source.arrayOffset() + source.position(), length,
+                    StandardCharsets.UTF_8);
+        }
+        byte[] scratch = DirectBufferPool.scratch(length);
+        source.get(scratch, 0, length);
+        return new String(scratch, 0, length, StandardCharsets.UTF_8);
+    }
+}
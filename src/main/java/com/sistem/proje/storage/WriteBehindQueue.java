@@ -0,0 +1,260 @@
+package com.sistem.proje.storage;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Storage önünde sınırlı kapasiteli write-behind kuyruğu
+ * Yazmalar tek bir writer thread'i tarafından batch'ler halinde storage'a aktarılır,
+ * çağıran AckMode'a göre kuyruğa alındığında, yazıldığında veya fsync edildiğinde bilgilendirilir
+ * Kuyruk doluysa submit belirli bir süre bekler (backpressure), süre dolarsa yazma reddedilir
+ * Kuyrukta bekleyen mesajlar okumalarda görünür (read-your-writes)
+ */
+public class WriteBehindQueue implements Closeable {
+    private static final Logger logger = LoggerFactory.getLogger(WriteBehindQueue.class);
+    public static final int DEFAULT_CAPACITY = 10_000;
+    public static final int DEFAULT_MAX_BATCH_SIZE = 256;
+    public static final long DEFAULT_OFFER_TIMEOUT_MILLIS = 5_000;
+
+    private final MessageStorage storage;
+    private final AckMode ackMode;
+    private final int maxBatchSize;
+    private final long offerTimeoutMillis;
+    private final BlockingQueue<PendingWrite> queue;
+    // Mesaj ID → kuyruktaki en son yazma
+    private final Map<Integer, PendingWrite> pending = new ConcurrentHashMap<>();
+    private final Thread writerThread;
+    // submit'ler closed kontrolü ile kuyruğa ekleme arasında read lock tutar; close write lock ile closed'ı
+    // işaretler, böylece writer çıktıktan sonra kuyruğa yazma eklenemez
+    private final ReadWriteLock closeLock = new ReentrantReadWriteLock();
+    private volatile boolean closed;
+
+    // İlerleme metrikleri
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+
+    public WriteBehindQueue(MessageStorage storage, AckMode ackMode) {
+        this(storage, ackMode, DEFAULT_CAPACITY, DEFAULT_MAX_BATCH_SIZE, DEFAULT_OFFER_TIMEOUT_MILLIS);
+    }
+
+    /**
+     * @param storage Yazmaların aktarılacağı storage
+     * @param ackMode Store'un onaylanacağı aşama
+     * @param capacity Kuyrukta bekleyebilecek en fazla yazma sayısı
+     * @param maxBatchSize Writer thread'inin tek seferde aktardığı en fazla yazma sayısı
+     * @param offerTimeoutMillis Kuyruk doluyken submit'in bekleyeceği süre
+     */
+    public WriteBehindQueue(MessageStorage storage, AckMode ackMode, int capacity, int maxBatchSize,
+                            long offerTimeoutMillis) {
+        this.storage = storage;
+        this.ackMode = ackMode != null ? ackMode : AckMode.WRITTEN;
+        this.maxBatchSize = maxBatchSize;
+        this.offerTimeoutMillis = offerTimeoutMillis;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.writerThread = new Thread(this::runWriter, "write-behind-writer");
+        this.writerThread.setDaemon(true);
+        this.writerThread.start();
+        logger.info("Write-behind kuyruğu başlatıldı. Onay: {}, Kapasite: {}, Batch: {}",
+                this.ackMode, capacity, maxBatchSize);
+    }
+
+    /**
+     * Yazmayı kuyruğa alır
+     * Kuyruk doluysa offerTimeoutMillis kadar bekler
+     *
+     * @return AckMode aşamasına ulaşıldığında tamamlanan future; yazma hatasında exceptionally tamamlanır
+     * @throws RejectedExecutionException Kuyruk süre dolana kadar boşalmazsa veya kuyruk kapatıldıysa
+     * @throws InterruptedException Beklerken kesilirse
+     */
+    public CompletableFuture<Void> submit(Integer id, String message) throws InterruptedException {
+        PendingWrite write = new PendingWrite(id, message);
+        closeLock.readLock().lock();
+        try {
+            if (closed) {
+                throw new RejectedExecutionException("Write-behind kuyruğu kapatıldı");
+            }
+            // Kuyruğa girmeden okumalara görünür olur; writer sadece kendi yazdığı nesneyi siler, daha yenisini değil
+            pending.put(id, write);
+            if (!queue.offer(write, offerTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                pending.remove(id, write);
+                rejected.incrementAndGet();
+                throw new RejectedExecutionException("Write-behind kuyruğu dolu (" + queue.size() + ")");
+            }
+        } finally {
+            closeLock.readLock().unlock();
+        }
+        if (ackMode == AckMode.ENQUEUED) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return write.future;
+    }
+
+    /**
+     * Kuyrukta bekleyen en son yazmayı döndürür
+     *
+     * @return Mesaj, kuyrukta yoksa null (storage'dan okunmalı)
+     */
+    public String getPending(Integer id) {
+        PendingWrite write = pending.get(id);
+        return write != null ? write.message : null;
+    }
+
+    /**
+     * Kuyruğu boşaltan writer döngüsü
+     */
+    private void runWriter() {
+        List<PendingWrite> batch = new ArrayList<>(maxBatchSize);
+        while (true) {
+            try {
+                PendingWrite first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    if (closed) {
+                        return;
+                    }
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, maxBatchSize - 1);
+                writeBatch(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * Batch'i storage'a yazar
+     * Aynı ID'ye ait yazmalardan sadece sonuncusu diske gider
+     */
+    private void writeBatch(List<PendingWrite> batch) {
+        Map<Integer, PendingWrite> latest = new LinkedHashMap<>();
+        for (PendingWrite write : batch) {
+            latest.put(write.id, write);
+        }
+
+        Exception failure = null;
+        try {
+            for (PendingWrite write : latest.values()) {
+                storage.saveMessage(write.id, write.message);
+            }
+            if (ackMode == AckMode.FSYNCED) {
+                storage.sync(latest.keySet());
+            }
+        } catch (IOException | RuntimeException e) {
+            failure = e;
+            logger.error("Write-behind batch yazılamadı ({} yazma): ", batch.size(), e);
+        }
+
+        for (PendingWrite write : batch) {
+            pending.remove(write.id, write);
+            if (failure != null) {
+                write.future.completeExceptionally(failure);
+            } else {
+                write.future.complete(null);
+            }
+        }
+        batches.incrementAndGet();
+        written.addAndGet(latest.size());
+    }
+
+    /**
+     * Kuyrukta bekleyen yazma sayısı
+     */
+    public int getQueueDepth() {
+        return queue.size();
+    }
+
+    public AckMode getAckMode() {
+        return ackMode;
+    }
+
+    public long getBatches() {
+        return batches.get();
+    }
+
+    public long getWritten() {
+        return written.get();
+    }
+
+    public long getRejected() {
+        return rejected.get();
+    }
+
+    /**
+     * Yeni yazmaları reddeder, kuyrukta kalanları yazar ve writer thread'ini durdurur
+     * Writer süresinde bitiremezse kalan yazmaların future'ları hata ile tamamlanır
+     */
+    @Override
+    public void close() {
+        // Kuyruğa ekleme sürmekte olan submit'ler bitene kadar beklenir (en fazla offerTimeoutMillis)
+        closeLock.writeLock().lock();
+        try {
+            closed = true;
+        } finally {
+            closeLock.writeLock().unlock();
+        }
+        try {
+            writerThread.join(TimeUnit.SECONDS.toMillis(30));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (writerThread.isAlive()) {
+            logger.warn("Write-behind kuyruğu 30 saniyede boşalmadı, bekleyen: {}", queue.size());
+            writerThread.interrupt();
+            try {
+                writerThread.join(TimeUnit.SECONDS.toMillis(5));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        failRemaining();
+    }
+
+    /**
+     * Writer çıktıktan sonra kuyrukta kalan yazmaları hata ile tamamlar (WRITTEN/FSYNCED bekleyenler asılı kalmaz)
+     */
+    private void failRemaining() {
+        List<PendingWrite> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        if (remaining.isEmpty()) {
+            return;
+        }
+        logger.error("Write-behind kuyruğu kapatılırken {} yazma diske aktarılamadı", remaining.size());
+        RejectedExecutionException failure = new RejectedExecutionException("Write-behind kuyruğu kapatıldı");
+        for (PendingWrite write : remaining) {
+            pending.remove(write.id, write);
+            write.future.completeExceptionally(failure);
+        }
+    }
+
+    private static final class PendingWrite {
+        final Integer id;
+        final String message;
+        final CompletableFuture<Void> future = new CompletableFuture<>();
+
+        PendingWrite(Integer id, String message) {
+            this.id = id;
+            this.message = message;
+        }
+    }
+}
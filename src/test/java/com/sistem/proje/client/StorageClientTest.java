@@ -0,0 +1,355 @@
+package com.sistem.proje.client;
+
+import com.sistem.proje.protocol.BinaryOpcode;
+import com.sistem.proje.protocol.BinaryProtocol;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * StorageClient'ın tekrar, zaman aşımı ve pipelining davranışı; lider yerine cevapları senaryoya göre
+ * veren sahte bir binary sunucu kullanılır
+ */
+class StorageClientTest {
+    private final List<Closeable> resources = new ArrayList<>();
+
+    @AfterEach
+    void closeResources() throws IOException {
+        for (Closeable resource : resources) {
+            resource.close();
+        }
+    }
+
+    @Test
+    void timedOutSetIsRetriedOnSameConnection() throws Exception {
+        AtomicInteger sets = new AtomicInteger();
+        FakeLeader leader = leader(frame -> {
+            if (frame.opcode == BinaryOpcode.SET && sets.incrementAndGet() == 1) {
+                return Reply.NONE;
+            }
+            return Reply.ok();
+        });
+        StorageClient client = client(leader, options(1, 3, 300, 10));
+
+        client.set(1, "ilk deneme cevapsız kalır");
+        assertEquals(2, sets.get());
+        assertEquals(1, counter(client, "client.timeouts"));
+        assertEquals(1, counter(client, "client.retries"));
+        assertEquals(0, counter(client, "client.errors"));
+        assertEquals(1, leader.connections.get(), "zaman aşımı bağlantıyı kapatmamalı");
+    }
+
+    @Test
+    void droppedConnectionIsReopenedAndGetRetried() throws Exception {
+        AtomicInteger gets = new AtomicInteger();
+        FakeLeader leader = leader(frame -> {
+            if (frame.opcode != BinaryOpcode.GET) {
+                return Reply.ok();
+            }
+            return gets.incrementAndGet() == 1 ? Reply.CLOSE : Reply.ok("değer");
+        });
+        StorageClient client = client(leader, options(1, 3, 5000, 10));
+
+        assertEquals("değer", client.get(7));
+        assertEquals(2, gets.get());
+        assertEquals(2, leader.connections.get(), "kopan bağlantı yeniden kurulmalı");
+        assertEquals(1, counter(client, "client.retries"));
+    }
+
+    @Test
+    void errorResponseIsNotRetried() throws Exception {
+        FakeLeader leader = leader(frame -> frame.opcode == BinaryOpcode.SET
+                ? Reply.error("replikasyon başarısız") : Reply.ok());
+        StorageClient client = client(leader, options(1, 3, 5000, 10));
+
+        ClientException failure = assertThrows(ClientException.class, () -> client.set(1, "x"));
+        assertFalse(failure.isRetryable());
+        assertTrue(failure.getMessage().contains("replikasyon başarısız"), failure.getMessage());
+        assertEquals(1, leader.count(BinaryOpcode.SET));
+        assertEquals(0, counter(client, "client.retries"));
+        assertEquals(1, counter(client, "client.errors"));
+    }
+
+    @Test
+    void sentAppendIsNotRetriedAfterConnectionLoss() throws Exception {
+        FakeLeader leader = leader(frame -> frame.opcode == BinaryOpcode.APPEND ? Reply.CLOSE : Reply.ok());
+        StorageClient client = client(leader, options(1, 3, 5000, 10));
+
+        ClientException failure = assertThrows(ClientException.class, () -> client.append("kayıt"));
+        assertFalse(failure.isRetryable(), "gönderilmiş APPEND tekrar edilmemeli");
+        assertTrue(failure.getMessage().contains("tekrar edilmedi"), failure.getMessage());
+        assertEquals(1, leader.count(BinaryOpcode.APPEND), "kayıt çoğaltılmamalı");
+        assertEquals(0, counter(client, "client.retries"));
+    }
+
+    @Test
+    void timedOutAppendIsNotRetried() throws Exception {
+        FakeLeader leader = leader(frame -> frame.opcode == BinaryOpcode.APPEND ? Reply.NONE : Reply.ok());
+        StorageClient client = client(leader, options(1, 3, 200, 10));
+
+        ClientException failure = assertThrows(ClientException.class, () -> client.append("kayıt"));
+        assertFalse(failure.isRetryable());
+        assertEquals(1, leader.count(BinaryOpcode.APPEND));
+        assertEquals(1, counter(client, "client.timeouts"));
+    }
+
+    @Test
+    void unreachableLeaderIsRetriedWithBackoffThenFails() throws Exception {
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        StorageClient client = new StorageClient("localhost", port, options(1, 3, 1000, 100));
+        resources.add(client);
+
+        long start = System.nanoTime();
+        ClientException failure = assertThrows(ClientException.class, () -> client.append("bağlantı yok"));
+        long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        assertTrue(failure.isRetryable(), "bağlantı hatası retryable olmalı: " + failure.getMessage());
+        assertEquals(3, counter(client, "client.retries"), "gönderilemeyen APPEND tekrar edilebilir");
+        assertEquals(1, counter(client, "client.errors"));
+        // Beklemeler 100, 200, 400 ms'nin en az yarısı
+        assertTrue(elapsed >= 350, "üstel bekleme uygulanmalı: " + elapsed + " ms");
+    }
+
+    @Test
+    void pipelinedRequestsAreMatchedByRequestId() throws Exception {
+        int count = 16;
+        FakeLeader leader = leader(frame -> frame.opcode == BinaryOpcode.GET
+                ? Reply.ok("mesaj-" + frame.key) : Reply.ok());
+        // Sunucu cevapları pipeline derinliği kadar istek gelene kadar bekletip ters sırayla yazar
+        leader.holdUntil = 8;
+        StorageClient client = client(leader, options(1, 0, 5000, 10));
+
+        List<Integer> ids = new ArrayList<>();
+        for (int id = 0; id < count; id++) {
+            ids.add(id);
+        }
+        Map<Integer, String> found = client.getAllAsync(ids).get(10, TimeUnit.SECONDS);
+        assertEquals(count, found.size());
+        for (int id = 0; id < count; id++) {
+            assertEquals("mesaj-" + id, found.get(id));
+        }
+        assertEquals(1, leader.connections.get(), "istekler tek bağlantıda pipeline edilmeli");
+    }
+
+    @Test
+    void requestsAreSpreadOverPoolAndNotFoundIsNull() throws Exception {
+        FakeLeader leader = leader(frame -> frame.opcode == BinaryOpcode.GET
+                ? new Reply(BinaryOpcode.NOT_FOUND, new byte[0]) : Reply.ok());
+        StorageClient client = client(leader, options(3, 0, 5000, 10));
+
+        Map<Integer, String> messages = new LinkedHashMap<>();
+        for (int id = 0; id < 300; id++) {
+            messages.put(id, "mesaj-" + id);
+        }
+        client.setAllAsync(messages).get(10, TimeUnit.SECONDS);
+        assertEquals(300, leader.count(BinaryOpcode.SET));
+        assertNull(client.get(1));
+        assertEquals(3, leader.connections.get(), "havuzdaki tüm bağlantılar kullanılmalı");
+    }
+
+    private FakeLeader leader(Handler handler) throws IOException {
+        FakeLeader leader = new FakeLeader(handler);
+        resources.add(leader);
+        return leader;
+    }
+
+    private StorageClient client(FakeLeader leader, ClientOptions options) {
+        StorageClient client = new StorageClient("localhost", leader.getPort(), options);
+        resources.add(0, client);
+        return client;
+    }
+
+    /**
+     * Pipeline derinliği 8, bekleme üst sınırı 1 sn
+     */
+    private static ClientOptions options(int poolSize, int maxRetries, long requestTimeoutMillis, long backoffMillis) {
+        return new ClientOptions(poolSize, 8, 1000, requestTimeoutMillis, maxRetries, backoffMillis, 1000);
+    }
+
+    private static long counter(StorageClient client, String name) {
+        return client.getMetrics().getCounters().get(name).get();
+    }
+
+    /**
+     * Sahte liderin gelen frame'e cevabı
+     */
+    private interface Handler {
+        Reply handle(Frame frame);
+    }
+
+    private static final class Frame {
+        final BinaryOpcode opcode;
+        final int requestId;
+        final int key;
+        final byte[] payload;
+
+        Frame(BinaryOpcode opcode, int requestId, int key, byte[] payload) {
+            this.opcode = opcode;
+            this.requestId = requestId;
+            this.key = key;
+            this.payload = payload;
+        }
+    }
+
+    /**
+     * Cevap frame'i; NONE cevap yazmaz, CLOSE bağlantıyı kapatır
+     */
+    private static final class Reply {
+        static final Reply NONE = new Reply(null, null);
+        static final Reply CLOSE = new Reply(null, null);
+
+        final BinaryOpcode opcode;
+        final byte[] payload;
+
+        Reply(BinaryOpcode opcode, byte[] payload) {
+            this.opcode = opcode;
+            this.payload = payload;
+        }
+
+        static Reply ok() {
+            return new Reply(BinaryOpcode.OK, new byte[0]);
+        }
+
+        static Reply ok(String payload) {
+            return new Reply(BinaryOpcode.OK, payload.getBytes(StandardCharsets.UTF_8));
+        }
+
+        static Reply error(String message) {
+            return new Reply(BinaryOpcode.ERROR, message.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    /**
+     * Binary el sıkışmasını yapıp her frame'i Handler'a soran tek portluk sahte lider
+     * APPEND cevabı offset olarak 8 byte'lık 0 döner; PARTITIONS desteklenmez (ERROR)
+     */
+    private static final class FakeLeader implements Closeable {
+        private final ServerSocket server;
+        private final Handler handler;
+        private final List<Frame> received = new CopyOnWriteArrayList<>();
+        private final List<Socket> sockets = new CopyOnWriteArrayList<>();
+        final AtomicInteger connections = new AtomicInteger();
+        // 0'dan büyükse bağlantı başına bu kadar istek birikene kadar cevaplar bekletilip ters sırayla yazılır
+        volatile int holdUntil;
+
+        FakeLeader(Handler handler) throws IOException {
+            this.server = new ServerSocket(0);
+            this.handler = handler;
+            Thread acceptor = new Thread(this::acceptLoop, "fake-leader");
+            acceptor.setDaemon(true);
+            acceptor.start();
+        }
+
+        int getPort() {
+            return server.getLocalPort();
+        }
+
+        int count(BinaryOpcode opcode) {
+            return (int) received.stream().filter(frame -> frame.opcode == opcode).count();
+        }
+
+        private void acceptLoop() {
+            try {
+                while (true) {
+                    Socket socket = server.accept();
+                    sockets.add(socket);
+                    connections.incrementAndGet();
+                    Thread thread = new Thread(() -> serve(socket), "fake-leader-connection");
+                    thread.setDaemon(true);
+                    thread.start();
+                }
+            } catch (IOException e) {
+                // Sunucu kapatıldı
+            }
+        }
+
+        private void serve(Socket socket) {
+            try (Socket s = socket) {
+                DataInputStream in = new DataInputStream(new BufferedInputStream(s.getInputStream()));
+                DataOutputStream out = new DataOutputStream(s.getOutputStream());
+                in.readByte();
+                in.readByte();
+                out.write(new byte[] {BinaryProtocol.MAGIC, BinaryProtocol.VERSION});
+                List<byte[]> held = new ArrayList<>();
+                while (true) {
+                    BinaryOpcode opcode = BinaryOpcode.fromCode(in.readByte());
+                    int requestId = in.readInt();
+                    int key = in.readInt();
+                    byte[] payload = new byte[in.readInt()];
+                    in.readFully(payload);
+                    Frame frame = new Frame(opcode, requestId, key, payload);
+                    if (opcode != BinaryOpcode.PARTITIONS) {
+                        received.add(frame);
+                    }
+
+                    Reply reply = opcode == BinaryOpcode.PARTITIONS
+                            ? Reply.error("bilinmeyen komut") : handler.handle(frame);
+                    if (reply == Reply.CLOSE) {
+                        return;
+                    }
+                    if (reply == Reply.NONE) {
+                        continue;
+                    }
+                    byte[] response = response(frame, reply);
+                    if (opcode == BinaryOpcode.PARTITIONS || holdUntil <= 0) {
+                        out.write(response);
+                        continue;
+                    }
+                    held.add(response);
+                    if (held.size() == holdUntil) {
+                        Collections.reverse(held);
+                        for (byte[] bytes : held) {
+                            out.write(bytes);
+                        }
+                        held.clear();
+                    }
+                }
+            } catch (IOException e) {
+                // Client bağlantıyı kapattı
+            }
+        }
+
+        private static byte[] response(Frame frame, Reply reply) {
+            byte[] payload = frame.opcode == BinaryOpcode.APPEND && reply.opcode == BinaryOpcode.OK
+                    ? new byte[BinaryProtocol.APPEND_RESPONSE_SIZE] : reply.payload;
+            ByteBuffer buffer = ByteBuffer.allocate(BinaryProtocol.HEADER_SIZE + payload.length);
+            BinaryProtocol.putHeader(buffer, 0, reply.opcode, frame.requestId, frame.key, payload.length);
+            buffer.position(BinaryProtocol.HEADER_SIZE);
+            buffer.put(payload);
+            return buffer.array();
+        }
+
+        @Override
+        public void close() throws IOException {
+            server.close();
+            for (Socket socket : sockets) {
+                socket.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,325 @@
+package com.sistem.proje.cluster;
+
+import com.sistem.proje.client.StorageClient;
+import com.sistem.proje.leader.LeaderNode;
+import com.sistem.proje.protocol.PartitionMap;
+import com.sistem.proje.storage.IOMode;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Gömülü küme üzerinde uçtan uca testler: çoğaltma, üye hataları, Raft lider devri ve MOVED yönlendirmesi
+ */
+class EmbeddedClusterTest {
+    private static final long TIMEOUT_SECONDS = 20;
+
+    @ParameterizedTest
+    @ValueSource(booleans = {false, true})
+    void setIsReplicatedToToleranceMembers(boolean inProcess) throws Exception {
+        try (EmbeddedCluster cluster = new EmbeddedCluster(3, IOMode.CHANNEL, 2, inProcess)) {
+            cluster.start();
+            try (Connection connection = new Connection(cluster.getLeaderPort())) {
+                for (int id = 0; id < 30; id++) {
+                    assertEquals("OK", connection.call("SET " + id + " mesaj-" + id));
+                }
+                for (int id = 0; id < 30; id++) {
+                    assertEquals("mesaj-" + id, connection.call("GET " + id));
+                }
+            }
+
+            LeaderNode leader = cluster.getLeader();
+            long stored = 0;
+            for (int id = 0; id < 30; id++) {
+                assertEquals(2, memberHolders(leader, id).size(), "mesaj " + id + " iki farklı üyede olmalı");
+            }
+            for (String memberId : cluster.getMemberIds()) {
+                stored += cluster.getMember(memberId).getMessageCount();
+            }
+            assertEquals(60, stored, "üye disklerinde tolerance kadar kopya olmalı");
+        }
+    }
+
+    @Test
+    void killedMemberIsSkippedAndKeepsDataAfterRestart() throws Exception {
+        try (EmbeddedCluster cluster = new EmbeddedCluster(3, IOMode.CHANNEL, 2, true)) {
+            cluster.start();
+            LeaderNode leader = cluster.getLeader();
+            try (Connection connection = new Connection(cluster.getLeaderPort())) {
+                for (int id = 0; id < 9; id++) {
+                    assertEquals("OK", connection.call("SET " + id + " önce-" + id));
+                }
+                int before = cluster.getMember("member-1").getMessageCount();
+                assertTrue(before > 0);
+
+                cluster.kill("member-1");
+                assertTrue(cluster.isKilled("member-1"));
+                // Ölümü fark eden ilk SET kısmen başarısız olabilir, sonrakiler yaşayan üyelere gider
+                connection.call("SET 100 ilk");
+                for (int id = 101; id < 110; id++) {
+                    assertEquals("OK", connection.call("SET " + id + " sonra-" + id));
+                    Set<String> holders = memberHolders(leader, id);
+                    assertFalse(holders.contains("member-1"), "öldürülen üye seçilmemeli");
+                    assertEquals(2, holders.size(), "yaşayan üyeler tolerance'ı karşılamalı");
+                }
+                for (int id = 0; id < 9; id++) {
+                    assertEquals("önce-" + id, connection.call("GET " + id));
+                }
+
+                cluster.restart("member-1");
+                assertFalse(cluster.isKilled("member-1"));
+                assertEquals(before, cluster.getMember("member-1").getMessageCount(),
+                        "aynı veri klasörüyle dönen üye mesajlarını korumalı");
+
+                // Yeniden kaydolan üye tekrar seçilir
+                Set<String> holders = new HashSet<>();
+                for (int id = 200; id < 206; id++) {
+                    assertEquals("OK", connection.call("SET " + id + " geri-" + id));
+                    holders.addAll(memberHolders(leader, id));
+                }
+                assertTrue(holders.contains("member-1"), "yeniden başlatılan üye seçilmeli: " + holders);
+            }
+        }
+    }
+
+    @Test
+    void pausedMemberFailsStoreAfterDeadlineAndBecomesSuspect() throws Exception {
+        try (EmbeddedCluster cluster = new EmbeddedCluster(3, IOMode.CHANNEL, 2, true);
+             Connection connection = startAndConnect(cluster)) {
+            LeaderNode leader = cluster.getLeader();
+            cluster.pause("member-1");
+            // Round robin üç üyeden ikisini seçer, en geç ikinci SET member-1'e gider; Store RPC'si deadline ile
+            // biter, SET kısmi hata ile döner ve üye SUSPECT olur
+            for (int id = 1; id <= 2 && !isSuspect(leader, "member-1"); id++) {
+                String response = connection.call("SET " + id + " duraklatılmış-" + id);
+                assertTrue(response.equals("OK") || response.startsWith("ERROR"), response);
+            }
+            assertTrue(isSuspect(leader, "member-1"), "cevap vermeyen üye SUSPECT olmalı");
+            assertEquals(0, cluster.getMember("member-1").getMessageCount());
+
+            // SUSPECT üye seçimde sona kalır, yazmalar diğer iki üyeyle beklemeden tamamlanır
+            for (int id = 10; id < 14; id++) {
+                assertEquals("OK", connection.call("SET " + id + " sonra-" + id));
+                assertFalse(memberHolders(leader, id).contains("member-1"));
+            }
+            cluster.resume("member-1");
+            assertEquals("sonra-13", connection.call("GET 13"));
+        }
+    }
+
+    @Test
+    void raftGroupElectsNewLeaderAndMembersFollowIt() throws Exception {
+        try (EmbeddedCluster cluster = new EmbeddedCluster(3, IOMode.CHANNEL, 2, true)) {
+            cluster.setLeaderCount(3);
+            cluster.start();
+
+            // Açılışta ikinci bir seçim lideri değiştirebilir; SET'ler MOVED ile güncel lidere gider
+            for (int id = 0; id < 20; id++) {
+                assertEquals("OK", callLeader(cluster, "SET " + id + " raft-" + id));
+            }
+            awaitMembersFollowLeader(cluster);
+            LeaderNode oldLeader = cluster.getLeader();
+            assertNotNull(oldLeader);
+
+            cluster.killLeader(cluster.getLeaders().indexOf(oldLeader));
+            LeaderNode newLeader = cluster.awaitLeader(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            assertNotNull(newLeader, "kalan liderler yeni lider seçmeli");
+            assertNotSame(oldLeader, newLeader);
+            long electedAt = System.currentTimeMillis();
+            String newAddress = "localhost:" + newLeader.getPort();
+
+            // Üyeler heartbeat hatasıyla sıradaki lidere, NOT_LEADER ile seçilen lidere geçip yeniden kaydolur
+            awaitTrue(() -> {
+                for (String memberId : cluster.getMemberIds()) {
+                    if (!newAddress.equals(cluster.getMember(memberId).getCurrentLeader())) {
+                        return false;
+                    }
+                }
+                for (LeaderNode.MemberInfo member : newLeader.getAllMembers()) {
+                    if (!member.isAlive() || member.getLastHeartbeatTimestamp() <= electedAt) {
+                        return false;
+                    }
+                }
+                return newLeader.getActiveMemberCount() == 3;
+            }, "üyeler yeni lidere geçip heartbeat göndermeli");
+
+            try (Connection connection = new Connection(cluster.getLeaderPort())) {
+                for (int id = 0; id < 20; id++) {
+                    assertEquals("raft-" + id, connection.call("GET " + id), "commit edilen SET yeni liderde olmalı");
+                }
+                // Offset'ler node'un kendi offset log'unu gösterir, Raft modunda gruplar kapalıdır
+                assertTrue(connection.call("GROUP OFFSET grup").startsWith("ERROR"));
+                for (int id = 20; id < 30; id++) {
+                    assertEquals("OK", connection.call("SET " + id + " yeni-" + id));
+                    assertEquals(2, memberHolders(newLeader, id).size());
+                }
+            }
+        }
+    }
+
+    @Test
+    void clientRoutesByPartitionMapAndFollowsMoved() throws Exception {
+        try (EmbeddedCluster first = new EmbeddedCluster(1, IOMode.CHANNEL, 1, true);
+             EmbeddedCluster second = new EmbeddedCluster(1, IOMode.CHANNEL, 1, true)) {
+            first.start();
+            second.start();
+            String firstAddress = "localhost:" + first.getLeaderPort();
+            String secondAddress = "localhost:" + second.getLeaderPort();
+            PartitionMap map = PartitionMap.parse(firstAddress + "," + secondAddress);
+            first.getLeader().setPartitioning(map, 0);
+            second.getLeader().setPartitioning(map, 1);
+            LeaderNode[] owners = {first.getLeader(), second.getLeader()};
+
+            try (StorageClient client = new StorageClient("localhost", first.getLeaderPort())) {
+                // Client map'i ilk SET'te alır ve her ID'yi doğrudan sahibine gönderir
+                int foreign = -1;
+                for (int id = 0; id < 40; id++) {
+                    client.set(id, "mesaj-" + id);
+                    int partition = map.partitionOf(id);
+                    assertFalse(memberHolders(owners[partition], id).isEmpty(), "mesaj " + id + " sahibinde olmalı");
+                    assertTrue(memberHolders(owners[1 - partition], id).isEmpty());
+                    if (partition == 1 && foreign < 0) {
+                        foreign = id;
+                    }
+                }
+                assertEquals("mesaj-7", client.get(7));
+                assertEquals(0, moved(client), "güncel map'le yönlendirme gerekmemeli");
+                try (Connection connection = new Connection(first.getLeaderPort())) {
+                    assertEquals("MOVED 1 " + secondAddress, connection.call("GET " + foreign));
+                }
+
+                // Partition'lar yer değiştirir: client'ın map'i eskir, yanlış lider MOVED ile yeni sahibi bildirir
+                PartitionMap swapped = PartitionMap.parse(secondAddress + "," + firstAddress);
+                first.getLeader().setPartitioning(swapped, 1);
+                second.getLeader().setPartitioning(swapped, 0);
+                client.set(foreign, "taşındı");
+                assertEquals(1, moved(client));
+                assertFalse(memberHolders(first.getLeader(), foreign).isEmpty(), "SET yeni sahibine gitmeli");
+                assertEquals("taşındı", client.get(foreign));
+                assertEquals(1, moved(client), "MOVED adresi map'e işlenmeli");
+            }
+        }
+    }
+
+    /**
+     * Komutu güncel Raft liderine gönderir; MOVED veya geçici Raft hatasında lider değişmiş olabilir, tekrar denenir
+     */
+    private static String callLeader(EmbeddedCluster cluster, String line) throws Exception {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(TIMEOUT_SECONDS);
+        while (true) {
+            LeaderNode leader = cluster.awaitLeader(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            assertNotNull(leader, "Raft lideri seçilmeli");
+            String response;
+            try (Connection connection = new Connection(leader.getPort())) {
+                response = connection.call(line);
+            }
+            if (!response.startsWith("MOVED ") && !response.startsWith("ERROR: Raft")) {
+                return response;
+            }
+            assertTrue(System.nanoTime() < deadline, "lider kararlı hale gelmedi: " + response);
+            Thread.sleep(50);
+        }
+    }
+
+    /**
+     * Tüm üyeler güncel Raft liderine kaydolana kadar bekler
+     */
+    private static void awaitMembersFollowLeader(EmbeddedCluster cluster) throws InterruptedException {
+        awaitTrue(() -> {
+            LeaderNode leader = cluster.getLeader();
+            if (leader == null) {
+                return false;
+            }
+            String address = "localhost:" + leader.getPort();
+            for (String memberId : cluster.getMemberIds()) {
+                if (!address.equals(cluster.getMember(memberId).getCurrentLeader())) {
+                    return false;
+                }
+            }
+            return leader.getActiveMemberCount() == 3;
+        }, "üyeler güncel lidere kaydolmalı");
+    }
+
+    private static long moved(StorageClient client) {
+        return client.getMetrics().getCounters().get("client.moved").get();
+    }
+
+    private static boolean isSuspect(LeaderNode leader, String memberId) {
+        for (LeaderNode.MemberInfo member : leader.getAllMembers()) {
+            if (member.getId().equals(memberId)) {
+                return member.getStatus() == LeaderNode.MemberStatus.SUSPECT;
+            }
+        }
+        return false;
+    }
+
+    private static Connection startAndConnect(EmbeddedCluster cluster) throws Exception {
+        cluster.start();
+        return new Connection(cluster.getLeaderPort());
+    }
+
+    /**
+     * Mesajı saklayan üyeler (tek lider modunda lider de "leader" olarak kaydedilir, o hariç tutulur)
+     */
+    private static Set<String> memberHolders(LeaderNode leader, int id) {
+        Set<String> holders = new HashSet<>(leader.getMembersForMessage(id));
+        holders.remove("leader");
+        return holders;
+    }
+
+    private static void awaitTrue(BooleanSupplier condition, String message) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(TIMEOUT_SECONDS);
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, message);
+            Thread.sleep(50);
+        }
+    }
+
+    /**
+     * Lidere text protokolüyle bağlanan basit client (istek başına tek satır cevap)
+     */
+    private static final class Connection implements Closeable {
+        private final Socket socket;
+        private final PrintWriter writer;
+        private final BufferedReader reader;
+
+        Connection(int port) throws IOException {
+            socket = new Socket("localhost", port);
+            socket.setSoTimeout((int) TimeUnit.SECONDS.toMillis(TIMEOUT_SECONDS));
+            writer = new PrintWriter(socket.getOutputStream(), true, StandardCharsets.UTF_8);
+            reader = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+        }
+
+        String call(String line) throws IOException {
+            writer.println(line);
+            String response = reader.readLine();
+            if (response == null) {
+                throw new IOException("Lider bağlantıyı kapattı");
+            }
+            return response;
+        }
+
+        @Override
+        public void close() throws IOException {
+            socket.close();
+        }
+    }
+}
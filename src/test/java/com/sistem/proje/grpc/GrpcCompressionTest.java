@@ -0,0 +1,26 @@
+package com.sistem.proje.grpc;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GrpcCompressionTest {
+
+    @Test
+    void thresholdIsMeasuredInUtf8Bytes() {
+        assertFalse(GrpcCompression.shouldCompress("a".repeat(99), 100));
+        assertTrue(GrpcCompression.shouldCompress("a".repeat(100), 100));
+        // 50 karakter, 100 byte: karakter sayısı eşiğin altında olsa da byte sayısı eşiğe ulaşır
+        assertTrue(GrpcCompression.shouldCompress("ş".repeat(50), 100));
+        assertFalse(GrpcCompression.shouldCompress("ş".repeat(49), 100));
+        assertFalse(GrpcCompression.shouldCompress("ğ".repeat(33), 100), "3 katı bile eşiğe ulaşmıyor");
+    }
+
+    @Test
+    void negativeThresholdDisablesCompression() {
+        assertFalse(GrpcCompression.shouldCompress("a".repeat(10_000), -1));
+        assertFalse(GrpcCompression.shouldCompress(null, 0));
+        assertTrue(GrpcCompression.shouldCompress("", 0));
+    }
+}
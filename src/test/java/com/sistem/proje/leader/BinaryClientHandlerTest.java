@@ -0,0 +1,214 @@
+package com.sistem.proje.leader;
+
+import com.sistem.proje.cluster.EmbeddedCluster;
+import com.sistem.proje.protocol.BinaryOpcode;
+import com.sistem.proje.protocol.BinaryProtocol;
+import com.sistem.proje.storage.IOMode;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Binary protokolün lider tarafı: frame sınırları, geçersiz frame'ler ve paralel işlenen isteklerin cevapları
+ */
+class BinaryClientHandlerTest {
+    private EmbeddedCluster cluster;
+
+    @BeforeEach
+    void startCluster() throws Exception {
+        cluster = new EmbeddedCluster(2, IOMode.CHANNEL, 1, true);
+        cluster.start();
+    }
+
+    @AfterEach
+    void closeCluster() {
+        cluster.close();
+    }
+
+    @Test
+    void framesSplitAcrossWritesAndBatchedInOneWrite() throws IOException {
+        try (Connection connection = new Connection(cluster.getLeaderPort())) {
+            // Satır sonu içeren payload bölünmeden taşınmalı
+            byte[] message = "satır 1\nsatır 2\r\nğüşöç".getBytes(StandardCharsets.UTF_8);
+            byte[] set = frame(BinaryOpcode.SET, 1, 10, message);
+            for (byte b : set) {
+                connection.write(new byte[] {b});
+            }
+            assertResponse(connection.read(), BinaryOpcode.OK, 1, 10, new byte[0]);
+
+            ByteArrayOutputStream batch = new ByteArrayOutputStream();
+            batch.write(frame(BinaryOpcode.GET, 2, 10, new byte[0]));
+            batch.write(frame(BinaryOpcode.GET, 3, 11, new byte[0]));
+            connection.write(batch.toByteArray());
+            Frame first = connection.read();
+            Frame second = connection.read();
+            Frame get = first.requestId == 2 ? first : second;
+            Frame missing = first.requestId == 2 ? second : first;
+            assertResponse(get, BinaryOpcode.OK, 2, 10, message);
+            assertResponse(missing, BinaryOpcode.NOT_FOUND, 3, 11, new byte[0]);
+        }
+    }
+
+    @Test
+    void invalidUtf8SetIsRejectedAndConnectionStaysUsable() throws IOException {
+        try (Connection connection = new Connection(cluster.getLeaderPort())) {
+            connection.write(frame(BinaryOpcode.SET, 1, 20, new byte[] {'a', (byte) 0xC3, '(', 'b'}));
+            Frame error = connection.read();
+            assertEquals(BinaryOpcode.ERROR.code(), error.opcode);
+            assertEquals(1, error.requestId);
+            assertTrue(error.text().contains("UTF-8"), error.text());
+
+            connection.write(frame(BinaryOpcode.GET, 2, 20, new byte[0]));
+            assertResponse(connection.read(), BinaryOpcode.NOT_FOUND, 2, 20, new byte[0]);
+
+            connection.write(new byte[] {0x7F, 0, 0, 0, 3, 0, 0, 0, 20, 0, 0, 0, 0});
+            Frame unknown = connection.read();
+            assertEquals(BinaryOpcode.ERROR.code(), unknown.opcode);
+            assertEquals(3, unknown.requestId, "bilinmeyen opcode aynı request id ile cevaplanmalı");
+        }
+    }
+
+    @Test
+    void invalidPayloadLengthClosesConnection() throws IOException {
+        for (int length : new int[] {-1, BinaryProtocol.MAX_PAYLOAD_SIZE + 1}) {
+            try (Connection connection = new Connection(cluster.getLeaderPort())) {
+                ByteBuffer header = ByteBuffer.allocate(BinaryProtocol.HEADER_SIZE);
+                BinaryProtocol.putHeader(header, 0, BinaryOpcode.SET, 7, 30, length);
+                connection.write(header.array());
+                Frame error = connection.read();
+                assertEquals(BinaryOpcode.ERROR.code(), error.opcode);
+                assertEquals(7, error.requestId);
+                assertTrue(error.text().contains(String.valueOf(length)), error.text());
+                // Frame sınırı bilinemediği için lider bağlantıyı kapatır
+                assertThrows(EOFException.class, connection::read);
+            }
+        }
+    }
+
+    @Test
+    void unsupportedVersionIsRejected() throws IOException {
+        try (Socket socket = new Socket("localhost", cluster.getLeaderPort())) {
+            socket.setSoTimeout((int) TimeUnit.SECONDS.toMillis(10));
+            socket.getOutputStream().write(new byte[] {BinaryProtocol.MAGIC, 9});
+            Frame error = Frame.read(new DataInputStream(socket.getInputStream()));
+            assertEquals(BinaryOpcode.ERROR.code(), error.opcode);
+            assertTrue(error.text().contains("9"), error.text());
+        }
+    }
+
+    @Test
+    void slowSetDoesNotDelayLaterGetOnSameConnection() throws Exception {
+        try (Connection connection = new Connection(cluster.getLeaderPort())) {
+            byte[] message = "önce yazılan".getBytes(StandardCharsets.UTF_8);
+            connection.write(frame(BinaryOpcode.SET, 1, 40, message));
+            assertResponse(connection.read(), BinaryOpcode.OK, 1, 40, new byte[0]);
+
+            for (String memberId : cluster.getMemberIds()) {
+                cluster.slow(memberId, 1, TimeUnit.SECONDS);
+            }
+            ByteArrayOutputStream batch = new ByteArrayOutputStream();
+            batch.write(frame(BinaryOpcode.SET, 2, 41, "yavaş".getBytes(StandardCharsets.UTF_8)));
+            batch.write(frame(BinaryOpcode.GET, 3, 40, new byte[0]));
+            connection.write(batch.toByteArray());
+
+            // SET üyeye Store RPC'sini beklerken GET lider diskinden cevaplanır, cevaplar tamamlanma sırasıyla gelir
+            assertResponse(connection.read(), BinaryOpcode.OK, 3, 40, message);
+            assertResponse(connection.read(), BinaryOpcode.OK, 2, 41, new byte[0]);
+        }
+    }
+
+    private static byte[] frame(BinaryOpcode opcode, int requestId, int key, byte[] payload) {
+        ByteBuffer frame = ByteBuffer.allocate(BinaryProtocol.HEADER_SIZE + payload.length);
+        BinaryProtocol.putHeader(frame, 0, opcode, requestId, key, payload.length);
+        frame.position(BinaryProtocol.HEADER_SIZE);
+        frame.put(payload);
+        return frame.array();
+    }
+
+    private static void assertResponse(Frame frame, BinaryOpcode opcode, int requestId, int key, byte[] payload) {
+        assertEquals(opcode.code(), frame.opcode, "opcode: " + frame.text());
+        assertEquals(requestId, frame.requestId);
+        assertEquals(key, frame.key);
+        assertArrayEquals(payload, frame.payload);
+    }
+
+    /**
+     * Okunan cevap frame'i
+     */
+    private static final class Frame {
+        final byte opcode;
+        final int requestId;
+        final int key;
+        final byte[] payload;
+
+        private Frame(byte opcode, int requestId, int key, byte[] payload) {
+            this.opcode = opcode;
+            this.requestId = requestId;
+            this.key = key;
+            this.payload = payload;
+        }
+
+        static Frame read(DataInputStream in) throws IOException {
+            byte opcode = in.readByte();
+            int requestId = in.readInt();
+            int key = in.readInt();
+            byte[] payload = new byte[in.readInt()];
+            in.readFully(payload);
+            return new Frame(opcode, requestId, key, payload);
+        }
+
+        String text() {
+            return new String(payload, StandardCharsets.UTF_8);
+        }
+    }
+
+    /**
+     * El sıkışmasını yapmış ham binary bağlantı
+     */
+    private static final class Connection implements Closeable {
+        private final Socket socket;
+        private final OutputStream out;
+        private final DataInputStream in;
+
+        Connection(int port) throws IOException {
+            socket = new Socket("localhost", port);
+            socket.setSoTimeout((int) TimeUnit.SECONDS.toMillis(10));
+            socket.setTcpNoDelay(true);
+            out = socket.getOutputStream();
+            in = new DataInputStream(socket.getInputStream());
+            out.write(new byte[] {BinaryProtocol.MAGIC, BinaryProtocol.VERSION});
+            assertEquals(BinaryProtocol.MAGIC, in.readByte());
+            assertEquals(BinaryProtocol.VERSION, in.readByte());
+        }
+
+        void write(byte[] bytes) throws IOException {
+            out.write(bytes);
+            out.flush();
+        }
+
+        Frame read() throws IOException {
+            return Frame.read(in);
+        }
+
+        @Override
+        public void close() throws IOException {
+            socket.close();
+        }
+    }
+}
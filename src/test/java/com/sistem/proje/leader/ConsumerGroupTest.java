@@ -0,0 +1,173 @@
+package com.sistem.proje.leader;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ConsumerGroupTest {
+    private static final long LEASE_MS = 1000;
+    private static final int MAX_LEASES = 16;
+
+    @Test
+    void leasesCoverLogWithoutGaps() {
+        ConsumerGroup group = new ConsumerGroup("g", 0);
+        ConsumerGroup.Lease first = acquire(group, "a", 0, 25);
+        ConsumerGroup.Lease second = acquire(group, "b", 0, 25);
+        ConsumerGroup.Lease third = acquire(group, "a", 0, 25);
+
+        assertRange(first, 0, 10);
+        assertRange(second, 10, 20);
+        assertRange(third, 20, 25);
+        assertNull(acquire(group, "c", 0, 25), "log sonuna kadar dağıtıldıysa yeni kira verilmemeli");
+        assertEquals(3, group.getLeaseCount());
+        assertEquals(0, group.getCommitted());
+    }
+
+    @Test
+    void groupResumesFromCommittedOffset() {
+        ConsumerGroup group = new ConsumerGroup("g", 40);
+        assertRange(acquire(group, "a", 0, 100), 40, 50);
+    }
+
+    @Test
+    void committedAdvancesOnlyOverContiguousCompletedLeases() {
+        ConsumerGroup group = new ConsumerGroup("g", 0);
+        acquire(group, "a", 0, 30);
+        acquire(group, "b", 0, 30);
+        acquire(group, "c", 0, 30);
+
+        assertFalse(group.commit(20), "baştaki kira tamamlanmadan committed ilerlememeli");
+        assertEquals(0, group.getCommitted());
+        assertEquals(3, group.getLeaseCount());
+
+        assertTrue(group.commit(10));
+        assertEquals(20, group.getCommitted(), "tamamlanmış ardışık kiralar birlikte katılmalı");
+        assertEquals(1, group.getLeaseCount());
+
+        assertTrue(group.commit(30));
+        assertEquals(30, group.getCommitted());
+        assertEquals(0, group.getLeaseCount());
+    }
+
+    @Test
+    void partialCommitSplitsLease() {
+        ConsumerGroup group = new ConsumerGroup("g", 0);
+        acquire(group, "a", 0, 100);
+
+        assertTrue(group.commit(4));
+        assertEquals(4, group.getCommitted());
+        assertEquals(1, group.getLeaseCount(), "kiranın işlenmemiş kısmı açık kalmalı");
+
+        assertTrue(group.commit(10));
+        assertEquals(10, group.getCommitted());
+        assertEquals(0, group.getLeaseCount());
+    }
+
+    @Test
+    void repeatedOrStaleCommitIsIgnored() {
+        ConsumerGroup group = new ConsumerGroup("g", 0);
+        acquire(group, "a", 0, 100);
+        assertTrue(group.commit(10));
+        assertFalse(group.commit(10));
+        assertFalse(group.commit(3));
+        assertEquals(10, group.getCommitted());
+    }
+
+    @Test
+    void commitBeyondDispatchedIsRejected() {
+        ConsumerGroup group = new ConsumerGroup("g", 0);
+        acquire(group, "a", 0, 100);
+        assertThrows(IllegalArgumentException.class, () -> group.commit(11));
+        assertEquals(0, group.getCommitted());
+    }
+
+    @Test
+    void expiredLeaseIsRedispatchedBeforeNewRange() {
+        ConsumerGroup group = new ConsumerGroup("g", 0);
+        ConsumerGroup.Lease lease = acquire(group, "a", 0, 100);
+
+        assertRange(acquire(group, "b", 500, 100), 10, 20);
+        ConsumerGroup.Lease redispatched = acquire(group, "c", LEASE_MS, 100);
+        assertSame(lease, redispatched, "süresi dolan kira yeni aralıktan önce verilmeli");
+        assertEquals("c", redispatched.consumer);
+        assertEquals(2 * LEASE_MS, redispatched.deadline);
+        assertEquals(2, group.getLeaseCount());
+    }
+
+    @Test
+    void lateCommitOfReassignedLeaseIsAccepted() {
+        ConsumerGroup group = new ConsumerGroup("g", 0);
+        acquire(group, "a", 0, 100);
+        acquire(group, "b", LEASE_MS, 100);
+
+        // a'nın kirası b'ye geçti ama a kayıtları işlemişti
+        assertTrue(group.commit(10));
+        assertEquals(10, group.getCommitted());
+        assertEquals(0, group.getLeaseCount());
+    }
+
+    @Test
+    void completedLeaseIsNotRedispatched() {
+        ConsumerGroup group = new ConsumerGroup("g", 0);
+        acquire(group, "a", 0, 100);
+        acquire(group, "b", 0, 100);
+        group.commit(20);
+
+        // İkinci kira tamamlandı, birincinin süresi doldu: sadece birinci yeniden verilmeli
+        assertRange(acquire(group, "c", 5 * LEASE_MS, 20), 0, 10);
+        assertNull(acquire(group, "c", 5 * LEASE_MS, 20));
+    }
+
+    @Test
+    void releaseMakesConsumerLeasesImmediatelyAvailable() {
+        ConsumerGroup group = new ConsumerGroup("g", 0);
+        acquire(group, "a", 0, 100);
+        acquire(group, "a", 0, 100);
+        acquire(group, "b", 0, 100);
+
+        assertEquals(2, group.release("a"));
+        assertRange(acquire(group, "b", 1, 100), 0, 10);
+        assertRange(acquire(group, "b", 1, 100), 10, 20);
+        assertRange(acquire(group, "b", 1, 100), 30, 40);
+    }
+
+    @Test
+    void shrinkReturnsUnreadTailToGroup() {
+        ConsumerGroup group = new ConsumerGroup("g", 0);
+        ConsumerGroup.Lease lease = acquire(group, "a", 0, 100);
+        group.shrink(lease, 6);
+
+        assertRange(lease, 0, 6);
+        assertRange(acquire(group, "b", 0, 100), 6, 10);
+        assertRange(acquire(group, "b", 0, 100), 10, 20);
+
+        group.shrink(lease, 0);
+        group.shrink(lease, 6);
+        assertRange(lease, 0, 6);
+    }
+
+    @Test
+    void maxLeasesLimitsOpenRanges() {
+        ConsumerGroup group = new ConsumerGroup("g", 0);
+        assertTrue(group.acquire("a", 0, LEASE_MS, 100, 10, 2) != null);
+        assertTrue(group.acquire("a", 0, LEASE_MS, 100, 10, 2) != null);
+        assertNull(group.acquire("a", 0, LEASE_MS, 100, 10, 2));
+
+        group.commit(10);
+        assertRange(group.acquire("a", 0, LEASE_MS, 100, 10, 2), 20, 30);
+    }
+
+    private static ConsumerGroup.Lease acquire(ConsumerGroup group, String consumer, long now, long endOffset) {
+        return group.acquire(consumer, now, LEASE_MS, endOffset, 10, MAX_LEASES);
+    }
+
+    private static void assertRange(ConsumerGroup.Lease lease, long start, long end) {
+        assertEquals(start, lease.start, "kira başı");
+        assertEquals(end, lease.end, "kira sonu");
+    }
+}
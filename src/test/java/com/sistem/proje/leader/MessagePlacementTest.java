@@ -0,0 +1,86 @@
+package com.sistem.proje.leader;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MessagePlacementTest {
+
+    @Test
+    void addAndRemoveKeepCountsAndPruneEmptyEntries() {
+        MessagePlacement placement = new MessagePlacement();
+        placement.add(1, "a");
+        placement.add(1, "a");
+        placement.add(1, "b");
+        placement.add(2, "a");
+        assertEquals(2, placement.getMemberCount(1), "aynı üye ikinci kez eklenmemeli");
+        assertEquals(2, placement.getStoredMessageCount("a"));
+
+        placement.remove(1, "a");
+        placement.remove(1, "c");
+        assertEquals(List.of("b"), placement.getMembers(1));
+        assertEquals(1, placement.getStoredMessageCount("a"));
+
+        placement.remove(1, "b");
+        assertFalse(placement.getMessageIds().contains(1), "boşalan mesaj kaydı silinmeli");
+        assertEquals(1, placement.size());
+        assertEquals(0, placement.getStoredMessageCount("b"));
+    }
+
+    @Test
+    void concurrentAddAndRemoveStayConsistent() throws InterruptedException {
+        MessagePlacement placement = new MessagePlacement();
+        String[] members = {"a", "b", "c"};
+        int threadCount = 8;
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < threadCount; t++) {
+            long seed = t;
+            Thread thread = new Thread(() -> {
+                Random random = new Random(seed);
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < 50_000; i++) {
+                    // Az sayıda ID üzerinde sık sık boşalıp yeniden dolan listeler
+                    int id = random.nextInt(4);
+                    String member = members[random.nextInt(members.length)];
+                    if (random.nextBoolean()) {
+                        placement.add(id, member);
+                    } else {
+                        placement.remove(id, member);
+                    }
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        for (String member : members) {
+            long expected = 0;
+            for (Integer id : placement.getMessageIds()) {
+                if (placement.contains(id, member)) {
+                    expected++;
+                }
+            }
+            assertEquals(expected, placement.getStoredMessageCount(member),
+                    member + " sayacı map'teki eşleşmelerle aynı olmalı");
+        }
+        for (Integer id : placement.getMessageIds()) {
+            assertTrue(placement.getMemberCount(id) > 0, "map'te boş liste kalmamalı: " + id);
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.sistem.proje.leader;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PhiAccrualFailureDetectorTest {
+    private static final long INTERVAL_MS = 1000;
+
+    @Test
+    void unknownMemberHasNoSuspicion() {
+        PhiAccrualFailureDetector detector = new PhiAccrualFailureDetector(INTERVAL_MS);
+        assertEquals(0.0, detector.phi("yok", 1_000_000));
+    }
+
+    @Test
+    void regularHeartbeatsKeepPhiLowUntilTheyStop() {
+        PhiAccrualFailureDetector detector = new PhiAccrualFailureDetector(INTERVAL_MS);
+        long now = beat(detector, "m1", 0, 30, INTERVAL_MS);
+
+        assertTrue(detector.phi("m1", now) < 1.0, "heartbeat'ten hemen sonra şüphe olmamalı");
+        assertTrue(detector.phi("m1", now + INTERVAL_MS) < 1.0, "bir aralık gecikme olağan sayılmalı");
+        assertTrue(detector.phi("m1", now + 30_000) > 8.0, "uzun sessizlik yüksek phi vermeli");
+    }
+
+    @Test
+    void phiGrowsMonotonicallyWithSilence() {
+        PhiAccrualFailureDetector detector = new PhiAccrualFailureDetector(INTERVAL_MS);
+        long now = beat(detector, "m1", 0, 30, INTERVAL_MS);
+
+        double previous = detector.phi("m1", now);
+        for (long elapsed = 100; elapsed <= 20_000; elapsed += 100) {
+            double phi = detector.phi("m1", now + elapsed);
+            assertTrue(phi >= previous, "phi " + elapsed + " ms'de azaldı");
+            previous = phi;
+        }
+    }
+
+    @Test
+    void irregularHeartbeatsRaisePhiMoreSlowly() {
+        PhiAccrualFailureDetector detector = new PhiAccrualFailureDetector(INTERVAL_MS);
+        long regularEnd = beat(detector, "duzenli", 0, 40, INTERVAL_MS);
+
+        // Aynı ortalama (1000 ms), yüksek sapma: 200 ve 1800 ms'lik aralıklar
+        long irregularEnd = 0;
+        for (int i = 0; i < 40; i++) {
+            if (i > 0) {
+                irregularEnd += i % 2 == 0 ? 200 : 1800;
+            }
+            detector.heartbeat("duzensiz", irregularEnd);
+        }
+
+        long silence = 6000;
+        assertTrue(detector.phi("duzensiz", irregularEnd + silence) < detector.phi("duzenli", regularEnd + silence),
+                "düzensiz heartbeat gönderen üye aynı sessizlikte daha az şüpheli olmalı");
+    }
+
+    @Test
+    void removeForgetsHistory() {
+        PhiAccrualFailureDetector detector = new PhiAccrualFailureDetector(INTERVAL_MS);
+        long now = beat(detector, "m1", 0, 10, INTERVAL_MS);
+        assertTrue(detector.phi("m1", now + 60_000) > 8.0);
+
+        detector.remove("m1");
+        assertEquals(0.0, detector.phi("m1", now + 60_000));
+
+        // Yeniden kayıt ilk tahminle başlar, eski boşluk dağılımı etkilemez
+        detector.heartbeat("m1", now + 60_000);
+        assertTrue(detector.phi("m1", now + 60_500) < 1.0);
+    }
+
+    @Test
+    void firstHeartbeatUsesEstimate() {
+        PhiAccrualFailureDetector detector = new PhiAccrualFailureDetector(INTERVAL_MS);
+        detector.heartbeat("m1", 0);
+        assertTrue(detector.phi("m1", INTERVAL_MS) < 1.0);
+        assertTrue(detector.phi("m1", 60_000) > 8.0);
+    }
+
+    @Test
+    void sampleWindowForgetsOldIntervals() {
+        PhiAccrualFailureDetector detector = new PhiAccrualFailureDetector(10, 100, 0, INTERVAL_MS);
+        // Önce uzun aralıklar, sonra pencereyi dolduran kısa aralıklar
+        long now = beat(detector, "m1", 0, 10, 10_000);
+        now = beat(detector, "m1", now + 100, 20, 100);
+
+        assertTrue(detector.phi("m1", now + 2000) > 8.0,
+                "pencere dışına çıkan uzun aralıklar ortalamayı etkilememeli");
+    }
+
+    /**
+     * Sabit aralıklı heartbeat'ler gönderir
+     *
+     * @return Son heartbeat zamanı
+     */
+    private static long beat(PhiAccrualFailureDetector detector, String member, long start, int count, long interval) {
+        long now = start;
+        for (int i = 0; i < count; i++) {
+            detector.heartbeat(member, now);
+            if (i < count - 1) {
+                now += interval;
+            }
+        }
+        return now;
+    }
+}
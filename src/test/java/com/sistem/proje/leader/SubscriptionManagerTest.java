@@ -0,0 +1,224 @@
+package com.sistem.proje.leader;
+
+import com.sistem.proje.metrics.MetricsRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.GatheringByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SubscriptionManagerTest {
+    private static final long TIMEOUT_MILLIS = 10_000;
+
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final MetricsRegistry metrics = new MetricsRegistry();
+    private final SubscriptionManager manager = new SubscriptionManager(executor, metrics);
+
+    @AfterEach
+    void shutdown() {
+        manager.closeAll();
+        executor.shutdownNow();
+    }
+
+    @Test
+    void filtersSelectMessagesAndLinesCarryByteLength() throws Exception {
+        Sink range = new Sink();
+        Sink topic = new Sink();
+        manager.subscribe(SubscriptionFilter.range(10, 20), range, new Object());
+        manager.subscribe(SubscriptionFilter.prefix("orders/"), topic, new Object());
+
+        manager.publish(9, "aralık dışı");
+        manager.publish(10, "satır 1\nsatır 2");
+        manager.publish(20, "orders/eu ğ");
+        manager.publish(21, "orders/us");
+        manager.publish(25, "payments/tr");
+
+        range.await("MSG 10 17 satır 1\nsatır 2\nMSG 20 12 orders/eu ğ\n");
+        topic.await("MSG 20 12 orders/eu ğ\nMSG 21 9 orders/us\n");
+        // Sayaç satırlar yazıldıktan sonra artar
+        awaitTrue(() -> counter("leader.subscriptions.delivered") == 4, "teslim edilenler sayılmalı");
+        assertEquals(2, metrics.getGauges().get("leader.subscriptions.active").value());
+
+        assertThrows(IllegalArgumentException.class, () -> SubscriptionFilter.range(5, 4));
+        assertThrows(IllegalArgumentException.class, () -> SubscriptionFilter.prefix(""));
+        assertThrows(IllegalArgumentException.class, () -> manager.setLimits(0, 1));
+    }
+
+    @Test
+    void slowSubscriberDropsOverflowAndGetsLaggedInOrder() throws Exception {
+        Sink fast = new Sink();
+        Sink slow = new Sink();
+        slow.block();
+        manager.subscribe(SubscriptionFilter.range(0, 100), fast, new Object());
+        manager.setLimits(3, 1024 * 1024);
+        Subscription subscription = manager.subscribe(SubscriptionFilter.range(0, 100), slow, new Object());
+
+        // İlk mesaj yazılırken abone okumuyor: sonraki 3 mesaj kuyruğa girer, kalanlar düşürülür
+        manager.publish(1, "m1");
+        slow.awaitWriteStarted();
+        long start = System.nanoTime();
+        for (int id = 2; id <= 9; id++) {
+            manager.publish(id, "m" + id);
+        }
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 1000, "publish beklememeli");
+        assertEquals(3, subscription.getQueuedMessages());
+        assertEquals(5, counter("leader.subscriptions.dropped"));
+        fast.await(lines(1, 9));
+
+        // Kuyruk boşalınca yeni mesajlar tekrar kabul edilir
+        slow.unblock();
+        awaitTrue(() -> subscription.getQueuedMessages() == 0, "kuyruk boşalmalı");
+        manager.publish(10, "m10");
+        slow.await(lines(1, 4) + "LAGGED 5\n" + lines(10, 10));
+        fast.await(lines(1, 10));
+        awaitTrue(() -> counter("leader.subscriptions.delivered") == 10 + 5, "düşürülenler teslim sayılmamalı");
+    }
+
+    @Test
+    void byteLimitStillAcceptsSingleLargeMessage() throws Exception {
+        manager.setLimits(100, 16);
+        Sink sink = new Sink();
+        sink.block();
+        Subscription subscription = manager.subscribe(SubscriptionFilter.range(0, 10), sink, new Object());
+
+        manager.publish(1, "m1");
+        sink.awaitWriteStarted();
+        String large = "x".repeat(64);
+        manager.publish(2, large);
+        manager.publish(3, "m3");
+        assertEquals(1, subscription.getQueuedMessages(), "boş kuyruk sınırdan büyük tek mesajı almalı");
+
+        sink.unblock();
+        sink.await(lines(1, 1) + "MSG 2 64 " + large + "\nLAGGED 1\n");
+    }
+
+    @Test
+    void writeFailureClosesSubscriptionAndPublishRemovesIt() throws Exception {
+        Sink broken = new Sink();
+        broken.fail = true;
+        Subscription subscription = manager.subscribe(SubscriptionFilter.range(0, 10), broken, new Object());
+
+        manager.publish(1, "m1");
+        awaitTrue(subscription::isClosed, "yazma hatası aboneliği kapatmalı");
+        manager.publish(2, "m2");
+        assertEquals(0, manager.getActiveCount());
+        assertEquals(0, counter("leader.subscriptions.delivered"));
+    }
+
+    private long counter(String name) {
+        return metrics.getCounters().get(name).get();
+    }
+
+    /**
+     * from..to ID'leri için "m&lt;id&gt;" mesajlarının MSG satırları
+     */
+    private static String lines(int from, int to) {
+        StringBuilder lines = new StringBuilder();
+        for (int id = from; id <= to; id++) {
+            String message = "m" + id;
+            lines.append("MSG ").append(id).append(' ').append(message.length()).append(' ')
+                    .append(message).append('\n');
+        }
+        return lines.toString();
+    }
+
+    private static void awaitTrue(BooleanSupplier condition, String message) throws InterruptedException {
+        awaitTrue(condition, () -> message);
+    }
+
+    private static void awaitTrue(BooleanSupplier condition, Supplier<String> message) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.currentTimeMillis() < deadline, message);
+            Thread.sleep(10);
+        }
+    }
+
+    /**
+     * Abone socket'i yerine geçen kanal; block ile okumayan bir aboneyi (dolmuş TCP penceresi) taklit eder
+     */
+    private static final class Sink implements GatheringByteChannel {
+        private final ByteArrayOutputStream written = new ByteArrayOutputStream();
+        private final CountDownLatch writeStarted = new CountDownLatch(1);
+        private volatile CountDownLatch gate = new CountDownLatch(0);
+        volatile boolean fail;
+
+        void block() {
+            gate = new CountDownLatch(1);
+        }
+
+        void unblock() {
+            gate.countDown();
+        }
+
+        void awaitWriteStarted() throws InterruptedException {
+            assertTrue(writeStarted.await(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS), "boşaltma görevi başlamalı");
+        }
+
+        void await(String expected) throws InterruptedException {
+            awaitTrue(() -> text().length() >= expected.length(),
+                    () -> "beklenen satırlar gelmeli: " + expected + ", gelen: " + text());
+            assertEquals(expected, text());
+        }
+
+        private synchronized String text() {
+            return written.toString(StandardCharsets.UTF_8);
+        }
+
+        @Override
+        public long write(ByteBuffer[] sources, int offset, int length) throws IOException {
+            writeStarted.countDown();
+            if (fail) {
+                throw new IOException("bağlantı koptu");
+            }
+            try {
+                gate.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException(e);
+            }
+            long total = 0;
+            synchronized (this) {
+                for (int i = offset; i < offset + length; i++) {
+                    while (sources[i].hasRemaining()) {
+                        written.write(sources[i].get());
+                        total++;
+                    }
+                }
+            }
+            return total;
+        }
+
+        @Override
+        public long write(ByteBuffer[] sources) throws IOException {
+            return write(sources, 0, sources.length);
+        }
+
+        @Override
+        public int write(ByteBuffer source) throws IOException {
+            return (int) write(new ByteBuffer[] {source}, 0, 1);
+        }
+
+        @Override
+        public boolean isOpen() {
+            return true;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.sistem.proje.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LatencyHistogramTest {
+
+    @Test
+    void smallValuesHaveExactBuckets() {
+        for (long value = 0; value < 64; value++) {
+            assertEquals(value, LatencyHistogram.indexOf(value));
+            assertEquals(value, LatencyHistogram.valueOf((int) value));
+        }
+    }
+
+    @Test
+    void bucketIndexIsContiguousAndMonotonic() {
+        int previous = LatencyHistogram.indexOf(0);
+        for (long value = 1; value < (1 << 22); value++) {
+            int index = LatencyHistogram.indexOf(value);
+            int step = index - previous;
+            assertTrue(step == 0 || step == 1, "kova atlandı: " + value);
+            previous = index;
+        }
+    }
+
+    @Test
+    void bucketValueIsWithinRelativePrecision() {
+        Random random = new Random(1);
+        for (int i = 0; i < 100_000; i++) {
+            long value = 64 + (random.nextLong() >>> (18 + random.nextInt(40)));
+            long represented = LatencyHistogram.valueOf(LatencyHistogram.indexOf(value));
+            // Kova genişliği değerin en fazla 1/32'si, temsil değeri kovanın ortası
+            assertTrue(Math.abs(represented - value) <= value / 32, value + " → " + represented);
+        }
+        for (int shift = 6; shift < 46; shift++) {
+            long power = 1L << shift;
+            assertEquals(LatencyHistogram.indexOf(power - 1) + 1, LatencyHistogram.indexOf(power),
+                    "ikinin kuvveti yeni kova başlatmalı: " + power);
+        }
+    }
+
+    @Test
+    void hugeValuesGoToLastBucket() {
+        int last = LatencyHistogram.indexOf(Long.MAX_VALUE);
+        assertEquals(last, LatencyHistogram.indexOf(1L << 50));
+        assertTrue(last > LatencyHistogram.indexOf(1L << 45));
+    }
+
+    @Test
+    void snapshotReportsQuantilesCountMeanAndMax() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int micros = 1; micros <= 1000; micros++) {
+            histogram.record(TimeUnit.MICROSECONDS.toNanos(micros));
+        }
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+
+        assertEquals(1000, snapshot.getCount());
+        assertEquals(1000, histogram.getCount());
+        assertEquals(TimeUnit.MICROSECONDS.toNanos(1000), snapshot.getMaxNanos());
+        assertEquals(TimeUnit.MICROSECONDS.toNanos(500) + 500, snapshot.getMeanNanos(), 0.001);
+        assertWithin(TimeUnit.MICROSECONDS.toNanos(500), snapshot.getP50());
+        assertWithin(TimeUnit.MICROSECONDS.toNanos(990), snapshot.getP99());
+        assertWithin(TimeUnit.MICROSECONDS.toNanos(999), snapshot.getP999());
+        assertTrue(snapshot.getValueAtQuantile(1.0) <= snapshot.getMaxNanos(), "yüzdelik max'ı geçmemeli");
+    }
+
+    @Test
+    void emptyAndNegativeRecords() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertEquals(0, histogram.snapshot().getP99());
+        assertEquals(0.0, histogram.snapshot().getMeanNanos());
+
+        histogram.record(-5);
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+        assertEquals(1, snapshot.getCount());
+        assertEquals(0, snapshot.getMaxNanos());
+        assertEquals(0, snapshot.getP50());
+    }
+
+    @Test
+    void concurrentRecordsAreAllCounted() throws InterruptedException {
+        LatencyHistogram histogram = new LatencyHistogram();
+        Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++) {
+            long base = t * 1000L;
+            threads[t] = new Thread(() -> {
+                for (int i = 0; i < 50_000; i++) {
+                    histogram.record(base + i % 1000);
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+        assertEquals(200_000, snapshot.getCount());
+        assertEquals(3999, snapshot.getMaxNanos());
+    }
+
+    private static void assertWithin(long expected, long actual) {
+        assertTrue(Math.abs(actual - expected) <= expected / 32, "beklenen ~" + expected + ", gelen " + actual);
+    }
+}
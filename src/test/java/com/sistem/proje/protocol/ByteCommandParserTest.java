@@ -0,0 +1,166 @@
+package com.sistem.proje.protocol;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * ByteCommandParser'ın CommandParser ile aynı sonucu verdiğini karşılaştırarak doğrular
+ */
+class ByteCommandParserTest {
+    private final CommandParser reference = new CommandParser();
+    private final ByteCommandParser parser = new ByteCommandParser();
+
+    @Test
+    void matchesCommandParserOnKnownLines() {
+        List<String> lines = List.of(
+                "SET 1 merhaba",
+                "set 42 küçük harf komut",
+                "Get 7",
+                "GET 7 fazladan token'lar yok sayılır",
+                "  SET   3   başta ve ortada boşluklar  ",
+                "\tSET\t5\tsekmeler\r",
+                "SET 9 çok  boşluklu   mesaj korunur",
+                "SET -12 negatif id",
+                "SET +12 artı işaretli id",
+                "GET 2147483647",
+                "GET -2147483648",
+                "GET 2147483648",
+                "GET -2147483649",
+                "GET 99999999999999999999",
+                "GET 12a",
+                "GET -",
+                "GET +",
+                "SET abc mesaj",
+                "SET 1",
+                "SET",
+                "GET",
+                "",
+                "   ",
+                "DEL 1",
+                "SETX 1 mesaj",
+                "SE 1",
+                "SÜT 1",
+                "GET\u000B1",
+                "SET 1 \u001Fkontrol karakteri",
+                "SET 1 mesaj\u001F");
+        for (String line : lines) {
+            assertSameResult(line);
+        }
+    }
+
+    @Test
+    void matchesCommandParserOnRandomLines() {
+        String alphabet = "SETGsetg  \t19-+0aü\r";
+        Random random = new Random(7);
+        for (int i = 0; i < 20_000; i++) {
+            StringBuilder line = new StringBuilder();
+            if (random.nextBoolean()) {
+                line.append(random.nextBoolean() ? "SET " : "get ");
+            }
+            int length = random.nextInt(12);
+            for (int j = 0; j < length; j++) {
+                line.append(alphabet.charAt(random.nextInt(alphabet.length())));
+            }
+            assertSameResult(line.toString());
+        }
+    }
+
+    @Test
+    void parsesSliceOfLargerBufferWithoutMovingIt() throws CommandParseException {
+        byte[] bytes = "xxSET 5 dilim\nGET 6\n".getBytes(StandardCharsets.UTF_8);
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        buffer.position(1).limit(bytes.length - 1);
+        ParsedCommand result = new ParsedCommand();
+
+        parser.parse(buffer, 2, 13, result);
+        assertEquals(CommandType.SET, result.getType());
+        assertEquals(5, result.getId());
+        assertEquals("dilim", result.payloadAsString());
+
+        parser.parse(buffer, 14, 19, result);
+        assertEquals(CommandType.GET, result.getType());
+        assertEquals(6, result.getId());
+        assertEquals(0, result.getPayloadLength());
+
+        assertEquals(1, buffer.position());
+        assertEquals(bytes.length - 1, buffer.limit());
+    }
+
+    @Test
+    void parsesDirectBuffer() throws CommandParseException {
+        byte[] bytes = "SET 8 doğrudan buffer".getBytes(StandardCharsets.UTF_8);
+        ByteBuffer buffer = ByteBuffer.allocateDirect(bytes.length);
+        buffer.put(bytes).flip();
+        ParsedCommand result = new ParsedCommand();
+
+        parser.parse(buffer, 0, bytes.length, result);
+        assertEquals("doğrudan buffer", result.payloadAsString());
+    }
+
+    @Test
+    void rejectsIdOutOfIntRange() {
+        ParsedCommand result = new ParsedCommand();
+        ByteBuffer buffer = ByteBuffer.wrap("GET 2147483648".getBytes(StandardCharsets.UTF_8));
+        assertThrows(CommandParseException.class, () -> parser.parse(buffer, 0, buffer.limit(), result));
+    }
+
+    /**
+     * CommandParser reddettiyse aynı mesajla reddedilmeli; kabul ettiyse ID int'e çevrilemiyorsa reddedilmeli,
+     * çevrilebiliyorsa tip, ID ve mesaj aynı olmalı
+     */
+    private void assertSameResult(String line) {
+        Command expected = null;
+        String expectedError = null;
+        try {
+            expected = reference.parse(line);
+        } catch (CommandParseException e) {
+            expectedError = e.getMessage();
+        }
+
+        byte[] bytes = line.getBytes(StandardCharsets.UTF_8);
+        ParsedCommand actual = new ParsedCommand();
+        String actualError = null;
+        try {
+            parser.parse(ByteBuffer.wrap(bytes), 0, bytes.length, actual);
+        } catch (CommandParseException e) {
+            actualError = e.getMessage();
+        }
+
+        String context = "satır: [" + line + "]";
+        if (expectedError != null) {
+            assertEquals(expectedError, actualError, context);
+            return;
+        }
+        Integer expectedId = parseId(expected.getId());
+        if (expectedId == null) {
+            if (actualError == null) {
+                fail("geçersiz ID kabul edildi, " + context);
+            }
+            return;
+        }
+        if (actualError != null) {
+            fail("geçerli satır reddedildi (" + actualError + "), " + context);
+        }
+        assertEquals(expected.getType(), actual.getType(), context);
+        assertEquals(expectedId.intValue(), actual.getId(), context);
+        if (expected instanceof SetCommand) {
+            assertEquals(((SetCommand) expected).getMessage(), actual.payloadAsString(), context);
+        }
+    }
+
+    private static Integer parseId(String id) {
+        try {
+            return Integer.parseInt(id);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
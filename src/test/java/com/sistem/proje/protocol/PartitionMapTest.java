@@ -0,0 +1,67 @@
+package com.sistem.proje.protocol;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PartitionMapTest {
+
+    @Test
+    void encodeAndDecodeRoundTrip() {
+        PartitionMap map = PartitionMap.parse("host-a:6666, host-b:7000,10.0.0.3:6666");
+        assertEquals(3, map.size());
+        assertTrue(map.isPartitioned());
+        assertEquals("PARTITIONS 3\n0 host-a:6666\n1 host-b:7000\n2 10.0.0.3:6666\n", map.encode());
+        assertEquals(map.getAddresses(), PartitionMap.decode(map.encode()).getAddresses());
+        assertEquals("host-b", PartitionMap.host(map.addressOf(1)));
+        assertEquals(7000, PartitionMap.port(map.addressOf(1)));
+
+        PartitionMap single = PartitionMap.single();
+        assertFalse(single.isPartitioned());
+        assertEquals(List.of(PartitionMap.LOCAL), PartitionMap.decode(single.encode()).getAddresses());
+        assertEquals(0, single.partitionOf(12345));
+    }
+
+    @Test
+    void invalidMapsAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> PartitionMap.parse("host-a"));
+        assertThrows(IllegalArgumentException.class, () -> PartitionMap.parse("host-a:0"));
+        assertThrows(IllegalArgumentException.class, () -> PartitionMap.decode("MAP 1\n0 host-a:6666\n"));
+        assertThrows(IllegalArgumentException.class, () -> PartitionMap.decode("PARTITIONS 2\n0 host-a:6666\n"),
+                "eksik partition satırı reddedilmeli");
+        assertThrows(IllegalArgumentException.class,
+                () -> PartitionMap.decode("PARTITIONS 2\n1 host-a:6666\n0 host-b:6666\n"), "sıra bozuk");
+        assertThrows(IllegalArgumentException.class,
+                () -> PartitionMap.decode("PARTITIONS 2\n0 -\n1 host-b:6666\n"), "LOCAL sadece tek partition'da");
+        assertThrows(IllegalArgumentException.class,
+                () -> PartitionMap.parse("a:1,b:2").withAddress(1, "adres"));
+    }
+
+    @Test
+    void idsAreSpreadAndStable() {
+        PartitionMap map = PartitionMap.parse("a:1,b:2,c:3,d:4");
+        int[] counts = new int[map.size()];
+        for (int id = 0; id < 10_000; id++) {
+            int partition = map.partitionOf(id);
+            assertEquals(partition, PartitionMap.parse("w:1,x:2,y:3,z:4").partitionOf(id), "adreslerden bağımsız");
+            counts[partition]++;
+        }
+        for (int count : counts) {
+            assertTrue(count > 2000 && count < 3000, "ardışık ID'ler dengeli dağılmalı: " + count);
+        }
+        assertTrue(map.partitionOf(-1) >= 0, "negatif ID'nin partition'ı geçerli olmalı");
+    }
+
+    @Test
+    void withAddressReplacesOnePartition() {
+        PartitionMap map = PartitionMap.parse("a:1,b:2");
+        PartitionMap redirected = map.withAddress(1, "c:3");
+        assertEquals(List.of("a:1", "c:3"), redirected.getAddresses());
+        assertEquals(List.of("a:1", "b:2"), map.getAddresses(), "asıl map değişmemeli");
+    }
+}
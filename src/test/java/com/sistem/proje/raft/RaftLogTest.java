@@ -0,0 +1,183 @@
+package com.sistem.proje.raft;
+
+import com.sistem.proje.grpc.RaftEntry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RaftLogTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void entriesAndStateSurviveReopen() throws IOException {
+        try (RaftLog log = new RaftLog(directory)) {
+            assertEquals(0, log.lastIndex());
+            assertEquals(0, log.termAt(0), "boş log'un 0. index'i term 0 olmalı");
+            for (int i = 1; i <= 5; i++) {
+                assertEquals(i, log.append(i < 3 ? 1 : 2, data("kayıt-" + i)));
+            }
+            log.saveState(2, 1);
+            log.sync();
+        }
+
+        try (RaftLog log = new RaftLog(directory)) {
+            assertEquals(5, log.lastIndex());
+            assertEquals(2, log.lastTerm());
+            assertEquals(1, log.termAt(2));
+            assertEquals(2, log.termAt(3));
+            assertEquals(-1, log.termAt(6));
+            assertEquals(2, log.getCurrentTerm());
+            assertEquals(1, log.getVotedFor());
+            assertEquals(List.of("kayıt-2", "kayıt-3", "kayıt-4"), texts(log.entries(2, 3, Integer.MAX_VALUE)));
+        }
+    }
+
+    @Test
+    void entriesRespectLimits() throws IOException {
+        try (RaftLog log = new RaftLog(directory)) {
+            for (int i = 1; i <= 4; i++) {
+                log.append(1, data("0123456789"));
+            }
+            assertEquals(2, log.entries(1, 2, Integer.MAX_VALUE).size());
+            // Her kayıt 16 byte başlık + 10 byte data
+            assertEquals(2, log.entries(1, 10, 60).size());
+            assertEquals(1, log.entries(1, 10, 1).size(), "sınırdan büyük ilk kayıt tek başına dönmeli");
+            assertTrue(log.entries(5, 10, Integer.MAX_VALUE).isEmpty());
+            assertTrue(log.entries(0, 10, Integer.MAX_VALUE).isEmpty());
+        }
+    }
+
+    @Test
+    void truncateFromDropsConflictingTail() throws IOException {
+        try (RaftLog log = new RaftLog(directory)) {
+            for (int i = 1; i <= 5; i++) {
+                log.append(1, data("eski-" + i));
+            }
+            log.truncateFrom(3);
+            assertEquals(2, log.lastIndex());
+            assertEquals(3, log.append(2, data("yeni-3")));
+            log.truncateFrom(10);
+            assertEquals(3, log.lastIndex(), "log sonundan sonrası kesilmemeli");
+        }
+
+        try (RaftLog log = new RaftLog(directory)) {
+            assertEquals(3, log.lastIndex());
+            assertEquals(2, log.termAt(3));
+            assertEquals(List.of("eski-1", "eski-2", "yeni-3"), texts(log.entries(1, 10, Integer.MAX_VALUE)));
+        }
+    }
+
+    @Test
+    void compactToKeepsTailAndSurvivesReopen() throws IOException {
+        try (RaftLog log = new RaftLog(directory)) {
+            for (int i = 1; i <= 6; i++) {
+                log.append(i <= 4 ? 1 : 2, data("kayıt-" + i));
+            }
+            long before = log.sizeThrough(6);
+            log.compactTo(4, 1);
+            assertEquals(4, log.baseIndex());
+            assertEquals(6, log.lastIndex());
+            assertEquals(1, log.termAt(4), "baseIndex'in term'i snapshot'ın term'i olmalı");
+            assertEquals(-1, log.termAt(3), "atılmış index'in term'i bilinmemeli");
+            assertTrue(log.sizeThrough(6) < before);
+            assertTrue(log.entries(4, 10, Integer.MAX_VALUE).isEmpty(), "snapshot'a devredilen kayıt okunmamalı");
+            assertEquals(List.of("kayıt-5", "kayıt-6"), texts(log.entries(5, 10, Integer.MAX_VALUE)));
+
+            log.truncateFrom(4);
+            assertEquals(6, log.lastIndex(), "snapshot'a devredilen kayıt kesilmemeli");
+            assertEquals(7, log.append(2, data("kayıt-7")));
+        }
+
+        try (RaftLog log = new RaftLog(directory)) {
+            assertEquals(4, log.baseIndex());
+            assertEquals(7, log.lastIndex());
+            assertEquals(1, log.termAt(4));
+            assertEquals(List.of("kayıt-5", "kayıt-6", "kayıt-7"), texts(log.entries(5, 10, Integer.MAX_VALUE)));
+        }
+        assertFalse(Files.exists(directory.resolve("raft.log.compact")));
+    }
+
+    @Test
+    void compactToWithDifferentTermDropsWholeLog() throws IOException {
+        try (RaftLog log = new RaftLog(directory)) {
+            for (int i = 1; i <= 3; i++) {
+                log.append(1, data("kayıt-" + i));
+            }
+            // Liderden gelen snapshot log'daki kayıtla çakışıyor veya log'un ötesinde
+            log.compactTo(2, 5);
+            assertEquals(2, log.baseIndex());
+            assertEquals(2, log.lastIndex());
+            assertEquals(5, log.lastTerm());
+            log.compactTo(10, 6);
+            assertEquals(10, log.lastIndex());
+            assertEquals(11, log.append(6, data("sonraki")));
+        }
+
+        try (RaftLog log = new RaftLog(directory)) {
+            assertEquals(10, log.baseIndex());
+            assertEquals(11, log.lastIndex());
+            assertEquals(List.of("sonraki"), texts(log.entries(11, 10, Integer.MAX_VALUE)));
+        }
+    }
+
+    @Test
+    void tornAndCorruptTailIsTruncatedOnRecovery() throws IOException {
+        try (RaftLog log = new RaftLog(directory)) {
+            log.append(1, data("tam"));
+            log.append(1, data("bozulacak"));
+            log.append(1, data("yarım kalacak"));
+        }
+        Path file = directory.resolve("raft.log");
+        long size = Files.size(file);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.truncate(size - 3);
+        }
+        try (RaftLog log = new RaftLog(directory)) {
+            assertEquals(2, log.lastIndex(), "yarım yazılmış kayıt atılmalı");
+            assertEquals(3, log.append(2, data("yeni")));
+        }
+
+        // İkinci kaydın data'sının bir byte'ını boz: CRC tutmaz, ondan sonrası atılır
+        long secondData = 20 + 16 + "tam".length() + 16;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[]{'X'}), secondData);
+        }
+        try (RaftLog log = new RaftLog(directory)) {
+            assertEquals(1, log.lastIndex());
+            assertEquals(List.of("tam"), texts(log.entries(1, 10, Integer.MAX_VALUE)));
+        }
+    }
+
+    @Test
+    void invalidHeaderIsRejected() throws IOException {
+        Files.write(directory.resolve("raft.log"), "başlıksız eski log dosyası".getBytes(StandardCharsets.UTF_8));
+        assertThrows(IOException.class, () -> new RaftLog(directory));
+
+        Files.write(directory.resolve("raft.log"), new byte[]{'R', 'A'});
+        assertThrows(IOException.class, () -> new RaftLog(directory), "eksik başlık reddedilmeli");
+    }
+
+    private static byte[] data(String text) {
+        return text.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static List<String> texts(List<RaftEntry> entries) {
+        return entries.stream().map(entry -> entry.getData().toStringUtf8()).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,212 @@
+package com.sistem.proje.raft;
+
+import com.sistem.proje.metrics.MetricsRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.ServerSocket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RaftNodeTest {
+    private static final long TIMEOUT_MILLIS = 10_000;
+
+    @TempDir
+    Path directory;
+
+    private final List<String> peers = new ArrayList<>();
+    private final RaftNode[] nodes = new RaftNode[3];
+    private final Machine[] machines = new Machine[3];
+    private final MetricsRegistry[] metrics = new MetricsRegistry[3];
+
+    @AfterEach
+    void closeNodes() {
+        for (RaftNode node : nodes) {
+            if (node != null) {
+                node.close();
+            }
+        }
+    }
+
+    @Test
+    void laggingFollowerCatchesUpWithInstallSnapshot() throws Exception {
+        allocatePeers();
+        start(0);
+        start(1);
+        proposeAll(200);
+        RaftNode leader = stableLeader();
+        int leaderId = leader.getId();
+        awaitTrue(() -> gauge(leaderId, "raft.snapshot.index") > 0, "lider log'unun önekini atmalı");
+
+        // Log'un öneki atıldığı için geride kalan node'a kayıtlar yerine snapshot gider
+        start(2);
+        awaitTrue(() -> machines[2].size() == 200, "geride kalan node tüm kayıtları almalı");
+        assertTrue(metrics[2].getCounters().get("raft.snapshot.installs").get() > 0, "snapshot yüklenmiş olmalı");
+        assertEquals(machines[leaderId].values(), machines[2].values());
+
+        // Yeniden başlayan node durumu snapshot ve log'un kalanından kurar
+        nodes[2].close();
+        start(2);
+        awaitTrue(() -> machines[2].size() == 200, "yeniden başlayan node durumu geri kurmalı");
+        assertEquals(machines[leaderId].values(), machines[2].values());
+    }
+
+    @Test
+    void leaderWithoutQuorumStepsDownAndLosesReadLease() throws Exception {
+        allocatePeers();
+        for (int id = 0; id < 3; id++) {
+            start(id);
+        }
+        proposeAll(1);
+        RaftNode leader = stableLeader();
+
+        for (RaftNode node : nodes) {
+            if (node != leader) {
+                node.close();
+            }
+        }
+        awaitTrue(() -> !leader.isLeader(), "çoğunluktan kopan lider liderliği bırakmalı");
+        assertFalse(leader.awaitReadLease(100));
+        assertTrue(metrics[leader.getId()].getCounters().get("raft.quorum.stepdowns").get() > 0);
+        ExecutionException failed = assertThrows(ExecutionException.class,
+                () -> leader.propose(new byte[]{2}).get(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS));
+        assertTrue(failed.getCause() instanceof IllegalStateException);
+    }
+
+    private void allocatePeers() throws IOException {
+        for (int i = 0; i < nodes.length; i++) {
+            try (ServerSocket socket = new ServerSocket(0)) {
+                peers.add("localhost:" + socket.getLocalPort());
+            }
+        }
+    }
+
+    /**
+     * Node'u kendi klasörü ve yeni bir durum makinesiyle başlatır; snapshot eşiği birkaç kayıtta aşılacak kadar küçük
+     */
+    private void start(int id) throws IOException {
+        machines[id] = new Machine();
+        metrics[id] = new MetricsRegistry();
+        nodes[id] = new RaftNode(peers, id, directory.resolve("node-" + id), machines[id], metrics[id]);
+        nodes[id].setSnapshotThreshold(1024);
+        nodes[id].start();
+    }
+
+    /**
+     * Okuma kirası alan, yani çoğunluğun onayladığı ve bu term'in ilk kaydını uygulamış lideri bekler
+     * Açılışta iki node aynı anda seçim başlatıp ilk lideri düşürebilir
+     */
+    private RaftNode stableLeader() throws InterruptedException {
+        long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+        while (System.currentTimeMillis() < deadline) {
+            for (RaftNode node : nodes) {
+                if (node != null && node.isLeader() && node.awaitReadLease(RaftNode.ELECTION_TIMEOUT_MAX_MILLIS)) {
+                    return node;
+                }
+            }
+            Thread.sleep(20);
+        }
+        throw new AssertionError("lider seçilmedi");
+    }
+
+    /**
+     * "anahtar-i=değer" kayıtlarını commit edilene kadar önerir; liderlik kaybıyla düşen öneriler yeni lidere
+     * tekrar gönderilir (ilki de commit edilmiş olabilir, durum makinesi anahtar bazında yazdığı için zararsız)
+     */
+    private void proposeAll(int count) throws Exception {
+        List<Integer> remaining = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            remaining.add(i);
+        }
+        while (!remaining.isEmpty()) {
+            RaftNode leader = stableLeader();
+            Map<Integer, CompletableFuture<Long>> futures = new TreeMap<>();
+            for (int i : remaining) {
+                byte[] data = ("anahtar-" + i + "=" + "x".repeat(64)).getBytes(StandardCharsets.UTF_8);
+                futures.put(i, leader.propose(data));
+            }
+            remaining.clear();
+            for (Map.Entry<Integer, CompletableFuture<Long>> entry : futures.entrySet()) {
+                try {
+                    entry.getValue().get(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+                } catch (ExecutionException e) {
+                    remaining.add(entry.getKey());
+                }
+            }
+        }
+    }
+
+    private double gauge(int id, String name) {
+        return metrics[id].getGauges().get(name).value();
+    }
+
+    private static void awaitTrue(BooleanSupplier condition, String message) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.currentTimeMillis() < deadline, message);
+            Thread.sleep(20);
+        }
+    }
+
+    /**
+     * "anahtar=değer" kayıtlarını uygulayan durum makinesi (tekrar uygulama aynı sonucu verir)
+     */
+    private static final class Machine implements RaftNode.StateMachine {
+        private final Map<String, String> applied = new TreeMap<>();
+
+        @Override
+        public synchronized void apply(long index, byte[] data) {
+            String entry = new String(data, StandardCharsets.UTF_8);
+            int separator = entry.indexOf('=');
+            applied.put(entry.substring(0, separator), entry.substring(separator + 1));
+        }
+
+        @Override
+        public synchronized void snapshot(OutputStream out) throws IOException {
+            DataOutputStream data = new DataOutputStream(out);
+            data.writeInt(applied.size());
+            for (Map.Entry<String, String> entry : applied.entrySet()) {
+                data.writeUTF(entry.getKey());
+                data.writeUTF(entry.getValue());
+            }
+            data.flush();
+        }
+
+        @Override
+        public synchronized void restore(InputStream in) throws IOException {
+            DataInputStream data = new DataInputStream(in);
+            applied.clear();
+            int count = data.readInt();
+            for (int i = 0; i < count; i++) {
+                applied.put(data.readUTF(), data.readUTF());
+            }
+        }
+
+        synchronized int size() {
+            return applied.size();
+        }
+
+        synchronized Map<String, String> values() {
+            return new TreeMap<>(applied);
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.sistem.proje.storage;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MessageStorageLayoutTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void shardedLayoutSpreadsFilesOverTwoLevelHexBuckets() throws IOException {
+        try (MessageStorage storage = open(FileLayout.SHARDED)) {
+            for (int id = 0; id < 100; id++) {
+                storage.saveMessage(id, "mesaj-" + id);
+            }
+            assertEquals("mesaj-42", storage.getMessage(42));
+            assertEquals(100, storage.getMessageCount());
+        }
+
+        List<Path> files = messageFiles();
+        assertEquals(100, files.size());
+        long buckets = files.stream().map(Path::getParent).distinct().count();
+        assertTrue(buckets > 50, "ardışık id'ler farklı bucket'lara dağılmalı: " + buckets);
+        for (Path file : files) {
+            Path relative = directory.relativize(file);
+            assertEquals(3, relative.getNameCount(), relative.toString());
+            assertTrue(relative.getName(0).toString().matches("[0-9a-f]{2}"), relative.toString());
+            assertTrue(relative.getName(1).toString().matches("[0-9a-f]{2}"), relative.toString());
+        }
+    }
+
+    @Test
+    void migrationMovesFlatFilesWhileWritesAndDeletesContinue() throws Exception {
+        int count = 3000;
+        try (MessageStorage storage = open(FileLayout.FLAT)) {
+            for (int id = 0; id < count; id++) {
+                storage.saveMessage(id, "eski-" + id);
+            }
+        }
+
+        try (MessageStorage storage = open(FileLayout.SHARDED)) {
+            // Taşıma sürerken yazılan ve silinen ID'ler taşıyıcı tarafından eski haline döndürülmemeli
+            for (int id = 0; id < 200; id++) {
+                if (id % 2 == 0) {
+                    storage.saveMessage(id, "yeni-" + id);
+                } else {
+                    assertTrue(storage.deleteMessage(id));
+                }
+                assertEquals("eski-" + (count - 1 - id), storage.getMessage(count - 1 - id),
+                        "taşınmamış mesaj okunabilmeli");
+            }
+            awaitMigration(storage);
+
+            for (int id = 0; id < count; id++) {
+                String expected = id >= 200 ? "eski-" + id : id % 2 == 0 ? "yeni-" + id : null;
+                assertEquals(expected, storage.getMessage(id), "id " + id);
+            }
+            assertEquals(count - 100, storage.getMessageCount());
+        }
+        try (Stream<Path> flat = Files.list(directory)) {
+            assertFalse(flat.anyMatch(path -> path.toString().endsWith(".msg")), "düz yerleşimde dosya kalmamalı");
+        }
+        assertEquals(count - 100, messageFiles().size());
+    }
+
+    @Test
+    void staleFlatCopyDoesNotOverrideShardedFile() throws Exception {
+        try (MessageStorage storage = open(FileLayout.SHARDED)) {
+            storage.saveMessage(5, "yeni");
+            storage.saveMessage(6, "altı");
+        }
+        // Çökme sonrası iki yerleşimde de kopya kalmış: hard link FileAlreadyExistsException alır
+        Files.write(directory.resolve("5.msg"), "eski".getBytes(StandardCharsets.UTF_8));
+        Files.write(directory.resolve("7.msg"), "yedi".getBytes(StandardCharsets.UTF_8));
+
+        try (MessageStorage storage = open(FileLayout.SHARDED)) {
+            awaitMigration(storage);
+            assertEquals("yeni", storage.getMessage(5), "bucket'taki daha yeni kopya korunmalı");
+            assertEquals("altı", storage.getMessage(6));
+            assertEquals("yedi", storage.getMessage(7));
+            assertNull(storage.getMessage(8));
+            assertEquals(3, storage.getMessageCount());
+        }
+        assertFalse(Files.exists(directory.resolve("5.msg")));
+        assertFalse(Files.exists(directory.resolve("7.msg")));
+    }
+
+    @Test
+    void flatLayoutIsDefault() throws IOException {
+        try (MessageStorage storage = new MessageStorage(directory, IOMode.CHANNEL)) {
+            assertEquals(FileLayout.FLAT, storage.getLayout());
+            storage.saveMessage(1, "bir");
+        }
+        assertTrue(Files.exists(directory.resolve("1.msg")));
+    }
+
+    private MessageStorage open(FileLayout layout) {
+        return new MessageStorage(directory, new StorageOptions().setIoMode(IOMode.CHANNEL).setLayout(layout));
+    }
+
+    private List<Path> messageFiles() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            return files.filter(path -> path.toString().endsWith(".msg")).collect(Collectors.toList());
+        }
+    }
+
+    private static void awaitMigration(MessageStorage storage) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (storage.isMigrating()) {
+            assertTrue(System.nanoTime() < deadline, "taşıma bitmeli");
+            Thread.sleep(10);
+        }
+    }
+}
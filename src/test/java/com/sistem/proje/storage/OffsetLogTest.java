@@ -0,0 +1,200 @@
+package com.sistem.proje.storage;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OffsetLogTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void appendAssignsSequentialOffsets() throws IOException {
+        try (OffsetLog log = new OffsetLog(directory)) {
+            for (int i = 0; i < 10; i++) {
+                assertEquals(i, log.append(payload(i).getBytes(StandardCharsets.UTF_8)));
+            }
+            assertEquals(10, log.endOffset());
+        }
+        try (OffsetLog log = new OffsetLog(directory)) {
+            assertEquals(10, log.endOffset());
+            assertEquals(10, log.append("sonraki".getBytes(StandardCharsets.UTF_8)));
+        }
+    }
+
+    @Test
+    void readStartsFromEveryOffsetAcrossIndexPoints() throws IOException {
+        int count = 300;
+        try (OffsetLog log = new OffsetLog(directory)) {
+            for (int i = 0; i < count; i++) {
+                log.append(payload(i).getBytes(StandardCharsets.UTF_8));
+            }
+            // Seyrek index her 64 kayıtta bir nokta tutar; her başlangıç offset'i en yakın noktadan bulunmalı
+            for (int offset = 0; offset < count; offset++) {
+                List<String> records = readRecords(log, offset, OffsetLog.MAX_READ_BYTES, 3);
+                int expected = Math.min(3, count - offset);
+                assertEquals(expected, records.size(), "offset " + offset);
+                for (int i = 0; i < expected; i++) {
+                    assertEquals(payload(offset + i), records.get(i));
+                }
+            }
+        }
+    }
+
+    @Test
+    void readRespectsByteLimitButReturnsOversizedFirstRecord() throws IOException {
+        try (OffsetLog log = new OffsetLog(directory)) {
+            log.append(new byte[100]);
+            log.append(new byte[10]);
+            log.append(new byte[10]);
+
+            LogBatch batch = log.read(0, 50);
+            assertEquals(1, batch.getRecordCount(), "ilk kayıt limitten büyük olsa da tek başına dönmeli");
+            assertEquals(1, batch.getNextOffset());
+
+            batch = log.read(1, 2 * (OffsetLog.HEADER_SIZE + 10));
+            assertEquals(2, batch.getRecordCount());
+            assertEquals(3, batch.getNextOffset());
+        }
+    }
+
+    @Test
+    void readAtOrPastEndReturnsEmptyBatch() throws IOException {
+        try (OffsetLog log = new OffsetLog(directory)) {
+            log.append(new byte[]{1});
+            LogBatch atEnd = log.read(1, 1024);
+            assertEquals(0, atEnd.getRecordCount());
+            assertEquals(1, atEnd.getNextOffset());
+
+            LogBatch pastEnd = log.read(50, 1024);
+            assertEquals(0, pastEnd.getRecordCount());
+            assertEquals(1, pastEnd.getNextOffset(), "log sonunun ötesi log sonuna çekilmeli");
+
+            assertThrows(IllegalArgumentException.class, () -> log.read(0, 0));
+        }
+    }
+
+    @Test
+    void readingAllRecordsFollowsNextOffsetAcrossSegments() throws IOException {
+        int count = 500;
+        try (OffsetLog log = new OffsetLog(directory, 2048)) {
+            for (int i = 0; i < count; i++) {
+                log.append(payload(i).getBytes(StandardCharsets.UTF_8));
+            }
+            assertTrue(segmentFiles().size() > 1, "küçük segment boyutu birden fazla segment açmalı");
+
+            List<String> all = new ArrayList<>();
+            long offset = 0;
+            while (offset < log.endOffset()) {
+                LogBatch batch = log.read(offset, 700);
+                assertTrue(batch.getRecordCount() > 0);
+                all.addAll(decode(batch));
+                offset = batch.getNextOffset();
+            }
+            assertEquals(count, all.size());
+            for (int i = 0; i < count; i++) {
+                assertEquals(payload(i), all.get(i));
+            }
+        }
+    }
+
+    @Test
+    void recoveryStopsAtRecordWithBadChecksum() throws IOException {
+        long corruptPosition = 0;
+        try (OffsetLog log = new OffsetLog(directory)) {
+            for (int i = 0; i < 10; i++) {
+                if (i == 7) {
+                    corruptPosition = log.totalBytes() + OffsetLog.HEADER_SIZE;
+                }
+                log.append(payload(i).getBytes(StandardCharsets.UTF_8));
+            }
+        }
+        Path segment = segmentFiles().get(0);
+        long sizeBefore = Files.size(segment);
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[]{'#'}), corruptPosition);
+        }
+
+        try (OffsetLog log = new OffsetLog(directory)) {
+            assertEquals(7, log.endOffset(), "CRC'si tutmayan kayıt ve sonrası atılmalı");
+            assertTrue(Files.size(segment) < sizeBefore);
+            List<String> records = readRecords(log, 0, OffsetLog.MAX_READ_BYTES, Integer.MAX_VALUE);
+            assertEquals(7, records.size());
+            assertEquals(payload(6), records.get(6));
+
+            assertEquals(7, log.append("yeni".getBytes(StandardCharsets.UTF_8)));
+            assertEquals("yeni", readRecords(log, 7, OffsetLog.MAX_READ_BYTES, 1).get(0));
+        }
+    }
+
+    @Test
+    void recoveryTruncatesTornTail() throws IOException {
+        try (OffsetLog log = new OffsetLog(directory)) {
+            for (int i = 0; i < 5; i++) {
+                log.append(payload(i).getBytes(StandardCharsets.UTF_8));
+            }
+        }
+        Path segment = segmentFiles().get(0);
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            channel.truncate(Files.size(segment) - 3);
+        }
+
+        try (OffsetLog log = new OffsetLog(directory)) {
+            assertEquals(4, log.endOffset());
+            assertEquals(payload(3), readRecords(log, 3, OffsetLog.MAX_READ_BYTES, 1).get(0));
+        }
+    }
+
+    private List<Path> segmentFiles() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            List<Path> segments = new ArrayList<>();
+            files.filter(path -> path.toString().endsWith(OffsetLog.SEGMENT_EXTENSION)).sorted().forEach(segments::add);
+            return segments;
+        }
+    }
+
+    private static String payload(int i) {
+        return "kayıt-" + i + "-" + "y".repeat(i % 23);
+    }
+
+    private static List<String> readRecords(OffsetLog log, long offset, int maxBytes, int maxRecords)
+            throws IOException {
+        LogBatch batch = log.read(offset, maxBytes, maxRecords);
+        assertEquals(offset, batch.getFirstOffset());
+        List<String> records = decode(batch);
+        assertEquals(batch.getRecordCount(), records.size());
+        return records;
+    }
+
+    /**
+     * Batch'i hemen çözer: buffer thread'e özel havuzdandır, bir sonraki okumada üzerine yazılır
+     */
+    private static List<String> decode(LogBatch batch) {
+        ByteBuffer records = batch.getRecords().duplicate();
+        List<String> payloads = new ArrayList<>();
+        long expectedOffset = batch.getFirstOffset();
+        while (records.hasRemaining()) {
+            assertEquals(expectedOffset++, records.getLong());
+            byte[] bytes = new byte[records.getInt()];
+            records.getInt();
+            records.get(bytes);
+            payloads.add(new String(bytes, StandardCharsets.UTF_8));
+        }
+        return payloads;
+    }
+}
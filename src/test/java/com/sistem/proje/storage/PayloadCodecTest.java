@@ -0,0 +1,151 @@
+package com.sistem.proje.storage;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PayloadCodecTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void compressedFrameRoundTrips() throws IOException {
+        String message = repeated("sipariş oluşturuldu, müşteri=42, ürün=çay; ", 200);
+        byte[] raw = message.getBytes(StandardCharsets.UTF_8);
+        byte[] frame = frame(message, 0);
+
+        assertTrue(frame.length < raw.length / 4, "tekrarlı metin belirgin küçülmeli: " + frame.length);
+        assertTrue(PayloadCodec.isCompressed(frame, frame.length));
+        assertFalse(PayloadCodec.isCompressed(raw, raw.length), "ham UTF-8 sıkıştırılmış sayılmamalı");
+        assertEquals(message, PayloadCodec.decompress(frame, frame.length));
+
+        ByteBuffer buffer = PayloadCodec.decompressToBuffer(ByteBuffer.wrap(frame), 13, 1);
+        assertEquals(13, buffer.position());
+        byte[] inflated = new byte[buffer.remaining()];
+        buffer.get(inflated);
+        assertArrayEquals(raw, inflated);
+        assertTrue(buffer.capacity() >= 13 + raw.length + 1, "trailer için yer bırakılmalı");
+    }
+
+    @Test
+    void reservedHeaderSpaceIsLeftInFront() throws IOException {
+        String message = repeated("abc", 1000);
+        ByteBuffer frame = PayloadCodec.compress(message, message.length(), Compression.DEFLATE, 16);
+        assertEquals(0, frame.position());
+        frame.position(16);
+        assertTrue(PayloadCodec.isCompressed(frame));
+        assertEquals(message, PayloadCodec.decompress(frame));
+    }
+
+    @Test
+    void incompressiblePayloadFallsBackToRaw() {
+        String message = noise(24);
+        assertNull(PayloadCodec.compress(message, message.length(), Compression.DEFLATE, 0),
+                "yer kazandırmayan sıkıştırma kullanılmamalı");
+    }
+
+    @Test
+    void corruptFramesAreRejected() {
+        byte[] frame = frame(repeated("bozuk kayıt ", 100), 0);
+
+        byte[] unknownAlgorithm = frame.clone();
+        unknownAlgorithm[1] = 9;
+        assertThrows(IOException.class, () -> PayloadCodec.decompress(unknownAlgorithm, unknownAlgorithm.length));
+
+        byte[] truncated = Arrays.copyOf(frame, frame.length / 2);
+        assertThrows(IOException.class, () -> PayloadCodec.decompress(truncated, truncated.length));
+
+        byte[] negativeLength = frame.clone();
+        ByteBuffer.wrap(negativeLength).putInt(2, -1);
+        assertThrows(IOException.class, () -> PayloadCodec.decompress(negativeLength, negativeLength.length));
+    }
+
+    @ParameterizedTest
+    @EnumSource(IOMode.class)
+    void storageCompressesOnlyLargeCompressiblePayloads(IOMode ioMode) throws IOException {
+        String large = repeated("tekrarlanan metin ", 500);
+        String small = "kısa";
+        String noise = noise(24);
+        StorageOptions options = new StorageOptions().setIoMode(ioMode).setCompression(Compression.DEFLATE)
+                .setCompressionThreshold(16);
+        try (MessageStorage storage = new MessageStorage(directory, options)) {
+            storage.saveMessage(1, large);
+            storage.saveMessage(2, small);
+            storage.saveMessage(3, noise);
+            assertEquals(large, storage.getMessage(1));
+            assertEquals(small, storage.getMessage(2));
+            assertEquals(noise, storage.getMessage(3));
+
+            // GET yolu çerçeveyi açıp satır sonuyla yazar
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            MessageFrame line = MessageFrame.trailer(new byte[] {'\n'});
+            assertEquals(large.getBytes(StandardCharsets.UTF_8).length,
+                    storage.writeMessage(1, Channels.newChannel(out), line, 64));
+            assertEquals(large + "\n", out.toString(StandardCharsets.UTF_8));
+        }
+        if (ioMode != IOMode.LOG) {
+            assertTrue(Files.size(directory.resolve("1.msg")) < large.length() / 4, "büyük kayıt sıkıştırılmalı");
+            assertArrayEquals(small.getBytes(StandardCharsets.UTF_8), Files.readAllBytes(directory.resolve("2.msg")),
+                    "eşik altı kayıt ham saklanmalı");
+            assertArrayEquals(noise.getBytes(StandardCharsets.UTF_8), Files.readAllBytes(directory.resolve("3.msg")),
+                    "sıkışmayan kayıt ham saklanmalı");
+        }
+
+        // Sıkıştırma kapatıldığında eski sıkıştırılmış kayıtlar okunmaya devam eder
+        try (MessageStorage storage = new MessageStorage(directory, new StorageOptions().setIoMode(ioMode))) {
+            assertEquals(Compression.NONE, storage.getCompression());
+            assertEquals(large, storage.getMessage(1));
+            assertEquals(small, storage.getMessage(2));
+        }
+    }
+
+    /**
+     * compress'in thread'e özel buffer'ındaki çerçevenin kopyası
+     */
+    private static byte[] frame(String message, int reserved) {
+        ByteBuffer frame = PayloadCodec.compress(message, message.getBytes(StandardCharsets.UTF_8).length,
+                Compression.DEFLATE, reserved);
+        byte[] bytes = new byte[frame.remaining()];
+        frame.get(bytes);
+        return bytes;
+    }
+
+    /**
+     * Tekrar içermeyen rastgele ASCII metin; kısa olduğunda deflate çıktısı girdiden büyük olur
+     */
+    private static String noise(int length) {
+        Random random = new Random(length);
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < length; i++) {
+            builder.append((char) ('!' + random.nextInt(94)));
+        }
+        return builder.toString();
+    }
+
+    private static String repeated(String text, int count) {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            builder.append(text).append(i % 10);
+        }
+        return builder.toString();
+    }
+}
@@ -0,0 +1,269 @@
+package com.sistem.proje.storage;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SegmentLogTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void appendOverwriteAndTombstone() throws IOException {
+        try (SegmentLog log = new SegmentLog(directory)) {
+            assertFalse(log.append(1, record("bir")));
+            assertFalse(log.append(2, record("iki")));
+            assertTrue(log.append(1, record("bir-yeni")), "ikinci yazma önceki kaydın üzerine yazmalı");
+
+            assertEquals("bir-yeni", read(log, 1));
+            assertEquals("iki", read(log, 2));
+            assertEquals(2, log.size());
+
+            assertTrue(log.delete(2));
+            assertFalse(log.delete(2), "olmayan kayıt silinmemeli");
+            assertNull(log.read(2));
+            assertFalse(log.contains(2));
+            assertEquals(1, log.size());
+        }
+
+        // Index açılışta segment'lerden aynı şekilde kurulmalı
+        try (SegmentLog log = new SegmentLog(directory)) {
+            assertEquals("bir-yeni", read(log, 1));
+            assertNull(log.read(2));
+            assertEquals(1, log.size());
+        }
+    }
+
+    @Test
+    void liveBytesTrackOverwritesAndDeletes() throws IOException {
+        try (SegmentLog log = new SegmentLog(directory)) {
+            log.append(1, record("aaaa"));
+            log.append(1, record("bbbbbbbb"));
+            log.append(2, record("cc"));
+            log.delete(2);
+
+            long live = SegmentLog.HEADER_SIZE + 8;
+            long total = 3L * SegmentLog.HEADER_SIZE + 4 + 8 + 2 + SegmentLog.HEADER_SIZE;
+            assertEquals(live, log.liveBytes());
+            assertEquals(total, log.totalBytes());
+        }
+    }
+
+    @Test
+    void tornTailIsTruncatedOnRecovery() throws IOException {
+        try (SegmentLog log = new SegmentLog(directory)) {
+            log.append(1, record("tam kayıt"));
+            log.append(2, record("yarım kalacak kayıt"));
+        }
+        Path segment = onlySegment();
+        long size = Files.size(segment);
+        // Son kaydın payload'ının yarısı diske ulaşmamış gibi kesilir
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            channel.truncate(size - 5);
+        }
+
+        long firstRecord = SegmentLog.HEADER_SIZE + "tam kayıt".getBytes(StandardCharsets.UTF_8).length;
+        try (SegmentLog log = new SegmentLog(directory)) {
+            assertEquals("tam kayıt", read(log, 1));
+            assertNull(log.read(2));
+            assertEquals(firstRecord, Files.size(segment), "bozuk kuyruk kesilmeli");
+
+            // Kesilen yerden yazmaya devam edilebilmeli
+            log.append(3, record("sonraki"));
+        }
+        try (SegmentLog log = new SegmentLog(directory)) {
+            assertEquals("tam kayıt", read(log, 1));
+            assertEquals("sonraki", read(log, 3));
+        }
+    }
+
+    @Test
+    void recordWithBadChecksumEndsRecovery() throws IOException {
+        try (SegmentLog log = new SegmentLog(directory)) {
+            log.append(1, record("sağlam"));
+            log.append(2, record("bozulacak"));
+        }
+        Path segment = onlySegment();
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            // Son byte (ikinci kaydın payload'ı) değiştirilir
+            channel.write(ByteBuffer.wrap(new byte[]{'X'}), Files.size(segment) - 1);
+        }
+
+        try (SegmentLog log = new SegmentLog(directory)) {
+            assertEquals("sağlam", read(log, 1));
+            assertNull(log.read(2));
+        }
+    }
+
+    @Test
+    void leftoverCompactionFileIsDeletedOnRecovery() throws IOException {
+        try (SegmentLog log = new SegmentLog(directory)) {
+            log.append(1, record("değer"));
+        }
+        Path leftover = directory.resolve("00000000000000000000" + SegmentLog.SEGMENT_EXTENSION
+                + SegmentLog.COMPACT_EXTENSION);
+        Files.write(leftover, new byte[]{1, 2, 3});
+
+        try (SegmentLog log = new SegmentLog(directory)) {
+            assertFalse(Files.exists(leftover));
+            assertEquals("değer", read(log, 1));
+        }
+    }
+
+    @Test
+    void compactionKeepsLatestValuesAndDropsDeleted() throws IOException {
+        try (SegmentLog log = new SegmentLog(directory, 1024)) {
+            for (int round = 0; round < 3; round++) {
+                for (int id = 0; id < 50; id++) {
+                    log.append(id, record(value(id, round)));
+                }
+            }
+            for (int id = 0; id < 50; id += 5) {
+                log.delete(id);
+            }
+            long before = log.totalBytes();
+            for (SegmentLog.SegmentInfo segment : log.inactiveSegments()) {
+                log.compact(segment.id, bytes -> { });
+            }
+            assertTrue(log.totalBytes() < before, "compaction alan geri kazanmalı");
+            assertExpected(log, 2);
+        }
+        try (SegmentLog log = new SegmentLog(directory, 1024)) {
+            assertExpected(log, 2);
+        }
+    }
+
+    @Test
+    void readsAndTransfersStayConsistentDuringCompaction() throws Exception {
+        int ids = 200;
+        try (SegmentLog log = new SegmentLog(directory, 4096)) {
+            // Her ID birkaç kez yazılır, eski segment'ler çoğunlukla ölü kayıt içerir
+            for (int round = 0; round < 4; round++) {
+                for (int id = 0; id < ids; id++) {
+                    log.append(id, record(value(id, round)));
+                }
+            }
+
+            AtomicBoolean running = new AtomicBoolean(true);
+            AtomicLong reads = new AtomicLong();
+            ConcurrentLinkedQueue<Throwable> failures = new ConcurrentLinkedQueue<>();
+            List<Thread> readers = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                long seed = t;
+                Thread reader = new Thread(() -> {
+                    Random random = new Random(seed);
+                    try {
+                        while (running.get()) {
+                            int id = random.nextInt(ids);
+                            String expected = value(id, 3);
+                            if (random.nextBoolean()) {
+                                assertEquals(expected, read(log, id));
+                            } else {
+                                ByteArrayOutputStream out = new ByteArrayOutputStream();
+                                long transferred = log.transferTo(id, Channels.newChannel(out), 0);
+                                assertEquals(out.size(), transferred);
+                                assertEquals(expected, out.toString(StandardCharsets.UTF_8));
+                            }
+                            reads.incrementAndGet();
+                        }
+                    } catch (Throwable e) {
+                        failures.add(e);
+                    }
+                }, "segment-reader-" + t);
+                readers.add(reader);
+                reader.start();
+            }
+
+            long before = log.totalBytes();
+            for (int pass = 0; pass < 3; pass++) {
+                for (SegmentLog.SegmentInfo segment : log.inactiveSegments()) {
+                    log.compact(segment.id, bytes -> Thread.yield());
+                }
+            }
+            running.set(false);
+            for (Thread reader : readers) {
+                reader.join();
+            }
+
+            if (!failures.isEmpty()) {
+                throw new AssertionError("okuma compaction sırasında başarısız oldu", failures.peek());
+            }
+            assertTrue(reads.get() > 0);
+            assertTrue(log.totalBytes() < before, "compaction alan geri kazanmalı");
+            assertExpected(log, ids, 3);
+        }
+    }
+
+    private static void assertExpected(SegmentLog log, int round) throws IOException {
+        for (int id = 0; id < 50; id++) {
+            if (id % 5 == 0) {
+                assertNull(log.read(id), "silinen kayıt compaction sonrası dönmemeli: " + id);
+            } else {
+                assertEquals(value(id, round), read(log, id));
+            }
+        }
+    }
+
+    private static void assertExpected(SegmentLog log, int ids, int round) throws IOException {
+        for (int id = 0; id < ids; id++) {
+            assertEquals(value(id, round), read(log, id));
+        }
+    }
+
+    private Path onlySegment() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            List<Path> segments = new ArrayList<>();
+            files.filter(path -> path.toString().endsWith(SegmentLog.SEGMENT_EXTENSION)).forEach(segments::add);
+            assertEquals(1, segments.size());
+            return segments.get(0);
+        }
+    }
+
+    private static String value(int id, int round) {
+        return "mesaj-" + id + "-tur-" + round + "-" + "x".repeat(id % 17);
+    }
+
+    /**
+     * append'in beklediği buffer: ilk HEADER_SIZE byte başlık için boş, ardından payload
+     */
+    private static ByteBuffer record(String payload) {
+        byte[] bytes = payload.getBytes(StandardCharsets.UTF_8);
+        ByteBuffer record = ByteBuffer.allocate(SegmentLog.HEADER_SIZE + bytes.length);
+        record.position(SegmentLog.HEADER_SIZE);
+        record.put(bytes);
+        record.flip();
+        return record;
+    }
+
+    private static String read(SegmentLog log, int id) throws IOException {
+        ByteBuffer payload = log.read(id);
+        if (payload == null) {
+            return null;
+        }
+        byte[] bytes = new byte[payload.remaining()];
+        payload.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,115 @@
+package com.sistem.proje.storage;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReadWriteLock;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StripedLockTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void stripeCountIsRoundedAndIdsMapStably() {
+        assertEquals(1, distinctStripes(new StripedLock(1), 1000));
+        assertEquals(1, distinctStripes(new StripedLock(0), 1000), "geçersiz sayı tek kilide düşmeli");
+        assertEquals(8, distinctStripes(new StripedLock(5), 1000), "5, 8'e yuvarlanmalı");
+
+        StripedLock locks = new StripedLock(1024);
+        assertSame(locks.forId(42), locks.forId(42), "aynı ID hep aynı kilidi almalı");
+        assertSame(locks.forId(-7), locks.forId(-7));
+        // Ardışık ID'ler Fibonacci hashing ile stripe'lara yayılmalı
+        assertTrue(distinctStripes(locks, 1024) > 600, "ardışık ID'ler dağılmalı: " + distinctStripes(locks, 1024));
+    }
+
+    @ParameterizedTest
+    @EnumSource(IOMode.class)
+    void concurrentSetAndGetOnSameIdNeverSeePartialMessage(IOMode ioMode) throws Exception {
+        // Farklı uzunlukta iki mesaj: TRUNCATE ile yeniden yazılırken okunursa kısa, karışık veya boş içerik görülür
+        String first = "a".repeat(64 * 1024);
+        String second = "ğ".repeat(20 * 1024) + "son";
+        Set<String> valid = Set.of(first, second);
+
+        ExecutorService executor = Executors.newFixedThreadPool(6);
+        AtomicBoolean running = new AtomicBoolean(true);
+        try (MessageStorage storage = new MessageStorage(directory, new StorageOptions().setIoMode(ioMode))) {
+            storage.saveMessage(1, first);
+            List<Future<?>> tasks = new ArrayList<>();
+            for (int w = 0; w < 2; w++) {
+                int offset = w;
+                tasks.add(executor.submit(() -> {
+                    for (int i = 0; i < 200; i++) {
+                        storage.saveMessage(1, (i + offset) % 2 == 0 ? first : second);
+                    }
+                    return null;
+                }));
+            }
+            for (int r = 0; r < 2; r++) {
+                tasks.add(executor.submit(() -> {
+                    while (running.get()) {
+                        String message = storage.getMessage(1);
+                        assertTrue(valid.contains(message), "yarım okundu: uzunluk " + lengthOf(message));
+                    }
+                    return null;
+                }));
+                tasks.add(executor.submit(() -> {
+                    MessageFrame line = MessageFrame.trailer(new byte[] {'\n'});
+                    while (running.get()) {
+                        ByteArrayOutputStream out = new ByteArrayOutputStream();
+                        storage.writeMessage(1, Channels.newChannel(out), line, 16 * 1024);
+                        String message = out.toString(StandardCharsets.UTF_8);
+                        assertTrue(message.endsWith("\n") && valid.contains(message.substring(0, message.length() - 1)),
+                                "GET yolunda yarım okundu: uzunluk " + message.length());
+                    }
+                    return null;
+                }));
+            }
+
+            for (Future<?> writer : tasks.subList(0, 2)) {
+                writer.get(60, TimeUnit.SECONDS);
+            }
+            running.set(false);
+            for (Future<?> task : tasks) {
+                task.get(60, TimeUnit.SECONDS);
+            }
+            assertTrue(valid.contains(storage.getMessage(1)));
+            assertEquals(1, storage.getMessageCount());
+        } finally {
+            running.set(false);
+            executor.shutdownNow();
+        }
+    }
+
+    private static int distinctStripes(StripedLock locks, int ids) {
+        Set<ReadWriteLock> stripes = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (int id = 0; id < ids; id++) {
+            stripes.add(locks.forId(id));
+        }
+        return stripes.size();
+    }
+
+    private static int lengthOf(String message) {
+        return message == null ? -1 : message.length();
+    }
+}
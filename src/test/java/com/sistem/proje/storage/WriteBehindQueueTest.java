@@ -0,0 +1,214 @@
+package com.sistem.proje.storage;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class WriteBehindQueueTest {
+    private static final long TIMEOUT_SECONDS = 10;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void enqueuedAcksBeforeWriteAndServesPendingReads() throws Exception {
+        GatedStorage storage = new GatedStorage(directory);
+        try (WriteBehindQueue queue = new WriteBehindQueue(storage, AckMode.ENQUEUED)) {
+            CompletableFuture<Void> ack = queue.submit(1, "bekleyen");
+            assertTrue(ack.isDone(), "ENQUEUED kuyruğa alınınca onaylamalı");
+            assertEquals("bekleyen", queue.getPending(1), "kuyruktaki yazma okunabilmeli");
+
+            storage.awaitSaveStarted();
+            assertNull(storage.getMessage(1));
+            storage.saveGate.countDown();
+
+            awaitWritten(queue, 1);
+            assertEquals("bekleyen", storage.getMessage(1));
+            assertNull(queue.getPending(1));
+        }
+    }
+
+    @Test
+    void writtenAcksAfterStorageWriteWithoutSync() throws Exception {
+        GatedStorage storage = new GatedStorage(directory);
+        try (WriteBehindQueue queue = new WriteBehindQueue(storage, AckMode.WRITTEN)) {
+            CompletableFuture<Void> ack = queue.submit(1, "mesaj");
+            storage.awaitSaveStarted();
+            assertFalse(ack.isDone(), "WRITTEN yazma bitmeden onaylamamalı");
+
+            storage.saveGate.countDown();
+            ack.get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            assertEquals("mesaj", storage.getMessage(1));
+            assertEquals(0, storage.syncs.get(), "WRITTEN fsync yapmamalı");
+        }
+    }
+
+    @Test
+    void fsyncedAcksAfterBatchSync() throws Exception {
+        GatedStorage storage = new GatedStorage(directory);
+        storage.saveGate.countDown();
+        try (WriteBehindQueue queue = new WriteBehindQueue(storage, AckMode.FSYNCED)) {
+            CompletableFuture<Void> ack = queue.submit(1, "kalıcı");
+            storage.awaitSyncStarted();
+            assertEquals("kalıcı", storage.getMessage(1));
+            assertFalse(ack.isDone(), "FSYNCED fsync bitmeden onaylamamalı");
+
+            storage.syncGate.countDown();
+            ack.get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            assertEquals(1, storage.syncs.get());
+        }
+    }
+
+    @Test
+    void batchCoalescesWritesToSameIdAndSyncsOnce() throws Exception {
+        GatedStorage storage = new GatedStorage(directory);
+        storage.syncGate.countDown();
+        try (WriteBehindQueue queue = new WriteBehindQueue(storage, AckMode.FSYNCED)) {
+            // İlk yazma writer'ı bekletir, sonrakiler tek batch'te toplanır
+            CompletableFuture<Void> first = queue.submit(0, "ilk");
+            storage.awaitSaveStarted();
+            List<CompletableFuture<Void>> acks = new ArrayList<>();
+            for (int i = 0; i < 5; i++) {
+                acks.add(queue.submit(7, "sürüm-" + i));
+            }
+            assertEquals("sürüm-4", queue.getPending(7));
+
+            storage.saveGate.countDown();
+            first.get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            for (CompletableFuture<Void> ack : acks) {
+                ack.get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            }
+            assertEquals("sürüm-4", storage.getMessage(7));
+            assertEquals(2, storage.saves.get(), "aynı ID'nin batch'teki yazmaları tek yazmaya inmeli");
+            assertEquals(2, storage.syncs.get(), "batch başına tek fsync yapılmalı");
+        }
+    }
+
+    @Test
+    void writeFailureCompletesFutureExceptionally() throws Exception {
+        GatedStorage storage = new GatedStorage(directory);
+        storage.saveGate.countDown();
+        storage.failSaves = true;
+        try (WriteBehindQueue queue = new WriteBehindQueue(storage, AckMode.WRITTEN)) {
+            CompletableFuture<Void> ack = queue.submit(1, "yazılamaz");
+            ExecutionException failure = assertThrows(ExecutionException.class,
+                    () -> ack.get(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+            assertInstanceOf(IOException.class, failure.getCause());
+            assertNull(queue.getPending(1), "başarısız yazma kuyruktan çıkmalı");
+        }
+    }
+
+    @Test
+    void fullQueueRejectsAfterTimeout() throws Exception {
+        GatedStorage storage = new GatedStorage(directory);
+        try (WriteBehindQueue queue = new WriteBehindQueue(storage, AckMode.WRITTEN, 1, 1, 50)) {
+            queue.submit(1, "yazılıyor");
+            storage.awaitSaveStarted();
+            queue.submit(2, "kuyrukta");
+
+            assertThrows(RejectedExecutionException.class, () -> queue.submit(3, "sığmaz"));
+            assertEquals(1, queue.getRejected());
+            assertNull(queue.getPending(3), "reddedilen yazma okumalarda görünmemeli");
+            storage.saveGate.countDown();
+        }
+    }
+
+    @Test
+    void closeDrainsQueueAndRejectsNewWrites() throws Exception {
+        GatedStorage storage = new GatedStorage(directory);
+        storage.saveGate.countDown();
+        WriteBehindQueue queue = new WriteBehindQueue(storage, AckMode.WRITTEN);
+        List<CompletableFuture<Void>> acks = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            acks.add(queue.submit(i, "mesaj-" + i));
+        }
+        queue.close();
+
+        for (CompletableFuture<Void> ack : acks) {
+            assertTrue(ack.isDone() && !ack.isCompletedExceptionally(), "close kuyruktakileri yazmalı");
+        }
+        assertEquals("mesaj-99", storage.getMessage(99));
+        assertThrows(RejectedExecutionException.class, () -> queue.submit(100, "geç"));
+    }
+
+    private static void awaitWritten(WriteBehindQueue queue, long count) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(TIMEOUT_SECONDS);
+        while (queue.getWritten() < count) {
+            assertTrue(System.nanoTime() < deadline, "writer yazmayı bitirmedi");
+            Thread.sleep(5);
+        }
+    }
+
+    /**
+     * Yazma ve fsync'i kapılarla bekleten storage: testler onayın hangi aşamada geldiğini gözleyebilir
+     */
+    private static final class GatedStorage extends MessageStorage {
+        final CountDownLatch saveGate = new CountDownLatch(1);
+        final CountDownLatch syncGate = new CountDownLatch(1);
+        final CountDownLatch saveStarted = new CountDownLatch(1);
+        final CountDownLatch syncStarted = new CountDownLatch(1);
+        final AtomicInteger saves = new AtomicInteger();
+        final AtomicInteger syncs = new AtomicInteger();
+        volatile boolean failSaves;
+
+        GatedStorage(Path directory) {
+            super(directory, new StorageOptions());
+        }
+
+        @Override
+        public void saveMessage(Integer id, String message) throws IOException {
+            saveStarted.countDown();
+            await(saveGate);
+            if (failSaves) {
+                throw new IOException("disk dolu");
+            }
+            saves.incrementAndGet();
+            super.saveMessage(id, message);
+        }
+
+        @Override
+        public void sync(Collection<Integer> ids) throws IOException {
+            syncStarted.countDown();
+            await(syncGate);
+            syncs.incrementAndGet();
+            super.sync(ids);
+        }
+
+        void awaitSaveStarted() throws InterruptedException {
+            assertTrue(saveStarted.await(TIMEOUT_SECONDS, TimeUnit.SECONDS), "writer yazmaya başlamadı");
+        }
+
+        void awaitSyncStarted() throws InterruptedException {
+            assertTrue(syncStarted.await(TIMEOUT_SECONDS, TimeUnit.SECONDS), "writer fsync'e başlamadı");
+        }
+
+        private static void await(CountDownLatch gate) throws IOException {
+            try {
+                if (!gate.await(TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                    throw new IOException("kapı açılmadı");
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("kesildi", e);
+            }
+        }
+    }
+}